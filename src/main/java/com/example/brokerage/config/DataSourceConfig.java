@@ -0,0 +1,38 @@
+package com.example.brokerage.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+@Configuration
+public class DataSourceConfig {
+
+    /**
+     * Hikari havuzunu {@link LimitedDataSource} ile sarar; sınır havuz boyutu ile bekleme sınırının toplamıdır.
+     * Havuz ayarları bağlandıktan sonra çalıştığı için gerçek havuz boyutu okunur.
+     */
+    @Bean
+    public static BeanPostProcessor connectionLimiter(@Value("${brokerage.datasource.max-waiting:200}") int maxWaiting) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource hikari)
+                    return new LimitedDataSource(hikari, hikari.getMaximumPoolSize() + maxWaiting);
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public MeterBinder connectionLimiterMetrics(DataSource dataSource) {
+        return registry -> {
+            if (dataSource instanceof LimitedDataSource limited)
+                limited.registerMetrics(registry);
+        };
+    }
+}
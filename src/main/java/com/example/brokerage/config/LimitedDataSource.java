@@ -0,0 +1,96 @@
+package com.example.brokerage.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Aynı anda bağlantı isteyebilecek thread sayısını sınırlar: havuz boyutu kadarı bağlantı kullanır, en fazla bekleme sınırı
+ * kadarı havuzda sıra bekler, fazlası hiç beklemeden reddedilir. Sanal thread modunda istekler Tomcat havuzuyla sınırlanmadığı
+ * için binlerce isteğin havuzun zaman aşımına kadar birikip hepsinin geç hata almasını önler.
+ * İzin bağlantı kapatıldığında geri verilir.
+ */
+public class LimitedDataSource extends DelegatingDataSource {
+
+    private final int limit;
+    private final Semaphore permits;
+    private final AtomicLong rejected = new AtomicLong();
+
+    public LimitedDataSource(DataSource target, int limit) {
+        super(target);
+        this.limit = limit;
+        this.permits = new Semaphore(limit);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        try {
+            return releasing(super.getConnection());
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        try {
+            return releasing(super.getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    public int inUse() {
+        return limit - permits.availablePermits();
+    }
+
+    public void registerMetrics(MeterRegistry registry) {
+        Gauge.builder("brokerage.db.connections.requested", this, LimitedDataSource::inUse)
+                .description("Bağlantı kullanan ya da havuzda bekleyen thread sayısı")
+                .register(registry);
+        FunctionCounter.builder("brokerage.db.connections.rejected", rejected, AtomicLong::get)
+                .description("Bekleme sınırı dolduğu için beklemeden reddedilen bağlantı isteği sayısı")
+                .register(registry);
+    }
+
+    private void acquire() throws SQLException {
+        if (!permits.tryAcquire()) {
+            rejected.incrementAndGet();
+            throw new SQLTransientConnectionException("Veritabanı bağlantı sınırına ulaşıldı");
+        }
+    }
+
+    //Bağlantı birden fazla kez kapatılsa da izin bir kez geri verilir
+    private Connection releasing(Connection connection) {
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    default -> {
+                        if (method.getName().equals("close") && released.compareAndSet(false, true))
+                            permits.release();
+                        try {
+                            yield method.invoke(connection, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getTargetException();
+                        }
+                    }
+                });
+    }
+}
@@ -1,14 +1,20 @@
 package com.example.brokerage.controller;
 
+import com.example.brokerage.dto.response.PortfolioView;
 import com.example.brokerage.entity.Asset;
-import com.example.brokerage.entity.Customer;
-import com.example.brokerage.repository.CustomerRepository;
+import com.example.brokerage.enums.ExportFormat;
 import com.example.brokerage.service.AssetService;
+import com.example.brokerage.service.CustomerService;
+import com.example.brokerage.service.ExportService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.security.Principal;
 import java.util.List;
 @Tag(name = "Asset APIs", description = "Apis for managing assets")
@@ -17,21 +23,20 @@ import java.util.List;
 public class AssetController {
 
     private final AssetService assetService;
-    private final CustomerRepository customerRepository;
+    private final CustomerService customerService;
+    private final ExportService exportService;
 
-    public AssetController(AssetService assetService, CustomerRepository customerRepository) {
+    public AssetController(AssetService assetService, CustomerService customerService, ExportService exportService) {
         this.assetService = assetService;
-        this.customerRepository = customerRepository;
+        this.customerService = customerService;
+        this.exportService = exportService;
     }
 
-    @Operation(summary = "Get my assets", description = "List all assets that I have")
+    @Operation(summary = "Get my portfolio", description = "Cash, positions with reserved amounts and open order count, served from the read model")
     @GetMapping("/me")
     @PreAuthorize("hasRole('USER')")
-    public List<Asset> getMyAssets(Principal principal) {
-        String username = principal.getName();
-        Customer customer = customerRepository.findByUsername(username)
-                .orElseThrow(() -> new RuntimeException("Kullanıcı bulunamadı"));
-        return assetService.getAssetsByCustomerId(customer.getId());
+    public PortfolioView getMyAssets(Principal principal) {
+        return assetService.getPortfolio(customerService.resolve(principal).customerId());
     }
 
     @Operation(summary = "Get all assets", description = "List all assets that I have")
@@ -40,4 +45,16 @@ public class AssetController {
     public List<Asset> getAssetsByCustomerId(@RequestParam Long customerId) {
         return assetService.getAssetsByCustomerId(customerId);
     }
+
+    @Operation(summary = "Export assets", description = "Stream all assets, or the assets of a customer, as NDJSON or CSV for end-of-day reconciliation")
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public void exportAssets(@RequestParam(required = false) Long customerId,
+                             @RequestParam(defaultValue = "NDJSON") ExportFormat format,
+                             HttpServletResponse response) throws IOException {
+        response.setContentType(format.getContentType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=assets." + format.getExtension());
+        exportService.exportAssets(customerId, format, response.getOutputStream());
+    }
 }
@@ -0,0 +1,44 @@
+package com.example.brokerage.controller;
+
+import com.example.brokerage.dto.response.DepthSnapshot;
+import com.example.brokerage.dto.response.TopOfBook;
+import com.example.brokerage.service.MarketDataService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@Tag(name = "Market Data APIs", description = "Apis for top of book and depth per asset")
+@RestController
+@RequestMapping("/api/market-data")
+public class MarketDataController {
+
+    private final MarketDataService marketDataService;
+
+    public MarketDataController(MarketDataService marketDataService) {
+        this.marketDataService = marketDataService;
+    }
+
+    @Operation(summary = "Get top of book", description = "Best bid and ask with aggregated quantity and order count")
+    @GetMapping("/{assetName}/top")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    public TopOfBook getTopOfBook(@PathVariable String assetName) {
+        return marketDataService.getTopOfBook(assetName);
+    }
+
+    @Operation(summary = "Get depth", description = "Aggregated price levels, best first")
+    @GetMapping("/{assetName}/depth")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    public DepthSnapshot getDepth(@PathVariable String assetName, @RequestParam(defaultValue = "10") int levels) {
+        return marketDataService.getDepth(assetName, levels);
+    }
+
+    @Operation(summary = "Stream depth", description = "Server-sent 'depth' events; updates are conflated so a slow client always gets the latest book")
+    @GetMapping(value = "/{assetName}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    public SseEmitter stream(@PathVariable String assetName, @RequestParam(defaultValue = "10") int levels) {
+        return marketDataService.stream(assetName, levels);
+    }
+}
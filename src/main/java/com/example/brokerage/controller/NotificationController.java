@@ -0,0 +1,36 @@
+package com.example.brokerage.controller;
+
+import com.example.brokerage.service.CustomerService;
+import com.example.brokerage.service.NotificationService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.security.Principal;
+
+@Tag(name = "Notification APIs", description = "Apis for order and balance notifications")
+@RestController
+@RequestMapping("/api/notifications")
+public class NotificationController {
+
+    private final NotificationService notificationService;
+    private final CustomerService customerService;
+
+    public NotificationController(NotificationService notificationService, CustomerService customerService) {
+        this.notificationService = notificationService;
+        this.customerService = customerService;
+    }
+
+    @Operation(summary = "Stream my notifications",
+            description = "Server-sent events: 'portfolio' on connect and on balance changes, 'order' on order lifecycle changes, 'overflow' when events were dropped for a slow client")
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    public SseEmitter stream(Principal principal) {
+        return notificationService.subscribe(customerService.resolve(principal).customerId());
+    }
+}
@@ -1,19 +1,30 @@
 package com.example.brokerage.controller;
 
+import com.example.brokerage.dto.request.BulkCancelRequest;
 import com.example.brokerage.dto.request.CreateOrderRequest;
+import com.example.brokerage.dto.request.OrderFilter;
 import com.example.brokerage.dto.response.BaseApiResponse;
+import com.example.brokerage.dto.response.BulkCancelResult;
+import com.example.brokerage.dto.response.BulkOrderResult;
+import com.example.brokerage.dto.response.OpenOrderView;
+import com.example.brokerage.dto.response.OrderPage;
 import com.example.brokerage.entity.Order;
+import com.example.brokerage.enums.ExportFormat;
+import com.example.brokerage.service.ExportService;
 import com.example.brokerage.service.Impl.OrderServiceImpl;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
-import org.springframework.format.annotation.DateTimeFormat;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.security.Principal;
-import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @Tag(name = "Order APIs", description = "Apis for managing orders")
 @RestController
@@ -21,9 +32,11 @@ import java.util.List;
 public class OrderController {
 
     private final OrderServiceImpl orderService;
+    private final ExportService exportService;
 
-    public OrderController(OrderServiceImpl orderService) {
+    public OrderController(OrderServiceImpl orderService, ExportService exportService) {
         this.orderService = orderService;
+        this.exportService = exportService;
     }
 
     @Operation(summary = "Get my orders", description = "List all orders that I have")
@@ -33,29 +46,61 @@ public class OrderController {
         return orderService.getOrdersForUser(principal);
     }
 
-    @Operation(summary = "Get all orders", description = "List and filter all orders for admin")
+    @Operation(summary = "Get my open orders", description = "List my pending orders from the read model")
+    @GetMapping("/me/open")
+    @PreAuthorize("hasRole('USER')")
+    public List<OpenOrderView> getMyOpenOrders(Principal principal) {
+        return orderService.getOpenOrdersForUser(principal);
+    }
+
+    @Operation(summary = "Get all orders", description = "List and filter all orders for admin, page by page. Pass nextCursor of the previous page as cursor to continue")
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
-    public List<Order> getOrdersForAdmin(
-            @RequestParam(required = false) Long customerId,
-            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
-            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate)
+    public OrderPage getOrdersForAdmin(
+            OrderFilter filter,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int limit)
     {
-        return orderService.getOrdersForAdmin(customerId, startDate, endDate);
+        return orderService.getOrdersForAdmin(filter, cursor, limit);
+    }
+
+    @Operation(summary = "Export orders", description = "Stream all orders matching the filter as NDJSON or CSV for end-of-day reconciliation")
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public void exportOrders(OrderFilter filter, @RequestParam(defaultValue = "NDJSON") ExportFormat format,
+                             HttpServletResponse response) throws IOException {
+        response.setContentType(format.getContentType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=orders." + format.getExtension());
+        exportService.exportOrders(filter, format, response.getOutputStream());
     }
 
     @Operation(summary = "Create order",description = "create order of customer")
     @PostMapping("/create")
     @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
-    public Order createOrder(@RequestBody CreateOrderRequest request, Principal principal) {
+    public CompletableFuture<Order> createOrder(@RequestBody CreateOrderRequest request, Principal principal) {
         return orderService.createOrder(request, principal);
     }
 
+    @Operation(summary = "Create orders in bulk", description = "create a basket of orders and return the result of each one")
+    @PostMapping("/bulk")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    public CompletableFuture<List<BulkOrderResult>> createOrders(@RequestBody List<CreateOrderRequest> requests, Principal principal) {
+        return orderService.createOrders(requests, principal);
+    }
+
     @Operation(summary = "Cancel Order",description = "cancel order of customer")
     @DeleteMapping("cancelOrder/{orderId}")
     @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
-    public ResponseEntity<BaseApiResponse> cancelOrder(@PathVariable Long orderId, Principal principal) {
-        orderService.cancelOrder(orderId, principal);
-        return ResponseEntity.ok(new BaseApiResponse(true, orderId + " numaralı emir iptal edildi."));
+    public CompletableFuture<ResponseEntity<BaseApiResponse>> cancelOrder(@PathVariable Long orderId, Principal principal) {
+        return orderService.cancelOrder(orderId, principal)
+                .thenApply(order -> ResponseEntity.ok(new BaseApiResponse(true, orderId + " numaralı emir iptal edildi.")));
+    }
+
+    @Operation(summary = "Cancel orders in bulk", description = "cancel listed orders, or all pending orders of a customer and/or asset")
+    @PostMapping("/cancel")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    public CompletableFuture<BulkCancelResult> cancelOrders(@RequestBody BulkCancelRequest request, Principal principal) {
+        return orderService.cancelOrders(request, principal);
     }
 }
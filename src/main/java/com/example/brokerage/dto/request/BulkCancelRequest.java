@@ -0,0 +1,14 @@
+package com.example.brokerage.dto.request;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class BulkCancelRequest {
+    private List<Long> orderIds; // verilirse sadece bu emirler iptal edilir
+    private Long customerId; // kullanıcı için her zaman kendisi
+    private String assetName;
+}
@@ -0,0 +1,28 @@
+package com.example.brokerage.dto.request;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Sayfanın son emrinin (createDate, id) konumu. İstemciye opak bir metin olarak verilir,
+ * sonraki sayfa bu konumdan sonrasından okunur.
+ */
+public record OrderCursor(LocalDateTime createDate, Long id) {
+
+    public String encode() {
+        String position = createDate + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static OrderCursor decode(String cursor) {
+        try {
+            String position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = position.indexOf('|');
+            return new OrderCursor(LocalDateTime.parse(position.substring(0, separator)), Long.valueOf(position.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Geçersiz cursor");
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.brokerage.dto.request;
+
+import com.example.brokerage.enums.OrderStatus;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
+/**
+ * Admin emir listesinin filtreleri. Verilmeyen alanlar filtrelenmez.
+ */
+@Getter
+@Setter
+public class OrderFilter {
+    private Long customerId;
+    private OrderStatus status;
+    private String assetName;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime startDate;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime endDate;
+}
@@ -0,0 +1,24 @@
+package com.example.brokerage.dto.response;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Toplu iptalin sonucu. İptal edilemeyen emirler nedenleriyle birlikte döner.
+ */
+@Getter
+@Setter
+public class BulkCancelResult {
+    private int canceledCount;
+    private List<Long> canceledOrderIds;
+    private Map<Long, String> rejectedOrders;
+
+    public BulkCancelResult(List<Long> canceledOrderIds, Map<Long, String> rejectedOrders) {
+        this.canceledCount = canceledOrderIds.size();
+        this.canceledOrderIds = canceledOrderIds;
+        this.rejectedOrders = rejectedOrders;
+    }
+}
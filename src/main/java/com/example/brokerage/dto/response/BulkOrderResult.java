@@ -0,0 +1,32 @@
+package com.example.brokerage.dto.response;
+
+import com.example.brokerage.entity.Order;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Toplu emir isteğindeki tek bir emrin sonucu. {@code index} istekteki sırayı gösterir.
+ */
+@Getter
+@Setter
+public class BulkOrderResult {
+    private int index;
+    private boolean success;
+    private Order order;
+    private String message;
+
+    public static BulkOrderResult success(int index, Order order) {
+        BulkOrderResult result = new BulkOrderResult();
+        result.index = index;
+        result.success = true;
+        result.order = order;
+        return result;
+    }
+
+    public static BulkOrderResult failure(int index, String message) {
+        BulkOrderResult result = new BulkOrderResult();
+        result.index = index;
+        result.message = message;
+        return result;
+    }
+}
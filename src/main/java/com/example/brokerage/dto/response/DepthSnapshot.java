@@ -0,0 +1,9 @@
+package com.example.brokerage.dto.response;
+
+import java.util.List;
+
+/**
+ * Fiyat seviyelerine göre toplanmış derinlik (L2). Alışlar yüksekten, satışlar düşükten başlar.
+ */
+public record DepthSnapshot(String assetName, List<PriceLevelView> bids, List<PriceLevelView> asks, long sequence) {
+}
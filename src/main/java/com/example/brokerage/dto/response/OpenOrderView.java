@@ -0,0 +1,31 @@
+package com.example.brokerage.dto.response;
+
+import com.example.brokerage.enums.OrderSide;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Getter
+public class OpenOrderView {
+    private final Long id;
+    private final String assetName;
+    private final OrderSide orderSide;
+    private final BigDecimal size;
+    private final BigDecimal filledSize;
+    private final BigDecimal remainingSize;
+    private final BigDecimal price;
+    private final LocalDateTime createDate;
+
+    public OpenOrderView(Long id, String assetName, OrderSide orderSide, BigDecimal size, BigDecimal filledSize,
+                         BigDecimal price, LocalDateTime createDate) {
+        this.id = id;
+        this.assetName = assetName;
+        this.orderSide = orderSide;
+        this.size = size;
+        this.filledSize = filledSize;
+        this.remainingSize = size.subtract(filledSize);
+        this.price = price;
+        this.createDate = createDate;
+    }
+}
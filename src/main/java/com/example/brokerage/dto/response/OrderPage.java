@@ -0,0 +1,20 @@
+package com.example.brokerage.dto.response;
+
+import com.example.brokerage.entity.Order;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Emir listesinin bir sayfası. Son sayfada nextCursor null döner.
+ */
+@Getter
+public class OrderPage {
+    private final List<Order> orders;
+    private final String nextCursor;
+
+    public OrderPage(List<Order> orders, String nextCursor) {
+        this.orders = orders;
+        this.nextCursor = nextCursor;
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.brokerage.dto.response;
+
+import com.example.brokerage.enums.OrderSide;
+import com.example.brokerage.enums.OrderStatus;
+
+import java.math.BigDecimal;
+
+/**
+ * Müşteriye gönderilen emir değişikliği. Emir girişinde quantity emrin miktarı, eşleşmede eşleşen miktar,
+ * iptalde kalan miktardır. filledSize emrin o ana kadar eşleşen toplam miktarıdır.
+ */
+public record OrderUpdate(long sequence, long timestamp, Long orderId, String assetName, OrderSide orderSide,
+                          OrderStatus status, BigDecimal quantity, BigDecimal price, BigDecimal filledSize) {
+}
@@ -0,0 +1,26 @@
+package com.example.brokerage.dto.response;
+
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Müşterinin nakit, hisse pozisyonları ve açık emir sayısının tek bakışta özeti.
+ * sequence özetin hangi journal olayına kadar güncel olduğunu gösterir.
+ */
+@Getter
+public class PortfolioView {
+    private final Long customerId;
+    private final PositionView cash;
+    private final List<PositionView> positions;
+    private final int openOrderCount;
+    private final long sequence;
+
+    public PortfolioView(Long customerId, PositionView cash, List<PositionView> positions, int openOrderCount, long sequence) {
+        this.customerId = customerId;
+        this.cash = cash;
+        this.positions = positions;
+        this.openOrderCount = openOrderCount;
+        this.sequence = sequence;
+    }
+}
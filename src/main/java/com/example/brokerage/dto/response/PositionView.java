@@ -0,0 +1,23 @@
+package com.example.brokerage.dto.response;
+
+import lombok.Getter;
+
+import java.math.BigDecimal;
+
+/**
+ * Bir varlıktaki pozisyon. reserved açık emirler için ayrılmış, henüz kullanılamayan kısımdır.
+ */
+@Getter
+public class PositionView {
+    private final String assetName;
+    private final BigDecimal size;
+    private final BigDecimal usableSize;
+    private final BigDecimal reserved;
+
+    public PositionView(String assetName, BigDecimal size, BigDecimal usableSize) {
+        this.assetName = assetName;
+        this.size = size;
+        this.usableSize = usableSize;
+        this.reserved = size.subtract(usableSize);
+    }
+}
@@ -0,0 +1,6 @@
+package com.example.brokerage.dto.response;
+
+import java.math.BigDecimal;
+
+public record PriceLevelView(BigDecimal price, BigDecimal quantity, int orders) {
+}
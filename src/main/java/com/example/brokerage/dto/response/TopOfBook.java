@@ -0,0 +1,7 @@
+package com.example.brokerage.dto.response;
+
+/**
+ * En iyi alış ve satış seviyesi (L1). Taraf boşsa ilgili seviye null döner.
+ */
+public record TopOfBook(String assetName, PriceLevelView bid, PriceLevelView ask, long sequence) {
+}
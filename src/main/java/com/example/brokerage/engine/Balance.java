@@ -0,0 +1,50 @@
+package com.example.brokerage.engine;
+
+/**
+ * Bakiye defterindeki tek bir varlık satırı, {@link FixedPoint} birimleriyle.
+ */
+public class Balance {
+
+    private final Long customerId;
+    private final String assetName;
+    private Long assetId;
+    private long size;
+    private long usableSize;
+
+    Balance(Long customerId, String assetName) {
+        this.customerId = customerId;
+        this.assetName = assetName;
+    }
+
+    public Long getCustomerId() {
+        return customerId;
+    }
+
+    public String getAssetName() {
+        return assetName;
+    }
+
+    public Long getAssetId() {
+        return assetId;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public long getUsableSize() {
+        return usableSize;
+    }
+
+    void setAssetId(Long assetId) {
+        this.assetId = assetId;
+    }
+
+    void setSize(long size) {
+        this.size = size;
+    }
+
+    void setUsableSize(long usableSize) {
+        this.usableSize = usableSize;
+    }
+}
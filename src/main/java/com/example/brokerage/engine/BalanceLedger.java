@@ -0,0 +1,179 @@
+package com.example.brokerage.engine;
+
+import com.example.brokerage.entity.Asset;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Müşteri bakiyelerinin bellekteki asıl kopyası, {@link FixedPoint} birimleriyle. Kontrol ve rezervasyon tek adımda,
+ * müşterinin kilidi altında yapılır; veritabanı bu kayda journal üzerinden arka planda yetişir.
+ * Kilitler müşteri numarasına göre şeritlenir, aynı şeride düşmeyen müşteriler birbirini beklemez.
+ */
+@Component
+public class BalanceLedger {
+
+    private final ReentrantLock[] stripes;
+    private final Map<Long, Map<String, Balance>> accounts = new ConcurrentHashMap<>();
+    private final Counter contended;
+    private final Timer lockWait;
+    private final Counter reserved;
+    private final Counter insufficient;
+
+    public BalanceLedger(@Value("${brokerage.ledger.stripes:64}") int stripeCount, MeterRegistry meterRegistry) {
+        this.stripes = new ReentrantLock[Integer.highestOneBit(Math.max(stripeCount, 1) * 2 - 1)];
+        for (int i = 0; i < stripes.length; i++)
+            stripes[i] = new ReentrantLock();
+        this.contended = Counter.builder("brokerage.ledger.lock.contended")
+                .description("Kilit şeridi başka bir thread'de olduğu için beklenen bakiye işlemi sayısı")
+                .register(meterRegistry);
+        this.lockWait = Timer.builder("brokerage.ledger.lock.wait")
+                .description("Dolu kilit şeridinde beklenen süre")
+                .register(meterRegistry);
+        this.reserved = reservations(meterRegistry, "reserved");
+        this.insufficient = reservations(meterRegistry, "insufficient");
+    }
+
+    /**
+     * Mevcut bakiyeleri yeniden yükler. Açılışta, komutlar kabul edilmeden önce çağrılır.
+     */
+    public void load(Collection<Asset> assets) {
+        accounts.clear();
+        for (Asset asset : assets)
+            update(asset.getCustomerId(), asset.getAssetName(), balance -> {
+                balance.setAssetId(asset.getId());
+                balance.setSize(FixedPoint.toUnits(asset.getSize()));
+                balance.setUsableSize(FixedPoint.toUnits(asset.getUsableSize()));
+            });
+    }
+
+    public Optional<Asset> get(Long customerId, String assetName) {
+        ReentrantLock lock = acquire(customerId);
+        try {
+            Balance balance = find(customerId, assetName);
+            return balance == null ? Optional.empty() : Optional.of(toAsset(balance));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public List<Asset> getAll(Long customerId) {
+        ReentrantLock lock = acquire(customerId);
+        try {
+            Map<String, Balance> account = accounts.get(customerId);
+            return account == null ? List.of() : account.values().stream().map(BalanceLedger::toAsset).toList();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Kullanılabilir bakiye yetiyorsa düşer. Kontrol ile düşme arasında başka bir rezervasyon araya giremez.
+     */
+    public boolean tryReserve(Long customerId, String assetName, long amount) {
+        ReentrantLock lock = acquire(customerId);
+        try {
+            Balance balance = find(customerId, assetName);
+            if (balance == null || balance.getUsableSize() < amount) {
+                insufficient.increment();
+                return false;
+            }
+            balance.setUsableSize(balance.getUsableSize() - amount);
+            reserved.increment();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public OptionalLong usableSize(Long customerId, String assetName) {
+        ReentrantLock lock = acquire(customerId);
+        try {
+            Balance balance = find(customerId, assetName);
+            return balance == null ? OptionalLong.empty() : OptionalLong.of(balance.getUsableSize());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void release(Long customerId, String assetName, long amount) {
+        update(customerId, assetName, balance -> balance.setUsableSize(Math.addExact(balance.getUsableSize(), amount)));
+    }
+
+    public void settleBuy(Long customerId, String cashName, String assetName, long quantity, long amount, long reservedAmount) {
+        ReentrantLock lock = acquire(customerId);
+        try {
+            Settlement.buy(balance(customerId, cashName), balance(customerId, assetName), quantity, amount, reservedAmount);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void settleSell(Long customerId, String cashName, String assetName, long quantity, long amount) {
+        ReentrantLock lock = acquire(customerId);
+        try {
+            Settlement.sell(balance(customerId, assetName), balance(customerId, cashName), quantity, amount);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void update(Long customerId, String assetName, Consumer<Balance> change) {
+        ReentrantLock lock = acquire(customerId);
+        try {
+            change.accept(balance(customerId, assetName));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    //Çağıran müşterinin kilidini tutmalıdır
+    private Balance find(Long customerId, String assetName) {
+        Map<String, Balance> account = accounts.get(customerId);
+        return account == null ? null : account.get(ShardedSequencer.key(assetName));
+    }
+
+    //Çağıran müşterinin kilidini tutmalıdır; eşleşmeyle ilk kez alınan hisse için sıfır bakiyeli kayıt açılır
+    private Balance balance(Long customerId, String assetName) {
+        return accounts.computeIfAbsent(customerId, id -> new HashMap<>())
+                .computeIfAbsent(ShardedSequencer.key(assetName), key -> new Balance(customerId, assetName));
+    }
+
+    //Kilit boşsa ölçüm maliyeti yoktur; sadece beklenen durumlarda süre kaydedilir
+    private ReentrantLock acquire(Long customerId) {
+        ReentrantLock lock = stripes[Long.hashCode(customerId) & (stripes.length - 1)];
+        if (!lock.tryLock()) {
+            long start = System.nanoTime();
+            lock.lock();
+            contended.increment();
+            lockWait.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        return lock;
+    }
+
+    private static Counter reservations(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("brokerage.ledger.reservations")
+                .description("Bakiye rezervasyon denemeleri")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    //REST sınırı: birimler burada BigDecimal'e çevrilir
+    private static Asset toAsset(Balance balance) {
+        Asset asset = new Asset();
+        asset.setId(balance.getAssetId());
+        asset.setCustomerId(balance.getCustomerId());
+        asset.setAssetName(balance.getAssetName());
+        asset.setSize(FixedPoint.toDecimal(balance.getSize()));
+        asset.setUsableSize(FixedPoint.toDecimal(balance.getUsableSize()));
+        return asset;
+    }
+}
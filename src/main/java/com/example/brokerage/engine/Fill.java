@@ -0,0 +1,39 @@
+package com.example.brokerage.engine;
+
+import com.example.brokerage.entity.Order;
+import lombok.Getter;
+
+/**
+ * Tek bir eşleşme, {@link FixedPoint} birimleriyle. Emirlerin toplam dolum miktarları eşleşme anındaki
+ * değerleriyle saklanır, aynı emir sonraki eşleşmelerde değişse de bu kayıt değişmez.
+ */
+@Getter
+public class Fill {
+    private final Order buyOrder;
+    private final Order sellOrder;
+    private final long quantity;
+    private final long price;
+    private final long buyPrice;
+    private final long buyFilledSize;
+    private final long sellFilledSize;
+
+    public Fill(Order buyOrder, Order sellOrder, long quantity, long price, long buyPrice,
+                long buyFilledSize, long sellFilledSize) {
+        this.buyOrder = buyOrder;
+        this.sellOrder = sellOrder;
+        this.quantity = quantity;
+        this.price = price;
+        this.buyPrice = buyPrice;
+        this.buyFilledSize = buyFilledSize;
+        this.sellFilledSize = sellFilledSize;
+    }
+
+    public long getAmount() {
+        return FixedPoint.multiply(price, quantity);
+    }
+
+    //Alıcının emir girişinde limit fiyattan bloke ettiği tutar
+    public long getReservedAmount() {
+        return FixedPoint.multiply(buyPrice, quantity);
+    }
+}
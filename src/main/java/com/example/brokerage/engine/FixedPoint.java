@@ -0,0 +1,47 @@
+package com.example.brokerage.engine;
+
+import java.math.BigDecimal;
+
+/**
+ * Fiyat, miktar ve bakiyelerin eşleştirme ve bakiye defterindeki gösterimi: 10^-4 birimli {@code long}.
+ * {@link BigDecimal}'e dönüşüm sadece REST, JPA ve journal sınırlarında yapılır.
+ */
+public final class FixedPoint {
+
+    public static final int SCALE = 4;
+    public static final long ONE = 10_000L;
+
+    private FixedPoint() {
+    }
+
+    public static long toUnits(BigDecimal value) {
+        try {
+            return value.movePointRight(SCALE).longValueExact();
+        } catch (ArithmeticException e) {
+            if (value.stripTrailingZeros().scale() > SCALE)
+                throw new IllegalArgumentException("En fazla " + SCALE + " ondalık basamak desteklenir: " + value.toPlainString());
+            throw new IllegalArgumentException("Değer desteklenen aralığın dışında: " + value.toPlainString());
+        }
+    }
+
+    //Tam sayı değerler ölçeksiz döner, böylece REST ve veritabanındaki gösterim değişmez
+    public static BigDecimal toDecimal(long units) {
+        if (units % ONE == 0)
+            return BigDecimal.valueOf(units / ONE);
+        return BigDecimal.valueOf(units, SCALE).stripTrailingZeros();
+    }
+
+    /**
+     * Fiyat ile miktarın çarpımı. Tick ve lot ızgarası sonucun kesin olmasını sağlar; taşmada hata fırlatır.
+     */
+    public static long multiply(long price, long quantity) {
+        try {
+            long product = Math.multiplyExact(price, quantity);
+            if (product % ONE != 0)
+                throw new IllegalArgumentException("Tutar " + SCALE + " ondalık basamağa sığmıyor");
+            return product / ONE;
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Emir tutarı desteklenen sınırı aşıyor");
+        }
+    }
+}
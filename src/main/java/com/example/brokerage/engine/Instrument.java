@@ -0,0 +1,48 @@
+package com.example.brokerage.engine;
+
+import java.math.BigDecimal;
+
+/**
+ * Bir hissenin fiyat adımı (tick) ve işlem birimi (lot). Emir fiyatı tick'in, miktarı lot'un katı olmalıdır.
+ */
+public class Instrument {
+
+    private final BigDecimal tickSize;
+    private final BigDecimal lotSize;
+    private final long tickUnits;
+    private final long lotUnits;
+
+    public Instrument(BigDecimal tickSize, BigDecimal lotSize) {
+        this.tickSize = tickSize;
+        this.lotSize = lotSize;
+        this.tickUnits = FixedPoint.toUnits(tickSize);
+        this.lotUnits = FixedPoint.toUnits(lotSize);
+        if (tickUnits <= 0 || lotUnits <= 0)
+            throw new IllegalArgumentException("Tick ve lot sıfırdan büyük olmalı");
+        //Izgaradaki her fiyat-miktar çarpımının ölçeğe sığması için
+        if (tickSize.multiply(lotSize).stripTrailingZeros().scale() > FixedPoint.SCALE)
+            throw new IllegalArgumentException("Tick ve lot çarpımı " + FixedPoint.SCALE + " ondalık basamağı aşıyor");
+    }
+
+    public BigDecimal getTickSize() {
+        return tickSize;
+    }
+
+    public BigDecimal getLotSize() {
+        return lotSize;
+    }
+
+    public long price(BigDecimal price) {
+        long units = FixedPoint.toUnits(price);
+        if (units % tickUnits != 0)
+            throw new IllegalArgumentException("Fiyat " + tickSize.toPlainString() + " adımlarıyla girilmelidir");
+        return units;
+    }
+
+    public long quantity(BigDecimal size) {
+        long units = FixedPoint.toUnits(size);
+        if (units % lotUnits != 0)
+            throw new IllegalArgumentException("Miktar " + lotSize.toPlainString() + " lotun katı olmalıdır");
+        return units;
+    }
+}
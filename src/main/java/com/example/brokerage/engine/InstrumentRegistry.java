@@ -0,0 +1,38 @@
+package com.example.brokerage.engine;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hisse bazında tick ve lot tanımları. Tanımı olmayan hisseler varsayılan değerleri kullanır.
+ * Özel tanımlar {@code HISSE:tick:lot} biçiminde virgülle ayrılarak verilir, ör. {@code NYMN:0.05:10}.
+ */
+@Component
+public class InstrumentRegistry {
+
+    private final Instrument defaultInstrument;
+    private final Map<String, Instrument> instruments = new HashMap<>();
+
+    public InstrumentRegistry(@Value("${brokerage.instruments.tick-size:0.01}") BigDecimal defaultTickSize,
+                              @Value("${brokerage.instruments.lot-size:1}") BigDecimal defaultLotSize,
+                              @Value("${brokerage.instruments.overrides:}") List<String> overrides) {
+        this.defaultInstrument = new Instrument(defaultTickSize, defaultLotSize);
+        for (String override : overrides) {
+            if (override.isBlank())
+                continue;
+            String[] parts = override.trim().split(":");
+            if (parts.length != 3)
+                throw new IllegalArgumentException("Geçersiz hisse tanımı: " + override);
+            instruments.put(ShardedSequencer.key(parts[0].trim()), new Instrument(new BigDecimal(parts[1].trim()), new BigDecimal(parts[2].trim())));
+        }
+    }
+
+    public Instrument instrument(String assetName) {
+        return instruments.getOrDefault(ShardedSequencer.key(assetName), defaultInstrument);
+    }
+}
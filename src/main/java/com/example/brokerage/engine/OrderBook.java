@@ -0,0 +1,142 @@
+package com.example.brokerage.engine;
+
+import com.example.brokerage.entity.Order;
+import com.example.brokerage.enums.OrderSide;
+import com.example.brokerage.enums.OrderStatus;
+
+import java.util.*;
+
+/**
+ * Tek bir hisse için fiyat-zaman öncelikli limit emir defteri.
+ * Fiyat seviyeleri en iyi fiyattan başlayarak sıralanır, her seviyede emirler FIFO kuyruğunda bekler.
+ * Fiyat ve miktarlar deftere girişte {@link FixedPoint} birimlerine çevrilir, eşleştirme sadece {@code long} ile yapılır.
+ * Thread-safe değildir; erişim çağıran tarafından sıralanmalıdır.
+ */
+public class OrderBook {
+
+    private final String assetName;
+    private final NavigableMap<Long, Deque<Entry>> bids = new TreeMap<>(Comparator.reverseOrder());
+    private final NavigableMap<Long, Deque<Entry>> asks = new TreeMap<>();
+    private final Map<Long, Entry> orders = new HashMap<>();
+
+    public OrderBook(String assetName) {
+        this.assetName = assetName;
+    }
+
+    public String getAssetName() {
+        return assetName;
+    }
+
+    public List<Fill> add(Order order) {
+        if (orders.containsKey(order.getId()))
+            return List.of();
+
+        Entry incoming = new Entry(order);
+        List<Fill> fills = new ArrayList<>();
+        boolean buy = order.getOrderSide() == OrderSide.BUY;
+        NavigableMap<Long, Deque<Entry>> opposite = buy ? asks : bids;
+
+        while (incoming.remaining > 0 && !opposite.isEmpty()) {
+            Map.Entry<Long, Deque<Entry>> best = opposite.firstEntry();
+            long levelPrice = best.getKey();
+            if (buy ? incoming.price < levelPrice : incoming.price > levelPrice)
+                break;
+
+            Deque<Entry> level = best.getValue();
+            Entry resting = level.peekFirst();
+            long quantity = Math.min(incoming.remaining, resting.remaining);
+
+            // İşlem fiyatı defterde bekleyen emrin fiyatıdır
+            incoming.fill(quantity);
+            resting.fill(quantity);
+            Entry buyer = buy ? incoming : resting;
+            Entry seller = buy ? resting : incoming;
+            fills.add(new Fill(buyer.order, seller.order, quantity, levelPrice, buyer.price, buyer.filled, seller.filled));
+
+            if (resting.remaining == 0) {
+                level.pollFirst();
+                orders.remove(resting.order.getId());
+                if (level.isEmpty())
+                    opposite.pollFirstEntry();
+            }
+        }
+
+        if (incoming.remaining > 0)
+            rest(incoming);
+        return fills;
+    }
+
+    public Optional<Order> remove(Long orderId) {
+        Entry entry = orders.remove(orderId);
+        if (entry == null)
+            return Optional.empty();
+
+        NavigableMap<Long, Deque<Entry>> side = entry.order.getOrderSide() == OrderSide.BUY ? bids : asks;
+        Deque<Entry> level = side.get(entry.price);
+        level.remove(entry);
+        if (level.isEmpty())
+            side.remove(entry.price);
+        return Optional.of(entry.order);
+    }
+
+    public Optional<Order> find(Long orderId) {
+        Entry entry = orders.get(orderId);
+        return entry == null ? Optional.empty() : Optional.of(entry.order);
+    }
+
+    //Önce alış sonra satış tarafı, her tarafta fiyat-zaman önceliğiyle
+    public List<Order> orders() {
+        List<Order> result = new ArrayList<>(orders.size());
+        for (Deque<Entry> level : bids.values())
+            for (Entry entry : level)
+                result.add(entry.order);
+        for (Deque<Entry> level : asks.values())
+            for (Entry entry : level)
+                result.add(entry.order);
+        return result;
+    }
+
+    public OptionalLong bestBid() {
+        return bids.isEmpty() ? OptionalLong.empty() : OptionalLong.of(bids.firstKey());
+    }
+
+    public OptionalLong bestAsk() {
+        return asks.isEmpty() ? OptionalLong.empty() : OptionalLong.of(asks.firstKey());
+    }
+
+    public int size() {
+        return orders.size();
+    }
+
+    private void rest(Entry entry) {
+        NavigableMap<Long, Deque<Entry>> side = entry.order.getOrderSide() == OrderSide.BUY ? bids : asks;
+        side.computeIfAbsent(entry.price, p -> new ArrayDeque<>()).addLast(entry);
+        orders.put(entry.order.getId(), entry);
+    }
+
+    /**
+     * Defterdeki emrin birimli kopyası. Emir nesnesinin dolum bilgisi her eşleşmede güncellenir,
+     * çünkü journal'a ve REST yanıtına giden odur.
+     */
+    private static final class Entry {
+        private final Order order;
+        private final long price;
+        private long filled;
+        private long remaining;
+
+        private Entry(Order order) {
+            this.order = order;
+            this.price = FixedPoint.toUnits(order.getPrice());
+            this.filled = FixedPoint.toUnits(order.getFilledSize());
+            this.remaining = FixedPoint.toUnits(order.getSize()) - filled;
+        }
+
+        private void fill(long quantity) {
+            filled += quantity;
+            remaining -= quantity;
+            order.setFilledSize(FixedPoint.toDecimal(filled));
+            if (remaining == 0)
+                order.setStatus(OrderStatus.MATCHED);
+        }
+    }
+}
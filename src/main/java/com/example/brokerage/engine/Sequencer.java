@@ -0,0 +1,74 @@
+package com.example.brokerage.engine;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Tek thread üzerinde sırayla komut çalıştıran shard.
+ * Shard'a düşen hisselerin emir defterleri sadece bu thread tarafından okunup yazılır, bu yüzden kilit gerekmez.
+ */
+public class Sequencer {
+
+    private final String name;
+    private final ThreadPoolExecutor executor;
+    private final Map<String, OrderBook> books = new HashMap<>();
+    private volatile Thread thread;
+
+    public Sequencer(String name, int queueCapacity) {
+        this.name = name;
+        this.executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), this::newThread, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    public <T> CompletableFuture<T> submit(Supplier<T> command) {
+        try {
+            return CompletableFuture.supplyAsync(command, executor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(new RejectedExecutionException("Eşleştirme kuyruğu dolu, emir kabul edilmedi", e));
+        }
+    }
+
+    public OrderBook book(String key, Function<String, OrderBook> loader) {
+        checkThread();
+        OrderBook book = books.get(key);
+        if (book == null) {
+            book = loader.apply(key);
+            books.put(key, book);
+        }
+        return book;
+    }
+
+    //Shard'a şimdiye kadar yüklenmiş defterler
+    public Collection<OrderBook> books() {
+        checkThread();
+        return books.values();
+    }
+
+    public void checkThread() {
+        if (Thread.currentThread() != thread)
+            throw new IllegalStateException(name + " defterlerine sequencer thread'i dışından erişilemez");
+    }
+
+    public int queueSize() {
+        return executor.getQueue().size();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    private Thread newThread(Runnable runnable) {
+        Thread t = new Thread(runnable, name);
+        t.setDaemon(true);
+        thread = t;
+        return t;
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.brokerage.engine;
+
+import com.example.brokerage.entity.Asset;
+
+import java.math.BigDecimal;
+
+/**
+ * Eşleşme sonrası bakiye hareketleri. Veritabanı, projeksiyon ve bellekteki durum aynı hesabı kullanır;
+ * bakiye defteri aynı kuralları {@link FixedPoint} birimleriyle uygular.
+ */
+public final class Settlement {
+
+    private Settlement() {
+    }
+
+    //Ödenen TRY bakiyeden düşer, limit fiyattan fazla rezerve edilen kısım serbest kalır
+    public static void buy(Asset cash, Asset stock, BigDecimal quantity, BigDecimal amount, BigDecimal reservedAmount) {
+        cash.setSize(cash.getSize().subtract(amount));
+        cash.setUsableSize(cash.getUsableSize().add(reservedAmount.subtract(amount)));
+        stock.setSize(stock.getSize().add(quantity));
+        stock.setUsableSize(stock.getUsableSize().add(quantity));
+    }
+
+    //Satılan hisse emir girişinde rezerve edildiği için sadece size'dan düşer
+    public static void sell(Asset stock, Asset cash, BigDecimal quantity, BigDecimal amount) {
+        stock.setSize(stock.getSize().subtract(quantity));
+        cash.setSize(cash.getSize().add(amount));
+        cash.setUsableSize(cash.getUsableSize().add(amount));
+    }
+
+    static void buy(Balance cash, Balance stock, long quantity, long amount, long reservedAmount) {
+        cash.setSize(Math.subtractExact(cash.getSize(), amount));
+        cash.setUsableSize(Math.addExact(cash.getUsableSize(), reservedAmount - amount));
+        stock.setSize(Math.addExact(stock.getSize(), quantity));
+        stock.setUsableSize(Math.addExact(stock.getUsableSize(), quantity));
+    }
+
+    static void sell(Balance stock, Balance cash, long quantity, long amount) {
+        stock.setSize(Math.subtractExact(stock.getSize(), quantity));
+        cash.setSize(Math.addExact(cash.getSize(), amount));
+        cash.setUsableSize(Math.addExact(cash.getUsableSize(), amount));
+    }
+}
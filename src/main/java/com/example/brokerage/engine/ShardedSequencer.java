@@ -0,0 +1,60 @@
+package com.example.brokerage.engine;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Her hisseyi adının hash'ine göre sabit bir {@link Sequencer}'a yönlendirir.
+ * Aynı hisseye ait tüm komutlar aynı thread üzerinde geliş sırasıyla çalışır.
+ */
+@Component
+public class ShardedSequencer {
+
+    private final Sequencer[] shards;
+
+    public ShardedSequencer(@Value("${brokerage.matching.shards:0}") int shardCount,
+                            @Value("${brokerage.matching.queue-capacity:65536}") int queueCapacity) {
+        int count = shardCount > 0 ? shardCount : Runtime.getRuntime().availableProcessors();
+        this.shards = new Sequencer[count];
+        for (int i = 0; i < count; i++)
+            shards[i] = new Sequencer("sequencer-" + i, queueCapacity);
+    }
+
+    public Sequencer shardFor(String assetName) {
+        return shards[Math.floorMod(key(assetName).hashCode(), shards.length)];
+    }
+
+    public <T> T call(String assetName, Supplier<T> command) {
+        try {
+            return shardFor(assetName).submit(command).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause)
+                throw cause;
+            throw e;
+        }
+    }
+
+    public List<Sequencer> shards() {
+        return List.of(shards);
+    }
+
+    public int shardCount() {
+        return shards.length;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (Sequencer shard : shards)
+            shard.shutdown();
+    }
+
+    public static String key(String assetName) {
+        return assetName.toUpperCase(Locale.ROOT);
+    }
+}
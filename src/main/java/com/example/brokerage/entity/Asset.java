@@ -3,17 +3,19 @@ package com.example.brokerage.entity;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.math.BigDecimal;
 
 @NoArgsConstructor
 @Data
 @Entity
-@Table(name = "assets")
+@Table(name = "assets", indexes = @Index(name = "idx_assets_customer_asset", columnList = "customer_id, asset_name"))
 public class Asset {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "assets_seq")
+    @SequenceGenerator(name = "assets_seq", sequenceName = "assets_seq", allocationSize = 100)
     private Long id;
 
     private Long customerId;
@@ -23,4 +25,9 @@ public class Asset {
     private BigDecimal size;
 
     private BigDecimal usableSize;
+
+    //Projeksiyon dışında bakiye yazan olursa üzerine yazmak yerine çakışma alınır
+    @Version
+    @ColumnDefault("0")
+    private Long version;
 }
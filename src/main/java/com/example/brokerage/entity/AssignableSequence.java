@@ -0,0 +1,21 @@
+package com.example.brokerage.entity;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+//Id'yi verilen sequence'tan {@link AssignableSequenceGenerator} ile üretir
+@IdGeneratorType(AssignableSequenceGenerator.class)
+@Retention(RUNTIME)
+@Target({FIELD, METHOD})
+public @interface AssignableSequence {
+
+    String sequenceName();
+
+    int incrementSize() default 50;
+}
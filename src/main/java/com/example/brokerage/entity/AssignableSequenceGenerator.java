@@ -0,0 +1,40 @@
+package com.example.brokerage.entity;
+
+import org.hibernate.MappingException;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.EventType;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.util.Properties;
+
+/**
+ * Sequence'tan pooled-lo ile id üretir; id kayıttan önce atanmışsa onu korur.
+ * Emir numarası eşleştirme shard'ında aynı üreticiden alınır, kayıt projeksiyonda bu numarayla eklenir.
+ */
+public class AssignableSequenceGenerator extends SequenceStyleGenerator {
+
+    private final AssignableSequence config;
+
+    public AssignableSequenceGenerator(AssignableSequence config) {
+        this.config = config;
+    }
+
+    @Override
+    public void configure(Type type, Properties parameters, ServiceRegistry serviceRegistry) throws MappingException {
+        parameters.put(SEQUENCE_PARAM, config.sequenceName());
+        parameters.put(INCREMENT_PARAM, String.valueOf(config.incrementSize()));
+        super.configure(type, parameters, serviceRegistry);
+    }
+
+    @Override
+    public boolean allowAssignedIdentifiers() {
+        return true;
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue, EventType eventType) {
+        return currentValue != null ? currentValue : super.generate(session, owner, currentValue, eventType);
+    }
+}
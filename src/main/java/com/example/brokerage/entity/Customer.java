@@ -11,10 +11,12 @@ import java.util.Set;
 @Data
 @Entity
 @Table(name = "customers")
+@EntityListeners(CustomerListener.class)
 public class Customer {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "customers_seq")
+    @SequenceGenerator(name = "customers_seq", sequenceName = "customers_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, unique = true)
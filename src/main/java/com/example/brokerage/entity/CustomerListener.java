@@ -0,0 +1,27 @@
+package com.example.brokerage.entity;
+
+import com.example.brokerage.service.CustomerService;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+/**
+ * Müşteri kaydı güncellendiğinde veya silindiğinde önbellekteki kopyasını geçersiz kılar.
+ */
+@Component
+public class CustomerListener {
+
+    private final CustomerService customerService;
+
+    //EntityManagerFactory kurulurken servis henüz hazır olmadığından tembel enjekte edilir
+    public CustomerListener(@Lazy CustomerService customerService) {
+        this.customerService = customerService;
+    }
+
+    @PostUpdate
+    @PostRemove
+    void evict(Customer customer) {
+        customerService.evict(customer.getId());
+    }
+}
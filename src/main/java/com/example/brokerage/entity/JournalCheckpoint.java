@@ -0,0 +1,27 @@
+package com.example.brokerage.entity;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Veritabanına yansıtılmış son journal sıra numarası. Projeksiyonla aynı transaction'da güncellenir.
+ * Satır ilk projeksiyonda yazılır; validate ile çalışan şemada tablo önceden oluşturulmalıdır.
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Entity
+@Table(name = "journal_checkpoints")
+public class JournalCheckpoint {
+
+    public static final Long PROJECTION = 1L;
+
+    @Id
+    private Long id;
+
+    private Long sequence;
+}
@@ -4,6 +4,7 @@ import com.example.brokerage.enums.OrderSide;
 import com.example.brokerage.enums.OrderStatus;
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.ColumnDefault;
 import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
@@ -13,11 +14,15 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @Data
 @Entity
-@Table(name = "orders")
+//Admin listesi (createDate, id) sırasıyla sayfalanır; müşteri filtresi ilk indeksi, diğerleri ikincisini kullanır
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_customer_create_date", columnList = "customer_id, create_date, id"),
+        @Index(name = "idx_orders_create_date_id", columnList = "create_date, id")
+})
 public class Order {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @AssignableSequence(sequenceName = "orders_seq", incrementSize = 500)
     private Long id;
 
     private Long customerId;
@@ -29,10 +34,19 @@ public class Order {
 
     private BigDecimal size;
 
+    //Kısmi dolumdan önce açılmış satırlar dolmamış sayılır; validate ile çalışan şemaya sütun önceden eklenmelidir
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private BigDecimal filledSize = BigDecimal.ZERO;
+
     private BigDecimal price;
 
     @Enumerated(EnumType.STRING)
     private OrderStatus status;
 
     private LocalDateTime createDate;
+
+    public BigDecimal getRemainingSize() {
+        return size.subtract(filledSize);
+    }
 }
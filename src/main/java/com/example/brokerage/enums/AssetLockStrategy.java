@@ -0,0 +1,13 @@
+package com.example.brokerage.enums;
+
+/**
+ * Projeksiyonun bakiye satırlarını veritabanına yazarken başka yazarlarla çakışmayı nasıl çözdüğü.
+ * OPTIMISTIC: satırlar okunur, version kontrolüyle yazılır, çakışmada batch yeniden denenir.
+ * PESSIMISTIC: satırlar SELECT ... FOR UPDATE ile kilitlenerek okunur.
+ * CONDITIONAL: satırlar okunmaz, fark tek bir koşullu UPDATE ile uygulanır.
+ */
+public enum AssetLockStrategy {
+    OPTIMISTIC,
+    PESSIMISTIC,
+    CONDITIONAL
+}
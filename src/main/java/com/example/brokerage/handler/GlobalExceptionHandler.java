@@ -1,11 +1,14 @@
 package com.example.brokerage.handler;
 
+import org.springframework.dao.DataAccessResourceFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDateTime;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestControllerAdvice
 public class GlobalExceptionHandler {
@@ -15,6 +18,18 @@ public class GlobalExceptionHandler {
         return errorResponse(HttpStatus.BAD_REQUEST, ex.getMessage());
     }
 
+    //Bağlantı sınırı ya da havuz zaman aşımı; istemci kısa süre sonra yeniden deneyebilir
+    @ExceptionHandler({CannotCreateTransactionException.class, DataAccessResourceFailureException.class})
+    public ResponseEntity<?> handleUnavailable(RuntimeException ex) {
+        return errorResponse(HttpStatus.SERVICE_UNAVAILABLE, "Veritabanı şu anda yoğun, lütfen tekrar deneyin");
+    }
+
+    //Giriş havuzu ya da emir kuyrukları dolu; istek hiç işlenmediği için istemci yeniden deneyebilir
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<?> handleOverloaded(RejectedExecutionException ex) {
+        return errorResponse(HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage());
+    }
+
     @ExceptionHandler(RuntimeException.class)
     public ResponseEntity<?> handleRuntime(RuntimeException ex) {
         return errorResponse(HttpStatus.INTERNAL_SERVER_ERROR, ex.getMessage());
@@ -0,0 +1,210 @@
+package com.example.brokerage.journal;
+
+import com.example.brokerage.engine.Settlement;
+import com.example.brokerage.entity.Asset;
+import com.example.brokerage.entity.Order;
+import com.example.brokerage.enums.OrderSide;
+import com.example.brokerage.enums.OrderStatus;
+import com.example.brokerage.service.AssetService;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.*;
+
+/**
+ * Açık emirlerin ve bakiyelerin bellekteki kopyası. Journal olayları sırayla uygulanır,
+ * snapshot olarak diske yazılır ve açılışta defterler buradan kurulur.
+ * Açık emirler journal'a giriş sırasıyla tutulur, böylece aynı fiyattaki emirlerin zaman önceliği korunur.
+ * Bakiyeler satır numaralarıyla saklanır; açılışta bakiye defteri tablo taranmadan buradan yüklenir.
+ */
+public class EngineState {
+
+    private static final OrderSide[] SIDES = OrderSide.values();
+
+    private final Map<Long, Order> openOrders = new LinkedHashMap<>();
+    private final Map<String, Asset> assets = new HashMap<>();
+    private long sequence;
+
+    public static EngineState of(long sequence, Collection<Order> openOrders, Collection<Asset> assets) {
+        EngineState state = new EngineState();
+        state.sequence = sequence;
+        openOrders.forEach(order -> state.openOrders.put(order.getId(), copy(order)));
+        for (Asset asset : assets) {
+            Asset copy = state.asset(asset.getCustomerId(), asset.getAssetName());
+            copy.setId(asset.getId());
+            copy.setSize(asset.getSize());
+            copy.setUsableSize(asset.getUsableSize());
+        }
+        return state;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public Collection<Order> getOpenOrders() {
+        return openOrders.values();
+    }
+
+    public Collection<Asset> getAssets() {
+        return assets.values();
+    }
+
+    /**
+     * Sıra numarası bu durumun gerisinde kalan olaylar atlanır, aynı olay iki kez uygulanmaz.
+     */
+    public void apply(JournalEvent event) {
+        if (event.getSequence() <= sequence)
+            return;
+
+        switch (event.getType()) {
+            case ORDER_CREATED -> openOrders.put(event.getOrderId(), toOrder(event));
+            case ORDER_CANCELED -> openOrders.remove(event.getOrderId());
+            case ORDER_FILLED -> applyFill(event);
+            case ASSET_RESERVED -> adjustUsable(event, event.getQuantity().negate());
+            case ASSET_RELEASED -> adjustUsable(event, event.getQuantity());
+        }
+        sequence = event.getSequence();
+    }
+
+    void write(DataOutput out) throws IOException {
+        out.writeLong(sequence);
+        out.writeInt(openOrders.size());
+        for (Order order : openOrders.values()) {
+            out.writeLong(order.getId());
+            out.writeLong(order.getCustomerId());
+            out.writeUTF(order.getAssetName());
+            out.writeByte(order.getOrderSide().ordinal());
+            writeDecimal(out, order.getSize());
+            writeDecimal(out, order.getFilledSize());
+            writeDecimal(out, order.getPrice());
+            out.writeLong(order.getCreateDate().toInstant(ZoneOffset.UTC).toEpochMilli());
+        }
+        out.writeInt(assets.size());
+        for (Asset asset : assets.values()) {
+            //Sadece eşleşmeyle açılıp henüz veritabanından okunmamış satırların numarası yoktur
+            out.writeBoolean(asset.getId() != null);
+            if (asset.getId() != null)
+                out.writeLong(asset.getId());
+            out.writeLong(asset.getCustomerId());
+            out.writeUTF(asset.getAssetName());
+            writeDecimal(out, asset.getSize());
+            writeDecimal(out, asset.getUsableSize());
+        }
+    }
+
+    static EngineState read(DataInput in) throws IOException {
+        EngineState state = new EngineState();
+        state.sequence = in.readLong();
+        int orderCount = in.readInt();
+        for (int i = 0; i < orderCount; i++) {
+            Order order = new Order();
+            order.setId(in.readLong());
+            order.setCustomerId(in.readLong());
+            order.setAssetName(in.readUTF());
+            order.setOrderSide(SIDES[in.readByte()]);
+            order.setSize(readDecimal(in));
+            order.setFilledSize(readDecimal(in));
+            order.setPrice(readDecimal(in));
+            order.setCreateDate(LocalDateTime.ofInstant(Instant.ofEpochMilli(in.readLong()), ZoneOffset.UTC));
+            order.setStatus(OrderStatus.PENDING);
+            state.openOrders.put(order.getId(), order);
+        }
+        int assetCount = in.readInt();
+        for (int i = 0; i < assetCount; i++) {
+            Long id = in.readBoolean() ? in.readLong() : null;
+            Asset asset = state.asset(in.readLong(), in.readUTF());
+            asset.setId(id);
+            asset.setSize(readDecimal(in));
+            asset.setUsableSize(readDecimal(in));
+        }
+        return state;
+    }
+
+    //Bakiyeler sadece olaydan hesaplanır, iki taraf da her zaman işlenir; açık olmayan emrin dolumu yok sayılır
+    private void applyFill(JournalEvent event) {
+        BigDecimal quantity = event.getQuantity();
+        BigDecimal amount = event.getPrice().multiply(quantity);
+        BigDecimal reservedAmount = event.getReservedAmount();
+
+        Settlement.buy(asset(event.getCustomerId(), AssetService.CASH_ASSET), asset(event.getCustomerId(), event.getAssetName()),
+                quantity, amount, reservedAmount);
+        Settlement.sell(asset(event.getCounterCustomerId(), event.getAssetName()),
+                asset(event.getCounterCustomerId(), AssetService.CASH_ASSET), quantity, amount);
+        fill(openOrders.get(event.getOrderId()), event.getFilledSize());
+        fill(openOrders.get(event.getCounterOrderId()), event.getCounterFilledSize());
+    }
+
+    private void fill(Order order, BigDecimal filledSize) {
+        if (order == null)
+            return;
+        order.setFilledSize(filledSize);
+        if (order.getRemainingSize().signum() == 0)
+            openOrders.remove(order.getId());
+    }
+
+    private void adjustUsable(JournalEvent event, BigDecimal delta) {
+        Asset asset = asset(event.getCustomerId(), event.getAssetName());
+        asset.setUsableSize(asset.getUsableSize().add(delta));
+    }
+
+    private Asset asset(Long customerId, String assetName) {
+        return assets.computeIfAbsent(customerId + ":" + assetName.toUpperCase(Locale.ROOT), key -> {
+            Asset asset = new Asset();
+            asset.setCustomerId(customerId);
+            asset.setAssetName(assetName);
+            asset.setSize(BigDecimal.ZERO);
+            asset.setUsableSize(BigDecimal.ZERO);
+            return asset;
+        });
+    }
+
+    public static Order toOrder(JournalEvent event) {
+        Order order = new Order();
+        order.setId(event.getOrderId());
+        order.setCustomerId(event.getCustomerId());
+        order.setAssetName(event.getAssetName());
+        order.setOrderSide(event.getOrderSide());
+        order.setSize(event.getQuantity());
+        order.setFilledSize(event.getFilledSize());
+        order.setPrice(event.getPrice());
+        order.setStatus(OrderStatus.PENDING);
+        order.setCreateDate(LocalDateTime.ofInstant(Instant.ofEpochMilli(event.getTimestamp()), ZoneId.systemDefault()));
+        return order;
+    }
+
+    public static Order copy(Order source) {
+        Order order = new Order();
+        order.setId(source.getId());
+        order.setCustomerId(source.getCustomerId());
+        order.setAssetName(source.getAssetName());
+        order.setOrderSide(source.getOrderSide());
+        order.setSize(source.getSize());
+        order.setFilledSize(source.getFilledSize());
+        order.setPrice(source.getPrice());
+        order.setStatus(source.getStatus());
+        order.setCreateDate(source.getCreateDate());
+        return order;
+    }
+
+    private static void writeDecimal(DataOutput out, BigDecimal value) throws IOException {
+        byte[] unscaled = value.unscaledValue().toByteArray();
+        out.writeInt(value.scale());
+        out.writeByte(unscaled.length);
+        out.write(unscaled);
+    }
+
+    private static BigDecimal readDecimal(DataInput in) throws IOException {
+        int scale = in.readInt();
+        byte[] unscaled = new byte[in.readUnsignedByte()];
+        in.readFully(unscaled);
+        return new BigDecimal(new BigInteger(unscaled), scale);
+    }
+}
@@ -0,0 +1,268 @@
+package com.example.brokerage.journal;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Sadece ekleme yapılan, segmentlere bölünmüş olay journal'ı. Her olaya artan bir sıra numarası verilir,
+ * kalıcılık {@link #flush()} ile toplu olarak sağlanır (group commit). Olaylar projeksiyona ancak diske yazıldıktan sonra
+ * iletilir; veritabanı checkpoint'i ve snapshot kalıcı son sıra numarasını geçemez. Başlangıçta son segment taranır,
+ * yarım kalmış kayıtlar atılır ve sıra numarası kaldığı yerden devam eder. Veritabanının ve snapshot'ların geçtiği
+ * segmentler {@link #retire(long)} ile silinir.
+ */
+@Slf4j
+@Component
+public class EventJournal {
+
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final int MAX_EVENT_SIZE = 1024;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final boolean fsync;
+    private final JournalProjector projector;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final ByteBuffer scratch = ByteBuffer.allocate(MAX_EVENT_SIZE);
+
+    private JournalSegment current;
+    private long nextSequence;
+    private List<JournalEvent> unflushed = new ArrayList<>();
+    private volatile long flushedSequence;
+    private volatile boolean flushFailing;
+
+    public EventJournal(@Value("${brokerage.journal.directory:./data/journal}") String directory,
+                        @Value("${brokerage.journal.segment-size:67108864}") int segmentSize,
+                        @Value("${brokerage.journal.fsync:true}") boolean fsync,
+                        @Value("${brokerage.journal.clean-on-start:false}") boolean cleanOnStart,
+                        JournalProjector projector) throws IOException {
+        this.directory = Path.of(directory);
+        this.segmentSize = segmentSize;
+        this.fsync = fsync;
+        this.projector = projector;
+
+        Files.createDirectories(this.directory);
+        if (cleanOnStart)
+            for (Path segment : segments())
+                Files.delete(segment);
+        open();
+    }
+
+    /**
+     * Olayı sıra numarasıyla journal'a ekler. Olay ancak sonraki {@link #flush()} çağrısından sonra diskte kalıcıdır
+     * ve projeksiyona o zaman iletilir.
+     */
+    public JournalEvent append(JournalEvent event) {
+        lock.lock();
+        try {
+            JournalEvent sequenced = event.withSequence(nextSequence);
+            scratch.clear();
+            JournalEventCodec.encode(sequenced, scratch);
+            scratch.flip();
+            if (!current.tryAppend(scratch)) {
+                roll(sequenced.getSequence());
+                if (!current.tryAppend(scratch))
+                    throw new IllegalStateException("Journal olayı segment boyutunu aşıyor");
+            }
+            nextSequence++;
+            unflushed.add(sequenced);
+            return sequenced;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Son flush'tan beri eklenen tüm olayları diske yazar ve projeksiyona iletir. Disk senkronizasyonu ekleme kilidi
+     * dışında yapılır, bu sırada gelen olaylar beklemeden eklenmeye devam eder. Flush'lar kendi aralarında sıralanır,
+     * böylece projeksiyona giden olaylar journal sırasını korur.
+     */
+    public void flush() {
+        flushLock.lock();
+        try {
+            JournalSegment segment;
+            List<JournalEvent> events;
+            lock.lock();
+            try {
+                if (unflushed.isEmpty())
+                    return;
+                segment = current;
+                events = unflushed;
+                unflushed = new ArrayList<>();
+            } finally {
+                lock.unlock();
+            }
+            //Önceki segmentler kapatılırken zaten diske yazılır
+            try {
+                if (fsync)
+                    segment.force();
+            } catch (RuntimeException e) {
+                //Yazılamayan olaylar bir sonraki flush'ta yeniden denenir
+                lock.lock();
+                try {
+                    events.addAll(unflushed);
+                    unflushed = events;
+                } finally {
+                    lock.unlock();
+                }
+                flushFailing = true;
+                throw e;
+            }
+            flushFailing = false;
+            flushedSequence = events.get(events.size() - 1).getSequence();
+            events.forEach(projector::enqueue);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Bekleyen olayları diske yazar ve veritabanına yansımalarını en fazla verilen süre kadar bekler.
+     * Süre dolarsa false döner.
+     */
+    public boolean flushAndAwaitProjection(long timeoutMillis) {
+        flush();
+        return projector.awaitProjected(flushedSequence, timeoutMillis);
+    }
+
+    /**
+     * Diske yazılıp projeksiyona iletilen son sıra numarası.
+     */
+    public long flushedSequence() {
+        return flushedSequence;
+    }
+
+    /**
+     * Son flush diske yazamadıysa true; bir sonraki başarılı flush'a kadar böyle kalır.
+     */
+    public boolean isFlushFailing() {
+        return flushFailing;
+    }
+
+    /**
+     * Diskteki olayları verilen sıra numarasından sonrasından başlayarak sırayla okur.
+     */
+    public void replay(long afterSequence, Consumer<JournalEvent> consumer) {
+        lock.lock();
+        try {
+            current.force();
+            List<Path> segments = segments();
+            for (int i = 0; i < segments.size(); i++) {
+                long first = firstSequence(segments.get(i));
+                if (i + 1 < segments.size() && firstSequence(segments.get(i + 1)) <= afterSequence + 1)
+                    continue;
+                try (JournalSegment segment = JournalSegment.open(segments.get(i), first, segmentSize)) {
+                    segment.read(first, event -> {
+                        if (event.getSequence() > afterSequence)
+                            consumer.accept(event);
+                    });
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Son olayı verilen sıra numarasına kadar olan segmentleri siler; yazılmakta olan segment hiç silinmez.
+     * Silinen segment sayısını döner.
+     */
+    public int retire(long sequence) {
+        lock.lock();
+        try {
+            List<Path> segments = segments();
+            int retired = 0;
+            //Segmentin son olayı bir sonraki segmentin ilk sıra numarasından bir öncesidir
+            while (retired + 1 < segments.size() && firstSequence(segments.get(retired + 1)) - 1 <= sequence) {
+                Files.delete(segments.get(retired));
+                retired++;
+            }
+            if (retired > 0)
+                log.info("Journal segments retired. Count: {} UpToSequence: {}", retired, sequence);
+            return retired;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long lastSequence() {
+        lock.lock();
+        try {
+            return nextSequence - 1;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        flush();
+        lock.lock();
+        try {
+            current.close();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void open() throws IOException {
+        List<Path> segments = segments();
+        if (segments.isEmpty()) {
+            nextSequence = 1;
+            current = JournalSegment.open(segmentPath(nextSequence), nextSequence, segmentSize);
+            return;
+        }
+
+        Path last = segments.get(segments.size() - 1);
+        long first = firstSequence(last);
+        current = JournalSegment.open(last, first, segmentSize);
+        nextSequence = current.recover(first);
+        flushedSequence = nextSequence - 1;
+        log.info("Event journal opened. Segments: {} LastSequence: {}", segments.size(), nextSequence - 1);
+    }
+
+    private void roll(long firstSequence) throws IOException {
+        current.close();
+        current = JournalSegment.open(segmentPath(firstSequence), firstSequence, segmentSize);
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> {
+                        String name = path.getFileName().toString();
+                        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+                    })
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private Path segmentPath(long firstSequence) {
+        return directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, firstSequence, SEGMENT_SUFFIX));
+    }
+
+    private static long firstSequence(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+}
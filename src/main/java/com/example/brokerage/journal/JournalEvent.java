@@ -0,0 +1,85 @@
+package com.example.brokerage.journal;
+
+import com.example.brokerage.engine.Fill;
+import com.example.brokerage.engine.FixedPoint;
+import com.example.brokerage.entity.Order;
+import com.example.brokerage.enums.OrderSide;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.ZoneId;
+
+/**
+ * Journal'a yazılan değişmez olay. Tüm olay tipleri aynı alan setini kullanır, kullanılmayan alanlar null kalır.
+ * ORDER_FILLED olayında order alanları alıcıyı, counter alanları satıcıyı temsil eder
+ * ve filledSize değerleri o eşleşme sonrasındaki toplam dolum miktarıdır. limitPrice alıcının emir fiyatıdır,
+ * böylece olay alıcının rezervini emrin kendisine bakmadan serbest bırakabilir.
+ */
+@Getter
+@AllArgsConstructor
+public class JournalEvent {
+    private final long sequence;
+    private final long timestamp;
+    private final JournalEventType type;
+    private final Long orderId;
+    private final Long counterOrderId;
+    private final Long customerId;
+    private final Long counterCustomerId;
+    private final String assetName;
+    private final OrderSide orderSide;
+    private final BigDecimal quantity;
+    private final BigDecimal price;
+    private final BigDecimal filledSize;
+    private final BigDecimal counterFilledSize;
+    private final BigDecimal limitPrice;
+
+    //Zaman damgası emrin oluşturulma zamanıdır; projeksiyon emri bu zamanla kaydeder
+    public static JournalEvent orderCreated(Order order) {
+        long timestamp = order.getCreateDate() != null
+                ? order.getCreateDate().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+                : System.currentTimeMillis();
+        return new JournalEvent(0, timestamp, JournalEventType.ORDER_CREATED,
+                order.getId(), null, order.getCustomerId(), null, order.getAssetName(), order.getOrderSide(),
+                order.getSize(), order.getPrice(), order.getFilledSize(), null, null);
+    }
+
+    public static JournalEvent orderCanceled(Order order) {
+        return new JournalEvent(0, System.currentTimeMillis(), JournalEventType.ORDER_CANCELED,
+                order.getId(), null, order.getCustomerId(), null, order.getAssetName(), order.getOrderSide(),
+                order.getRemainingSize(), order.getPrice(), order.getFilledSize(), null, null);
+    }
+
+    public static JournalEvent orderFilled(Fill fill) {
+        Order buy = fill.getBuyOrder();
+        Order sell = fill.getSellOrder();
+        return new JournalEvent(0, System.currentTimeMillis(), JournalEventType.ORDER_FILLED,
+                buy.getId(), sell.getId(), buy.getCustomerId(), sell.getCustomerId(), buy.getAssetName(), null,
+                FixedPoint.toDecimal(fill.getQuantity()), FixedPoint.toDecimal(fill.getPrice()),
+                FixedPoint.toDecimal(fill.getBuyFilledSize()), FixedPoint.toDecimal(fill.getSellFilledSize()),
+                FixedPoint.toDecimal(fill.getBuyPrice()));
+    }
+
+    //Bakiye olayları FixedPoint birimleriyle üretilir, journal'da BigDecimal olarak saklanır
+    public static JournalEvent assetReserved(Long customerId, String assetName, long amount) {
+        return new JournalEvent(0, System.currentTimeMillis(), JournalEventType.ASSET_RESERVED,
+                null, null, customerId, null, assetName, null, FixedPoint.toDecimal(amount), null, null, null, null);
+    }
+
+    public static JournalEvent assetReleased(Long customerId, String assetName, long amount) {
+        return new JournalEvent(0, System.currentTimeMillis(), JournalEventType.ASSET_RELEASED,
+                null, null, customerId, null, assetName, null, FixedPoint.toDecimal(amount), null, null, null, null);
+    }
+
+    //ORDER_FILLED: alıcının bu eşleşme için limit fiyattan bloke ettiği tutar
+    public BigDecimal getReservedAmount() {
+        if (limitPrice == null)
+            throw new IllegalStateException("ORDER_FILLED olayında alıcının limit fiyatı yok. Sıra: " + sequence);
+        return limitPrice.multiply(quantity);
+    }
+
+    JournalEvent withSequence(long sequence) {
+        return new JournalEvent(sequence, timestamp, type, orderId, counterOrderId, customerId, counterCustomerId,
+                assetName, orderSide, quantity, price, filledSize, counterFilledSize, limitPrice);
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.brokerage.journal;
+
+import com.example.brokerage.enums.OrderSide;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Olayları sabit sıralı ikili formata çevirir. Null değerler long için {@link Long#MIN_VALUE},
+ * metin ve sayılar için -1 uzunluk ile işaretlenir. Sonradan eklenen alanlar sona yazılır; bunlardan önce yazılmış
+ * kayıtlarda o alanlar null okunur.
+ */
+final class JournalEventCodec {
+
+    private static final long NULL_LONG = Long.MIN_VALUE;
+    private static final JournalEventType[] TYPES = JournalEventType.values();
+    private static final OrderSide[] SIDES = OrderSide.values();
+
+    private JournalEventCodec() {
+    }
+
+    static void encode(JournalEvent event, ByteBuffer buffer) {
+        buffer.putLong(event.getSequence());
+        buffer.putLong(event.getTimestamp());
+        buffer.put((byte) event.getType().ordinal());
+        putLong(buffer, event.getOrderId());
+        putLong(buffer, event.getCounterOrderId());
+        putLong(buffer, event.getCustomerId());
+        putLong(buffer, event.getCounterCustomerId());
+        putString(buffer, event.getAssetName());
+        buffer.put(event.getOrderSide() == null ? -1 : (byte) event.getOrderSide().ordinal());
+        putDecimal(buffer, event.getQuantity());
+        putDecimal(buffer, event.getPrice());
+        putDecimal(buffer, event.getFilledSize());
+        putDecimal(buffer, event.getCounterFilledSize());
+        putDecimal(buffer, event.getLimitPrice());
+    }
+
+    static JournalEvent decode(ByteBuffer buffer) {
+        long sequence = buffer.getLong();
+        long timestamp = buffer.getLong();
+        JournalEventType type = TYPES[buffer.get()];
+        Long orderId = getLong(buffer);
+        Long counterOrderId = getLong(buffer);
+        Long customerId = getLong(buffer);
+        Long counterCustomerId = getLong(buffer);
+        String assetName = getString(buffer);
+        byte side = buffer.get();
+        return new JournalEvent(sequence, timestamp, type, orderId, counterOrderId, customerId, counterCustomerId,
+                assetName, side < 0 ? null : SIDES[side],
+                getDecimal(buffer), getDecimal(buffer), getDecimal(buffer), getDecimal(buffer),
+                buffer.hasRemaining() ? getDecimal(buffer) : null);
+    }
+
+    private static void putLong(ByteBuffer buffer, Long value) {
+        buffer.putLong(value == null ? NULL_LONG : value);
+    }
+
+    private static Long getLong(ByteBuffer buffer) {
+        long value = buffer.getLong();
+        return value == NULL_LONG ? null : value;
+    }
+
+    private static void putString(ByteBuffer buffer, String value) {
+        if (value == null) {
+            buffer.putShort((short) -1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        buffer.putShort((short) bytes.length);
+        buffer.put(bytes);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        short length = buffer.getShort();
+        if (length < 0)
+            return null;
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void putDecimal(ByteBuffer buffer, BigDecimal value) {
+        if (value == null) {
+            buffer.putShort((short) -1);
+            return;
+        }
+        byte[] unscaled = value.unscaledValue().toByteArray();
+        buffer.putShort((short) unscaled.length);
+        buffer.putInt(value.scale());
+        buffer.put(unscaled);
+    }
+
+    private static BigDecimal getDecimal(ByteBuffer buffer) {
+        short length = buffer.getShort();
+        if (length < 0)
+            return null;
+        int scale = buffer.getInt();
+        byte[] unscaled = new byte[length];
+        buffer.get(unscaled);
+        return new BigDecimal(new BigInteger(unscaled), scale);
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.brokerage.journal;
+
+public enum JournalEventType {
+    ORDER_CREATED,
+    ORDER_CANCELED,
+    ORDER_FILLED,
+    ASSET_RESERVED,
+    ASSET_RELEASED
+}
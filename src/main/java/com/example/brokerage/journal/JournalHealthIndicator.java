@@ -0,0 +1,31 @@
+package com.example.brokerage.journal;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Journal diske yazamıyorsa ya da projeksiyon sürekli hata veren bir batch yüzünden durduysa düğüm sağlıksız görünür.
+ * Geçici bir hatayla bekleyen projeksiyon ayrıntıda gösterilir.
+ */
+@Component
+public class JournalHealthIndicator implements HealthIndicator {
+
+    private final EventJournal journal;
+    private final JournalProjector projector;
+
+    public JournalHealthIndicator(EventJournal journal, JournalProjector projector) {
+        this.journal = journal;
+        this.projector = projector;
+    }
+
+    @Override
+    public Health health() {
+        Health.Builder health = journal.isFlushFailing() || projector.isHalted() ? Health.down() : Health.up();
+        return health.withDetail("flush", journal.isFlushFailing() ? "failing" : "ok")
+                .withDetail("projection", projector.isHalted() ? "halted" : projector.isStalled() ? "stalled" : "ok")
+                .withDetail("flushedSequence", journal.flushedSequence())
+                .withDetail("projectedSequence", projector.getProjectedSequence())
+                .build();
+    }
+}
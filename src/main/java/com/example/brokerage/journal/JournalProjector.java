@@ -0,0 +1,429 @@
+package com.example.brokerage.journal;
+
+import com.example.brokerage.engine.Settlement;
+import com.example.brokerage.entity.Asset;
+import com.example.brokerage.entity.JournalCheckpoint;
+import com.example.brokerage.entity.Order;
+import com.example.brokerage.enums.AssetLockStrategy;
+import com.example.brokerage.enums.OrderStatus;
+import com.example.brokerage.marketdata.MarketDataPublisher;
+import com.example.brokerage.readmodel.PortfolioListener;
+import com.example.brokerage.readmodel.PortfolioReadModel;
+import com.example.brokerage.repository.AssetRepository;
+import com.example.brokerage.repository.JournalCheckpointRepository;
+import com.example.brokerage.repository.OrderRepository;
+import com.example.brokerage.service.AssetService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Journal olaylarını arka planda veritabanına yansıtır (write-behind). Olaylar journal sırasıyla, boyut ya da süre sınırına
+ * göre toplanan batch'ler halinde tek transaction'da işlenir; batch içindeki değişiklikler bellekte birleştirilip
+ * JDBC batch olarak yazılır. Veritabanı eşleştirme yolunun dışında kalır ve journal'ın gerisinden gelir.
+ * Açılıştan sonra olaylar bellekteki {@link EngineState} kopyasına da uygulanır ve belirli aralıklarla snapshot'ı alınır.
+ * Bakiye satırları seçilen {@link AssetLockStrategy} ile yazılır; kilit ya da version çakışmasında batch beklemeyle yeniden denenir.
+ * Yazılamayan batch atlanmaz: yazılana kadar projeksiyon durur, checkpoint ve bellek durumu o batch'i geçmez.
+ * Veritabanına ulaşılamaması gibi geçici hatalar süresiz yeniden denenir; başka bir hatayla sürekli düşen batch'te ise
+ * projeksiyon tamamen durur (fail-stop), düğüm sağlıksız görünür ve açılışta aynı yerden devam edilir.
+ * Her snapshot'tan sonra veritabanının ve saklanan snapshot'ların geçtiği journal segmentleri silinir.
+ */
+@Slf4j
+@Component
+public class JournalProjector {
+
+    private static final long MAX_STALL_BACKOFF_MILLIS = 5000;
+
+    private final OrderRepository orderRepository;
+    private final AssetRepository assetRepository;
+    private final JournalCheckpointRepository checkpointRepository;
+    private final SnapshotStore snapshotStore;
+    private final EventJournal journal;
+    private final PortfolioReadModel readModel;
+    private final PortfolioListener listener;
+    private final MarketDataPublisher marketData;
+    private final TransactionTemplate transactionTemplate;
+    private final BlockingQueue<JournalEvent> queue;
+    private final int batchSize;
+    private final long maxDelayNanos;
+    private final long snapshotInterval;
+    private final AssetLockStrategy assetLock;
+    private final int maxRetries;
+    private final long retryBackoffMillis;
+    private final int maxPoisonAttempts;
+    private final Counter failures;
+    private final Thread worker;
+
+    private final Object progress = new Object();
+    private volatile long projectedSequence;
+    private volatile EngineState state;
+    private volatile long lastSnapshot;
+    private volatile boolean stalled;
+    private volatile boolean halted;
+    private volatile boolean stopping;
+
+    public JournalProjector(OrderRepository orderRepository, AssetRepository assetRepository,
+                            JournalCheckpointRepository checkpointRepository, SnapshotStore snapshotStore, @Lazy EventJournal journal,
+                            PortfolioReadModel readModel, PortfolioListener listener, MarketDataPublisher marketData,
+                            PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                            @Value("${brokerage.projection.queue-capacity:262144}") int queueCapacity,
+                            @Value("${brokerage.projection.batch-size:512}") int batchSize,
+                            @Value("${brokerage.projection.max-delay-ms:20}") long maxDelayMillis,
+                            @Value("${brokerage.snapshot.interval:60000}") long snapshotInterval,
+                            @Value("${brokerage.projection.asset-lock:PESSIMISTIC}") AssetLockStrategy assetLock,
+                            @Value("${brokerage.projection.max-retries:5}") int maxRetries,
+                            @Value("${brokerage.projection.retry-backoff-ms:2}") long retryBackoffMillis,
+                            @Value("${brokerage.projection.max-poison-attempts:10}") int maxPoisonAttempts,
+                            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.orderRepository = orderRepository;
+        this.assetRepository = assetRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.snapshotStore = snapshotStore;
+        this.journal = journal;
+        this.readModel = readModel;
+        this.listener = listener;
+        this.marketData = marketData;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMillis);
+        this.snapshotInterval = snapshotInterval;
+        this.assetLock = assetLock;
+        this.maxRetries = maxRetries;
+        this.retryBackoffMillis = retryBackoffMillis;
+        this.maxPoisonAttempts = maxPoisonAttempts;
+        this.failures = Counter.builder("brokerage.projection.failures")
+                .description("Yazılamayıp yeniden denenen projeksiyon batch sayısı")
+                .register(meterRegistry);
+        Gauge.builder("brokerage.projection.stalled", this, projector -> projector.stalled ? 1 : 0)
+                .description("Projeksiyon yazılamayan bir batch'te bekliyorsa 1")
+                .register(meterRegistry);
+        Gauge.builder("brokerage.projection.halted", this, projector -> projector.halted ? 1 : 0)
+                .description("Projeksiyon sürekli hata veren bir batch yüzünden durdurulduysa 1")
+                .register(meterRegistry);
+        //Sanal thread modunda JDBC beklemeleri taşıyıcı thread'i tutmaz; tek yazar olduğu için sıra değişmez
+        Thread.Builder builder = virtualThreads ? Thread.ofVirtual() : Thread.ofPlatform().daemon(true);
+        this.worker = builder.name("journal-projector").start(this::run);
+    }
+
+    /**
+     * Kuyruk doluysa yer açılana kadar bekler; projeksiyon geride kaldığında yazanlar da yavaşlar.
+     */
+    public void enqueue(JournalEvent event) {
+        try {
+            queue.put(event);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Journal olayı projeksiyon kuyruğuna eklenemedi", e);
+        }
+    }
+
+    public long getProjectedSequence() {
+        return projectedSequence;
+    }
+
+    public boolean isStalled() {
+        return stalled;
+    }
+
+    public boolean isHalted() {
+        return halted;
+    }
+
+    /**
+     * Verilen sıra numarasına kadar olaylar veritabanına yazılana ya da süre dolana kadar bekler.
+     * Projeksiyon durdurulduysa beklemeden false döner.
+     */
+    public boolean awaitProjected(long sequence, long timeoutMillis) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        synchronized (progress) {
+            while (projectedSequence < sequence) {
+                if (halted)
+                    return false;
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0)
+                    return false;
+                try {
+                    TimeUnit.NANOSECONDS.timedWait(progress, remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Veritabanına yansıtıldığı kayıtlı son sıra numarası; açılışta bundan sonraki olaylar yeniden yansıtılır.
+     */
+    public long checkpoint() {
+        return checkpointRepository.findById(JournalCheckpoint.PROJECTION)
+                .map(JournalCheckpoint::getSequence)
+                .orElse(0L);
+    }
+
+    /**
+     * Açılışta journal'da kalmış olayları çağıran thread'de, canlı akışla aynı batch'lerle yansıtır.
+     * Yazılamayan batch açılışı durdurur; checkpoint onu geçmediği için sonraki açılışta aynı yerden devam edilir.
+     */
+    public void catchUp(List<JournalEvent> events) {
+        for (int from = 0; from < events.size(); from += batchSize)
+            project(events.subList(from, Math.min(from + batchSize, events.size())));
+    }
+
+    /**
+     * Kurtarılan durumu devralır, okuma modelini ve piyasa derinliğini bundan kurar; bundan sonra canlı olaylar hepsine uygulanır.
+     */
+    public void attach(EngineState state) {
+        this.lastSnapshot = System.currentTimeMillis();
+        //Açılışta veritabanı bu noktaya kadar yansıtılmıştır
+        this.projectedSequence = Math.max(projectedSequence, state.getSequence());
+        readModel.load(state);
+        marketData.load(state);
+        this.state = state;
+    }
+
+    public int backlog() {
+        return queue.size();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        stopping = true;
+        worker.interrupt();
+        worker.join();
+    }
+
+    private void run() {
+        List<JournalEvent> batch = new ArrayList<>(batchSize);
+        boolean running = true;
+        boolean written = true;
+        while (running && written) {
+            try {
+                batch.add(queue.take());
+                fill(batch);
+            } catch (InterruptedException e) {
+                running = false;
+            }
+            if (!batch.isEmpty())
+                written = projectLive(batch);
+            batch.clear();
+            if (state != null && System.currentTimeMillis() - lastSnapshot >= snapshotInterval)
+                snapshot();
+        }
+
+        //Kapanışta kuyrukta kalanlar da yazılır; yazılamayan batch ve sonrası journal'da kalır, açılışta yansıtılır
+        while (written && queue.drainTo(batch, batchSize) > 0) {
+            written = projectLive(batch);
+            batch.clear();
+        }
+        if (state != null)
+            snapshot();
+    }
+
+    /**
+     * Batch boyutuna ulaşana ya da ilk olaydan itibaren gecikme sınırı dolana kadar olay toplar.
+     * Gecikme sınırı veritabanının journal'ın ne kadar gerisinde kalabileceğini belirler.
+     */
+    private void fill(List<JournalEvent> batch) throws InterruptedException {
+        long deadline = System.nanoTime() + maxDelayNanos;
+        while (batch.size() < batchSize) {
+            if (queue.drainTo(batch, batchSize - batch.size()) > 0)
+                continue;
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0)
+                return;
+            JournalEvent next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null)
+                return;
+            batch.add(next);
+        }
+    }
+
+    //Bellek durumu yalnızca veritabanına yazılan batch'lerle ilerler
+    private boolean projectLive(List<JournalEvent> batch) {
+        if (!projectUntilWritten(batch))
+            return false;
+        EngineState current = state;
+        if (current != null) {
+            batch.forEach(current::apply);
+            readModel.apply(batch, listener);
+            marketData.apply(batch);
+        }
+        return true;
+    }
+
+    /**
+     * Batch yazılana kadar artan beklemeyle yeniden dener; bu sürede sonraki batch'ler bekler ve kuyruk dolunca yazanlar da durur.
+     * Kapanışta ya da geçici olmayan hata sınırı aşılınca false döner.
+     */
+    private boolean projectUntilWritten(List<JournalEvent> batch) {
+        int poisonAttempts = 0;
+        for (int attempt = 0; ; attempt++) {
+            try {
+                project(batch);
+                if (stalled) {
+                    stalled = false;
+                    log.info("Journal projection resumed. Sequences: {}-{}",
+                            batch.get(0).getSequence(), batch.get(batch.size() - 1).getSequence());
+                }
+                return true;
+            } catch (RuntimeException e) {
+                stalled = true;
+                failures.increment();
+                if (!isTransient(e) && ++poisonAttempts >= maxPoisonAttempts) {
+                    halt(batch, attempt + 1, e);
+                    return false;
+                }
+                log.error("Journal projection failed, projection stalled. Sequences: {}-{} Attempt: {}",
+                        batch.get(0).getSequence(), batch.get(batch.size() - 1).getSequence(), attempt + 1, e);
+                if (stopping || !pause(Math.min(Math.max(retryBackoffMillis, 1) << Math.min(attempt, 20), MAX_STALL_BACKOFF_MILLIS)))
+                    return false;
+            }
+        }
+    }
+
+    //Batch journal'da kalır; yeniden açılışta checkpoint'ten itibaren yansıtılır ve hata sürerse açılış da durur
+    private void halt(List<JournalEvent> batch, int attempts, RuntimeException e) {
+        log.error("Journal projection halted, batch keeps failing. Sequences: {}-{} Attempts: {}",
+                batch.get(0).getSequence(), batch.get(batch.size() - 1).getSequence(), attempts, e);
+        synchronized (progress) {
+            halted = true;
+            progress.notifyAll();
+        }
+    }
+
+    //Veritabanına ya da bağlantıya bağlı hatalar kendiliğinden düzelebilir; diğerleri aynı batch'te tekrar eder
+    private static boolean isTransient(RuntimeException e) {
+        return e instanceof TransientDataAccessException || e instanceof RecoverableDataAccessException
+                || e instanceof DataAccessResourceFailureException || e instanceof CannotCreateTransactionException;
+    }
+
+    /**
+     * Batch'i tek transaction'da yazar; çakışmalar dışındaki hatalar çağırana iletilir ve sıra numarası ilerlemez.
+     */
+    void project(List<JournalEvent> batch) {
+        long last = batch.get(batch.size() - 1).getSequence();
+        for (int attempt = 0; ; attempt++) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    ProjectionBatch writes = ProjectionBatch.load(batch, orderRepository, assetRepository, assetLock);
+                    batch.forEach(event -> apply(event, writes));
+                    writes.flush(orderRepository, assetRepository);
+                    checkpointRepository.save(new JournalCheckpoint(JournalCheckpoint.PROJECTION, last));
+                });
+                break;
+            } catch (ConcurrencyFailureException e) {
+                if (attempt >= maxRetries)
+                    throw e;
+                log.debug("Journal projection conflict, retrying. Sequences: {}-{} Attempt: {}",
+                        batch.get(0).getSequence(), last, attempt + 1);
+                backoff(attempt);
+            }
+        }
+        synchronized (progress) {
+            projectedSequence = last;
+            progress.notifyAll();
+        }
+    }
+
+    //Çakışan yazarlar aynı anda yeniden denemesin diye bekleme üst sınırı her denemede ikiye katlanır, süre rastgele seçilir
+    private void backoff(int attempt) {
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong((retryBackoffMillis << attempt) + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private boolean pause(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            return false;
+        }
+    }
+
+    //Snapshot projeksiyon thread'inde alınır, bu sırada durum değişmez ve kuyruk beklemeye devam eder
+    private void snapshot() {
+        lastSnapshot = System.currentTimeMillis();
+        try {
+            snapshotStore.write(state);
+        } catch (IOException e) {
+            log.error("Snapshot write failed. Sequence: {}", state.getSequence(), e);
+            return;
+        }
+        retireJournal();
+    }
+
+    /**
+     * Açılış veritabanından ya da saklanan herhangi bir snapshot'tan kurulabilir; ikisinin de geçtiği segmentler artık okunmaz.
+     */
+    void retireJournal() {
+        try {
+            journal.retire(Math.min(projectedSequence, snapshotStore.oldestSequence()));
+        } catch (IOException | UncheckedIOException e) {
+            log.error("Journal retirement failed. Sequence: {}", projectedSequence, e);
+        }
+    }
+
+    private void apply(JournalEvent event, ProjectionBatch writes) {
+        switch (event.getType()) {
+            case ORDER_CREATED -> writes.create(event);
+            case ORDER_FILLED -> applyFill(event, writes);
+            case ORDER_CANCELED -> writes.cancel(event.getOrderId());
+            case ASSET_RESERVED -> adjustUsable(writes.asset(event.getCustomerId(), event.getAssetName()), event.getQuantity().negate());
+            case ASSET_RELEASED -> adjustUsable(writes.asset(event.getCustomerId(), event.getAssetName()), event.getQuantity());
+        }
+    }
+
+    //Bakiyeler EngineState ve okuma modeliyle aynı şekilde olaydan hesaplanır; emir satırları ise olmak zorundadır
+    private void applyFill(JournalEvent event, ProjectionBatch writes) {
+        Order buy = writes.order(event.getOrderId());
+        Order sell = writes.order(event.getCounterOrderId());
+
+        BigDecimal quantity = event.getQuantity();
+        BigDecimal amount = event.getPrice().multiply(quantity);
+        Settlement.buy(writes.asset(event.getCustomerId(), AssetService.CASH_ASSET), writes.asset(event.getCustomerId(), event.getAssetName()),
+                quantity, amount, event.getReservedAmount());
+        Settlement.sell(writes.asset(event.getCounterCustomerId(), event.getAssetName()),
+                writes.asset(event.getCounterCustomerId(), AssetService.CASH_ASSET), quantity, amount);
+
+        markFilled(buy, event.getFilledSize());
+        markFilled(sell, event.getCounterFilledSize());
+    }
+
+    private void adjustUsable(Asset asset, BigDecimal delta) {
+        asset.setUsableSize(asset.getUsableSize().add(delta));
+    }
+
+    private void markFilled(Order order, BigDecimal filledSize) {
+        order.setFilledSize(filledSize);
+        if (order.getRemainingSize().signum() == 0)
+            order.setStatus(OrderStatus.MATCHED);
+    }
+}
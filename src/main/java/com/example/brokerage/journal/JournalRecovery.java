@@ -0,0 +1,140 @@
+package com.example.brokerage.journal;
+
+import com.example.brokerage.engine.BalanceLedger;
+import com.example.brokerage.entity.Order;
+import com.example.brokerage.enums.OrderStatus;
+import com.example.brokerage.repository.AssetRepository;
+import com.example.brokerage.repository.OrderRepository;
+import com.example.brokerage.service.MatchService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Uygulama istek almaya başlamadan önce durumu geri yükler:
+ * veritabanını son checkpoint'ten sonraki journal olaylarıyla tamamlar, bellekteki durumu son snapshot ve
+ * sonrasındaki olaylardan kurar ve emir defterlerini bu durumdan hazırlar. Snapshot varsa bakiyeler de ondan yüklenir,
+ * tablolar sadece snapshot yokken taranır.
+ */
+@Slf4j
+@Component
+public class JournalRecovery implements SmartInitializingSingleton {
+
+    private static final int CATCH_UP_CHUNK = 4096;
+    private static final String PROJECTION_PASS = "projection";
+    private static final String STATE_PASS = "state";
+
+    private final EventJournal journal;
+    private final JournalProjector projector;
+    private final SnapshotStore snapshotStore;
+    private final OrderRepository orderRepository;
+    private final AssetRepository assetRepository;
+    private final MatchService matchService;
+    private final BalanceLedger ledger;
+    private final Timer recoveryTimer;
+    private final Map<String, AtomicLong> recoveredEvents = new HashMap<>();
+    private final Map<String, AtomicLong> recoveredEventsPerSecond = new HashMap<>();
+
+    public JournalRecovery(EventJournal journal, JournalProjector projector, SnapshotStore snapshotStore,
+                           OrderRepository orderRepository, AssetRepository assetRepository,
+                           MatchService matchService, BalanceLedger ledger, MeterRegistry meterRegistry) {
+        this.journal = journal;
+        this.projector = projector;
+        this.snapshotStore = snapshotStore;
+        this.orderRepository = orderRepository;
+        this.assetRepository = assetRepository;
+        this.matchService = matchService;
+        this.ledger = ledger;
+        this.recoveryTimer = Timer.builder("brokerage.recovery.duration")
+                .description("Açılışta durumun geri yüklenme süresi")
+                .register(meterRegistry);
+        //projection: veritabanına yetiştirilen olaylar, state: snapshot'a uygulanan olaylar; aynı olay iki geçişte de sayılabilir
+        for (String pass : List.of(PROJECTION_PASS, STATE_PASS)) {
+            Gauge.builder("brokerage.recovery.events", recoveredEvents.computeIfAbsent(pass, key -> new AtomicLong()), AtomicLong::get)
+                    .description("Açılışta journal'dan yeniden uygulanan olay sayısı")
+                    .tag("pass", pass)
+                    .register(meterRegistry);
+            Gauge.builder("brokerage.recovery.events.rate", recoveredEventsPerSecond.computeIfAbsent(pass, key -> new AtomicLong()), AtomicLong::get)
+                    .description("Açılışta saniyede yeniden uygulanan olay sayısı")
+                    .tag("pass", pass)
+                    .baseUnit("events/s")
+                    .register(meterRegistry);
+        }
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        try {
+            recover();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    void recover() throws IOException {
+        long start = System.nanoTime();
+
+        //Veritabanına yansımadan kalan olaylar önce yansıtılır
+        long passStart = System.nanoTime();
+        AtomicLong projected = new AtomicLong();
+        List<JournalEvent> unprojected = new ArrayList<>(CATCH_UP_CHUNK);
+        journal.replay(projector.checkpoint(), event -> {
+            unprojected.add(event);
+            if (unprojected.size() == CATCH_UP_CHUNK) {
+                projector.catchUp(unprojected);
+                unprojected.clear();
+            }
+            projected.incrementAndGet();
+        });
+        projector.catchUp(unprojected);
+        record(PROJECTION_PASS, projected.get(), System.nanoTime() - passStart);
+
+        //Snapshot yoksa veritabanı artık journal ile aynı noktadadır ve başlangıç durumu olarak alınır
+        passStart = System.nanoTime();
+        AtomicLong applied = new AtomicLong();
+        EngineState state = snapshotStore.loadLatest().orElse(null);
+        if (state == null) {
+            state = EngineState.of(journal.lastSequence(),
+                    orderRepository.findByStatusOrderByCreateDateAscIdAsc(OrderStatus.PENDING), assetRepository.findAll());
+        } else {
+            EngineState restored = state;
+            journal.replay(state.getSequence(), event -> {
+                restored.apply(event);
+                applied.incrementAndGet();
+            });
+        }
+        record(STATE_PASS, applied.get(), System.nanoTime() - passStart);
+        snapshotStore.write(state);
+
+        //Durum journal'ın sonundadır; bakiyeler satır numaralarıyla birlikte buradan yüklenir
+        ledger.load(state.getAssets());
+
+        //Defterler kurulurken oluşabilecek eşleşmeler de bu kopyaya işlensin diye önce projeksiyona devredilir
+        List<Order> openOrders = state.getOpenOrders().stream().map(EngineState::copy).toList();
+        projector.attach(state);
+        projector.retireJournal();
+        matchService.restore(openOrders);
+
+        long elapsed = System.nanoTime() - start;
+        recoveryTimer.record(elapsed, TimeUnit.NANOSECONDS);
+        log.info("State recovered. Sequence: {} OpenOrders: {} ProjectedEvents: {} AppliedEvents: {} Duration: {} ms",
+                journal.lastSequence(), openOrders.size(), projected.get(), applied.get(), TimeUnit.NANOSECONDS.toMillis(elapsed));
+    }
+
+    private void record(String pass, long events, long elapsed) {
+        recoveredEvents.get(pass).set(events);
+        recoveredEventsPerSecond.get(pass).set(events * TimeUnit.SECONDS.toNanos(1) / Math.max(elapsed, 1));
+    }
+}
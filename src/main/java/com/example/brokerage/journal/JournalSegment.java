@@ -0,0 +1,114 @@
+package com.example.brokerage.journal;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * Sabit boyutlu, belleğe eşlenmiş journal dosyası. Her kayıt [uzunluk][crc32c][veri] çerçevesiyle yazılır,
+ * sıfır uzunluk verinin sonunu gösterir.
+ */
+final class JournalSegment implements AutoCloseable {
+
+    private static final int FRAME_HEADER = 8;
+
+    private final Path path;
+    private final long firstSequence;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+
+    private int validLength;
+
+    private JournalSegment(Path path, long firstSequence, int size) throws IOException {
+        this.path = path;
+        this.firstSequence = firstSequence;
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(size, channel.size()));
+    }
+
+    static JournalSegment open(Path path, long firstSequence, int size) throws IOException {
+        return new JournalSegment(path, firstSequence, size);
+    }
+
+    long getFirstSequence() {
+        return firstSequence;
+    }
+
+    Path getPath() {
+        return path;
+    }
+
+    boolean tryAppend(ByteBuffer payload) {
+        int length = payload.remaining();
+        int start = buffer.position();
+        //Sonraki kaydın uzunluk alanı için yer bırakılır, dosya sonu her zaman sıfırla biter
+        if (buffer.capacity() - start < FRAME_HEADER + length + Integer.BYTES)
+            return false;
+
+        CRC32C crc = new CRC32C();
+        crc.update(payload.duplicate());
+        buffer.putInt(start + Integer.BYTES, (int) crc.getValue());
+        buffer.put(start + FRAME_HEADER, payload, payload.position(), length);
+        buffer.putInt(start, length);
+        buffer.position(start + FRAME_HEADER + length);
+        return true;
+    }
+
+    /**
+     * Geçerli kayıtları sırayla okur; yarım kalmış, CRC'si tutmayan ya da sırası bozuk ilk kayıtta durur.
+     * Okunan son kaydın ardından beklenen sıra numarasını döner.
+     */
+    long read(long expectedSequence, Consumer<JournalEvent> consumer) {
+        int position = 0;
+        while (buffer.capacity() - position >= FRAME_HEADER) {
+            int length = buffer.getInt(position);
+            if (length <= 0 || length > buffer.capacity() - position - FRAME_HEADER)
+                break;
+
+            ByteBuffer payload = buffer.slice(position + FRAME_HEADER, length);
+            CRC32C crc = new CRC32C();
+            crc.update(payload.duplicate());
+            if ((int) crc.getValue() != buffer.getInt(position + Integer.BYTES))
+                break;
+
+            JournalEvent event = JournalEventCodec.decode(payload);
+            if (event.getSequence() != expectedSequence)
+                break;
+
+            consumer.accept(event);
+            expectedSequence++;
+            position += FRAME_HEADER + length;
+        }
+        validLength = position;
+        return expectedSequence;
+    }
+
+    /**
+     * Segmenti okur, geçerli verinin sonrasını sıfırlar ve yazma konumunu oraya taşır.
+     */
+    long recover(long expectedSequence) {
+        long next = read(expectedSequence, event -> { });
+        //Yarım kaydın uzunluk ya da CRC alanında sıfır olabilir; ilk sıfırda durmadan dosya sonuna kadar temizlenir
+        for (int i = validLength; i < buffer.capacity(); i++) {
+            if (buffer.get(i) != 0)
+                buffer.put(i, (byte) 0);
+        }
+        buffer.position(validLength);
+        return next;
+    }
+
+    void force() {
+        buffer.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        buffer.force();
+        channel.close();
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.brokerage.journal;
+
+import com.example.brokerage.entity.Asset;
+import com.example.brokerage.entity.Order;
+import com.example.brokerage.enums.AssetLockStrategy;
+import com.example.brokerage.enums.OrderStatus;
+import com.example.brokerage.repository.AssetRepository;
+import com.example.brokerage.repository.OrderRepository;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+/**
+ * Bir projeksiyon batch'inin dokunduğu emir ve bakiyeleri tek sorguda yükler, değişiklikleri bellekte biriktirir
+ * ve sonunda tek seferde kaydeder. Aynı satıra batch içinde kaç olay gelirse gelsin veritabanına bir kez yazılır.
+ * Sadece iptal edilen emirler yüklenmez, tek bir UPDATE ile iptal edilir. Yeni emirler olaydan kurulup batch halinde eklenir;
+ * numarası veritabanında zaten olan emir (yeniden oynatılan eski journal) tekrar eklenmez.
+ * Koşullu güncelleme stratejisinde bakiyeler de yüklenmez; satır başına birikmiş fark flush'ta tek UPDATE ile uygulanır.
+ */
+final class ProjectionBatch {
+
+    private final Map<Long, Order> orders = new HashMap<>();
+    private final Map<String, Asset> assets = new HashMap<>();
+    private final List<Order> createdOrders = new ArrayList<>();
+    private final Set<Order> dirtyOrders = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final Set<Asset> dirtyAssets = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final Set<Long> canceledIds = new LinkedHashSet<>();
+    private final AssetLockStrategy assetLock;
+
+    private ProjectionBatch(AssetLockStrategy assetLock) {
+        this.assetLock = assetLock;
+    }
+
+    static ProjectionBatch load(List<JournalEvent> events, OrderRepository orderRepository, AssetRepository assetRepository,
+                                AssetLockStrategy assetLock) {
+        Set<Long> orderIds = new HashSet<>();
+        Set<Long> customerIds = new HashSet<>();
+        for (JournalEvent event : events) {
+            switch (event.getType()) {
+                case ORDER_CREATED -> orderIds.add(event.getOrderId());
+                case ORDER_FILLED -> {
+                    orderIds.add(event.getOrderId());
+                    orderIds.add(event.getCounterOrderId());
+                    customerIds.add(event.getCustomerId());
+                    customerIds.add(event.getCounterCustomerId());
+                }
+                case ASSET_RESERVED, ASSET_RELEASED -> customerIds.add(event.getCustomerId());
+                default -> {
+                }
+            }
+        }
+
+        ProjectionBatch batch = new ProjectionBatch(assetLock);
+        if (!orderIds.isEmpty())
+            orderRepository.findAllById(orderIds).forEach(order -> batch.orders.put(order.getId(), order));
+        if (!customerIds.isEmpty()) {
+            List<Asset> loaded = switch (assetLock) {
+                case OPTIMISTIC -> assetRepository.findByCustomerIdIn(customerIds);
+                case PESSIMISTIC -> assetRepository.findForUpdateByCustomerIdIn(customerIds);
+                //asset() sıfırdan başlayan fark kayıtları verir
+                case CONDITIONAL -> List.of();
+            };
+            loaded.forEach(asset -> batch.assets.put(key(asset.getCustomerId(), asset.getAssetName()), asset));
+        }
+        return batch;
+    }
+
+    void create(JournalEvent event) {
+        if (orders.containsKey(event.getOrderId()))
+            return;
+        Order order = EngineState.toOrder(event);
+        orders.put(order.getId(), order);
+        createdOrders.add(order);
+    }
+
+    Order order(Long orderId) {
+        Order order = orders.get(orderId);
+        if (order == null)
+            throw new RuntimeException("Emir bulunamadı: " + orderId);
+        dirtyOrders.add(order);
+        return order;
+    }
+
+    //Batch'te eşleşmesi de olan emir zaten yüklüdür, durumu entity üzerinden yazılır
+    void cancel(Long orderId) {
+        Order order = orders.get(orderId);
+        if (order == null) {
+            canceledIds.add(orderId);
+            return;
+        }
+        order.setStatus(OrderStatus.CANCELED);
+        dirtyOrders.add(order);
+    }
+
+    Asset asset(Long customerId, String assetName) {
+        Asset asset = assets.computeIfAbsent(key(customerId, assetName), key -> {
+            Asset created = new Asset();
+            created.setCustomerId(customerId);
+            created.setAssetName(assetName);
+            created.setSize(BigDecimal.ZERO);
+            created.setUsableSize(BigDecimal.ZERO);
+            return created;
+        });
+        dirtyAssets.add(asset);
+        return asset;
+    }
+
+    //Yeni emirler güncellemelerden önce eklenir; aynı batch'te eşleşen ya da iptal edilen emir son haliyle eklenmiş olur
+    void flush(OrderRepository orderRepository, AssetRepository assetRepository) {
+        if (!createdOrders.isEmpty())
+            orderRepository.insertAll(createdOrders);
+        dirtyOrders.removeAll(createdOrders);
+        if (!dirtyOrders.isEmpty())
+            orderRepository.saveAll(dirtyOrders);
+        if (!dirtyAssets.isEmpty()) {
+            if (assetLock == AssetLockStrategy.CONDITIONAL)
+                applyDeltas(assetRepository);
+            else
+                assetRepository.saveAll(dirtyAssets);
+        }
+        if (!canceledIds.isEmpty())
+            orderRepository.cancelPending(canceledIds);
+    }
+
+    //Satır kilitleri her batch'te aynı sırayla alınsın diye farklar müşteri ve varlık adına göre sıralanır.
+    //Güncellenemeyen fark için satır yoksa fark yeni satır olarak eklenir; satır varsa bakiye yetersizdir ve batch geri alınır
+    private void applyDeltas(AssetRepository assetRepository) {
+        List<Asset> deltas = new ArrayList<>(dirtyAssets);
+        deltas.sort(Comparator.comparing(Asset::getCustomerId).thenComparing(Asset::getAssetName, String.CASE_INSENSITIVE_ORDER));
+        for (Asset delta : deltas) {
+            if (assetRepository.applyDelta(delta.getCustomerId(), delta.getAssetName(), delta.getSize(), delta.getUsableSize()) == 1)
+                continue;
+            if (assetRepository.findByCustomerIdAndAssetNameIgnoreCase(delta.getCustomerId(), delta.getAssetName()).isPresent())
+                throw new RuntimeException("Bakiye güncellenemedi, kullanılabilir bakiye yetersiz. Müşteri: "
+                        + delta.getCustomerId() + " Varlık: " + delta.getAssetName());
+            assetRepository.save(delta);
+        }
+    }
+
+    private static String key(Long customerId, String assetName) {
+        return customerId + ":" + assetName.toUpperCase(Locale.ROOT);
+    }
+}
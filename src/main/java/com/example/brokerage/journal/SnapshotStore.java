@@ -0,0 +1,118 @@
+package com.example.brokerage.journal;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * {@link EngineState} snapshot'larını ikili formatta saklar. Dosya önce geçici isimle yazılıp diske senkronlanır,
+ * sonra atomik olarak yerine taşınır. Sonda tüm içeriğin CRC32C değeri bulunur; bozuk snapshot atlanıp bir öncekine dönülür.
+ */
+@Slf4j
+@Component
+public class SnapshotStore {
+
+    private static final int MAGIC = 0x42524B53;
+    //Sürüm 2 bakiye satır numaralarını da taşır; eski sürüm okunamaz ve açılış veritabanından kurulur
+    private static final int VERSION = 2;
+    private static final String PREFIX = "snapshot-";
+    private static final String SUFFIX = ".bin";
+
+    private final Path directory;
+    private final int retain;
+
+    public SnapshotStore(@Value("${brokerage.snapshot.directory:./data/snapshots}") String directory,
+                         @Value("${brokerage.snapshot.retain:2}") int retain,
+                         @Value("${brokerage.journal.clean-on-start:false}") boolean cleanOnStart) throws IOException {
+        this.directory = Path.of(directory);
+        this.retain = retain;
+
+        Files.createDirectories(this.directory);
+        if (cleanOnStart)
+            for (Path snapshot : snapshots())
+                Files.delete(snapshot);
+    }
+
+    public void write(EngineState state) throws IOException {
+        Path target = directory.resolve(String.format("%s%020d%s", PREFIX, state.getSequence(), SUFFIX));
+        Path temp = directory.resolve(target.getFileName() + ".tmp");
+
+        try (FileOutputStream file = new FileOutputStream(temp.toFile())) {
+            CheckedOutputStream checked = new CheckedOutputStream(new BufferedOutputStream(file, 1 << 16), new CRC32C());
+            DataOutputStream out = new DataOutputStream(checked);
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            state.write(out);
+            out.writeLong(checked.getChecksum().getValue());
+            out.flush();
+            file.getFD().sync();
+        }
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+        List<Path> snapshots = snapshots();
+        for (int i = 0; i < snapshots.size() - retain; i++)
+            Files.delete(snapshots.get(i));
+    }
+
+    /**
+     * En yeni okunabilir snapshot'ı döner.
+     */
+    public Optional<EngineState> loadLatest() throws IOException {
+        List<Path> snapshots = snapshots();
+        for (int i = snapshots.size() - 1; i >= 0; i--) {
+            try {
+                return Optional.of(read(snapshots.get(i)));
+            } catch (IOException e) {
+                log.warn("Snapshot could not be read, trying previous one. File: {}", snapshots.get(i), e);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Saklanan en eski snapshot'ın sıra numarası; en yenisi okunamazsa açılış ona dönebilir. Snapshot yoksa 0.
+     */
+    public long oldestSequence() throws IOException {
+        List<Path> snapshots = snapshots();
+        if (snapshots.isEmpty())
+            return 0;
+        String name = snapshots.get(0).getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+
+    private EngineState read(Path path) throws IOException {
+        try (InputStream file = Files.newInputStream(path)) {
+            CheckedInputStream checked = new CheckedInputStream(new BufferedInputStream(file, 1 << 16), new CRC32C());
+            DataInputStream in = new DataInputStream(checked);
+            if (in.readInt() != MAGIC || in.readInt() != VERSION)
+                throw new IOException("Snapshot formatı tanınmadı: " + path);
+            EngineState state = EngineState.read(in);
+            long expected = checked.getChecksum().getValue();
+            if (in.readLong() != expected)
+                throw new IOException("Snapshot CRC uyuşmuyor: " + path);
+            return state;
+        }
+    }
+
+    private List<Path> snapshots() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> {
+                        String name = path.getFileName().toString();
+                        return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+                    })
+                    .sorted()
+                    .toList();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.brokerage.marketdata;
+
+import com.example.brokerage.dto.response.DepthSnapshot;
+import com.example.brokerage.dto.response.PriceLevelView;
+import com.example.brokerage.dto.response.TopOfBook;
+import com.example.brokerage.enums.OrderSide;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+/**
+ * Tek varlığın fiyat seviyelerine göre toplanmış derinliği. Emirler tek tek tutulmaz, her seviyede
+ * toplam miktar ve emir sayısı vardır. Projeksiyon thread'i yazar, istekler okur; erişimler senkronizedir.
+ */
+class DepthBook {
+
+    private final String assetName;
+    private final NavigableMap<BigDecimal, Level> bids = new TreeMap<>(Comparator.reverseOrder());
+    private final NavigableMap<BigDecimal, Level> asks = new TreeMap<>();
+    private int openOrders;
+
+    DepthBook(String assetName) {
+        this.assetName = assetName;
+    }
+
+    synchronized void add(OrderSide side, BigDecimal price, BigDecimal quantity) {
+        Level level = levels(side).computeIfAbsent(price, key -> new Level());
+        level.quantity = level.quantity.add(quantity);
+        level.orders++;
+        openOrders++;
+    }
+
+    //closed emrin bu miktarla seviyeden tamamen çıktığını gösterir
+    synchronized void reduce(OrderSide side, BigDecimal price, BigDecimal quantity, boolean closed) {
+        NavigableMap<BigDecimal, Level> levels = levels(side);
+        Level level = levels.get(price);
+        if (level == null)
+            return;
+        level.quantity = level.quantity.subtract(quantity);
+        if (closed) {
+            level.orders--;
+            openOrders--;
+        }
+        if (level.orders <= 0 || level.quantity.signum() <= 0)
+            levels.remove(price);
+    }
+
+    synchronized int openOrders() {
+        return openOrders;
+    }
+
+    synchronized TopOfBook top(long sequence) {
+        return new TopOfBook(assetName, first(bids), first(asks), sequence);
+    }
+
+    synchronized DepthSnapshot depth(int maxLevels, long sequence) {
+        return new DepthSnapshot(assetName, view(bids, maxLevels), view(asks, maxLevels), sequence);
+    }
+
+    private NavigableMap<BigDecimal, Level> levels(OrderSide side) {
+        return side == OrderSide.BUY ? bids : asks;
+    }
+
+    private static PriceLevelView first(NavigableMap<BigDecimal, Level> levels) {
+        Map.Entry<BigDecimal, Level> best = levels.firstEntry();
+        return best == null ? null : best.getValue().view(best.getKey());
+    }
+
+    private static List<PriceLevelView> view(NavigableMap<BigDecimal, Level> levels, int maxLevels) {
+        List<PriceLevelView> views = new ArrayList<>(Math.min(levels.size(), maxLevels));
+        for (Map.Entry<BigDecimal, Level> entry : levels.entrySet()) {
+            if (views.size() == maxLevels)
+                break;
+            views.add(entry.getValue().view(entry.getKey()));
+        }
+        return views;
+    }
+
+    private static class Level {
+        private BigDecimal quantity = BigDecimal.ZERO;
+        private int orders;
+
+        PriceLevelView view(BigDecimal price) {
+            return new PriceLevelView(price, quantity, orders);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.brokerage.marketdata;
+
+import com.example.brokerage.dto.response.DepthSnapshot;
+import com.example.brokerage.dto.response.TopOfBook;
+import com.example.brokerage.entity.Order;
+import com.example.brokerage.enums.OrderSide;
+import com.example.brokerage.journal.EngineState;
+import com.example.brokerage.journal.JournalEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Varlık başına fiyat seviyesi derinliğini emir akışından artımlı olarak tutar. Açılışta kurtarılan durumdaki
+ * açık emirlerden kurulur, sonra projeksiyon thread'inde journal olaylarıyla güncellenir; orders tablosu hiç taranmaz.
+ * Eşleşmelerde emrin kendi fiyat seviyesi azaltılabilsin diye açık emirlerin kalan miktarı ve fiyatı ayrıca tutulur.
+ */
+@Component
+public class MarketDataPublisher {
+
+    private final Map<String, DepthBook> books = new ConcurrentHashMap<>();
+    private final Map<Long, RestingOrder> restingOrders = new HashMap<>();
+    private final MeterRegistry meterRegistry;
+    private volatile Consumer<Set<String>> changeListener = changed -> {
+    };
+    private volatile long sequence;
+
+    public MarketDataPublisher(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("brokerage.marketdata.books", books, Map::size)
+                .description("Derinliği tutulan varlık sayısı")
+                .register(meterRegistry);
+    }
+
+    //Her batch'ten sonra değişen varlıklarla projeksiyon thread'inden çağrılır, bloklamamalıdır
+    public void onChange(Consumer<Set<String>> listener) {
+        this.changeListener = listener;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public void load(EngineState state) {
+        books.clear();
+        restingOrders.clear();
+        for (Order order : state.getOpenOrders())
+            rest(order.getId(), order.getAssetName(), order.getOrderSide(), order.getPrice(), order.getRemainingSize());
+        sequence = state.getSequence();
+    }
+
+    /**
+     * Sadece projeksiyon thread'inden çağrılır. Daha önce uygulanmış olaylar atlanır.
+     */
+    public void apply(List<JournalEvent> events) {
+        Set<String> changed = new HashSet<>();
+        for (JournalEvent event : events) {
+            if (event.getSequence() <= sequence)
+                continue;
+            switch (event.getType()) {
+                case ORDER_CREATED -> changed.add(rest(event.getOrderId(), event.getAssetName(), event.getOrderSide(),
+                        event.getPrice(), event.getQuantity().subtract(event.getFilledSize())));
+                case ORDER_CANCELED -> remove(event.getOrderId(), null, changed);
+                case ORDER_FILLED -> {
+                    remove(event.getOrderId(), event.getQuantity(), changed);
+                    remove(event.getCounterOrderId(), event.getQuantity(), changed);
+                }
+                default -> {
+                }
+            }
+            sequence = event.getSequence();
+        }
+        if (!changed.isEmpty())
+            changeListener.accept(changed);
+    }
+
+    public Optional<TopOfBook> top(String assetName) {
+        DepthBook book = books.get(key(assetName));
+        return book == null ? Optional.empty() : Optional.of(book.top(sequence));
+    }
+
+    public Optional<DepthSnapshot> depth(String assetName, int maxLevels) {
+        DepthBook book = books.get(key(assetName));
+        return book == null ? Optional.empty() : Optional.of(book.depth(maxLevels, sequence));
+    }
+
+    private String rest(Long orderId, String assetName, OrderSide side, BigDecimal price, BigDecimal remaining) {
+        String key = key(assetName);
+        if (remaining.signum() > 0) {
+            restingOrders.put(orderId, new RestingOrder(key, side, price, remaining));
+            books.computeIfAbsent(key, this::newBook).add(side, price, remaining);
+        }
+        return key;
+    }
+
+    //quantity null ise emrin kalanının tamamı çıkar
+    private void remove(Long orderId, BigDecimal quantity, Set<String> changed) {
+        RestingOrder order = restingOrders.get(orderId);
+        if (order == null)
+            return;
+        BigDecimal removed = quantity == null ? order.remaining : quantity.min(order.remaining);
+        order.remaining = order.remaining.subtract(removed);
+        boolean closed = order.remaining.signum() <= 0;
+        if (closed)
+            restingOrders.remove(orderId);
+        books.get(order.assetName).reduce(order.side, order.price, removed, closed);
+        changed.add(order.assetName);
+    }
+
+    //Gauge varlık adıyla okur; defter yeniden yüklense de aynı varlık için tek gauge kalır
+    private DepthBook newBook(String assetName) {
+        Gauge.builder("brokerage.orders.open", () -> {
+                    DepthBook book = books.get(assetName);
+                    return book == null ? 0 : book.openOrders();
+                })
+                .description("Varlık başına defterde bekleyen açık emir sayısı")
+                .tag("asset", assetName)
+                .register(meterRegistry);
+        return new DepthBook(assetName);
+    }
+
+    private static String key(String assetName) {
+        return assetName.toUpperCase(Locale.ROOT);
+    }
+
+    private static class RestingOrder {
+        private final String assetName;
+        private final OrderSide side;
+        private final BigDecimal price;
+        private BigDecimal remaining;
+
+        RestingOrder(String assetName, OrderSide side, BigDecimal price, BigDecimal remaining) {
+            this.assetName = assetName;
+            this.side = side;
+            this.price = price;
+            this.remaining = remaining;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.brokerage.pipeline;
+
+import com.example.brokerage.dto.request.CreateOrderRequest;
+import com.example.brokerage.dto.response.BulkOrderResult;
+import com.example.brokerage.engine.ShardedSequencer;
+import com.example.brokerage.entity.Order;
+import com.example.brokerage.enums.OrderSide;
+import com.example.brokerage.service.AssetService;
+import lombok.Getter;
+
+/**
+ * Toplu emir komutundaki tek bir emrin aşamalar boyunca taşınan durumu.
+ * Bir kalemin hatası sadece o kalemi düşürür, sepetin geri kalanı işlenmeye devam eder.
+ */
+@Getter
+public class BulkOrderItem {
+
+    private final int index;
+    private final CreateOrderRequest request;
+    private Long customerId;
+    private long reservedAmount;
+    private Order order;
+    private RuntimeException error;
+    private String rejectedStage;
+
+    BulkOrderItem(int index, CreateOrderRequest request) {
+        this.index = index;
+        this.request = request;
+    }
+
+    boolean failed() {
+        return error != null;
+    }
+
+    void fail(RuntimeException error) {
+        this.error = error;
+    }
+
+    void markRejected(String stage) {
+        if (rejectedStage == null)
+            rejectedStage = stage;
+    }
+
+    void setCustomerId(Long customerId) {
+        this.customerId = customerId;
+    }
+
+    void setReservedAmount(long reservedAmount) {
+        this.reservedAmount = reservedAmount;
+    }
+
+    void setOrder(Order order) {
+        this.order = order;
+    }
+
+    //Alışta TRY, satışta hissenin kendisi bloke edilir
+    String reservedAsset() {
+        return request.getOrderSide() == OrderSide.BUY ? AssetService.CASH_ASSET : request.getAssetName();
+    }
+
+    String reservationKey() {
+        return customerId + ":" + ShardedSequencer.key(reservedAsset());
+    }
+
+    BulkOrderResult toResult() {
+        return failed() ? BulkOrderResult.failure(index, error.getMessage()) : BulkOrderResult.success(index, order);
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.brokerage.pipeline;
+
+import com.example.brokerage.dto.response.BulkCancelResult;
+import com.example.brokerage.entity.Order;
+import com.example.brokerage.journal.EventJournal;
+import com.lmax.disruptor.EventHandler;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Son aşama: shard sonuçlarını komut sırasıyla bekler, batch sonunda journal'ı tek seferde diske yazar (group commit)
+ * ve ancak ondan sonra çağıranların future'larını tamamlar. Flush hata verirse batch reddedilmez: komutların etkileri
+ * defterlere ve bakiyelere zaten uygulanmıştır, flush başarılı olana kadar yeniden denenir. Bu sürede ring buffer dolar
+ * ve yeni komutlar kuyruk dolu hatasıyla geri çevrilir.
+ */
+@Slf4j
+@Component
+public class JournalStage implements EventHandler<OrderCommand> {
+
+    private final EventJournal journal;
+    private final OrderMetrics metrics;
+    private final List<OrderCommand> batch = new ArrayList<>();
+    private final long maxBackoffMillis;
+
+    public JournalStage(EventJournal journal, OrderMetrics metrics,
+                        @Value("${brokerage.journal.flush-max-backoff-ms:1000}") long maxBackoffMillis) {
+        this.journal = journal;
+        this.metrics = metrics;
+        this.maxBackoffMillis = maxBackoffMillis;
+    }
+
+    @Override
+    public void onEvent(OrderCommand command, long sequence, boolean endOfBatch) {
+        if (!command.failed())
+            await(command);
+        batch.add(command);
+        if (!endOfBatch)
+            return;
+
+        //Ring buffer girişleri batch bitene kadar yeniden kullanılmaz, komutlar burada güvenle tutulabilir
+        flushUntilDurable(sequence);
+
+        for (OrderCommand pending : batch) {
+            metrics.completed(pending);
+            if (pending.getType() == OrderCommand.Type.BULK_CREATE)
+                completeBulk(pending);
+            else if (pending.getType() == OrderCommand.Type.BULK_CANCEL)
+                completeBulkCancel(pending);
+            else if (pending.failed())
+                pending.getResult().completeExceptionally(pending.getError());
+            else
+                pending.getResult().complete(pending.getOrder());
+            pending.clear();
+        }
+        batch.clear();
+    }
+
+    //Yazılamayan olaylar journal'da bekler ve sonraki denemede yeniden yazılır; bekleme her denemede ikiye katlanır
+    //Kesme isteği bekleyişi bırakmaz, flush başarılı olduktan sonra thread'e geri verilir
+    private void flushUntilDurable(long sequence) {
+        boolean interrupted = false;
+        for (int attempt = 0; ; attempt++) {
+            try {
+                journal.flush();
+                if (attempt > 0)
+                    log.info("Journal flush recovered. Sequence: {} Attempts: {}", sequence, attempt + 1);
+                break;
+            } catch (RuntimeException e) {
+                log.error("Journal flush failed, order intake halted. Sequence: {} Attempt: {}", sequence, attempt + 1, e);
+                try {
+                    Thread.sleep(Math.min(1L << Math.min(attempt, 20), maxBackoffMillis));
+                } catch (InterruptedException sleepInterrupted) {
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted)
+            Thread.currentThread().interrupt();
+    }
+
+    private void completeBulk(OrderCommand command) {
+        if (command.failed())
+            command.getBulkResult().completeExceptionally(command.getError());
+        else
+            command.getBulkResult().complete(command.getItems().stream().map(BulkOrderItem::toResult).toList());
+    }
+
+    private void completeBulkCancel(OrderCommand command) {
+        if (command.failed()) {
+            command.getCancelResult().completeExceptionally(command.getError());
+            return;
+        }
+        List<Long> canceled = command.getCanceledOrders().stream().map(Order::getId).toList();
+        command.getCancelResult().complete(new BulkCancelResult(canceled, new TreeMap<>(command.getRejectedOrders())));
+    }
+
+    //Shard'da oluşan hatalar eşleştirme aşamasının reddi sayılır
+    private void await(OrderCommand command) {
+        try {
+            if (command.getExecution().join() instanceof Order order)
+                command.setOrder(order);
+        } catch (CompletionException e) {
+            command.fail(e.getCause() instanceof RuntimeException cause ? cause : e);
+            command.markRejected(OrderMetrics.MATCHING);
+        }
+        if (command.getType() == OrderCommand.Type.BULK_CREATE)
+            for (BulkOrderItem item : command.getItems())
+                if (item.failed())
+                    item.markRejected(OrderMetrics.MATCHING);
+    }
+}
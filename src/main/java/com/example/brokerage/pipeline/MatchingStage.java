@@ -0,0 +1,282 @@
+package com.example.brokerage.pipeline;
+
+import com.example.brokerage.dto.request.CreateOrderRequest;
+import com.example.brokerage.engine.Sequencer;
+import com.example.brokerage.engine.ShardedSequencer;
+import com.example.brokerage.entity.Order;
+import com.example.brokerage.enums.OrderSide;
+import com.example.brokerage.enums.OrderStatus;
+import com.example.brokerage.journal.EventJournal;
+import com.example.brokerage.journal.JournalEvent;
+import com.example.brokerage.repository.OrderIdGenerator;
+import com.example.brokerage.service.AssetService;
+import com.example.brokerage.service.MatchService;
+import com.lmax.disruptor.EventHandler;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Komutu hissenin sequencer shard'ına devreder. Emir numarası ve eşleştirme shard thread'inde alınır; emrin kaydı da
+ * sonuçları da journal'a yazılır ve veritabanına arka planda yansır. Bu aşama sonucu beklemeden bir sonraki komuta geçer.
+ */
+@Component
+public class MatchingStage implements EventHandler<OrderCommand> {
+
+    private final OrderIdGenerator orderIds;
+    private final AssetService assetService;
+    private final MatchService matchService;
+    private final ShardedSequencer sequencer;
+    private final EventJournal journal;
+    private final OrderMetrics metrics;
+
+    public MatchingStage(OrderIdGenerator orderIds, AssetService assetService, MatchService matchService,
+                         ShardedSequencer sequencer, EventJournal journal, OrderMetrics metrics) {
+        this.orderIds = orderIds;
+        this.assetService = assetService;
+        this.matchService = matchService;
+        this.sequencer = sequencer;
+        this.journal = journal;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void onEvent(OrderCommand command, long sequence, boolean endOfBatch) {
+        if (command.failed())
+            return;
+
+        if (command.getType() == OrderCommand.Type.BULK_CREATE) {
+            command.setExecution(placeOrders(command.getItems()));
+        } else if (command.getType() == OrderCommand.Type.BULK_CANCEL) {
+            command.setExecution(withdrawOrders(command));
+        } else if (command.getType() == OrderCommand.Type.CREATE) {
+            CreateOrderRequest request = command.getRequest();
+            Long customerId = command.getCustomerId();
+            long reservedAmount = command.getReservedAmount();
+            command.setExecution(sequencer.shardFor(request.getAssetName())
+                    .submit(() -> placeOrder(customerId, request))
+                    .whenComplete((order, e) -> {
+                        //Hata varsa emir journal'a hiç girmemiştir; yazıldıktan sonraki hataları submit kendisi iptal eder
+                        if (e != null)
+                            release(customerId, request.getOrderSide() == OrderSide.BUY ? AssetService.CASH_ASSET : request.getAssetName(), reservedAmount);
+                    }));
+        } else {
+            Order order = command.getOrder();
+            command.setExecution(sequencer.shardFor(order.getAssetName())
+                    .submit(() -> withdrawOrder(order)));
+        }
+    }
+
+    private Order placeOrder(Long customerId, CreateOrderRequest request) {
+        Order order = new Order();
+        order.setCustomerId(customerId);
+        order.setAssetName(request.getAssetName());
+        order.setOrderSide(request.getOrderSide());
+        order.setSize(request.getSize());
+        order.setPrice(request.getPrice());
+        order.setStatus(OrderStatus.PENDING);
+        order.setCreateDate(LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS));
+        //Numara havuzdan gelir; emir veritabanına ORDER_CREATED olayıyla projeksiyon batch'inde eklenir
+        long start = System.nanoTime();
+        order.setId(orderIds.next());
+        metrics.stage(OrderCommand.Type.CREATE, OrderMetrics.ORDER_ID, System.nanoTime() - start);
+        matchService.submit(order);
+        return order;
+    }
+
+    /**
+     * Sepetin kabul edilen emirlerine numaralarını tek seferde alır, ardından her shard'a
+     * o shard'a düşen emirleri tek bir görev olarak gönderir. Emirler veritabanına projeksiyonda eklenir.
+     */
+    private CompletableFuture<Void> placeOrders(List<BulkOrderItem> items) {
+        List<BulkOrderItem> accepted = new ArrayList<>();
+        List<Order> orders = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        for (BulkOrderItem item : items) {
+            if (item.failed())
+                continue;
+            CreateOrderRequest request = item.getRequest();
+            Order order = new Order();
+            order.setCustomerId(item.getCustomerId());
+            order.setAssetName(request.getAssetName());
+            order.setOrderSide(request.getOrderSide());
+            order.setSize(request.getSize());
+            order.setPrice(request.getPrice());
+            order.setStatus(OrderStatus.PENDING);
+            order.setCreateDate(now);
+            item.setOrder(order);
+            accepted.add(item);
+            orders.add(order);
+        }
+        if (accepted.isEmpty())
+            return CompletableFuture.completedFuture(null);
+
+        long start = System.nanoTime();
+        try {
+            long[] ids = orderIds.next(orders.size());
+            for (int i = 0; i < ids.length; i++)
+                orders.get(i).setId(ids[i]);
+            metrics.stage(OrderCommand.Type.BULK_CREATE, OrderMetrics.ORDER_ID, System.nanoTime() - start);
+        } catch (RuntimeException e) {
+            //Numara alınamazsa sepetin tüm rezervleri grup bazında tek seferde geri verilir
+            Map<String, Long> reserved = new LinkedHashMap<>();
+            Map<String, BulkOrderItem> owners = new LinkedHashMap<>();
+            for (BulkOrderItem item : accepted) {
+                reserved.merge(item.reservationKey(), item.getReservedAmount(), Long::sum);
+                owners.putIfAbsent(item.reservationKey(), item);
+                item.setOrder(null);
+                item.fail(e);
+            }
+            owners.forEach((key, item) -> release(item.getCustomerId(), item.reservedAsset(), reserved.get(key)));
+            return CompletableFuture.completedFuture(null);
+        }
+
+        Map<String, List<BulkOrderItem>> byAsset = new LinkedHashMap<>();
+        for (BulkOrderItem item : accepted) {
+            byAsset.computeIfAbsent(ShardedSequencer.key(item.getRequest().getAssetName()), key -> new ArrayList<>()).add(item);
+        }
+
+        List<CompletableFuture<Void>> executions = new ArrayList<>();
+        byAsset.forEach((assetName, assetItems) -> executions.add(sequencer.shardFor(assetName)
+                .submit(() -> {
+                    assetItems.forEach(this::submitItem);
+                    return (Void) null;
+                })
+                .exceptionally(e -> {
+                    //Shard kuyruğu doluysa bu hissenin emirleri deftere girmeden iptal edilir
+                    RuntimeException cause = e.getCause() instanceof RuntimeException r ? r : new RuntimeException(e);
+                    assetItems.forEach(item -> abandon(item, cause));
+                    return null;
+                })));
+        return CompletableFuture.allOf(executions.toArray(CompletableFuture[]::new));
+    }
+
+    private void submitItem(BulkOrderItem item) {
+        try {
+            matchService.submit(item.getOrder());
+        } catch (RuntimeException e) {
+            abandon(item, e);
+        }
+    }
+
+    //Emir deftere girmeden düştüğü için journal'a hiç yazılmamıştır, sadece rezervi geri verilir
+    private void abandon(BulkOrderItem item, RuntimeException e) {
+        Order order = item.getOrder();
+        item.fail(e);
+        release(order.getCustomerId(), item.reservedAsset(), item.getReservedAmount());
+    }
+
+    /**
+     * Emirleri hisselerinin shard'larında defterden çeker, serbest kalan rezervleri müşteri ve varlık bazında
+     * toplayıp her bakiye satırını tek seferde günceller. Filtreli iptalde hedefler shard'larda defterlerden seçilir,
+     * böylece henüz veritabanına yansımamış emirler de iptal edilir. Veritabanındaki durum projeksiyonda toplu güncellenir.
+     */
+    private CompletableFuture<Void> withdrawOrders(OrderCommand command) {
+        Map<Long, String> rejected = command.getRejectedOrders();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<CompletableFuture<List<Order>>> executions = new ArrayList<>();
+        if (command.getTargets() != null) {
+            Map<String, List<Order>> byAsset = new LinkedHashMap<>();
+            for (Order order : command.getTargets())
+                byAsset.computeIfAbsent(ShardedSequencer.key(order.getAssetName()), key -> new ArrayList<>()).add(order);
+
+            byAsset.forEach((assetName, orders) -> executions.add(sequencer.shardFor(assetName)
+                    .submit(() -> {
+                        List<Order> canceled = new ArrayList<>(orders.size());
+                        for (Order order : orders) {
+                            Optional<Order> live = matchService.cancel(order);
+                            if (live.isEmpty())
+                                rejected.put(order.getId(), "Sadece PENDING emirler iptal edilebilir");
+                            else
+                                canceled.add(live.get());
+                        }
+                        return markCanceled(canceled);
+                    })
+                    .exceptionally(e -> {
+                        orders.forEach(order -> rejected.put(order.getId(), e.getCause() != null ? e.getCause().getMessage() : e.getMessage()));
+                        return List.of();
+                    })));
+        } else {
+            Long customerId = command.getCustomerId();
+            String assetName = command.getCancelRequest().getAssetName();
+            if (assetName != null) {
+                executions.add(withdrawOn(sequencer.shardFor(assetName),
+                        () -> matchService.cancelAll(assetName, customerId), failure));
+            } else {
+                //Müşterinin emirleri her shard'da olabilir; defteri yüklenmemiş hisseler önce yüklenir
+                for (Sequencer shard : sequencer.shards()) {
+                    List<String> stored = command.getStoredAssets().stream()
+                            .filter(asset -> sequencer.shardFor(asset) == shard)
+                            .toList();
+                    executions.add(withdrawOn(shard, () -> {
+                        List<Order> canceled = new ArrayList<>();
+                        stored.forEach(asset -> canceled.addAll(matchService.cancelAll(asset, customerId)));
+                        canceled.addAll(matchService.cancelAll(shard, customerId));
+                        return canceled;
+                    }, failure));
+                }
+            }
+        }
+
+        return CompletableFuture.allOf(executions.toArray(CompletableFuture[]::new)).thenRun(() -> {
+            List<Order> canceled = executions.stream().flatMap(execution -> execution.join().stream()).toList();
+            Map<String, Long> released = new LinkedHashMap<>();
+            Map<String, Order> owners = new LinkedHashMap<>();
+            for (Order order : canceled) {
+                String key = order.getCustomerId() + ":" + ShardedSequencer.key(AssetService.reservedAsset(order));
+                released.merge(key, AssetService.reservedAmount(order), Long::sum);
+                owners.putIfAbsent(key, order);
+            }
+            owners.forEach((key, order) -> release(order.getCustomerId(), AssetService.reservedAsset(order), released.get(key)));
+            command.setCanceledOrders(canceled);
+            //Bir shard'a ulaşılamadıysa iptal edilenler yine serbest bırakılır ama istek başarılı sayılmaz
+            if (failure.get() != null)
+                throw failure.get() instanceof RuntimeException e ? e : new RuntimeException(failure.get());
+        });
+    }
+
+    private CompletableFuture<List<Order>> withdrawOn(Sequencer shard, Supplier<List<Order>> withdraw, AtomicReference<Throwable> failure) {
+        return shard.submit(() -> markCanceled(withdraw.get()))
+                .exceptionally(e -> {
+                    failure.compareAndSet(null, e.getCause() != null ? e.getCause() : e);
+                    return List.of();
+                });
+    }
+
+    private List<Order> markCanceled(List<Order> canceled) {
+        for (Order order : canceled) {
+            order.setStatus(OrderStatus.CANCELED);
+            journal.append(JournalEvent.orderCanceled(order));
+        }
+        return canceled;
+    }
+
+    private Order withdrawOrder(Order order) {
+        //Defterdeki kopya güncel dolum bilgisini taşır; defterde yoksa emir bu arada eşleşmiştir
+        Order live = matchService.cancel(order)
+                .orElseThrow(() -> new RuntimeException("Sadece PENDING emirler iptal edilebilir"));
+
+        release(live.getCustomerId(), AssetService.reservedAsset(live), AssetService.reservedAmount(live));
+
+        live.setStatus(OrderStatus.CANCELED);
+        journal.append(JournalEvent.orderCanceled(live));
+        return live;
+    }
+
+    private void release(Long customerId, String assetName, long amount) {
+        if (AssetService.CASH_ASSET.equals(assetName))
+            assetService.releaseCash(customerId, amount);
+        else
+            assetService.releaseStock(customerId, assetName, amount);
+        journal.append(JournalEvent.assetReleased(customerId, assetName, amount));
+    }
+}
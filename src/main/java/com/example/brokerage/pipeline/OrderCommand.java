@@ -0,0 +1,153 @@
+package com.example.brokerage.pipeline;
+
+import com.example.brokerage.dto.request.BulkCancelRequest;
+import com.example.brokerage.dto.request.CreateOrderRequest;
+import com.example.brokerage.dto.response.BulkCancelResult;
+import com.example.brokerage.dto.response.BulkOrderResult;
+import com.example.brokerage.entity.Order;
+import lombok.Getter;
+
+import java.security.Principal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Ring buffer'daki yeniden kullanılan komut kaydı. Alanlar her yayında sıfırlanır,
+ * işlenmesi bitince referanslar bırakılır.
+ */
+@Getter
+public class OrderCommand {
+
+    public enum Type {
+        CREATE,
+        CANCEL,
+        BULK_CREATE,
+        BULK_CANCEL
+    }
+
+    private Type type;
+    private Principal principal;
+    private CreateOrderRequest request;
+    private Long orderId;
+    private Long customerId;
+    private boolean reserved;
+    private long reservedAmount;
+    private Order order;
+    private List<BulkOrderItem> items;
+    private BulkCancelRequest cancelRequest;
+    private List<Order> targets;
+    private Set<String> storedAssets;
+    private List<Order> canceledOrders;
+    private Map<Long, String> rejectedOrders;
+    private CompletableFuture<?> execution;
+    private RuntimeException error;
+    private String rejectedStage;
+    private long publishedAt;
+    private CompletableFuture<Order> result;
+    private CompletableFuture<List<BulkOrderResult>> bulkResult;
+    private CompletableFuture<BulkCancelResult> cancelResult;
+
+    void create(Principal principal, CreateOrderRequest request, CompletableFuture<Order> result) {
+        reset(Type.CREATE, principal, result);
+        this.request = request;
+    }
+
+    void cancel(Principal principal, Long orderId, CompletableFuture<Order> result) {
+        reset(Type.CANCEL, principal, result);
+        this.orderId = orderId;
+    }
+
+    void createAll(Principal principal, List<CreateOrderRequest> requests, CompletableFuture<List<BulkOrderResult>> bulkResult) {
+        reset(Type.BULK_CREATE, principal, null);
+        this.bulkResult = bulkResult;
+        this.items = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++)
+            items.add(new BulkOrderItem(i, requests.get(i)));
+    }
+
+    void cancelAll(Principal principal, BulkCancelRequest request, CompletableFuture<BulkCancelResult> cancelResult) {
+        reset(Type.BULK_CANCEL, principal, null);
+        this.cancelRequest = request;
+        this.cancelResult = cancelResult;
+        //Shard'lar reddedilen emirleri paralel yazabilir
+        this.rejectedOrders = new ConcurrentHashMap<>();
+    }
+
+    boolean failed() {
+        return error != null;
+    }
+
+    void fail(RuntimeException error) {
+        this.error = error;
+    }
+
+    //Komutu ilk reddeden aşama kalır
+    void markRejected(String stage) {
+        if (rejectedStage == null)
+            rejectedStage = stage;
+    }
+
+    void setCustomerId(Long customerId) {
+        this.customerId = customerId;
+    }
+
+    void setReservedAmount(long reservedAmount) {
+        this.reservedAmount = reservedAmount;
+    }
+
+    void setReserved(boolean reserved) {
+        this.reserved = reserved;
+    }
+
+    void setOrder(Order order) {
+        this.order = order;
+    }
+
+    void setTargets(List<Order> targets) {
+        this.targets = targets;
+    }
+
+    void setStoredAssets(Set<String> storedAssets) {
+        this.storedAssets = storedAssets;
+    }
+
+    void setCanceledOrders(List<Order> canceledOrders) {
+        this.canceledOrders = canceledOrders;
+    }
+
+    void setExecution(CompletableFuture<?> execution) {
+        this.execution = execution;
+    }
+
+    void clear() {
+        reset(null, null, null);
+    }
+
+    private void reset(Type type, Principal principal, CompletableFuture<Order> result) {
+        this.type = type;
+        this.principal = principal;
+        this.result = result;
+        this.request = null;
+        this.orderId = null;
+        this.customerId = null;
+        this.reserved = false;
+        this.reservedAmount = 0;
+        this.order = null;
+        this.items = null;
+        this.cancelRequest = null;
+        this.targets = null;
+        this.storedAssets = null;
+        this.canceledOrders = null;
+        this.rejectedOrders = null;
+        this.execution = null;
+        this.error = null;
+        this.rejectedStage = null;
+        this.publishedAt = System.nanoTime();
+        this.bulkResult = null;
+        this.cancelResult = null;
+    }
+}
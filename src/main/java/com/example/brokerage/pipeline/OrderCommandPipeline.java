@@ -0,0 +1,139 @@
+package com.example.brokerage.pipeline;
+
+import com.example.brokerage.dto.request.BulkCancelRequest;
+import com.example.brokerage.dto.request.CreateOrderRequest;
+import com.example.brokerage.dto.response.BulkCancelResult;
+import com.example.brokerage.dto.response.BulkOrderResult;
+import com.example.brokerage.entity.Order;
+import com.lmax.disruptor.*;
+import com.lmax.disruptor.dsl.Disruptor;
+import com.lmax.disruptor.dsl.ProducerType;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.security.Principal;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Emir komutlarını önceden ayrılmış bir ring buffer üzerinden sırayla
+ * doğrulama, risk kontrolü, eşleştirme ve journal aşamalarından geçirir.
+ * Her aşama tek thread'dir, bu yüzden aynı müşterinin komutları geliş sırasını korur.
+ */
+@Slf4j
+@Component
+public class OrderCommandPipeline {
+
+    private static final EventTranslatorThreeArg<OrderCommand, Principal, CreateOrderRequest, CompletableFuture<Order>> CREATE =
+            (command, sequence, principal, request, result) -> command.create(principal, request, result);
+
+    private static final EventTranslatorThreeArg<OrderCommand, Principal, Long, CompletableFuture<Order>> CANCEL =
+            (command, sequence, principal, orderId, result) -> command.cancel(principal, orderId, result);
+
+    private static final EventTranslatorThreeArg<OrderCommand, Principal, List<CreateOrderRequest>, CompletableFuture<List<BulkOrderResult>>> BULK_CREATE =
+            (command, sequence, principal, requests, result) -> command.createAll(principal, requests, result);
+
+    private static final EventTranslatorThreeArg<OrderCommand, Principal, BulkCancelRequest, CompletableFuture<BulkCancelResult>> BULK_CANCEL =
+            (command, sequence, principal, request, result) -> command.cancelAll(principal, request, result);
+
+    private final Disruptor<OrderCommand> disruptor;
+    private final RingBuffer<OrderCommand> ringBuffer;
+
+    public OrderCommandPipeline(@Value("${brokerage.pipeline.ring-size:4096}") int ringSize,
+                                @Value("${brokerage.pipeline.wait-strategy:blocking}") String waitStrategy,
+                                ValidationStage validationStage, RiskCheckStage riskCheckStage,
+                                MatchingStage matchingStage, JournalStage journalStage, OrderMetrics metrics) {
+        AtomicInteger stage = new AtomicInteger();
+        this.disruptor = new Disruptor<>(OrderCommand::new, ringSize, runnable -> {
+            Thread thread = new Thread(runnable, "order-pipeline-" + stage.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }, ProducerType.MULTI, waitStrategy(waitStrategy));
+        disruptor.setDefaultExceptionHandler(new PipelineExceptionHandler());
+        //Eşleştirme aşaması işi shard'a devredip hemen döner, süresi shard tarafında ölçülür
+        disruptor.handleEventsWith(new TimedStage(validationStage, OrderMetrics.VALIDATION, metrics))
+                .then(new TimedStage(riskCheckStage, OrderMetrics.RISK, metrics))
+                .then(matchingStage)
+                .then(new TimedStage(journalStage, OrderMetrics.JOURNAL, metrics));
+        this.ringBuffer = disruptor.start();
+    }
+
+    public CompletableFuture<Order> create(CreateOrderRequest request, Principal principal) {
+        CompletableFuture<Order> result = new CompletableFuture<>();
+        if (!ringBuffer.tryPublishEvent(CREATE, principal, request, result))
+            result.completeExceptionally(new RejectedExecutionException("Emir kuyruğu dolu, lütfen tekrar deneyin"));
+        return result;
+    }
+
+    //Sepetin tamamı tek bir ring buffer girişi olarak aşamalardan geçer
+    public CompletableFuture<List<BulkOrderResult>> createAll(List<CreateOrderRequest> requests, Principal principal) {
+        CompletableFuture<List<BulkOrderResult>> result = new CompletableFuture<>();
+        if (!ringBuffer.tryPublishEvent(BULK_CREATE, principal, requests, result))
+            result.completeExceptionally(new RejectedExecutionException("Emir kuyruğu dolu, lütfen tekrar deneyin"));
+        return result;
+    }
+
+    public CompletableFuture<Order> cancel(Long orderId, Principal principal) {
+        CompletableFuture<Order> result = new CompletableFuture<>();
+        if (!ringBuffer.tryPublishEvent(CANCEL, principal, orderId, result))
+            result.completeExceptionally(new RejectedExecutionException("Emir kuyruğu dolu, lütfen tekrar deneyin"));
+        return result;
+    }
+
+    public CompletableFuture<BulkCancelResult> cancelAll(BulkCancelRequest request, Principal principal) {
+        CompletableFuture<BulkCancelResult> result = new CompletableFuture<>();
+        if (!ringBuffer.tryPublishEvent(BULK_CANCEL, principal, request, result))
+            result.completeExceptionally(new RejectedExecutionException("Emir kuyruğu dolu, lütfen tekrar deneyin"));
+        return result;
+    }
+
+    public long remainingCapacity() {
+        return ringBuffer.remainingCapacity();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        disruptor.shutdown();
+    }
+
+    private static WaitStrategy waitStrategy(String name) {
+        return switch (name) {
+            case "blocking" -> new BlockingWaitStrategy();
+            case "sleeping" -> new SleepingWaitStrategy();
+            case "yielding" -> new YieldingWaitStrategy();
+            case "busy-spin" -> new BusySpinWaitStrategy();
+            default -> throw new IllegalArgumentException("Bilinmeyen wait strategy: " + name);
+        };
+    }
+
+    private static class PipelineExceptionHandler implements ExceptionHandler<OrderCommand> {
+
+        @Override
+        public void handleEventException(Throwable ex, long sequence, OrderCommand command) {
+            log.error("Order pipeline failed. Sequence: {}", sequence, ex);
+            CompletableFuture<Order> result = command.getResult();
+            if (result != null)
+                result.completeExceptionally(ex);
+            CompletableFuture<List<BulkOrderResult>> bulkResult = command.getBulkResult();
+            if (bulkResult != null)
+                bulkResult.completeExceptionally(ex);
+            CompletableFuture<BulkCancelResult> cancelResult = command.getCancelResult();
+            if (cancelResult != null)
+                cancelResult.completeExceptionally(ex);
+        }
+
+        @Override
+        public void handleOnStartException(Throwable ex) {
+            log.error("Order pipeline failed to start", ex);
+        }
+
+        @Override
+        public void handleOnShutdownException(Throwable ex) {
+            log.error("Order pipeline failed to shut down", ex);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.brokerage.pipeline;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Emir komutlarının aşama süreleri, uçtan uca gecikmesi ve red sayıları.
+ * Aşama ve gecikme timer'ları açılışta kurulur, sıcak yolda kayıt defteri araması yapılmaz.
+ * Red sayaçları aşama ve hata tipiyle önceden bilinemediği için ilk redde kurulup önbellekte tutulur.
+ */
+@Component
+public class OrderMetrics {
+
+    public static final String QUEUE = "queue";
+    public static final String AUTH = "auth";
+    public static final String VALIDATION = "validation";
+    public static final String RISK = "risk";
+    public static final String ORDER_ID = "order-id";
+    public static final String MATCHING = "matching";
+    public static final String JOURNAL = "journal";
+
+    private static final String[] STAGES = {QUEUE, AUTH, VALIDATION, RISK, ORDER_ID, JOURNAL};
+
+    private final MeterRegistry meterRegistry;
+    private final Map<OrderCommand.Type, Map<String, Timer>> stages = new EnumMap<>(OrderCommand.Type.class);
+    private final Map<OrderCommand.Type, Timer> accepted = new EnumMap<>(OrderCommand.Type.class);
+    private final Map<OrderCommand.Type, Timer> rejected = new EnumMap<>(OrderCommand.Type.class);
+    private final Map<OrderCommand.Type, Map<String, Map<Class<?>, Counter>>> rejections = new EnumMap<>(OrderCommand.Type.class);
+
+    public OrderMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        for (OrderCommand.Type type : OrderCommand.Type.values()) {
+            Map<String, Timer> timers = new HashMap<>();
+            for (String stage : STAGES)
+                timers.put(stage, Timer.builder("brokerage.order.stage")
+                        .description("Emir komutunun pipeline aşamasında geçirdiği süre")
+                        .tag("operation", operation(type))
+                        .tag("stage", stage)
+                        .register(meterRegistry));
+            stages.put(type, timers);
+            accepted.put(type, latency(type, "accepted"));
+            rejected.put(type, latency(type, "rejected"));
+            rejections.put(type, new ConcurrentHashMap<>());
+        }
+    }
+
+    void stage(OrderCommand.Type type, String stage, long nanos) {
+        stages.get(type).get(stage).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Komut sonucu çağırana bildirilirken çağrılır; kuyruğa girişten itibaren geçen süreyi ve redleri kaydeder.
+     * Toplu emirlerde reddedilen her kalem ayrı sayılır.
+     */
+    void completed(OrderCommand command) {
+        OrderCommand.Type type = command.getType();
+        long elapsed = System.nanoTime() - command.getPublishedAt();
+        (command.failed() ? rejected : accepted).get(type).record(elapsed, TimeUnit.NANOSECONDS);
+
+        if (command.failed())
+            reject(type, command.getRejectedStage(), command.getError());
+        else if (type == OrderCommand.Type.BULK_CREATE)
+            for (BulkOrderItem item : command.getItems())
+                if (item.failed())
+                    reject(type, item.getRejectedStage(), item.getError());
+    }
+
+    private void reject(OrderCommand.Type type, String stage, RuntimeException error) {
+        String rejectedStage = stage == null ? JOURNAL : stage;
+        rejections.get(type)
+                .computeIfAbsent(rejectedStage, key -> new ConcurrentHashMap<>())
+                .computeIfAbsent(error.getClass(), reason -> Counter.builder("brokerage.orders.rejected")
+                        .description("Reddedilen emir sayısı; reddeden aşama ve hata tipine göre")
+                        .tag("operation", operation(type))
+                        .tag("stage", rejectedStage)
+                        .tag("reason", reason.getSimpleName())
+                        .register(meterRegistry))
+                .increment();
+    }
+
+    private Timer latency(OrderCommand.Type type, String outcome) {
+        return Timer.builder("brokerage.order.latency")
+                .description("Emir komutunun kuyruğa girişinden sonucunun bildirilmesine kadar geçen süre")
+                .tag("operation", operation(type))
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private static String operation(OrderCommand.Type type) {
+        return type.name().toLowerCase(Locale.ROOT);
+    }
+}
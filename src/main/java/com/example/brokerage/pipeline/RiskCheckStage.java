@@ -0,0 +1,100 @@
+package com.example.brokerage.pipeline;
+
+import com.example.brokerage.dto.request.CreateOrderRequest;
+import com.example.brokerage.enums.OrderSide;
+import com.example.brokerage.journal.EventJournal;
+import com.example.brokerage.journal.JournalEvent;
+import com.example.brokerage.service.AssetService;
+import com.lmax.disruptor.EventHandler;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Component
+public class RiskCheckStage implements EventHandler<OrderCommand> {
+
+    private final AssetService assetService;
+    private final EventJournal journal;
+
+    public RiskCheckStage(AssetService assetService, EventJournal journal) {
+        this.assetService = assetService;
+        this.journal = journal;
+    }
+
+    @Override
+    public void onEvent(OrderCommand command, long sequence, boolean endOfBatch) {
+        if (command.failed())
+            return;
+
+        if (command.getType() == OrderCommand.Type.BULK_CREATE) {
+            reserveBulk(command);
+            return;
+        }
+        if (command.getType() != OrderCommand.Type.CREATE)
+            return;
+
+        try {
+            CreateOrderRequest request = command.getRequest();
+            long amount = command.getReservedAmount();
+            //Kontrol ve rezervasyon tek adımdır, bakiye yetmezse rezervasyon hiç yapılmaz
+            if (request.getOrderSide() == OrderSide.BUY) {
+                assetService.reserveCash(command.getCustomerId(), amount);
+                journal.append(JournalEvent.assetReserved(command.getCustomerId(), AssetService.CASH_ASSET, amount));
+            } else {
+                assetService.reserveStock(command.getCustomerId(), request.getAssetName(), amount);
+                journal.append(JournalEvent.assetReserved(command.getCustomerId(), request.getAssetName(), amount));
+            }
+            command.setReserved(true);
+        } catch (RuntimeException e) {
+            command.fail(e);
+        }
+    }
+
+    /**
+     * Sepetteki kalemleri müşteri ve bloke edilecek varlık bazında gruplar, her grup için bakiyeyi bir kez okur
+     * ve kabul edilen kalemlerin toplamını tek seferde bloke eder. Bakiye yetmediğinde sıradaki kalemler reddedilir.
+     */
+    private void reserveBulk(OrderCommand command) {
+        Map<String, List<BulkOrderItem>> groups = new LinkedHashMap<>();
+        for (BulkOrderItem item : command.getItems())
+            if (!item.failed())
+                groups.computeIfAbsent(item.reservationKey(), key -> new ArrayList<>()).add(item);
+
+        groups.values().forEach(this::reserveGroup);
+    }
+
+    private void reserveGroup(List<BulkOrderItem> items) {
+        BulkOrderItem first = items.get(0);
+        Long customerId = first.getCustomerId();
+        String assetName = first.reservedAsset();
+        boolean cash = AssetService.CASH_ASSET.equalsIgnoreCase(assetName);
+        try {
+            long available = assetService.getUsableUnits(customerId, assetName);
+
+            long total = 0;
+            for (BulkOrderItem item : items) {
+                long amount = item.getReservedAmount();
+                if (amount > available - total) {
+                    item.fail(new IllegalArgumentException(cash ? "Yetersiz TRY bakiyesi" : "Yetersiz hisse miktarı"));
+                    continue;
+                }
+                total += amount;
+            }
+            if (total == 0)
+                return;
+
+            if (cash)
+                assetService.reserveCash(customerId, total);
+            else
+                assetService.reserveStock(customerId, assetName, total);
+            journal.append(JournalEvent.assetReserved(customerId, cash ? AssetService.CASH_ASSET : assetName, total));
+        } catch (RuntimeException e) {
+            for (BulkOrderItem item : items)
+                if (!item.failed())
+                    item.fail(e);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.brokerage.pipeline;
+
+import com.lmax.disruptor.EventHandler;
+
+/**
+ * Bir aşamanın her komutta geçirdiği süreyi ölçer ve komutu ya da toplu emir kalemlerini ilk reddeden aşamayı işaretler.
+ * Son aşama komutu işledikten sonra temizleyebildiği için tip çağrıdan önce alınır.
+ */
+class TimedStage implements EventHandler<OrderCommand> {
+
+    private final EventHandler<OrderCommand> stage;
+    private final String name;
+    private final OrderMetrics metrics;
+
+    TimedStage(EventHandler<OrderCommand> stage, String name, OrderMetrics metrics) {
+        this.stage = stage;
+        this.name = name;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void onEvent(OrderCommand command, long sequence, boolean endOfBatch) throws Exception {
+        OrderCommand.Type type = command.getType();
+        boolean failed = command.failed();
+        long start = System.nanoTime();
+        stage.onEvent(command, sequence, endOfBatch);
+        metrics.stage(type, name, System.nanoTime() - start);
+
+        if (!failed && command.failed())
+            command.markRejected(name);
+        if (type == OrderCommand.Type.BULK_CREATE && command.getItems() != null)
+            for (BulkOrderItem item : command.getItems())
+                if (item.failed())
+                    item.markRejected(name);
+    }
+}
@@ -0,0 +1,198 @@
+package com.example.brokerage.pipeline;
+
+import com.example.brokerage.dto.request.BulkCancelRequest;
+import com.example.brokerage.dto.request.CreateOrderRequest;
+import com.example.brokerage.engine.FixedPoint;
+import com.example.brokerage.engine.Instrument;
+import com.example.brokerage.engine.InstrumentRegistry;
+import com.example.brokerage.engine.ShardedSequencer;
+import com.example.brokerage.entity.Order;
+import com.example.brokerage.enums.OrderSide;
+import com.example.brokerage.enums.OrderStatus;
+import com.example.brokerage.repository.OrderRepository;
+import com.example.brokerage.security.CustomerPrincipal;
+import com.example.brokerage.service.CustomerService;
+import com.example.brokerage.service.MatchService;
+import com.lmax.disruptor.EventHandler;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Component
+public class ValidationStage implements EventHandler<OrderCommand> {
+
+    private final CustomerService customerService;
+    private final OrderRepository orderRepository;
+    private final MatchService matchService;
+    private final InstrumentRegistry instruments;
+    private final OrderMetrics metrics;
+    private final int bulkMaxSize;
+
+    public ValidationStage(CustomerService customerService, OrderRepository orderRepository, MatchService matchService,
+                           InstrumentRegistry instruments, OrderMetrics metrics,
+                           @Value("${brokerage.orders.bulk-max-size:1000}") int bulkMaxSize) {
+        this.customerService = customerService;
+        this.orderRepository = orderRepository;
+        this.matchService = matchService;
+        this.instruments = instruments;
+        this.metrics = metrics;
+        this.bulkMaxSize = bulkMaxSize;
+    }
+
+    @Override
+    public void onEvent(OrderCommand command, long sequence, boolean endOfBatch) {
+        metrics.stage(command.getType(), OrderMetrics.QUEUE, System.nanoTime() - command.getPublishedAt());
+        try {
+            switch (command.getType()) {
+                case CREATE -> validateCreate(command);
+                case CANCEL -> validateCancel(command);
+                case BULK_CREATE -> validateBulkCreate(command);
+                case BULK_CANCEL -> validateBulkCancel(command);
+            }
+        } catch (RuntimeException e) {
+            command.fail(e);
+        }
+    }
+
+    private void validateCreate(OrderCommand command) {
+        CreateOrderRequest request = command.getRequest();
+        command.setCustomerId(getTargetCustomerId(request.getCustomerId(), command));
+        command.setReservedAmount(validateOrderRequest(request));
+    }
+
+    //Kullanıcı sepet başına bir kez çözülür, geçersiz kalemler sepetin geri kalanını etkilemez
+    private void validateBulkCreate(OrderCommand command) {
+        if (command.getItems().isEmpty())
+            throw new IllegalArgumentException("Emir listesi boş olamaz");
+        if (command.getItems().size() > bulkMaxSize)
+            throw new IllegalArgumentException("Tek istekte en fazla " + bulkMaxSize + " emir gönderilebilir");
+
+        CustomerPrincipal caller = resolve(command);
+        boolean admin = caller.isAdmin();
+        for (BulkOrderItem item : command.getItems()) {
+            try {
+                CreateOrderRequest request = item.getRequest();
+                item.setReservedAmount(validateOrderRequest(request));
+                item.setCustomerId(admin ? validateAdminCustomerId(request.getCustomerId()) : caller.customerId());
+            } catch (RuntimeException e) {
+                item.fail(e);
+            }
+        }
+    }
+
+    /**
+     * Yeni emirler veritabanına projeksiyonda eklendiği için emir önce defterlerde aranır, veritabanına sadece
+     * defterde olmayan emirler için gidilir. Defterdeki emrin durumu shard'da değiştiği için burada okunmaz;
+     * emir bu arada eşleşmişse iptal shard'da reddedilir.
+     */
+    private void validateCancel(OrderCommand command) {
+        Optional<Order> live = matchService.findLive(command.getOrderId());
+        Order order = live.or(() -> orderRepository.findById(command.getOrderId()))
+                .orElseThrow(() -> new RuntimeException("Order bulunamadı"));
+        CustomerPrincipal caller = resolve(command);
+
+        if (!caller.customerId().equals(order.getCustomerId()) && !caller.isAdmin())
+            throw new RuntimeException("Bu order'ı silme yetkiniz yok");
+        if (live.isEmpty() && order.getStatus() != OrderStatus.PENDING)
+            throw new RuntimeException("Sadece PENDING emirler iptal edilebilir");
+
+        command.setCustomerId(order.getCustomerId());
+        command.setOrder(order);
+    }
+
+    /**
+     * Liste verildiyse emirler önce defterlerde, bulunamayanlar tek sorguda veritabanında aranır; sahiplik her emir için
+     * ayrı kontrol edilir. Filtre verildiyse hedefler burada seçilmez, eşleştirme aşaması onları shard'larda defterlerden
+     * toplar. Sadece müşteri filtresinde defteri henüz yüklenmemiş hisseleri bulmak için veritabanına bakılır.
+     */
+    private void validateBulkCancel(OrderCommand command) {
+        BulkCancelRequest request = command.getCancelRequest();
+        if (request == null)
+            throw new IllegalArgumentException("İptal kriteri zorunludur");
+        CustomerPrincipal caller = resolve(command);
+        boolean admin = caller.isAdmin();
+
+        if (request.getOrderIds() != null && !request.getOrderIds().isEmpty()) {
+            if (request.getOrderIds().size() > bulkMaxSize)
+                throw new IllegalArgumentException("Tek istekte en fazla " + bulkMaxSize + " emir iptal edilebilir");
+            Set<Long> orderIds = new LinkedHashSet<>(request.getOrderIds());
+            Map<Long, Order> live = new HashMap<>();
+            List<Long> stored = new ArrayList<>();
+            for (Long orderId : orderIds)
+                matchService.findLive(orderId).ifPresentOrElse(order -> live.put(orderId, order), () -> stored.add(orderId));
+            Map<Long, Order> orders = stored.isEmpty() ? Map.of() : orderRepository.findAllById(stored).stream()
+                    .collect(Collectors.toMap(Order::getId, Function.identity()));
+
+            List<Order> targets = new ArrayList<>();
+            for (Long orderId : orderIds) {
+                Order order = live.containsKey(orderId) ? live.get(orderId) : orders.get(orderId);
+                if (order == null)
+                    command.getRejectedOrders().putIfAbsent(orderId, "Order bulunamadı");
+                else if (!caller.customerId().equals(order.getCustomerId()) && !admin)
+                    command.getRejectedOrders().put(orderId, "Bu order'ı silme yetkiniz yok");
+                else if (!live.containsKey(orderId) && order.getStatus() != OrderStatus.PENDING)
+                    command.getRejectedOrders().put(orderId, "Sadece PENDING emirler iptal edilebilir");
+                else
+                    targets.add(order);
+            }
+            command.setTargets(targets);
+            return;
+        }
+
+        Long customerId = admin ? request.getCustomerId() : caller.customerId();
+        if (customerId == null && request.getAssetName() == null)
+            throw new IllegalArgumentException("Toplu iptal için orderIds, customerId veya assetName zorunludur");
+
+        command.setCustomerId(customerId);
+        if (request.getAssetName() == null)
+            command.setStoredAssets(orderRepository.findAssetNamesByCustomerIdAndStatus(customerId, OrderStatus.PENDING).stream()
+                    .map(ShardedSequencer::key)
+                    .collect(Collectors.toSet()));
+    }
+
+    private Long getTargetCustomerId(Long requestId, OrderCommand command) {
+        CustomerPrincipal caller = resolve(command);
+        return caller.isAdmin() ? validateAdminCustomerId(requestId) : caller.customerId();
+    }
+
+    private CustomerPrincipal resolve(OrderCommand command) {
+        long start = System.nanoTime();
+        CustomerPrincipal caller = customerService.resolve(command.getPrincipal());
+        metrics.stage(command.getType(), OrderMetrics.AUTH, System.nanoTime() - start);
+        return caller;
+    }
+
+    private Long validateAdminCustomerId(Long customerId) {
+        if (customerId == null)
+            throw new IllegalArgumentException("Admin için customerId zorunludur");
+        return customerId;
+    }
+
+    /**
+     * Emri hissenin tick ve lot tanımına göre doğrular, bloke edilecek tutarı {@link FixedPoint} birimiyle döner:
+     * alışta fiyat x miktar TRY, satışta hissenin kendisi.
+     */
+    private long validateOrderRequest(CreateOrderRequest req) {
+        if (req == null || req.getAssetName() == null || req.getOrderSide() == null || req.getSize() == null || req.getPrice() == null)
+            throw new IllegalArgumentException("Hisse adı, emir yönü, miktar ve fiyat zorunludur");
+        if (req.getSize().compareTo(BigDecimal.ZERO) <= 0)
+            throw new IllegalArgumentException("Miktar sıfırdan büyük olmalı");
+        if (req.getPrice().compareTo(BigDecimal.ZERO) <= 0)
+            throw new IllegalArgumentException("Fiyat sıfırdan büyük olmalı");
+
+        Instrument instrument = instruments.instrument(req.getAssetName());
+        long price = instrument.price(req.getPrice());
+        long size = instrument.quantity(req.getSize());
+        return req.getOrderSide() == OrderSide.BUY ? FixedPoint.multiply(price, size) : size;
+    }
+}
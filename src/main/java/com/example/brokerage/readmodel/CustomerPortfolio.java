@@ -0,0 +1,110 @@
+package com.example.brokerage.readmodel;
+
+import com.example.brokerage.dto.response.OpenOrderView;
+import com.example.brokerage.dto.response.PortfolioView;
+import com.example.brokerage.dto.response.PositionView;
+import com.example.brokerage.engine.Settlement;
+import com.example.brokerage.entity.Asset;
+import com.example.brokerage.entity.Order;
+import com.example.brokerage.enums.OrderStatus;
+import com.example.brokerage.journal.JournalEvent;
+import com.example.brokerage.service.AssetService;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+/**
+ * Tek müşterinin bakiyeleri ve açık emirleri. Projeksiyon thread'i yazar, istekler okur;
+ * erişimler bu nesne üzerinde senkronizedir, böylece okuyan yarım uygulanmış bir olay görmez.
+ */
+class CustomerPortfolio {
+
+    private final Long customerId;
+    private final Map<String, Asset> assets = new TreeMap<>();
+    private final Map<Long, Order> openOrders = new LinkedHashMap<>();
+
+    CustomerPortfolio(Long customerId) {
+        this.customerId = customerId;
+    }
+
+    synchronized void put(Asset source) {
+        Asset asset = asset(source.getAssetName());
+        asset.setSize(source.getSize());
+        asset.setUsableSize(source.getUsableSize());
+    }
+
+    synchronized void open(Order order) {
+        openOrders.put(order.getId(), order);
+    }
+
+    synchronized void cancel(Long orderId) {
+        openOrders.remove(orderId);
+    }
+
+    synchronized void adjustUsable(String assetName, BigDecimal delta) {
+        Asset asset = asset(assetName);
+        asset.setUsableSize(asset.getUsableSize().add(delta));
+    }
+
+    //fillBuy ve fillSell bakiyeyi her zaman olaydan günceller, emrin eşleşmeden sonraki durumunu döner; emir bilinmiyorsa null döner
+    synchronized OrderStatus fillBuy(JournalEvent event) {
+        BigDecimal quantity = event.getQuantity();
+        Settlement.buy(asset(AssetService.CASH_ASSET), asset(event.getAssetName()),
+                quantity, event.getPrice().multiply(quantity), event.getReservedAmount());
+        Order buy = openOrders.get(event.getOrderId());
+        return buy == null ? null : fill(buy, event.getFilledSize());
+    }
+
+    synchronized OrderStatus fillSell(JournalEvent event) {
+        BigDecimal quantity = event.getQuantity();
+        Settlement.sell(asset(event.getAssetName()), asset(AssetService.CASH_ASSET), quantity, event.getPrice().multiply(quantity));
+        Order sell = openOrders.get(event.getCounterOrderId());
+        return sell == null ? null : fill(sell, event.getCounterFilledSize());
+    }
+
+    synchronized PortfolioView view(long sequence) {
+        Asset cash = assets.get(AssetService.CASH_ASSET);
+        List<PositionView> positions = new ArrayList<>(assets.size());
+        for (Asset asset : assets.values()) {
+            if (asset != cash)
+                positions.add(new PositionView(asset.getAssetName(), asset.getSize(), asset.getUsableSize()));
+        }
+        return new PortfolioView(customerId, cash == null ? emptyCash() : new PositionView(cash.getAssetName(), cash.getSize(), cash.getUsableSize()),
+                positions, openOrders.size(), sequence);
+    }
+
+    synchronized List<OpenOrderView> openOrders() {
+        List<OpenOrderView> views = new ArrayList<>(openOrders.size());
+        for (Order order : openOrders.values())
+            views.add(new OpenOrderView(order.getId(), order.getAssetName(), order.getOrderSide(), order.getSize(),
+                    order.getFilledSize(), order.getPrice(), order.getCreateDate()));
+        return views;
+    }
+
+    static PortfolioView empty(Long customerId, long sequence) {
+        return new PortfolioView(customerId, emptyCash(), List.of(), 0, sequence);
+    }
+
+    private static PositionView emptyCash() {
+        return new PositionView(AssetService.CASH_ASSET, BigDecimal.ZERO, BigDecimal.ZERO);
+    }
+
+    private OrderStatus fill(Order order, BigDecimal filledSize) {
+        order.setFilledSize(filledSize);
+        if (order.getRemainingSize().signum() != 0)
+            return OrderStatus.PENDING;
+        openOrders.remove(order.getId());
+        return OrderStatus.MATCHED;
+    }
+
+    private Asset asset(String assetName) {
+        return assets.computeIfAbsent(assetName.toUpperCase(Locale.ROOT), key -> {
+            Asset asset = new Asset();
+            asset.setCustomerId(customerId);
+            asset.setAssetName(key);
+            asset.setSize(BigDecimal.ZERO);
+            asset.setUsableSize(BigDecimal.ZERO);
+            return asset;
+        });
+    }
+}
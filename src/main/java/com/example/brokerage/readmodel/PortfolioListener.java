@@ -0,0 +1,22 @@
+package com.example.brokerage.readmodel;
+
+import com.example.brokerage.dto.response.OrderUpdate;
+
+/**
+ * Okuma modeline uygulanan değişiklikleri dinler. Projeksiyon thread'inden çağrılır, bloklamamalıdır.
+ */
+public interface PortfolioListener {
+
+    PortfolioListener NONE = new PortfolioListener() {
+    };
+
+    default void orderUpdated(Long customerId, OrderUpdate update) {
+    }
+
+    default void portfolioChanged(Long customerId) {
+    }
+
+    //Bir batch'in tüm olayları uygulandıktan sonra çağrılır
+    default void batchApplied() {
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.brokerage.readmodel;
+
+import com.example.brokerage.dto.response.OpenOrderView;
+import com.example.brokerage.dto.response.OrderUpdate;
+import com.example.brokerage.dto.response.PortfolioView;
+import com.example.brokerage.entity.Asset;
+import com.example.brokerage.entity.Order;
+import com.example.brokerage.enums.OrderSide;
+import com.example.brokerage.enums.OrderStatus;
+import com.example.brokerage.journal.EngineState;
+import com.example.brokerage.journal.JournalEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Müşteri portföyü ve açık emirlerinin okuma modeli. Açılışta kurtarılan durumdan kurulur, sonra journal olaylarıyla
+ * projeksiyon thread'inde artımlı güncellenir. Panel sorguları emir girişinin yazdığı tablolara gitmeden buradan cevaplanır;
+ * veritabanı projeksiyonuyla aynı noktadan beslendiği için ondan daha geride değildir.
+ */
+@Component
+public class PortfolioReadModel {
+
+    private final Map<Long, CustomerPortfolio> portfolios = new ConcurrentHashMap<>();
+    private volatile long sequence;
+
+    public PortfolioReadModel(MeterRegistry meterRegistry) {
+        Gauge.builder("brokerage.readmodel.portfolios", portfolios, Map::size)
+                .description("Okuma modelinde tutulan müşteri portföyü sayısı")
+                .register(meterRegistry);
+        Gauge.builder("brokerage.readmodel.sequence", this, PortfolioReadModel::getSequence)
+                .description("Okuma modeline uygulanan son journal sıra numarası")
+                .register(meterRegistry);
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public void load(EngineState state) {
+        portfolios.clear();
+        for (Asset asset : state.getAssets())
+            portfolio(asset.getCustomerId()).put(asset);
+        for (Order order : state.getOpenOrders())
+            portfolio(order.getCustomerId()).open(EngineState.copy(order));
+        sequence = state.getSequence();
+    }
+
+    public void apply(List<JournalEvent> events) {
+        apply(events, PortfolioListener.NONE);
+    }
+
+    /**
+     * Sadece projeksiyon thread'inden çağrılır. Daha önce uygulanmış olaylar atlanır,
+     * uygulanan her değişiklik dinleyiciye bildirilir.
+     */
+    public void apply(List<JournalEvent> events, PortfolioListener listener) {
+        for (JournalEvent event : events) {
+            if (event.getSequence() <= sequence)
+                continue;
+            Long customerId = event.getCustomerId();
+            switch (event.getType()) {
+                case ORDER_CREATED -> {
+                    portfolio(customerId).open(EngineState.toOrder(event));
+                    listener.orderUpdated(customerId, update(event, event.getOrderId(), event.getOrderSide(), OrderStatus.PENDING,
+                            event.getFilledSize()));
+                    listener.portfolioChanged(customerId);
+                }
+                case ORDER_CANCELED -> {
+                    portfolio(customerId).cancel(event.getOrderId());
+                    listener.orderUpdated(customerId, update(event, event.getOrderId(), event.getOrderSide(), OrderStatus.CANCELED,
+                            event.getFilledSize()));
+                    listener.portfolioChanged(customerId);
+                }
+                case ORDER_FILLED -> {
+                    Long counterCustomerId = event.getCounterCustomerId();
+                    OrderStatus buyStatus = portfolio(customerId).fillBuy(event);
+                    OrderStatus sellStatus = portfolio(counterCustomerId).fillSell(event);
+                    if (buyStatus != null)
+                        listener.orderUpdated(customerId, update(event, event.getOrderId(), OrderSide.BUY, buyStatus,
+                                event.getFilledSize()));
+                    if (sellStatus != null)
+                        listener.orderUpdated(counterCustomerId, update(event, event.getCounterOrderId(), OrderSide.SELL, sellStatus,
+                                event.getCounterFilledSize()));
+                    listener.portfolioChanged(customerId);
+                    listener.portfolioChanged(counterCustomerId);
+                }
+                case ASSET_RESERVED -> {
+                    portfolio(customerId).adjustUsable(event.getAssetName(), event.getQuantity().negate());
+                    listener.portfolioChanged(customerId);
+                }
+                case ASSET_RELEASED -> {
+                    portfolio(customerId).adjustUsable(event.getAssetName(), event.getQuantity());
+                    listener.portfolioChanged(customerId);
+                }
+            }
+            sequence = event.getSequence();
+        }
+        listener.batchApplied();
+    }
+
+    public PortfolioView view(Long customerId) {
+        CustomerPortfolio portfolio = portfolios.get(customerId);
+        return portfolio == null ? CustomerPortfolio.empty(customerId, sequence) : portfolio.view(sequence);
+    }
+
+    public List<OpenOrderView> openOrders(Long customerId) {
+        CustomerPortfolio portfolio = portfolios.get(customerId);
+        return portfolio == null ? List.of() : portfolio.openOrders();
+    }
+
+    private CustomerPortfolio portfolio(Long customerId) {
+        return portfolios.computeIfAbsent(customerId, CustomerPortfolio::new);
+    }
+
+    private static OrderUpdate update(JournalEvent event, Long orderId, OrderSide side, OrderStatus status, BigDecimal filledSize) {
+        return new OrderUpdate(event.getSequence(), event.getTimestamp(), orderId, event.getAssetName(), side, status,
+                event.getQuantity(), event.getPrice(), filledSize);
+    }
+}
@@ -1,8 +1,15 @@
 package com.example.brokerage.repository;
 
 import com.example.brokerage.entity.Asset;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -10,4 +17,20 @@ public interface AssetRepository extends JpaRepository<Asset, Long> {
     List<Asset> findByCustomerId(Long customerId);
 
     Optional<Asset> findByCustomerIdAndAssetNameIgnoreCase(Long customerId, String assetName);
+
+    List<Asset> findByCustomerIdIn(Collection<Long> customerIds);
+
+    //Eşzamanlı batch'ler kilitleri aynı sırayla alsın diye satırlar id sırasıyla okunur
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select a from Asset a where a.customerId in :customerIds order by a.id")
+    List<Asset> findForUpdateByCustomerIdIn(@Param("customerIds") Collection<Long> customerIds);
+
+    /**
+     * Satırı okumadan bakiye farkını uygular. Kullanılabilir bakiye eksiye düşecekse ya da satır yoksa 0 döner.
+     */
+    @Modifying
+    @Query("update Asset a set a.size = a.size + :size, a.usableSize = a.usableSize + :usableSize, a.version = a.version + 1 " +
+            "where a.customerId = :customerId and upper(a.assetName) = upper(:assetName) and a.usableSize + :usableSize >= 0")
+    int applyDelta(@Param("customerId") Long customerId, @Param("assetName") String assetName,
+                   @Param("size") BigDecimal size, @Param("usableSize") BigDecimal usableSize);
 }
\ No newline at end of file
@@ -0,0 +1,7 @@
+package com.example.brokerage.repository;
+
+import com.example.brokerage.entity.JournalCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface JournalCheckpointRepository extends JpaRepository<JournalCheckpoint, Long> {
+}
@@ -0,0 +1,40 @@
+package com.example.brokerage.repository;
+
+import com.example.brokerage.entity.Order;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.springframework.stereotype.Component;
+
+/**
+ * Emir numarasını kayıttan önce {@link Order} entity'sinin kendi sequence üreticisinden alır.
+ * pooled-lo havuzu ortak olduğu için veritabanına ancak havuz bittiğinde gidilir ve numaralar çakışmaz.
+ */
+@Component
+public class OrderIdGenerator {
+
+    private final SessionFactoryImplementor sessionFactory;
+    private final BeforeExecutionGenerator generator;
+
+    public OrderIdGenerator(EntityManagerFactory entityManagerFactory) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        this.generator = (BeforeExecutionGenerator) sessionFactory.getMappingMetamodel()
+                .getEntityDescriptor(Order.class).getGenerator();
+    }
+
+    public long next() {
+        return next(1)[0];
+    }
+
+    public long[] next(int count) {
+        long[] ids = new long[count];
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            for (int i = 0; i < count; i++)
+                ids[i] = ((Number) generator.generate((SharedSessionContractImplementor) session, null, null, EventType.INSERT)).longValue();
+        }
+        return ids;
+    }
+}
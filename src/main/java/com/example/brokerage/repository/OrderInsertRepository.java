@@ -0,0 +1,11 @@
+package com.example.brokerage.repository;
+
+import com.example.brokerage.entity.Order;
+
+import java.util.Collection;
+
+public interface OrderInsertRepository {
+
+    //Numarası atanmış yeni emirleri merge sorgusu olmadan ekler
+    void insertAll(Collection<Order> orders);
+}
@@ -0,0 +1,18 @@
+package com.example.brokerage.repository;
+
+import com.example.brokerage.entity.Order;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+import java.util.Collection;
+
+class OrderInsertRepositoryImpl implements OrderInsertRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public void insertAll(Collection<Order> orders) {
+        orders.forEach(entityManager::persist);
+    }
+}
@@ -1,15 +1,29 @@
 package com.example.brokerage.repository;
 
 import com.example.brokerage.entity.Order;
+import com.example.brokerage.enums.OrderStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
-import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
-public interface OrderRepository extends JpaRepository<Order, Long> {
+public interface OrderRepository extends JpaRepository<Order, Long>, JpaSpecificationExecutor<Order>, OrderInsertRepository {
     List<Order> findByCustomerId(Long customerId);
 
-    List<Order> findByCustomerIdAndCreateDateBetween(Long customerId, LocalDateTime start, LocalDateTime end);
+    List<Order> findByAssetNameIgnoreCaseAndStatusOrderByCreateDateAscIdAsc(String assetName, OrderStatus status);
 
-    List<Order> findByCreateDateBetween(LocalDateTime start, LocalDateTime end);
+    List<Order> findByStatusOrderByCreateDateAscIdAsc(OrderStatus status);
+
+    @Query("select distinct o.assetName from Order o where o.customerId = :customerId and o.status = :status")
+    List<String> findAssetNamesByCustomerIdAndStatus(@Param("customerId") Long customerId, @Param("status") OrderStatus status);
+
+    //Emirleri tek tek yüklemeden tek UPDATE ile iptal eder
+    @Modifying
+    @Query("update Order o set o.status = com.example.brokerage.enums.OrderStatus.CANCELED " +
+            "where o.id in :ids and o.status = com.example.brokerage.enums.OrderStatus.PENDING")
+    int cancelPending(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,50 @@
+package com.example.brokerage.repository;
+
+import com.example.brokerage.dto.request.OrderCursor;
+import com.example.brokerage.dto.request.OrderFilter;
+import com.example.brokerage.entity.Order;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Admin emir listesinin sorgu parçaları. Sadece verilen filtreler koşula eklenir,
+ * böylece veritabanı (customer_id, create_date, id) ve (create_date, id) indekslerini kullanabilir.
+ */
+public final class OrderSpecifications {
+
+    //Keyset sayfalama bu sıraya dayanır, id eşit tarihli emirleri ayırır
+    public static final Sort KEYSET_ORDER = Sort.by("createDate", "id");
+
+    private OrderSpecifications() {
+    }
+
+    public static Specification<Order> matching(OrderFilter filter) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (filter.getCustomerId() != null)
+                predicates.add(cb.equal(root.get("customerId"), filter.getCustomerId()));
+            if (filter.getStatus() != null)
+                predicates.add(cb.equal(root.get("status"), filter.getStatus()));
+            //Emirler hisse adını girildiği gibi saklar, bu yüzden iki taraf da büyük harfe çevrilerek karşılaştırılır
+            if (filter.getAssetName() != null)
+                predicates.add(cb.equal(cb.upper(root.get("assetName")), filter.getAssetName().toUpperCase(Locale.ROOT)));
+            if (filter.getStartDate() != null)
+                predicates.add(cb.greaterThanOrEqualTo(root.get("createDate"), filter.getStartDate()));
+            if (filter.getEndDate() != null)
+                predicates.add(cb.lessThanOrEqualTo(root.get("createDate"), filter.getEndDate()));
+            return cb.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+
+    //(createDate, id) > (cursor.createDate, cursor.id)
+    public static Specification<Order> after(OrderCursor cursor) {
+        return (root, query, cb) -> cb.or(
+                cb.greaterThan(root.get("createDate"), cursor.createDate()),
+                cb.and(cb.equal(root.get("createDate"), cursor.createDate()), cb.greaterThan(root.get("id"), cursor.id())));
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.brokerage.security;
+
+import com.example.brokerage.entity.Customer;
+import com.example.brokerage.enums.Role;
+
+import java.security.Principal;
+import java.util.Set;
+
+/**
+ * Kimliği doğrulanmış müşterinin istek boyunca ihtiyaç duyulan bilgileri. Şifre taşınmaz.
+ */
+public record CustomerPrincipal(Long customerId, String username, Set<Role> roles) implements Principal {
+
+    public CustomerPrincipal {
+        roles = Set.copyOf(roles);
+    }
+
+    public static CustomerPrincipal of(Customer customer) {
+        return new CustomerPrincipal(customer.getId(), customer.getUsername(), customer.getRoles());
+    }
+
+    public boolean isAdmin() {
+        return roles.contains(Role.ADMIN);
+    }
+
+    @Override
+    public String getName() {
+        return username;
+    }
+}
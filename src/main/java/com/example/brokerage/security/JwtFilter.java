@@ -28,16 +28,21 @@ public class JwtFilter extends OncePerRequestFilter {
         String authHeader = request.getHeader("Authorization");
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
             String token = authHeader.substring(7);
-            if (jwtService.isTokenValid(token)) {
-                String username = jwtService.extractUsername(token);
-                Set<SimpleGrantedAuthority> authorities = jwtService.extractRoles(token).stream()
-                        .map(role -> new SimpleGrantedAuthority("ROLE_" + role))
+            jwtService.authenticate(token).ifPresent(customer -> {
+                Set<SimpleGrantedAuthority> authorities = customer.roles().stream()
+                        .map(role -> new SimpleGrantedAuthority("ROLE_" + role.name()))
                         .collect(Collectors.toSet());
-                var authToken = new UsernamePasswordAuthenticationToken(username, null, authorities);
+                var authToken = new UsernamePasswordAuthenticationToken(customer, null, authorities);
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authToken);
-            }
+            });
         }
         filterChain.doFilter(request, response);
     }
+
+    //Emir uçları CompletableFuture döndürdüğü için async dispatch de token ile yetkilendirilmelidir
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
 }
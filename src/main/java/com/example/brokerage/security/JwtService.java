@@ -1,60 +1,140 @@
 package com.example.brokerage.security;
+import com.example.brokerage.enums.Role;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Base64;
 import java.util.Date;
 import java.util.List;
-import java.util.Set;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 @Service
 public class JwtService {
 
+    private static final String CUSTOMER_ID = "cid";
+    private static final String ROLES = "roles";
+
     private final SecretKey secretKey;
+    //Parser değişmez ve thread-safe'tir, bir kez kurulur
+    private final JwtParser parser;
+    private final Cache<String, VerifiedToken> verifiedTokens;
+    private final Timer cachedTimer;
+    private final Timer validTimer;
+    private final Timer invalidTimer;
 
     @Value("${jwt.expiration}")
     private long jwtExpiration;
 
-    public JwtService(@Value("${jwt.secret}") String secret) {
+    public JwtService(@Value("${jwt.secret}") String secret, MeterRegistry meterRegistry,
+                      @Value("${jwt.cache.max-size:100000}") long cacheMaxSize) {
         this.secretKey = Keys.hmacShaKeyFor(Base64.getDecoder().decode(secret));
+        this.parser = Jwts.parser().verifyWith(secretKey).build();
+        //Her girdi token'ın kendi exp anında düşer, süresi dolmuş token önbellekten de kabul edilmez
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfter(new UntilTokenExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, verifiedTokens, "jwt-tokens");
+        this.cachedTimer = verifyTimer(meterRegistry, "cached");
+        this.validTimer = verifyTimer(meterRegistry, "valid");
+        this.invalidTimer = verifyTimer(meterRegistry, "invalid");
     }
 
-    public String generateToken(String username, Set<String> roles) {
+    public String generateToken(CustomerPrincipal customer) {
         return Jwts.builder()
-                .subject(username)
-                .claim("roles", roles)
+                .subject(customer.username())
+                .claim(CUSTOMER_ID, customer.customerId())
+                .claim(ROLES, customer.roles().stream().map(Role::name).collect(Collectors.toSet()))
                 .issuedAt(new Date())
                 .expiration(new Date(System.currentTimeMillis() + jwtExpiration))
                 .signWith(secretKey, Jwts.SIG.HS256)
                 .compact();
     }
 
-    public String extractUsername(String token) {
-        return parseClaims(token).getSubject();
+    /**
+     * İmzayı tek seferde doğrular ve müşteriyi token'daki bilgilerden kurar, veritabanına gidilmez.
+     * Doğrulanan token'lar özetleriyle önbelleğe alınır; aynı token'la gelen sonraki istekler imza hesaplamaz.
+     * Geçersiz, süresi dolmuş ya da müşteri numarası taşımayan eski token'lar için boş döner.
+     */
+    public Optional<CustomerPrincipal> authenticate(String token) {
+        long start = System.nanoTime();
+        String digest = digest(token);
+        VerifiedToken cached = verifiedTokens.getIfPresent(digest);
+        if (cached != null) {
+            cachedTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return Optional.of(cached.customer());
+        }
+
+        Optional<VerifiedToken> verified = verify(token);
+        verified.ifPresent(value -> verifiedTokens.put(digest, value));
+        (verified.isPresent() ? validTimer : invalidTimer).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return verified.map(VerifiedToken::customer);
+    }
+
+    private Optional<VerifiedToken> verify(String token) {
+        try {
+            Claims claims = parser.parseSignedClaims(token).getPayload();
+            Long customerId = claims.get(CUSTOMER_ID, Long.class);
+            List<?> roles = claims.get(ROLES, List.class);
+            if (customerId == null || roles == null || claims.getExpiration() == null)
+                return Optional.empty();
+            CustomerPrincipal customer = new CustomerPrincipal(customerId, claims.getSubject(),
+                    roles.stream().map(role -> Role.valueOf(role.toString())).collect(Collectors.toSet()));
+            return Optional.of(new VerifiedToken(customer, claims.getExpiration().getTime()));
+        } catch (JwtException | IllegalArgumentException e) {
+            return Optional.empty();
+        }
     }
 
-    public Set<String> extractRoles(String token) {
-        List<String> roles = parseClaims(token).get("roles", List.class);
-        return Set.copyOf(roles);
+    private static Timer verifyTimer(MeterRegistry meterRegistry, String result) {
+        return Timer.builder("brokerage.auth.jwt.verify")
+                .description("Token doğrulama süresi; önbellekten dönen, imzası doğrulanan ve reddedilen token'lar ayrı")
+                .tag("result", result)
+                .register(meterRegistry);
     }
 
-    public boolean isTokenValid(String token) {
+    //Önbellekte token'ın kendisi değil SHA-256 özeti tutulur
+    private static String digest(String token) {
         try {
-            parseClaims(token);
-            return true;
-        } catch (JwtException e) {
-            return false;
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
         }
     }
 
-    private Claims parseClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(secretKey)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+    private record VerifiedToken(CustomerPrincipal customer, long expiresAt) {
+    }
+
+    private static final class UntilTokenExpiry implements Expiry<String, VerifiedToken> {
+        @Override
+        public long expireAfterCreate(String digest, VerifiedToken token, long currentTime) {
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, token.expiresAt() - System.currentTimeMillis()));
+        }
+
+        @Override
+        public long expireAfterUpdate(String digest, VerifiedToken token, long currentTime, long currentDuration) {
+            return expireAfterCreate(digest, token, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String digest, VerifiedToken token, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
     }
-}
\ No newline at end of file
+}
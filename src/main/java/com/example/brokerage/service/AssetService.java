@@ -1,14 +1,23 @@
 package com.example.brokerage.service;
 
+import com.example.brokerage.dto.response.PortfolioView;
+import com.example.brokerage.engine.FixedPoint;
 import com.example.brokerage.entity.Asset;
+import com.example.brokerage.entity.Order;
+import com.example.brokerage.enums.OrderSide;
 
 import java.math.BigDecimal;
 import java.util.List;
 
 public interface AssetService {
 
+    String CASH_ASSET = "TRY";
+
     List<Asset> getAssetsByCustomerId(Long customerId);
 
+    //Okuma modelinden gelir, emir girişinin kullandığı bakiyelere dokunmaz
+    PortfolioView getPortfolio(Long customerId);
+
     Asset getCashAsset(Long customerId);
 
     Asset getStockAsset(Long customerId, String assetName);
@@ -17,11 +26,29 @@ public interface AssetService {
 
     boolean hasEnoughStock(Long customerId, String assetName, BigDecimal requiredSize);
 
-    void reserveCash(Long customerId, BigDecimal amount);
+    //Aşağıdaki tutar ve miktarlar FixedPoint birimleriyledir
+    long getUsableUnits(Long customerId, String assetName);
+
+    //Bakiye yetmezse hiçbir şey düşmeden IllegalArgumentException fırlatır
+    void reserveCash(Long customerId, long amount);
+
+    void reserveStock(Long customerId, String assetName, long amount);
+
+    void releaseCash(Long customerId, long amount);
+
+    void releaseStock(Long customerId, String assetName, long amount);
+
+    void settleBuy(Long customerId, String assetName, long quantity, long amount, long reservedAmount);
 
-    void reserveStock(Long customerId, String assetName, BigDecimal amount);
+    void settleSell(Long customerId, String assetName, long quantity, long amount);
 
-    void releaseCash(Long customerId, BigDecimal amount);
+    //Bekleyen emrin bloke ettiği varlık; kısmi eşleşmelerde tutar sadece kalan miktar içindir
+    static String reservedAsset(Order order) {
+        return order.getOrderSide() == OrderSide.BUY ? CASH_ASSET : order.getAssetName();
+    }
 
-    void releaseStock(Long customerId, String assetName, BigDecimal amount);
+    static long reservedAmount(Order order) {
+        long remaining = FixedPoint.toUnits(order.getRemainingSize());
+        return order.getOrderSide() == OrderSide.BUY ? FixedPoint.multiply(FixedPoint.toUnits(order.getPrice()), remaining) : remaining;
+    }
 }
@@ -0,0 +1,11 @@
+package com.example.brokerage.service;
+
+import com.example.brokerage.dto.request.AuthRequest;
+
+import java.util.concurrent.CompletableFuture;
+
+public interface AuthService {
+
+    //Şifre doğrulaması ayrı bir havuzda yapılır, token ile tamamlanır
+    CompletableFuture<String> login(AuthRequest request);
+}
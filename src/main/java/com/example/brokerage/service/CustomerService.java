@@ -0,0 +1,16 @@
+package com.example.brokerage.service;
+
+import com.example.brokerage.security.CustomerPrincipal;
+
+import java.security.Principal;
+
+public interface CustomerService {
+
+    //Bulunamazsa IllegalArgumentException fırlatır
+    CustomerPrincipal getByUsername(String username);
+
+    //Token'dan kurulan müşteri doğrudan kullanılır, diğer principal'lar kullanıcı adıyla çözülür
+    CustomerPrincipal resolve(Principal principal);
+
+    void evict(Long customerId);
+}
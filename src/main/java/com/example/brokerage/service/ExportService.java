@@ -0,0 +1,15 @@
+package com.example.brokerage.service;
+
+import com.example.brokerage.dto.request.OrderFilter;
+import com.example.brokerage.enums.ExportFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface ExportService {
+
+    //Satırları okundukça çıkışa yazar ve yazılan satır sayısını döner
+    long exportOrders(OrderFilter filter, ExportFormat format, OutputStream out) throws IOException;
+
+    long exportAssets(Long customerId, ExportFormat format, OutputStream out) throws IOException;
+}
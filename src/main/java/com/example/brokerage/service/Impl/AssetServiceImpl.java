@@ -1,36 +1,49 @@
 package com.example.brokerage.service.Impl;
 
+import com.example.brokerage.dto.response.PortfolioView;
+import com.example.brokerage.engine.BalanceLedger;
 import com.example.brokerage.entity.Asset;
-import com.example.brokerage.repository.AssetRepository;
+import com.example.brokerage.readmodel.PortfolioReadModel;
 import com.example.brokerage.service.AssetService;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.util.List;
 
+/**
+ * Bakiyeler bellekteki {@link BalanceLedger} üzerinden okunur ve değiştirilir.
+ * Değişiklikler çağıranların yazdığı journal olaylarıyla veritabanına arka planda yansır.
+ */
 @Service
 public class AssetServiceImpl implements AssetService {
 
-    private final AssetRepository assetRepository;
+    private final BalanceLedger ledger;
+    private final PortfolioReadModel readModel;
 
-    public AssetServiceImpl(AssetRepository assetRepository) {
-        this.assetRepository = assetRepository;
+    public AssetServiceImpl(BalanceLedger ledger, PortfolioReadModel readModel) {
+        this.ledger = ledger;
+        this.readModel = readModel;
     }
 
     @Override
     public List<Asset> getAssetsByCustomerId(Long customerId) {
-        return assetRepository.findByCustomerId(customerId);
+        return ledger.getAll(customerId);
+    }
+
+    @Override
+    public PortfolioView getPortfolio(Long customerId) {
+        return readModel.view(customerId);
     }
 
     @Override
     public Asset getCashAsset(Long customerId) {
-        return assetRepository.findByCustomerIdAndAssetNameIgnoreCase(customerId, "TRY")
+        return ledger.get(customerId, CASH_ASSET)
                 .orElseThrow(() -> new IllegalArgumentException("Müşteriye ait TRY bakiyesi bulunamadı"));
     }
 
     @Override
     public Asset getStockAsset(Long customerId, String assetName) {
-        return assetRepository.findByCustomerIdAndAssetNameIgnoreCase(customerId, assetName)
+        return ledger.get(customerId, assetName)
                 .orElseThrow(() -> new IllegalArgumentException("Müşteriye ait hisse senedi bulunamadı: " + assetName));
     }
 
@@ -45,34 +58,41 @@ public class AssetServiceImpl implements AssetService {
     }
 
     @Override
-    public void reserveCash(Long customerId, BigDecimal amount) {
-        updateCash(customerId, amount.negate());
+    public long getUsableUnits(Long customerId, String assetName) {
+        return ledger.usableSize(customerId, assetName).orElseThrow(() -> new IllegalArgumentException(CASH_ASSET.equalsIgnoreCase(assetName)
+                ? "Müşteriye ait TRY bakiyesi bulunamadı"
+                : "Müşteriye ait hisse senedi bulunamadı: " + assetName));
+    }
+
+    @Override
+    public void reserveCash(Long customerId, long amount) {
+        if (!ledger.tryReserve(customerId, CASH_ASSET, amount))
+            throw new IllegalArgumentException("Yetersiz TRY bakiyesi");
     }
 
     @Override
-    public void reserveStock(Long customerId, String assetName, BigDecimal amount) {
-        updateStock(customerId, assetName, amount.negate());
+    public void reserveStock(Long customerId, String assetName, long amount) {
+        if (!ledger.tryReserve(customerId, assetName, amount))
+            throw new IllegalArgumentException("Yetersiz hisse miktarı");
     }
 
     @Override
-    public void releaseCash(Long customerId, BigDecimal amount) {
-        updateCash(customerId, amount);
+    public void releaseCash(Long customerId, long amount) {
+        ledger.release(customerId, CASH_ASSET, amount);
     }
 
     @Override
-    public void releaseStock(Long customerId, String assetName, BigDecimal amount) {
-        updateStock(customerId, assetName, amount);
+    public void releaseStock(Long customerId, String assetName, long amount) {
+        ledger.release(customerId, assetName, amount);
     }
 
-    private void updateCash(Long customerId, BigDecimal delta) {
-        Asset cash = getCashAsset(customerId);
-        cash.setUsableSize(cash.getUsableSize().add(delta));
-        assetRepository.save(cash);
+    @Override
+    public void settleBuy(Long customerId, String assetName, long quantity, long amount, long reservedAmount) {
+        ledger.settleBuy(customerId, CASH_ASSET, assetName, quantity, amount, reservedAmount);
     }
 
-    private void updateStock(Long customerId, String assetName, BigDecimal delta) {
-        Asset stock = getStockAsset(customerId, assetName);
-        stock.setUsableSize(stock.getUsableSize().add(delta));
-        assetRepository.save(stock);
+    @Override
+    public void settleSell(Long customerId, String assetName, long quantity, long amount) {
+        ledger.settleSell(customerId, CASH_ASSET, assetName, quantity, amount);
     }
-}
\ No newline at end of file
+}
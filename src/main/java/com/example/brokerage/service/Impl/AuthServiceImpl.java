@@ -0,0 +1,114 @@
+package com.example.brokerage.service.Impl;
+
+import com.example.brokerage.dto.request.AuthRequest;
+import com.example.brokerage.entity.Customer;
+import com.example.brokerage.repository.CustomerRepository;
+import com.example.brokerage.security.CustomerPrincipal;
+import com.example.brokerage.security.JwtService;
+import com.example.brokerage.service.AuthService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Giriş isteklerini işler. Şifre hash'i bilinçli olarak yavaştır; doğrulama sınırlı bir havuzda yapılır ki
+ * açılıştaki giriş yoğunluğu emir uçlarının servlet thread'lerini tüketmesin. Havuz kuyruğu dolunca istek reddedilir.
+ * Eski veya daha düşük maliyetli hash'ler başarılı girişte güncel ayarla yeniden hash'lenir.
+ */
+@Slf4j
+@Service
+public class AuthServiceImpl implements AuthService {
+
+    private final CustomerRepository customerRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final JwtService jwtService;
+    private final ThreadPoolExecutor executor;
+    private final Timer successTimer;
+    private final Timer failureTimer;
+    private final Counter rejected;
+    private final Counter rehashed;
+
+    public AuthServiceImpl(CustomerRepository customerRepository, PasswordEncoder passwordEncoder, JwtService jwtService,
+                           MeterRegistry meterRegistry,
+                           @Value("${brokerage.auth.login-threads:2}") int threads,
+                           @Value("${brokerage.auth.login-queue-capacity:256}") int queueCapacity) {
+        this.customerRepository = customerRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.jwtService = jwtService;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+            Thread thread = new Thread(runnable, "login-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.AbortPolicy());
+
+        this.successTimer = loginTimer(meterRegistry, "success");
+        this.failureTimer = loginTimer(meterRegistry, "failure");
+        this.rejected = Counter.builder("brokerage.auth.login.rejected")
+                .description("Havuz kuyruğu dolu olduğu için reddedilen giriş sayısı")
+                .register(meterRegistry);
+        this.rehashed = Counter.builder("brokerage.auth.rehash")
+                .description("Girişte güncel ayarla yeniden hash'lenen şifre sayısı")
+                .register(meterRegistry);
+        Gauge.builder("brokerage.auth.login.queue", executor, pool -> pool.getQueue().size())
+                .description("Doğrulanmayı bekleyen giriş sayısı")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public CompletableFuture<String> login(AuthRequest request) {
+        long start = System.nanoTime();
+        try {
+            return CompletableFuture.supplyAsync(() -> authenticate(request), executor)
+                    .whenComplete((token, e) -> (e == null ? successTimer : failureTimer)
+                            .record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            return CompletableFuture.failedFuture(new RejectedExecutionException("Giriş kuyruğu dolu, lütfen tekrar deneyin", e));
+        }
+    }
+
+    private String authenticate(AuthRequest request) {
+        Customer customer = customerRepository.findByUsername(request.getUsername())
+                .orElseThrow(() -> new RuntimeException("Kullanıcı bulunamadı"));
+        if (!passwordEncoder.matches(request.getPassword(), customer.getPassword()))
+            throw new RuntimeException("Şifre yanlış");
+
+        if (passwordEncoder.upgradeEncoding(customer.getPassword()))
+            rehash(customer, request.getPassword());
+        return jwtService.generateToken(CustomerPrincipal.of(customer));
+    }
+
+    //Yeniden hash'leme başarısız olsa da giriş başarılıdır, bir sonraki girişte tekrar denenir
+    private void rehash(Customer customer, String rawPassword) {
+        try {
+            customer.setPassword(passwordEncoder.encode(rawPassword));
+            customerRepository.save(customer);
+            rehashed.increment();
+        } catch (RuntimeException e) {
+            log.warn("Password rehash failed. Customer: {}", customer.getId(), e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private static Timer loginTimer(MeterRegistry meterRegistry, String result) {
+        return Timer.builder("brokerage.auth.login.duration")
+                .description("Kuyrukta bekleme dahil giriş süresi")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
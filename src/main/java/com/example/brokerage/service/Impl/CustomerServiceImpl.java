@@ -0,0 +1,68 @@
+package com.example.brokerage.service.Impl;
+
+import com.example.brokerage.repository.CustomerRepository;
+import com.example.brokerage.security.CustomerPrincipal;
+import com.example.brokerage.service.CustomerService;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Cache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+
+import java.security.Principal;
+import java.time.Duration;
+
+/**
+ * Kullanıcı adından müşteri numarası ve rollerine giden sorguyu önbellekler. Önbellek boyut ve süre ile sınırlıdır;
+ * müşteri kaydı değiştiğinde ilgili girdi hemen silinir. Bulunamayan kullanıcılar önbelleğe alınmaz.
+ */
+@Service
+public class CustomerServiceImpl implements CustomerService {
+
+    private final CustomerRepository customerRepository;
+    private final Cache<String, CustomerPrincipal> customers;
+
+    public CustomerServiceImpl(CustomerRepository customerRepository, MeterRegistry meterRegistry,
+                               @Value("${brokerage.customers.cache.max-size:10000}") long maxSize,
+                               @Value("${brokerage.customers.cache.ttl-ms:300000}") long ttlMs) {
+        this.customerRepository = customerRepository;
+        this.customers = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, customers, "customers");
+    }
+
+    //Caffeine yükleyicisi ConcurrentHashMap kilidi altında çalışır; sorgu orada yapılırsa sanal thread taşıyıcısına
+    //sabitlenir. Sorgu kilit dışında yapılır, soğuk önbellekte aynı kullanıcı için birden fazla sorgu gidebilir.
+    @Override
+    public CustomerPrincipal getByUsername(String username) {
+        CustomerPrincipal customer = username == null ? null : customers.getIfPresent(username);
+        if (customer == null && username != null) {
+            customer = customerRepository.findByUsername(username).map(CustomerPrincipal::of).orElse(null);
+            if (customer != null)
+                customers.put(username, customer);
+        }
+        if (customer == null)
+            throw new IllegalArgumentException("Kullanıcı bulunamadı");
+        return customer;
+    }
+
+    @Override
+    public CustomerPrincipal resolve(Principal principal) {
+        if (principal instanceof CustomerPrincipal customer)
+            return customer;
+        if (principal instanceof Authentication authentication && authentication.getPrincipal() instanceof CustomerPrincipal customer)
+            return customer;
+        return getByUsername(principal.getName());
+    }
+
+    //Kullanıcı adı da değişmiş olabileceği için girdi müşteri numarasıyla aranır
+    @Override
+    public void evict(Long customerId) {
+        customers.asMap().values().removeIf(customer -> customer.customerId().equals(customerId));
+    }
+}
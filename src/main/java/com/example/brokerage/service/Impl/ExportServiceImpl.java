@@ -0,0 +1,185 @@
+package com.example.brokerage.service.Impl;
+
+import com.example.brokerage.dto.request.OrderFilter;
+import com.example.brokerage.entity.Asset;
+import com.example.brokerage.entity.Order;
+import com.example.brokerage.enums.ExportFormat;
+import com.example.brokerage.repository.OrderSpecifications;
+import com.example.brokerage.service.ExportService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Emirleri ve varlıkları gün sonu mutabakatı için dışa aktarır. Satırlar veritabanından tek yönlü bir cursor ile
+ * fetch-size'lık parçalar halinde okunur, yazılır ve persistence context'ten hemen çıkarılır;
+ * böylece bellek kullanımı aktarılan satır sayısından bağımsız kalır.
+ */
+@Slf4j
+@Service
+public class ExportServiceImpl implements ExportService {
+
+    private static final String ORDER_HEADER = "id,customerId,assetName,orderSide,size,filledSize,price,status,createDate";
+    private static final String ASSET_HEADER = "id,customerId,assetName,size,usableSize";
+
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final int fetchSize;
+    private final Counter exportedOrders;
+    private final Counter exportedAssets;
+
+    public ExportServiceImpl(EntityManager entityManager, PlatformTransactionManager transactionManager,
+                             ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                             @Value("${brokerage.export.fetch-size:1000}") int fetchSize) {
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.objectMapper = objectMapper;
+        this.fetchSize = fetchSize;
+        this.exportedOrders = Counter.builder("brokerage.export.rows")
+                .description("Dışa aktarılan satır sayısı")
+                .tag("dataset", "orders")
+                .register(meterRegistry);
+        this.exportedAssets = Counter.builder("brokerage.export.rows")
+                .description("Dışa aktarılan satır sayısı")
+                .tag("dataset", "assets")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public long exportOrders(OrderFilter filter, ExportFormat format, OutputStream out) throws IOException {
+        return export(Order.class, (type, cb) -> {
+            CriteriaQuery<Order> query = cb.createQuery(Order.class);
+            Root<Order> order = query.from(Order.class);
+            return query.select(order)
+                    .where(OrderSpecifications.matching(filter).toPredicate(order, query, cb))
+                    .orderBy(cb.asc(order.get("createDate")), cb.asc(order.get("id")));
+        }, format, out, ORDER_HEADER, order -> String.join(",",
+                String.valueOf(order.getId()),
+                String.valueOf(order.getCustomerId()),
+                csv(order.getAssetName()),
+                String.valueOf(order.getOrderSide()),
+                order.getSize().toPlainString(),
+                order.getFilledSize().toPlainString(),
+                order.getPrice().toPlainString(),
+                String.valueOf(order.getStatus()),
+                String.valueOf(order.getCreateDate())), exportedOrders);
+    }
+
+    @Override
+    public long exportAssets(Long customerId, ExportFormat format, OutputStream out) throws IOException {
+        return export(Asset.class, (type, cb) -> {
+            CriteriaQuery<Asset> query = cb.createQuery(Asset.class);
+            Root<Asset> asset = query.from(Asset.class);
+            query.select(asset).orderBy(cb.asc(asset.get("customerId")), cb.asc(asset.get("id")));
+            if (customerId != null)
+                query.where(cb.equal(asset.get("customerId"), customerId));
+            return query;
+        }, format, out, ASSET_HEADER, asset -> String.join(",",
+                String.valueOf(asset.getId()),
+                String.valueOf(asset.getCustomerId()),
+                csv(asset.getAssetName()),
+                asset.getSize().toPlainString(),
+                asset.getUsableSize().toPlainString()), exportedAssets);
+    }
+
+    private <T> long export(Class<T> type, QueryBuilder<T> queryBuilder, ExportFormat format, OutputStream out,
+                            String csvHeader, Function<T, String> csvLine, Counter counter) throws IOException {
+        long start = System.nanoTime();
+        AtomicLong rows = new AtomicLong();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                CriteriaQuery<T> query = queryBuilder.build(type, entityManager.getCriteriaBuilder());
+                try (Stream<T> stream = entityManager.createQuery(query)
+                        .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                        .setHint(HibernateHints.HINT_READ_ONLY, true)
+                        .getResultStream()) {
+                    if (format == ExportFormat.CSV)
+                        writeCsv(stream, out, csvHeader, csvLine, rows);
+                    else
+                        writeNdjson(type, stream, out, rows);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            counter.increment(rows.get());
+        }
+        log.info("Export completed. Type: {} Format: {} Rows: {} Duration: {} ms",
+                type.getSimpleName(), format, rows.get(), (System.nanoTime() - start) / 1_000_000);
+        return rows.get();
+    }
+
+    private <T> void writeNdjson(Class<T> type, Stream<T> stream, OutputStream out, AtomicLong rows) throws IOException {
+        //Her satırdan sonra flush edilmez, generator tamponu doldukça çıkışa yazılır
+        ObjectWriter writer = objectMapper.writerFor(type).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .setRootValueSeparator(null)) {
+            for (T row : (Iterable<T>) stream::iterator) {
+                writer.writeValue(generator, row);
+                generator.writeRaw('\n');
+                detach(row, rows);
+            }
+        }
+    }
+
+    private <T> void writeCsv(Stream<T> stream, OutputStream out, String header, Function<T, String> line,
+                              AtomicLong rows) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        writer.write(header);
+        writer.write('\n');
+        for (T row : (Iterable<T>) stream::iterator) {
+            writer.write(line.apply(row));
+            writer.write('\n');
+            detach(row, rows);
+        }
+        writer.flush();
+    }
+
+    //Yazılan satır persistence context'te birikmesin
+    private void detach(Object row, AtomicLong rows) {
+        entityManager.detach(row);
+        rows.incrementAndGet();
+    }
+
+    private static String csv(String value) {
+        if (value == null)
+            return "";
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0)
+            return value;
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    @FunctionalInterface
+    private interface QueryBuilder<T> {
+        CriteriaQuery<T> build(Class<T> type, CriteriaBuilder cb);
+    }
+}
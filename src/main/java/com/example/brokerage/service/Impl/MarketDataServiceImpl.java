@@ -0,0 +1,177 @@
+package com.example.brokerage.service.Impl;
+
+import com.example.brokerage.dto.response.DepthSnapshot;
+import com.example.brokerage.dto.response.TopOfBook;
+import com.example.brokerage.marketdata.MarketDataPublisher;
+import com.example.brokerage.service.MarketDataService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Piyasa verisini anlık görüntü ve akış olarak sunar. Akışta her abone için en fazla bir gönderim sürer;
+ * gönderim sırasında gelen değişiklikler sadece "değişti" işareti bırakır ve gönderim bitince güncel derinlik okunup gönderilir.
+ * Böylece yavaş bir istemci eski güncellemeleri sırayla almak yerine her zaman en son durumu alır ve geride kalmaz.
+ */
+@Slf4j
+@Service
+public class MarketDataServiceImpl implements MarketDataService {
+
+    private final MarketDataPublisher publisher;
+    private final Map<String, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final ExecutorService sender;
+    private final int maxLevels;
+    private final long timeoutMillis;
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final Counter sent;
+    private final Counter conflated;
+
+    public MarketDataServiceImpl(MarketDataPublisher publisher, MeterRegistry meterRegistry,
+                                 @Value("${brokerage.market-data.max-levels:50}") int maxLevels,
+                                 @Value("${brokerage.market-data.sender-threads:2}") int senderThreads,
+                                 @Value("${brokerage.market-data.timeout-ms:1800000}") long timeoutMillis) {
+        this.publisher = publisher;
+        this.maxLevels = maxLevels;
+        this.timeoutMillis = timeoutMillis;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.sender = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "market-data-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.sent = Counter.builder("brokerage.marketdata.sent")
+                .description("İstemcilere gönderilen derinlik güncellemesi sayısı")
+                .register(meterRegistry);
+        this.conflated = Counter.builder("brokerage.marketdata.conflated")
+                .description("Gönderilmeden bir sonrakiyle birleştirilen derinlik güncellemesi sayısı")
+                .register(meterRegistry);
+        Gauge.builder("brokerage.marketdata.subscribers", subscriberCount, AtomicInteger::get)
+                .description("Açık piyasa verisi akışı sayısı")
+                .register(meterRegistry);
+        publisher.onChange(this::booksChanged);
+    }
+
+    @Override
+    public TopOfBook getTopOfBook(String assetName) {
+        return publisher.top(assetName).orElseGet(() -> new TopOfBook(normalize(assetName), null, null, publisher.getSequence()));
+    }
+
+    @Override
+    public DepthSnapshot getDepth(String assetName, int levels) {
+        checkLevels(levels);
+        return depth(normalize(assetName), levels);
+    }
+
+    @Override
+    public SseEmitter stream(String assetName, int levels) {
+        checkLevels(levels);
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(normalize(assetName), levels, emitter);
+        subscribers.computeIfAbsent(subscriber.assetName, key -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        subscriberCount.incrementAndGet();
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(() -> unsubscribe(subscriber));
+        emitter.onError(e -> unsubscribe(subscriber));
+
+        //İlk gönderim bağlantı anındaki derinliktir
+        subscriber.changed();
+        return emitter;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sender.shutdownNow();
+        subscribers.values().forEach(set -> set.forEach(subscriber -> subscriber.emitter.complete()));
+    }
+
+    private void booksChanged(Set<String> assetNames) {
+        for (String assetName : assetNames) {
+            Set<Subscriber> set = subscribers.get(assetName);
+            if (set != null)
+                set.forEach(Subscriber::changed);
+        }
+    }
+
+    private DepthSnapshot depth(String assetName, int levels) {
+        return publisher.depth(assetName, levels)
+                .orElseGet(() -> new DepthSnapshot(assetName, List.of(), List.of(), publisher.getSequence()));
+    }
+
+    private void checkLevels(int levels) {
+        if (levels <= 0 || levels > maxLevels)
+            throw new IllegalArgumentException("Derinlik 1 ile " + maxLevels + " seviye arasında olmalıdır");
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        if (!subscriber.closed.compareAndSet(false, true))
+            return;
+        subscriberCount.decrementAndGet();
+        subscribers.computeIfPresent(subscriber.assetName, (key, set) -> {
+            set.remove(subscriber);
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    private static String normalize(String assetName) {
+        return assetName.toUpperCase(Locale.ROOT);
+    }
+
+    private class Subscriber {
+        private final String assetName;
+        private final int levels;
+        private final SseEmitter emitter;
+        private final AtomicBoolean dirty = new AtomicBoolean();
+        private final AtomicBoolean sending = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        Subscriber(String assetName, int levels, SseEmitter emitter) {
+            this.assetName = assetName;
+            this.levels = levels;
+            this.emitter = emitter;
+        }
+
+        void changed() {
+            if (closed.get())
+                return;
+            if (dirty.getAndSet(true))
+                conflated.increment();
+            if (sending.compareAndSet(false, true))
+                sender.execute(this::drain);
+        }
+
+        private void drain() {
+            try {
+                do {
+                    while (dirty.getAndSet(false)) {
+                        emitter.send(SseEmitter.event().name("depth").data(depth(assetName, levels), MediaType.APPLICATION_JSON));
+                        sent.increment();
+                    }
+                    sending.set(false);
+                } while (dirty.get() && sending.compareAndSet(false, true));
+            } catch (IOException | IllegalStateException e) {
+                //İstemci bağlantıyı kapatmış
+                log.debug("Market data stream closed. Asset: {}", assetName);
+                sending.set(false);
+                unsubscribe(this);
+                emitter.completeWithError(e);
+            }
+        }
+    }
+}
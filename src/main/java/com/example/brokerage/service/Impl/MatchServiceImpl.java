@@ -1,83 +1,244 @@
 package com.example.brokerage.service.Impl;
 
+import com.example.brokerage.engine.Fill;
+import com.example.brokerage.engine.OrderBook;
+import com.example.brokerage.engine.Sequencer;
+import com.example.brokerage.engine.ShardedSequencer;
 import com.example.brokerage.entity.Order;
-import com.example.brokerage.enums.OrderSide;
 import com.example.brokerage.enums.OrderStatus;
+import com.example.brokerage.journal.EventJournal;
+import com.example.brokerage.journal.JournalEvent;
 import com.example.brokerage.repository.OrderRepository;
 import com.example.brokerage.service.AssetService;
 import com.example.brokerage.service.MatchService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Propagation;
-import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 public class MatchServiceImpl implements MatchService {
 
+    private static final long PROJECTION_TIMEOUT_MILLIS = 5000;
+
     private final OrderRepository orderRepository;
+    private final ShardedSequencer sequencer;
+    private final EventJournal journal;
     private final AssetService assetService;
-
-    public MatchServiceImpl(OrderRepository orderRepository, AssetService assetService) {
+    private final Timer orderTimer;
+    private final DistributionSummary batchSize;
+    private final DistributionSummary fillsPerOrder;
+    //Defterlerde bekleyen emirler; shard thread'lerinde güncellenir, iptal doğrulaması projeksiyonu beklemeden buradan okur
+    private final Map<Long, Order> liveOrders = new ConcurrentHashMap<>();
+
+    public MatchServiceImpl(OrderRepository orderRepository, ShardedSequencer sequencer, EventJournal journal,
+                            AssetService assetService, MeterRegistry meterRegistry) {
         this.orderRepository = orderRepository;
+        this.sequencer = sequencer;
+        this.journal = journal;
         this.assetService = assetService;
+        this.orderTimer = Timer.builder("brokerage.matching.order")
+                .description("Emrin deftere eklenmesi ve dolumlarının bakiyelere işlenmesi süresi")
+                .register(meterRegistry);
+        this.batchSize = DistributionSummary.builder("brokerage.matching.batch.size")
+                .description("Tek eşleştirme isteğinde gönderilen emir sayısı")
+                .register(meterRegistry);
+        this.fillsPerOrder = DistributionSummary.builder("brokerage.matching.fills")
+                .description("Deftere eklenen emrin ürettiği dolum sayısı")
+                .register(meterRegistry);
     }
 
+    /**
+     * Emirler sürekli eşleştiği için istenen emirlerin çoğu zaten eşleşmiş olabilir. Yanıt, istekteki her emrin
+     * journal'daki son durumundan kurulur: önce o ana kadarki olaylar veritabanına yansıtılır, bekleyen emirlerin
+     * defterleri taranır ve taramanın olayları da yansıdıktan sonra durumu MATCHED olanlar döner.
+     */
     @Override
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
     public List<Long> matchOrders(List<Long> orderIds) {
-        List<Order> orders = orderRepository.findAllById(orderIds);
-        List<Long> matchedIds = new ArrayList<>();
-
-        for (Order order : orders) {
-            try {
-                if (order.getStatus() != OrderStatus.PENDING) {
-                    continue;
-                }
-
-                BigDecimal totalAmount = order.getPrice().multiply(order.getSize());
-
-                if (order.getOrderSide() == OrderSide.BUY) {
-                    processBuyOrder(order, totalAmount);
-                } else {
-                    processSellOrder(order, totalAmount);
-                }
-
-                order.setStatus(OrderStatus.MATCHED);
-                orderRepository.save(order);
-                matchedIds.add(order.getId());
-
-            } catch (Exception e) {
-                log.error("Order match failed. OrderID: {}", order.getId(), e);
-            }
+        batchSize.record(orderIds.size());
+        awaitProjection();
+        Map<String, List<Long>> pendingByAsset = orderRepository.findAllById(orderIds).stream()
+                .filter(order -> order.getStatus() == OrderStatus.PENDING)
+                .collect(Collectors.groupingBy(order -> ShardedSequencer.key(order.getAssetName()),
+                        Collectors.mapping(Order::getId, Collectors.toList())));
+
+        //Her hisse kendi shard'ında eşleşir, shard'lar birbirini beklemez
+        if (!pendingByAsset.isEmpty()) {
+            List<CompletableFuture<Void>> commands = new ArrayList<>();
+            pendingByAsset.forEach((assetName, ids) -> commands.add(sequencer.shardFor(assetName)
+                    .submit(() -> sweep(assetName))
+                    .exceptionally(e -> {
+                        log.error("Order match failed. Asset: {} OrderIDs: {}", assetName, ids, e);
+                        return null;
+                    })));
+            CompletableFuture.allOf(commands.toArray(CompletableFuture[]::new)).join();
+            awaitProjection();
         }
-        return matchedIds;
+
+        Set<Long> matched = orderRepository.findAllById(orderIds).stream()
+                .filter(order -> order.getStatus() == OrderStatus.MATCHED)
+                .map(Order::getId)
+                .collect(Collectors.toSet());
+        return orderIds.stream().filter(matched::contains).distinct().toList();
     }
 
-    private void processBuyOrder(Order order, BigDecimal totalAmount) {
-        if (!assetService.hasEnoughCash(order.getCustomerId(), totalAmount)) {
-            throw new RuntimeException("Yetersiz TRY bakiyesi");
+    /**
+     * Defter bu hissede ilk kez kullanılıyorsa önce yüklenir, emrin ORDER_CREATED olayı ondan sonra yazılır.
+     * Böylece emir, defter yüklenirken veritabanından ikinci bir kopya olarak gelemez. ORDER_CREATED yazıldıktan sonra
+     * emir kabul edilmiştir: sonraki bir hata çağırana iletilmez, emir journal üzerinden iptal edilir.
+     */
+    @Override
+    public List<Fill> submit(Order order) {
+        long start = System.nanoTime();
+        List<Fill> fills = new ArrayList<>();
+        OrderBook book = bookFor(order.getAssetName(), fills);
+        journal.append(JournalEvent.orderCreated(order));
+        try {
+            fills.addAll(book.add(order));
+            if (order.getStatus() == OrderStatus.PENDING)
+                liveOrders.put(order.getId(), order);
+            settle(fills);
+        } catch (RuntimeException e) {
+            log.error("Order failed after it was journaled, canceling it. OrderID: {}", order.getId(), e);
+            abort(book, order);
         }
-        //TRY'yi rezerve et (usableSize'dan düş)
-        assetService.reserveCash(order.getCustomerId(), totalAmount);
+        orderTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        fillsPerOrder.record(fills.size());
+        return fills;
+    }
+
+    @Override
+    public Optional<Order> cancel(Order order) {
+        List<Fill> fills = new ArrayList<>();
+        OrderBook book = bookFor(order.getAssetName(), fills);
+        settle(fills);
+        Optional<Order> removed = book.remove(order.getId());
+        removed.ifPresent(live -> liveOrders.remove(live.getId()));
+        return removed;
+    }
+
+    @Override
+    public List<Order> cancelAll(String assetName, Long customerId) {
+        List<Fill> fills = new ArrayList<>();
+        OrderBook book = bookFor(assetName, fills);
+        settle(fills);
+        return withdraw(book, customerId);
+    }
+
+    @Override
+    public List<Order> cancelAll(Sequencer shard, Long customerId) {
+        List<Order> canceled = new ArrayList<>();
+        for (OrderBook book : shard.books())
+            canceled.addAll(withdraw(book, customerId));
+        return canceled;
+    }
+
+    @Override
+    public Optional<Order> findLive(Long orderId) {
+        return Optional.ofNullable(liveOrders.get(orderId));
+    }
+
+    @Override
+    public void restore(Collection<Order> openOrders) {
+        Map<String, List<Order>> byAsset = openOrders.stream()
+                .collect(Collectors.groupingBy(order -> ShardedSequencer.key(order.getAssetName()),
+                        LinkedHashMap::new, Collectors.toList()));
+
+        List<CompletableFuture<Void>> commands = new ArrayList<>();
+        byAsset.forEach((assetName, orders) -> commands.add(sequencer.shardFor(assetName).submit(() -> {
+            List<Fill> fills = new ArrayList<>();
+            sequencer.shardFor(assetName).book(assetName, key -> load(key, orders, fills));
+            settle(fills);
+            return null;
+        })));
+        CompletableFuture.allOf(commands.toArray(CompletableFuture[]::new)).join();
+        journal.flush();
+    }
+
+    //Defter henüz yüklenmemişse yüklenir ve yükleme sırasında kesişen emirler eşleşir
+    private Void sweep(String assetName) {
+        List<Fill> fills = new ArrayList<>();
+        bookFor(assetName, fills);
+        settle(fills);
+        return null;
+    }
+
+    private void awaitProjection() {
+        if (!journal.flushAndAwaitProjection(PROJECTION_TIMEOUT_MILLIS))
+            throw new RuntimeException("Emir durumları henüz veritabanına yansımadı, lütfen tekrar deneyin");
+    }
 
-        //Hisseyi serbest bırak (size'a ekle)
-        assetService.releaseStock(order.getCustomerId(), order.getAssetName(), order.getSize());
+    private List<Order> withdraw(OrderBook book, Long customerId) {
+        List<Order> canceled = new ArrayList<>();
+        for (Order order : book.orders()) {
+            if (customerId != null && !customerId.equals(order.getCustomerId()))
+                continue;
+            book.remove(order.getId());
+            liveOrders.remove(order.getId());
+            canceled.add(order);
+        }
+        return canceled;
     }
 
-    private void processSellOrder(Order order, BigDecimal totalAmount) {
-        if (!assetService.hasEnoughStock(order.getCustomerId(), order.getAssetName(), order.getSize())) {
-            throw new RuntimeException("Yetersiz hisse miktarı");
+    //Emir defterde ya da kısmen dolmuş olabilir; kalan miktarın rezervi müşteri iptalindeki gibi serbest bırakılır
+    private void abort(OrderBook book, Order order) {
+        book.remove(order.getId());
+        liveOrders.remove(order.getId());
+        if (order.getStatus() != OrderStatus.PENDING)
+            return;
+        try {
+            String reservedAsset = AssetService.reservedAsset(order);
+            long amount = AssetService.reservedAmount(order);
+            if (AssetService.CASH_ASSET.equals(reservedAsset))
+                assetService.releaseCash(order.getCustomerId(), amount);
+            else
+                assetService.releaseStock(order.getCustomerId(), reservedAsset, amount);
+            journal.append(JournalEvent.assetReleased(order.getCustomerId(), reservedAsset, amount));
+            order.setStatus(OrderStatus.CANCELED);
+            journal.append(JournalEvent.orderCanceled(order));
+        } catch (RuntimeException e) {
+            log.error("Journaled order could not be canceled. OrderID: {}", order.getId(), e);
         }
+    }
+
+    private OrderBook bookFor(String assetName, List<Fill> fills) {
+        Sequencer shard = sequencer.shardFor(assetName);
+        //Defter ilk kullanımda bekleyen emirlerden zaman sırasıyla kurulur
+        return shard.book(ShardedSequencer.key(assetName), key -> load(key,
+                orderRepository.findByAssetNameIgnoreCaseAndStatusOrderByCreateDateAscIdAsc(key, OrderStatus.PENDING), fills));
+    }
 
-        //Hisseyi rezerve et (usableSize'dan düş)
-        assetService.reserveStock(order.getCustomerId(), order.getAssetName(), order.getSize());
+    private OrderBook load(String assetName, List<Order> orders, List<Fill> fills) {
+        OrderBook book = new OrderBook(assetName);
+        for (Order pending : orders) {
+            fills.addAll(book.add(pending));
+            if (pending.getStatus() == OrderStatus.PENDING)
+                liveOrders.put(pending.getId(), pending);
+        }
+        return book;
+    }
 
-        //TRY'yi serbest bırak (size'a ekle)
-        assetService.releaseCash(order.getCustomerId(), totalAmount);
+    private void settle(List<Fill> fills) {
+        //Bakiyeler bellekte hemen güncellenir, bakiye ve emir satırları journal üzerinden arka planda yansır
+        for (Fill fill : fills) {
+            Order buy = fill.getBuyOrder();
+            Order sell = fill.getSellOrder();
+            long amount = fill.getAmount();
+            assetService.settleBuy(buy.getCustomerId(), buy.getAssetName(), fill.getQuantity(), amount, fill.getReservedAmount());
+            assetService.settleSell(sell.getCustomerId(), sell.getAssetName(), fill.getQuantity(), amount);
+            journal.append(JournalEvent.orderFilled(fill));
+            if (buy.getStatus() == OrderStatus.MATCHED)
+                liveOrders.remove(buy.getId());
+            if (sell.getStatus() == OrderStatus.MATCHED)
+                liveOrders.remove(sell.getId());
+        }
     }
 }
-
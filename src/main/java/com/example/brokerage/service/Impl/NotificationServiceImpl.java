@@ -0,0 +1,213 @@
+package com.example.brokerage.service.Impl;
+
+import com.example.brokerage.dto.response.OrderUpdate;
+import com.example.brokerage.readmodel.PortfolioListener;
+import com.example.brokerage.readmodel.PortfolioReadModel;
+import com.example.brokerage.service.NotificationService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Okuma modeline uygulanan emir ve bakiye değişikliklerini müşterinin açık SSE bağlantılarına iletir.
+ * Projeksiyon thread'i hiçbir zaman beklemez: her bağlantının sınırlı bir tamponu vardır ve gönderim ayrı bir havuzda yapılır.
+ * Tampon dolarsa en eski olay atılır ve istemciye kaç olay kaçırdığı "overflow" olayıyla bildirilir;
+ * istemci bu durumda güncel portföyü yeniden okumalıdır. Aynı batch'teki bakiye değişiklikleri tek bir portföy olayında birleştirilir.
+ */
+@Slf4j
+@Service
+public class NotificationServiceImpl implements NotificationService, PortfolioListener {
+
+    private final PortfolioReadModel readModel;
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final Set<Long> changedPortfolios = new HashSet<>();
+    private final ExecutorService sender;
+    private final ScheduledExecutorService heartbeat;
+    private final int bufferSize;
+    private final int maxSubscribersPerCustomer;
+    private final long timeoutMillis;
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final Counter sent;
+    private final Counter dropped;
+
+    public NotificationServiceImpl(PortfolioReadModel readModel, MeterRegistry meterRegistry,
+                                   @Value("${brokerage.notifications.buffer-size:256}") int bufferSize,
+                                   @Value("${brokerage.notifications.max-subscribers-per-customer:4}") int maxSubscribersPerCustomer,
+                                   @Value("${brokerage.notifications.sender-threads:2}") int senderThreads,
+                                   @Value("${brokerage.notifications.timeout-ms:1800000}") long timeoutMillis,
+                                   @Value("${brokerage.notifications.heartbeat-ms:15000}") long heartbeatMillis) {
+        this.readModel = readModel;
+        this.bufferSize = bufferSize;
+        this.maxSubscribersPerCustomer = maxSubscribersPerCustomer;
+        this.timeoutMillis = timeoutMillis;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.sender = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "notify-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.heartbeat = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "notify-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        //Bağlantı boşta kalsa da ara sunucular kapatmasın ve kopan istemciler fark edilsin
+        heartbeat.scheduleAtFixedRate(this::heartbeat, heartbeatMillis, heartbeatMillis, TimeUnit.MILLISECONDS);
+
+        this.sent = Counter.builder("brokerage.notifications.sent")
+                .description("İstemcilere gönderilen bildirim sayısı")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("brokerage.notifications.dropped")
+                .description("Tamponu dolan yavaş istemciler için atılan bildirim sayısı")
+                .register(meterRegistry);
+        Gauge.builder("brokerage.notifications.subscribers", subscriberCount, AtomicInteger::get)
+                .description("Açık bildirim bağlantısı sayısı")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public SseEmitter subscribe(Long customerId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(customerId, emitter);
+        subscribers.compute(customerId, (id, current) -> {
+            Set<Subscriber> set = current == null ? ConcurrentHashMap.newKeySet() : current;
+            if (set.size() >= maxSubscribersPerCustomer)
+                throw new IllegalArgumentException("Açık bildirim bağlantısı sınırına ulaşıldı");
+            set.add(subscriber);
+            return set;
+        });
+        subscriberCount.incrementAndGet();
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(() -> unsubscribe(subscriber));
+        emitter.onError(e -> unsubscribe(subscriber));
+
+        //İlk olay güncel portföydür, sonraki olaylar bunun üzerine uygulanır
+        subscriber.offer(SseEmitter.event().name("portfolio").data(readModel.view(customerId), MediaType.APPLICATION_JSON).build());
+        return emitter;
+    }
+
+    @Override
+    public void orderUpdated(Long customerId, OrderUpdate update) {
+        Set<Subscriber> set = subscribers.get(customerId);
+        if (set == null)
+            return;
+        Set<DataWithMediaType> event = SseEmitter.event()
+                .id(String.valueOf(update.sequence()))
+                .name("order")
+                .data(update, MediaType.APPLICATION_JSON)
+                .build();
+        set.forEach(subscriber -> subscriber.offer(event));
+    }
+
+    @Override
+    public void portfolioChanged(Long customerId) {
+        if (subscribers.containsKey(customerId))
+            changedPortfolios.add(customerId);
+    }
+
+    @Override
+    public void batchApplied() {
+        if (changedPortfolios.isEmpty())
+            return;
+        for (Long customerId : changedPortfolios) {
+            Set<Subscriber> set = subscribers.get(customerId);
+            if (set == null)
+                continue;
+            Set<DataWithMediaType> event = SseEmitter.event()
+                    .name("portfolio")
+                    .data(readModel.view(customerId), MediaType.APPLICATION_JSON)
+                    .build();
+            set.forEach(subscriber -> subscriber.offer(event));
+        }
+        changedPortfolios.clear();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeat.shutdownNow();
+        sender.shutdownNow();
+        subscribers.values().forEach(set -> set.forEach(subscriber -> subscriber.emitter.complete()));
+    }
+
+    private void heartbeat() {
+        Set<DataWithMediaType> ping = SseEmitter.event().comment("ping").build();
+        subscribers.values().forEach(set -> set.forEach(subscriber -> subscriber.offer(ping)));
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        if (!subscriber.closed.compareAndSet(false, true))
+            return;
+        subscriberCount.decrementAndGet();
+        subscribers.computeIfPresent(subscriber.customerId, (id, set) -> {
+            set.remove(subscriber);
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    /**
+     * Tek bir SSE bağlantısı. Olaylar bir kez oluşturulur ve tüm bağlantılarda paylaşılır.
+     * Her bağlantı olayları kendi tamponuna ekler. Bağlantı başına en fazla bir gönderim görevi çalışır, böylece olaylar sırayla gider.
+     * Yavaş bir istemci sadece kendi tamponunu doldurur.
+     */
+    private class Subscriber {
+        private final Long customerId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<Set<DataWithMediaType>> buffer = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private final AtomicInteger overflow = new AtomicInteger();
+
+        Subscriber(Long customerId, SseEmitter emitter) {
+            this.customerId = customerId;
+            this.emitter = emitter;
+        }
+
+        void offer(Set<DataWithMediaType> event) {
+            if (closed.get())
+                return;
+            while (!buffer.offer(event)) {
+                if (buffer.poll() != null) {
+                    overflow.incrementAndGet();
+                    dropped.increment();
+                }
+            }
+            if (scheduled.compareAndSet(false, true))
+                sender.execute(this::drain);
+        }
+
+        private void drain() {
+            try {
+                do {
+                    int lost = overflow.getAndSet(0);
+                    if (lost > 0)
+                        emitter.send(SseEmitter.event().name("overflow").data(Map.of("dropped", lost), MediaType.APPLICATION_JSON));
+                    Set<DataWithMediaType> event;
+                    while ((event = buffer.poll()) != null) {
+                        emitter.send(event);
+                        sent.increment();
+                    }
+                    scheduled.set(false);
+                } while (!buffer.isEmpty() && scheduled.compareAndSet(false, true));
+            } catch (IOException | IllegalStateException e) {
+                //İstemci bağlantıyı kapatmış
+                log.debug("Notification stream closed. Customer: {}", customerId);
+                scheduled.set(false);
+                unsubscribe(this);
+                emitter.completeWithError(e);
+            }
+        }
+    }
+}
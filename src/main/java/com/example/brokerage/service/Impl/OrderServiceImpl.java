@@ -1,116 +1,94 @@
 package com.example.brokerage.service.Impl;
 
+import com.example.brokerage.dto.request.BulkCancelRequest;
 import com.example.brokerage.dto.request.CreateOrderRequest;
-import com.example.brokerage.entity.*;
-import com.example.brokerage.enums.OrderSide;
-import com.example.brokerage.enums.OrderStatus;
-import com.example.brokerage.repository.CustomerRepository;
+import com.example.brokerage.dto.request.OrderCursor;
+import com.example.brokerage.dto.request.OrderFilter;
+import com.example.brokerage.dto.response.BulkCancelResult;
+import com.example.brokerage.dto.response.BulkOrderResult;
+import com.example.brokerage.dto.response.OpenOrderView;
+import com.example.brokerage.dto.response.OrderPage;
+import com.example.brokerage.entity.Order;
+import com.example.brokerage.pipeline.OrderCommandPipeline;
+import com.example.brokerage.readmodel.PortfolioReadModel;
 import com.example.brokerage.repository.OrderRepository;
-import com.example.brokerage.service.AssetService;
+import com.example.brokerage.repository.OrderSpecifications;
+import com.example.brokerage.service.CustomerService;
 import com.example.brokerage.service.OrderService;
-import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
-import java.math.BigDecimal;
 import java.security.Principal;
-import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class OrderServiceImpl implements OrderService {
     private final OrderRepository orderRepository;
-    private final CustomerRepository customerRepository;
-    private final AssetService assetService;
-
-    public OrderServiceImpl(OrderRepository orderRepository, CustomerRepository customerRepository, AssetService assetService) {
+    private final CustomerService customerService;
+    private final OrderCommandPipeline pipeline;
+    private final PortfolioReadModel readModel;
+    private final int pageMaxSize;
+
+    public OrderServiceImpl(OrderRepository orderRepository, CustomerService customerService,
+                            OrderCommandPipeline pipeline, PortfolioReadModel readModel,
+                            @Value("${brokerage.orders.page-max-size:1000}") int pageMaxSize) {
         this.orderRepository = orderRepository;
-        this.customerRepository = customerRepository;
-        this.assetService = assetService;
+        this.customerService = customerService;
+        this.pipeline = pipeline;
+        this.readModel = readModel;
+        this.pageMaxSize = pageMaxSize;
     }
 
     @Override
     public List<Order> getOrdersForUser(Principal principal) {
-        return orderRepository.findByCustomerId(getCustomerByUsername(principal.getName()).getId());
+        return orderRepository.findByCustomerId(customerService.resolve(principal).customerId());
     }
 
     @Override
-    public List<Order> getOrdersForAdmin(Long customerId, LocalDateTime startDate, LocalDateTime endDate) {
-        if (customerId != null && startDate != null && endDate != null)
-            return orderRepository.findByCustomerIdAndCreateDateBetween(customerId, startDate, endDate);
-        if (customerId != null)
-            return orderRepository.findByCustomerId(customerId);
-        if (startDate != null && endDate != null)
-            return orderRepository.findByCreateDateBetween(startDate, endDate);
-        return orderRepository.findAll();
+    public List<OpenOrderView> getOpenOrdersForUser(Principal principal) {
+        return readModel.openOrders(customerService.resolve(principal).customerId());
     }
 
     @Override
-    @Transactional
-    public Order createOrder(CreateOrderRequest request, Principal principal) {
-        Long customerId = getTargetCustomerId(request.getCustomerId(), principal);
-        validateOrderRequest(request);
-
-        if (request.getOrderSide() == OrderSide.BUY)
-            assetService.reserveCash(customerId, request.getSize().multiply(request.getPrice()));
-        else
-            assetService.reserveStock(customerId, request.getAssetName(), request.getSize());
-
-        Order order = new Order();
-        order.setCustomerId(customerId);
-        order.setAssetName(request.getAssetName());
-        order.setOrderSide(request.getOrderSide());
-        order.setSize(request.getSize());
-        order.setPrice(request.getPrice());
-        order.setStatus(OrderStatus.PENDING);
-        order.setCreateDate(LocalDateTime.now());
-        return orderRepository.save(order);
+    public OrderPage getOrdersForAdmin(OrderFilter filter, String cursor, int limit) {
+        if (limit <= 0 || limit > pageMaxSize)
+            throw new IllegalArgumentException("Sayfa boyutu 1 ile " + pageMaxSize + " arasında olmalıdır");
+
+        Specification<Order> spec = OrderSpecifications.matching(filter);
+        if (cursor != null && !cursor.isBlank())
+            spec = spec.and(OrderSpecifications.after(OrderCursor.decode(cursor)));
+
+        //Bir fazla satır okunur, böylece sonraki sayfanın olup olmadığı ayrı bir COUNT sorgusu olmadan anlaşılır
+        List<Order> orders = orderRepository.findBy(spec, query -> query.sortBy(OrderSpecifications.KEYSET_ORDER)
+                .limit(limit + 1)
+                .all());
+        if (orders.size() <= limit)
+            return new OrderPage(orders, null);
+
+        List<Order> page = orders.subList(0, limit);
+        Order last = page.get(limit - 1);
+        return new OrderPage(page, new OrderCursor(last.getCreateDate(), last.getId()).encode());
     }
 
     @Override
-    @Transactional
-    public void cancelOrder(Long orderId, Principal principal) {
-        Order order = orderRepository.findById(orderId).orElseThrow(() -> new RuntimeException("Order bulunamadı"));
-        Long callerId = getCustomerByUsername(principal.getName()).getId();
-
-        if (!callerId.equals(order.getCustomerId()) && !isAdmin(principal))
-            throw new RuntimeException("Bu order'ı silme yetkiniz yok");
-        if (order.getStatus() != OrderStatus.PENDING)
-            throw new RuntimeException("Sadece PENDING emirler iptal edilebilir");
-
-        if (order.getOrderSide() == OrderSide.BUY)
-            assetService.releaseCash(order.getCustomerId(), order.getSize().multiply(order.getPrice()));
-        else
-            assetService.releaseStock(order.getCustomerId(), order.getAssetName(), order.getSize());
-
-        order.setStatus(OrderStatus.CANCELED);
-        orderRepository.save(order);
+    public CompletableFuture<Order> createOrder(CreateOrderRequest request, Principal principal) {
+        return pipeline.create(request, principal);
     }
 
-    private Customer getCustomerByUsername(String username) {
-        return customerRepository.findByUsername(username)
-                .orElseThrow(() -> new IllegalArgumentException("Kullanıcı bulunamadı"));
-    }
-
-    private Long getTargetCustomerId(Long requestId, Principal principal) {
-        Customer caller = getCustomerByUsername(principal.getName());
-        return isAdmin(principal) ? validateAdminCustomerId(requestId) : caller.getId();
-    }
-
-    private Long validateAdminCustomerId(Long customerId) {
-        if (customerId == null)
-            throw new IllegalArgumentException("Admin için customerId zorunludur");
-        return customerId;
+    @Override
+    public CompletableFuture<List<BulkOrderResult>> createOrders(List<CreateOrderRequest> requests, Principal principal) {
+        return pipeline.createAll(requests, principal);
     }
 
-    private boolean isAdmin(Principal principal) {
-        Customer customer = getCustomerByUsername(principal.getName());
-        return customer.getRoles().stream().anyMatch(r -> r.name().equals("ADMIN"));
+    @Override
+    public CompletableFuture<Order> cancelOrder(Long orderId, Principal principal) {
+        return pipeline.cancel(orderId, principal);
     }
 
-    private void validateOrderRequest(CreateOrderRequest req) {
-        if (req.getSize().compareTo(BigDecimal.ZERO) <= 0)
-            throw new IllegalArgumentException("Miktar sıfırdan büyük olmalı");
-        if (req.getPrice().compareTo(BigDecimal.ZERO) <= 0)
-            throw new IllegalArgumentException("Fiyat sıfırdan büyük olmalı");
+    @Override
+    public CompletableFuture<BulkCancelResult> cancelOrders(BulkCancelRequest request, Principal principal) {
+        return pipeline.cancelAll(request, principal);
     }
 }
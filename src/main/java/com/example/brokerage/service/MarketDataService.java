@@ -0,0 +1,15 @@
+package com.example.brokerage.service;
+
+import com.example.brokerage.dto.response.DepthSnapshot;
+import com.example.brokerage.dto.response.TopOfBook;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+public interface MarketDataService {
+
+    TopOfBook getTopOfBook(String assetName);
+
+    DepthSnapshot getDepth(String assetName, int levels);
+
+    //Derinlik değiştikçe güncel anlık görüntüyü gönderir; istemci yavaşsa aradaki güncellemeler birleştirilir
+    SseEmitter stream(String assetName, int levels);
+}
@@ -1,7 +1,31 @@
 package com.example.brokerage.service;
 
+import com.example.brokerage.engine.Fill;
+import com.example.brokerage.engine.Sequencer;
+import com.example.brokerage.entity.Order;
+
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface MatchService {
     List<Long> matchOrders(List<Long> orderIds);
+
+    //submit ve cancel hissenin sequencer thread'i üzerinde çağrılmalıdır; submit emrin ORDER_CREATED olayını da yazar ve
+    //sadece bu olay yazılmadan önceki hatalarda hata fırlatır, sonrasındaki hatada emri journal üzerinden iptal eder
+    List<Fill> submit(Order order);
+
+    Optional<Order> cancel(Order order);
+
+    //Hissenin sequencer thread'i üzerinde çağrılmalıdır; defterdeki emirlerden müşteriye ait olanları (customerId null ise hepsini) çıkarır
+    List<Order> cancelAll(String assetName, Long customerId);
+
+    //Shard'ın kendi thread'i üzerinde çağrılmalıdır; shard'a yüklenmiş tüm defterlerden müşterinin emirlerini çıkarır
+    List<Order> cancelAll(Sequencer shard, Long customerId);
+
+    //Defterde bekleyen emri herhangi bir thread'den bulur; dönen emrin sadece numara, müşteri ve hisse alanları okunmalıdır
+    Optional<Order> findLive(Long orderId);
+
+    //Açılışta defterleri veritabanı yerine kurtarılan açık emirlerden kurar
+    void restore(Collection<Order> openOrders);
 }
@@ -0,0 +1,9 @@
+package com.example.brokerage.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+public interface NotificationService {
+
+    //Müşterinin emir ve bakiye değişikliklerini gönderen bir SSE bağlantısı açar
+    SseEmitter subscribe(Long customerId);
+}
@@ -1,19 +1,31 @@
 package com.example.brokerage.service;
 
+import com.example.brokerage.dto.request.BulkCancelRequest;
 import com.example.brokerage.dto.request.CreateOrderRequest;
+import com.example.brokerage.dto.request.OrderFilter;
+import com.example.brokerage.dto.response.BulkCancelResult;
+import com.example.brokerage.dto.response.BulkOrderResult;
+import com.example.brokerage.dto.response.OpenOrderView;
+import com.example.brokerage.dto.response.OrderPage;
 import com.example.brokerage.entity.Order;
 
 import java.security.Principal;
-import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public interface OrderService {
 
     List<Order> getOrdersForUser(Principal principal);
 
-    List<Order> getOrdersForAdmin(Long customerId, LocalDateTime startDate, LocalDateTime endDate);
+    List<OpenOrderView> getOpenOrdersForUser(Principal principal);
 
-    Order createOrder(CreateOrderRequest request, Principal principal);
+    OrderPage getOrdersForAdmin(OrderFilter filter, String cursor, int limit);
 
-    void cancelOrder(Long orderId, Principal principal);
+    CompletableFuture<Order> createOrder(CreateOrderRequest request, Principal principal);
+
+    CompletableFuture<List<BulkOrderResult>> createOrders(List<CreateOrderRequest> requests, Principal principal);
+
+    CompletableFuture<Order> cancelOrder(Long orderId, Principal principal);
+
+    CompletableFuture<BulkCancelResult> cancelOrders(BulkCancelRequest request, Principal principal);
 }
@@ -16,26 +16,33 @@ INSERT INTO customer_roles (customer_id, roles) VALUES (2, 'USER');
 
 INSERT INTO customer_roles (customer_id, roles) VALUES (3, 'USER');
 
-INSERT INTO assets (customer_id, asset_name, size, usable_size)
-VALUES (2, 'TRY', 1000, 1000);
+-- Açık emirlerin rezervleri usable_size'dan düşülmüştür: enes 450 TRY ve 50 NYMN, test 2400 TRY ve 50 NYMN
+INSERT INTO assets (id, customer_id, asset_name, size, usable_size)
+VALUES (1, 2, 'TRY', 1000, 550);
 
-INSERT INTO assets (customer_id, asset_name, size, usable_size)
-VALUES (2, 'NYMN', 200, 200);
+INSERT INTO assets (id, customer_id, asset_name, size, usable_size)
+VALUES (2, 2, 'NYMN', 200, 150);
 
-INSERT INTO assets (customer_id, asset_name, size, usable_size)
-VALUES (3, 'TRY', 3000, 3000);
+INSERT INTO assets (id, customer_id, asset_name, size, usable_size)
+VALUES (3, 3, 'TRY', 3000, 600);
 
-INSERT INTO assets (customer_id, asset_name, size, usable_size)
-VALUES (3, 'NYMN', 300, 300);
+INSERT INTO assets (id, customer_id, asset_name, size, usable_size)
+VALUES (4, 3, 'NYMN', 300, 250);
 
-INSERT INTO orders (customer_id, asset_name, order_side, size, price, status, create_date)
-VALUES (2, 'NYMN', 'BUY', 50, 100, 'PENDING', CURRENT_TIMESTAMP);
+-- Emirler açılışta deftere yüklenir; alış fiyatları satışların altında kaldığı için kendiliğinden eşleşmezler
+INSERT INTO orders (id, customer_id, asset_name, order_side, size, filled_size, price, status, create_date)
+VALUES (1, 2, 'NYMN', 'BUY', 5, 0, 90, 'PENDING', CURRENT_TIMESTAMP);
 
-INSERT INTO orders (customer_id, asset_name, order_side, size, price, status, create_date)
-VALUES (2, 'NYMN', 'SELL', 50, 90, 'PENDING', CURRENT_TIMESTAMP);
+INSERT INTO orders (id, customer_id, asset_name, order_side, size, filled_size, price, status, create_date)
+VALUES (2, 3, 'NYMN', 'SELL', 50, 0, 100, 'PENDING', CURRENT_TIMESTAMP);
 
-INSERT INTO orders (customer_id, asset_name, order_side, size, price, status, create_date)
-VALUES (3, 'THYAO', 'BUY', 30, 80, 'PENDING', CURRENT_TIMESTAMP);
+INSERT INTO orders (id, customer_id, asset_name, order_side, size, filled_size, price, status, create_date)
+VALUES (3, 3, 'THYAO', 'BUY', 30, 0, 80, 'PENDING', CURRENT_TIMESTAMP);
 
-INSERT INTO orders (customer_id, asset_name, order_side, size, price, status, create_date)
-VALUES (3, 'THYAO', 'SELL', 50, 90, 'PENDING', CURRENT_TIMESTAMP);
+INSERT INTO orders (id, customer_id, asset_name, order_side, size, filled_size, price, status, create_date)
+VALUES (4, 2, 'NYMN', 'SELL', 50, 0, 110, 'PENDING', CURRENT_TIMESTAMP);
+
+-- Sabit id'li kayıtlardan sonra sequence'ler bir sonraki bloktan başlar
+ALTER SEQUENCE customers_seq RESTART WITH 51;
+ALTER SEQUENCE assets_seq RESTART WITH 101;
+ALTER SEQUENCE orders_seq RESTART WITH 501;
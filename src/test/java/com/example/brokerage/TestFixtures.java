@@ -0,0 +1,32 @@
+package com.example.brokerage;
+
+import com.example.brokerage.engine.Fill;
+import com.example.brokerage.engine.FixedPoint;
+import com.example.brokerage.entity.Asset;
+import com.example.brokerage.entity.Order;
+
+import java.math.BigDecimal;
+
+/**
+ * Testlerde ortak kullanılan bakiye ve eşleşme kurucuları.
+ */
+public final class TestFixtures {
+
+    private TestFixtures() {
+    }
+
+    public static Asset createAsset(Long customerId, String assetName, String size, String usableSize) {
+        Asset asset = new Asset();
+        asset.setCustomerId(customerId);
+        asset.setAssetName(assetName);
+        asset.setSize(new BigDecimal(size));
+        asset.setUsableSize(new BigDecimal(usableSize));
+        return asset;
+    }
+
+    //Dolum miktarları emirlerin o anki değerlerinden alınır, alıcı limit fiyatı alış emrinin fiyatıdır
+    public static Fill fill(Order buy, Order sell, BigDecimal quantity, BigDecimal price) {
+        return new Fill(buy, sell, FixedPoint.toUnits(quantity), FixedPoint.toUnits(price), FixedPoint.toUnits(buy.getPrice()),
+                FixedPoint.toUnits(buy.getFilledSize()), FixedPoint.toUnits(sell.getFilledSize()));
+    }
+}
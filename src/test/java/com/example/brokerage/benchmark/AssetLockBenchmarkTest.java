@@ -0,0 +1,168 @@
+package com.example.brokerage.benchmark;
+
+import com.example.brokerage.engine.FixedPoint;
+import com.example.brokerage.entity.Asset;
+import com.example.brokerage.enums.AssetLockStrategy;
+import com.example.brokerage.journal.EventJournal;
+import com.example.brokerage.journal.JournalEvent;
+import com.example.brokerage.journal.JournalProjector;
+import com.example.brokerage.journal.SnapshotStore;
+import com.example.brokerage.marketdata.MarketDataPublisher;
+import com.example.brokerage.readmodel.PortfolioListener;
+import com.example.brokerage.readmodel.PortfolioReadModel;
+import com.example.brokerage.repository.AssetRepository;
+import com.example.brokerage.repository.JournalCheckpointRepository;
+import com.example.brokerage.repository.OrderRepository;
+import com.example.brokerage.service.AssetService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Bakiye satırlarını aynı anda yazan projeksiyonlar için kilit stratejilerini karşılaştırır. Her yazar kendi
+ * {@link JournalProjector}'ı ile rezervasyon batch'leri yansıtır; checkpoint satırı ortak bir darboğaz olmasın diye yazılmaz.
+ * {@code hot} profilinde yazarlar birkaç müşteride çakışır, {@code spread} profilinde nadiren aynı satıra dokunur.
+ * Sıra etkisi olmasın diye her grupta önce tüm stratejiler ısınır, ölçüm turlarında sıra kaydırılır ve turların ortalaması raporlanır.
+ * Her koşunun sonunda toplam bakiye beklenenle karşılaştırılır: kaybolan güncelleme ya da düşen batch testi bozar.
+ * Varsayılan test çalıştırmasına dahil değildir:
+ * {@code mvn test -Pbenchmark -Dtest=AssetLockBenchmarkTest [-Dlock.writers=1,4,8] [-Dlock.seconds=5]
+ * [-Dlock.rounds=3] [-Dlock.strategies=OPTIMISTIC,CONDITIONAL]}
+ */
+@Slf4j
+@Tag("benchmark")
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AssetLockBenchmarkTest {
+
+    private static final int BATCH_SIZE = 16;
+    private static final long AMOUNT = FixedPoint.ONE;
+    private static final BigDecimal INITIAL = BigDecimal.valueOf(1_000_000_000);
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private AssetRepository assetRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private long nextCustomerId = 5_000_000;
+
+    @Test
+    void projectionThroughput_byAssetLockStrategy() throws Exception {
+        int[] writers = Arrays.stream(System.getProperty("lock.writers", "1,4,8").split(","))
+                .mapToInt(value -> Integer.parseInt(value.trim())).toArray();
+        long seconds = Long.getLong("lock.seconds", 5);
+        long warmupSeconds = Long.getLong("lock.warmup-seconds", 2);
+        int rounds = Integer.getInteger("lock.rounds", 3);
+        AssetLockStrategy[] strategies = Arrays.stream(System.getProperty("lock.strategies", "OPTIMISTIC,PESSIMISTIC,CONDITIONAL").split(","))
+                .map(value -> AssetLockStrategy.valueOf(value.trim())).toArray(AssetLockStrategy[]::new);
+
+        List<String> results = new ArrayList<>();
+        for (int customers : new int[]{8, 1024})
+            for (int threads : writers) {
+                for (AssetLockStrategy strategy : strategies)
+                    run(strategy, threads, customers, warmupSeconds);
+                double[] total = new double[strategies.length];
+                for (int round = 0; round < rounds; round++)
+                    for (int i = 0; i < strategies.length; i++) {
+                        int index = (i + round) % strategies.length;
+                        total[index] += run(strategies[index], threads, customers, seconds);
+                    }
+                for (int i = 0; i < strategies.length; i++) {
+                    double batchesPerSecond = total[i] / rounds;
+                    results.add(String.format("%-8s customers=%-5d writers=%-2d %-11s %,10.0f batches/s %,12.0f events/s",
+                            customers == 8 ? "hot" : "spread", customers, threads, strategies[i],
+                            batchesPerSecond, batchesPerSecond * BATCH_SIZE));
+                }
+            }
+        log.info("Asset lock strategies:\n{}", String.join("\n", results));
+    }
+
+    private double run(AssetLockStrategy strategy, int threads, int customers, long seconds) throws Exception {
+        long firstCustomer = nextCustomerId;
+        nextCustomerId += customers;
+        List<Long> customerIds = LongStream.range(firstCustomer, firstCustomer + customers).boxed().toList();
+        assetRepository.saveAll(customerIds.stream().map(AssetLockBenchmarkTest::cash).toList());
+
+        List<JournalProjector> projectors = new ArrayList<>();
+        for (int i = 0; i < threads; i++)
+            projectors.add(projector(strategy));
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        long start = System.nanoTime();
+        try {
+            List<Future<Long>> tasks = new ArrayList<>();
+            for (JournalProjector projector : projectors)
+                tasks.add(executor.submit(() -> {
+                    long batches = 0;
+                    while (System.nanoTime() < deadline) {
+                        projector.catchUp(batch(firstCustomer, customers));
+                        batches++;
+                    }
+                    return batches;
+                }));
+            long batches = 0;
+            for (Future<Long> task : tasks)
+                batches += task.get();
+            double elapsed = (System.nanoTime() - start) / 1e9;
+
+            BigDecimal expected = INITIAL.multiply(BigDecimal.valueOf(customers))
+                    .subtract(FixedPoint.toDecimal(AMOUNT).multiply(BigDecimal.valueOf(batches * BATCH_SIZE)));
+            BigDecimal actual = assetRepository.findByCustomerIdIn(customerIds).stream()
+                    .map(Asset::getUsableSize)
+                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+            assertEquals(0, expected.compareTo(actual),
+                    () -> strategy + " lost updates. Expected: " + expected + " Actual: " + actual);
+            return batches / elapsed;
+        } finally {
+            executor.shutdown();
+            for (JournalProjector projector : projectors)
+                projector.shutdown();
+        }
+    }
+
+    private JournalProjector projector(AssetLockStrategy strategy) {
+        return new JournalProjector(orderRepository, assetRepository,
+                mock(JournalCheckpointRepository.class, withSettings().stubOnly()),
+                mock(SnapshotStore.class, withSettings().stubOnly()), mock(EventJournal.class, withSettings().stubOnly()),
+                new PortfolioReadModel(new SimpleMeterRegistry()), PortfolioListener.NONE,
+                new MarketDataPublisher(new SimpleMeterRegistry()), transactionManager, new SimpleMeterRegistry(),
+                16, BATCH_SIZE, 0, Long.MAX_VALUE, strategy, 50, 1, 10, false);
+    }
+
+    private static List<JournalEvent> batch(long firstCustomer, int customers) {
+        List<JournalEvent> events = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++)
+            events.add(JournalEvent.assetReserved(firstCustomer + ThreadLocalRandom.current().nextInt(customers),
+                    AssetService.CASH_ASSET, AMOUNT));
+        return events;
+    }
+
+    private static Asset cash(Long customerId) {
+        Asset asset = new Asset();
+        asset.setCustomerId(customerId);
+        asset.setAssetName(AssetService.CASH_ASSET);
+        asset.setSize(INITIAL);
+        asset.setUsableSize(INITIAL);
+        return asset;
+    }
+}
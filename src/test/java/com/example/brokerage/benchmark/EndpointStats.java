@@ -0,0 +1,82 @@
+package com.example.brokerage.benchmark;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Tek bir uç noktanın gecikme dağılımı ve durum kodu sayıları. Kayıt thread-safe'tir;
+ * ısınma sonunda {@link #reset()} ile o ana kadarki ölçümler atılır.
+ */
+class EndpointStats {
+
+    private static final long MAX_LATENCY_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final String name;
+    private final Recorder recorder = new Recorder(MAX_LATENCY_NANOS, 3);
+    private final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+    private Histogram histogram;
+
+    EndpointStats(String name) {
+        this.name = name;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    /**
+     * @param status HTTP durum kodu; bağlantı hatalarında 0
+     */
+    void record(long latencyNanos, int status) {
+        recorder.recordValue(Math.min(latencyNanos, MAX_LATENCY_NANOS));
+        statuses.computeIfAbsent(status, s -> new LongAdder()).increment();
+    }
+
+    void reset() {
+        recorder.reset();
+        statuses.clear();
+    }
+
+    Histogram finish() {
+        histogram = recorder.getIntervalHistogram();
+        return histogram;
+    }
+
+    long errors() {
+        return statuses.entrySet().stream()
+                .filter(entry -> entry.getKey() < 200 || entry.getKey() >= 300)
+                .mapToLong(entry -> entry.getValue().sum())
+                .sum();
+    }
+
+    double percentileMillis(double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1e6;
+    }
+
+    String summary(double seconds) {
+        Map<Integer, Long> counts = new TreeMap<>();
+        statuses.forEach((status, count) -> counts.put(status, count.sum()));
+        return String.format("%-12s count=%-8d rps=%-9.1f p50=%.2fms p90=%.2fms p99=%.2fms p99.9=%.2fms max=%.2fms statuses=%s",
+                name, histogram.getTotalCount(), histogram.getTotalCount() / seconds,
+                percentileMillis(50), percentileMillis(90), percentileMillis(99), percentileMillis(99.9),
+                histogram.getMaxValue() / 1e6, counts);
+    }
+
+    //HdrHistogram'ın .hgrm biçimi, milisaniye ölçeğinde; plotFiles aracıyla çizilebilir
+    void writeDistribution(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        try (PrintStream out = new PrintStream(Files.newOutputStream(directory.resolve(name + ".hgrm")))) {
+            histogram.outputPercentileDistribution(out, 1e6);
+        }
+    }
+}
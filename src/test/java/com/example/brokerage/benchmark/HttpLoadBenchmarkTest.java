@@ -0,0 +1,285 @@
+package com.example.brokerage.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Uygulamayı gömülü H2 ile rastgele bir portta ayağa kaldırır ve çok sayıda sanal kullanıcıyla
+ * giriş, emir verme, iptal, eşleştirme ve okuma karışımı uygular. Her uç nokta için throughput ve
+ * HdrHistogram yüzdelikleri raporlanır, dağılımlar {@code target/load} altına .hgrm olarak yazılır.
+ * <p>
+ * {@code load.rate} verilirse kullanıcılar sabit aralıklarla istek gönderir ve gecikme planlanan başlangıçtan
+ * ölçülür; böylece yavaşlayan sunucunun geciktirdiği istekler de gecikmeye yansır (coordinated omission).
+ * Verilmezse her kullanıcı yanıtı alır almaz bir sonraki isteği gönderir.
+ * <p>
+ * Varsayılan test çalıştırmasına dahil değildir:
+ * {@code mvn test -Pbenchmark -Dtest=HttpLoadBenchmarkTest -Dload.users=200 -Dload.rate=2000 -Dload.max-p99-ms=50}
+ */
+@Slf4j
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "jwt.secret=${JWT_SECRET:a2tra2tra2tra2tra2tra2tra2tra2tra2tra2tra2s=}",
+        "spring.sql.init.data-locations=classpath:data.sql,classpath:load-test-data.sql",
+        "logging.level.com.example.brokerage=INFO"
+})
+class HttpLoadBenchmarkTest {
+
+    private static final int SEEDED_USERS = 1000;
+    private static final String PASSWORD = "user123";
+    private static final String[] ASSETS = {"THYAO", "GARAN", "ASELS", "NYMN"};
+    private static final int MATCH_BATCH = 20;
+    private static final String DEFAULT_MIX = "login=2,create=45,cancel=20,match=3,portfolio=15,open-orders=15";
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    private final Map<String, EndpointStats> stats = new LinkedHashMap<>();
+    //Eşleştirme isteklerine konu olacak, yakın zamanda verilmiş emirler
+    private final ConcurrentLinkedDeque<Long> recentOrders = new ConcurrentLinkedDeque<>();
+
+    //Her çalıştırma boş bir journal ve snapshot dizinleriyle başlar
+    @DynamicPropertySource
+    static void dataDirectories(DynamicPropertyRegistry registry) throws IOException {
+        Path directory = Files.createTempDirectory("brokerage-load");
+        registry.add("brokerage.journal.directory", () -> directory.resolve("journal").toString());
+        registry.add("brokerage.snapshot.directory", () -> directory.resolve("snapshots").toString());
+    }
+
+    @Test
+    void mixedWorkload() throws Exception {
+        int users = Integer.getInteger("load.users", 50);
+        int rate = Integer.getInteger("load.rate", 0);
+        long warmup = TimeUnit.SECONDS.toNanos(Integer.getInteger("load.warmup-seconds", 10));
+        long duration = TimeUnit.SECONDS.toNanos(Integer.getInteger("load.duration-seconds", 30));
+        Map<String, Integer> mix = parseMix(System.getProperty("load.mix", DEFAULT_MIX));
+        assertTrue(users >= 1 && users <= SEEDED_USERS, "load.users 1 ile " + SEEDED_USERS + " arasında olmalıdır");
+
+        mix.keySet().forEach(name -> stats.put(name, new EndpointStats(name)));
+        String adminToken = login("admin", "admin123");
+
+        long start = System.nanoTime();
+        long measureFrom = start + warmup;
+        long end = measureFrom + duration;
+        long interval = rate > 0 ? TimeUnit.SECONDS.toNanos(users) / rate : 0;
+        List<Thread> threads = new ArrayList<>(users);
+        for (int i = 1; i <= users; i++) {
+            VirtualUser user = new VirtualUser("load" + i, adminToken, mix, interval);
+            Thread thread = new Thread(() -> user.run(end), "load-user-" + i);
+            thread.setDaemon(true);
+            thread.start();
+            threads.add(thread);
+        }
+
+        while (System.nanoTime() < measureFrom)
+            LockSupport.parkNanos(measureFrom - System.nanoTime());
+        stats.values().forEach(EndpointStats::reset);
+        log.info("Warm-up finished, measuring for {} s. Users: {} Rate: {}", TimeUnit.NANOSECONDS.toSeconds(duration),
+                users, rate > 0 ? rate + " req/s" : "closed loop");
+        for (Thread thread : threads)
+            thread.join();
+
+        double seconds = duration / 1e9;
+        long total = 0;
+        Path output = Path.of("target", "load");
+        for (EndpointStats endpoint : stats.values()) {
+            total += endpoint.finish().getTotalCount();
+            endpoint.writeDistribution(output);
+            log.info(endpoint.summary(seconds));
+        }
+        log.info("Total: {} requests, {} req/s. Distributions written to {}", total,
+                String.format("%.1f", total / seconds), output.toAbsolutePath());
+
+        assertTrue(total > 0, "Ölçüm süresinde hiç istek tamamlanmadı");
+        String maxP99 = System.getProperty("load.max-p99-ms");
+        if (maxP99 != null)
+            for (EndpointStats endpoint : stats.values())
+                assertTrue(endpoint.percentileMillis(99) <= Double.parseDouble(maxP99),
+                        endpoint.getName() + " p99 sınırı aşıldı: " + endpoint.percentileMillis(99) + " ms");
+    }
+
+    /**
+     * Tek thread'de çalışan sanal kullanıcı. Verdiği emirleri kendi iptal kuyruğunda tutar.
+     */
+    private class VirtualUser {
+
+        private final String username;
+        private final String adminToken;
+        private final String[] operations;
+        private final int[] cumulativeWeights;
+        private final long interval;
+        private final Deque<Long> ownOrders = new ArrayDeque<>();
+        private String token;
+
+        VirtualUser(String username, String adminToken, Map<String, Integer> mix, long interval) {
+            this.username = username;
+            this.adminToken = adminToken;
+            this.operations = mix.keySet().toArray(String[]::new);
+            this.cumulativeWeights = new int[operations.length];
+            int sum = 0;
+            for (int i = 0; i < operations.length; i++)
+                cumulativeWeights[i] = sum += mix.get(operations[i]);
+            this.interval = interval;
+        }
+
+        void run(long end) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            //Açık modelde kullanıcılar aynı anda başlamasın diye ilk istek aralık içinde rastgele kaydırılır
+            long scheduled = System.nanoTime() + (interval > 0 ? random.nextLong(interval) : 0);
+            while (scheduled < end) {
+                long now = System.nanoTime();
+                if (interval > 0 && now < scheduled)
+                    LockSupport.parkNanos(scheduled - now);
+                long started = interval > 0 ? scheduled : System.nanoTime();
+                String operation = token == null ? "login" : pick(random);
+                try {
+                    execute(operation, started, random);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                scheduled = interval > 0 ? scheduled + interval : System.nanoTime();
+            }
+        }
+
+        private void execute(String operation, long started, ThreadLocalRandom random) throws InterruptedException {
+            switch (operation) {
+                case "login" -> {
+                    HttpResponse<String> response = send(operation, started, post("/auth/login", null,
+                            Map.of("username", username, "password", PASSWORD)));
+                    if (response != null && response.statusCode() == 200)
+                        token = response.body();
+                }
+                case "create" -> {
+                    HttpResponse<String> response = send(operation, started, post("/api/orders/create", token, Map.of(
+                            "assetName", ASSETS[random.nextInt(ASSETS.length)],
+                            "orderSide", random.nextBoolean() ? "BUY" : "SELL",
+                            "size", random.nextInt(1, 6),
+                            "price", 95 + random.nextInt(11))));
+                    if (response != null && response.statusCode() == 200) {
+                        long orderId = readId(response.body());
+                        ownOrders.addLast(orderId);
+                        recentOrders.addLast(orderId);
+                        while (recentOrders.size() > MATCH_BATCH * 50)
+                            recentOrders.pollFirst();
+                    }
+                }
+                case "cancel" -> {
+                    //Eşleşmiş bir emrin iptali reddedilir, bu da gerçek trafiğin bir parçasıdır
+                    Long orderId = ownOrders.pollFirst();
+                    if (orderId != null)
+                        send(operation, started, request("/api/orders/cancelOrder/" + orderId, token).DELETE().build());
+                }
+                case "match" -> {
+                    List<Long> orderIds = new ArrayList<>(MATCH_BATCH);
+                    Long orderId;
+                    while (orderIds.size() < MATCH_BATCH && (orderId = recentOrders.pollFirst()) != null)
+                        orderIds.add(orderId);
+                    if (!orderIds.isEmpty())
+                        send(operation, started, post("/api/match", adminToken, orderIds));
+                }
+                case "portfolio" -> send(operation, started, request("/api/assets/me", token).GET().build());
+                case "open-orders" -> send(operation, started, request("/api/orders/me/open", token).GET().build());
+                default -> throw new IllegalArgumentException("Bilinmeyen işlem: " + operation);
+            }
+        }
+
+        private String pick(ThreadLocalRandom random) {
+            int roll = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+            for (int i = 0; i < cumulativeWeights.length; i++)
+                if (roll < cumulativeWeights[i])
+                    return operations[i];
+            return operations[operations.length - 1];
+        }
+    }
+
+    private HttpResponse<String> send(String operation, long started, HttpRequest request) throws InterruptedException {
+        HttpResponse<String> response = null;
+        try {
+            response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        } catch (IOException e) {
+            log.debug("Request failed. Operation: {}", operation, e);
+        }
+        stats.get(operation).record(System.nanoTime() - started, response == null ? 0 : response.statusCode());
+        return response;
+    }
+
+    private String login(String username, String password) throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(post("/auth/login", null,
+                Map.of("username", username, "password", password)), HttpResponse.BodyHandlers.ofString());
+        assertTrue(response.statusCode() == 200, "Giriş başarısız: " + username);
+        return response.body();
+    }
+
+    private HttpRequest post(String path, String token, Object body) {
+        try {
+            return request(path, token)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)))
+                    .build();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private HttpRequest.Builder request(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .timeout(Duration.ofSeconds(30));
+        if (token != null)
+            builder.header("Authorization", "Bearer " + token);
+        return builder;
+    }
+
+    private long readId(String body) {
+        try {
+            JsonNode order = objectMapper.readTree(body);
+            return order.path("id").asLong();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Map<String, Integer> parseMix(String mix) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split("=");
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight > 0)
+                weights.put(parts[0].trim(), weight);
+        }
+        //İlk girişler her durumda kaydedilir
+        weights.putIfAbsent("login", 0);
+        return weights;
+    }
+}
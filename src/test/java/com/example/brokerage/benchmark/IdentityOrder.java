@@ -0,0 +1,42 @@
+package com.example.brokerage.benchmark;
+
+import com.example.brokerage.enums.OrderSide;
+import com.example.brokerage.enums.OrderStatus;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Karşılaştırma için {@link com.example.brokerage.entity.Order} ile aynı kolonlara sahip, IDENTITY id kullanan tablo.
+ */
+@NoArgsConstructor
+@Data
+@Entity
+@Table(name = "benchmark_identity_orders")
+public class IdentityOrder {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private Long customerId;
+
+    private String assetName;
+
+    @Enumerated(EnumType.STRING)
+    private OrderSide orderSide;
+
+    private BigDecimal size;
+
+    private BigDecimal filledSize = BigDecimal.ZERO;
+
+    private BigDecimal price;
+
+    @Enumerated(EnumType.STRING)
+    private OrderStatus status;
+
+    private LocalDateTime createDate;
+}
@@ -0,0 +1,53 @@
+package com.example.brokerage.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collection;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * JMH suitlerini test sınıf yolundan çalıştırır; her thread sayısı için ayrı bir JSON sonuç dosyası
+ * {@code target/jmh} altına yazılır. Varsayılan test çalıştırmasına dahil değildir:
+ * {@code mvn test -Pbenchmark -Dtest=JmhBenchmarkTest -Djmh.include=Ledger -Djmh.threads=1,4,8}
+ */
+@Tag("benchmark")
+class JmhBenchmarkTest {
+
+    @Test
+    void runBenchmarks() throws RunnerException {
+        String include = System.getProperty("jmh.include", "com.example.brokerage.benchmark.*Benchmark");
+        int[] threadCounts = Arrays.stream(System.getProperty("jmh.threads", "1").split(","))
+                .map(String::trim)
+                .mapToInt(Integer::parseInt)
+                .toArray();
+        new File("target/jmh").mkdirs();
+
+        for (int threads : threadCounts) {
+            Options options = new OptionsBuilder()
+                    .include(include)
+                    .threads(threads)
+                    .forks(Integer.getInteger("jmh.forks", 1))
+                    .warmupIterations(Integer.getInteger("jmh.warmup.iterations", 3))
+                    .warmupTime(TimeValue.seconds(Integer.getInteger("jmh.warmup.seconds", 2)))
+                    .measurementIterations(Integer.getInteger("jmh.iterations", 5))
+                    .measurementTime(TimeValue.seconds(Integer.getInteger("jmh.seconds", 2)))
+                    .shouldFailOnError(true)
+                    .resultFormat(ResultFormatType.JSON)
+                    .result("target/jmh/result-threads-" + threads + ".json")
+                    .build();
+            Collection<RunResult> results = new Runner(options).run();
+            assertFalse(results.isEmpty(), "Eşleşen benchmark bulunamadı: " + include);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.brokerage.benchmark;
+
+import com.example.brokerage.enums.Role;
+import com.example.brokerage.security.CustomerPrincipal;
+import com.example.brokerage.security.JwtService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Token üretimi ile doğrulama yolunun maliyeti. Önbellekli doğrulama aynı token'ı tekrar gönderen istemciyi,
+ * önbelleksiz doğrulama her istekte imza hesaplanan durumu ölçer. Önbellek tahliyesi asenkron olduğundan
+ * önbelleksiz yol aynı token'ı tekrar kullanmaz, geniş bir token havuzunda döner.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtBenchmark {
+
+    private static final String SECRET = "a2tra2tra2tra2tra2tra2tra2tra2tra2tra2tra2s=";
+    private static final int DISTINCT_TOKENS = 1 << 16;
+
+    private final CustomerPrincipal customer = new CustomerPrincipal(2L, "enes", Set.of(Role.USER));
+
+    private JwtService cached;
+    private JwtService uncached;
+    private String token;
+    private String[] tokens;
+    private final AtomicInteger next = new AtomicInteger();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        cached = jwtService(100_000);
+        uncached = jwtService(0);
+        token = cached.generateToken(customer);
+        cached.authenticate(token);
+        tokens = new String[DISTINCT_TOKENS];
+        for (int i = 0; i < tokens.length; i++)
+            tokens[i] = uncached.generateToken(new CustomerPrincipal((long) i, "customer" + i, Set.of(Role.USER)));
+    }
+
+    @Benchmark
+    public String issue() {
+        return cached.generateToken(customer);
+    }
+
+    @Benchmark
+    public Optional<CustomerPrincipal> verifyCached() {
+        return cached.authenticate(token);
+    }
+
+    @Benchmark
+    public Optional<CustomerPrincipal> verifyUncached() {
+        return uncached.authenticate(tokens[next.getAndIncrement() & (DISTINCT_TOKENS - 1)]);
+    }
+
+    private static JwtService jwtService(long cacheMaxSize) {
+        JwtService jwtService = new JwtService(SECRET, new SimpleMeterRegistry(), cacheMaxSize);
+        ReflectionTestUtils.setField(jwtService, "jwtExpiration", 3_600_000L);
+        return jwtService;
+    }
+}
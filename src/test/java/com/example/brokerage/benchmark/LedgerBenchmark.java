@@ -0,0 +1,66 @@
+package com.example.brokerage.benchmark;
+
+import com.example.brokerage.engine.BalanceLedger;
+import com.example.brokerage.engine.FixedPoint;
+import com.example.brokerage.entity.Asset;
+import com.example.brokerage.readmodel.PortfolioReadModel;
+import com.example.brokerage.service.AssetService;
+import com.example.brokerage.service.Impl.AssetServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Risk kontrolündeki rezerv/iade çiftinin maliyeti. Müşteri sayısı azaldıkça thread'ler aynı
+ * kilit şeridine düşer; {@code customers=1} en kötü çekişmeyi, {@code 4096} dağılmış yükü gösterir.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LedgerBenchmark {
+
+    private static final long AMOUNT = FixedPoint.toUnits(BigDecimal.valueOf(150));
+
+    @Param({"1", "64", "4096"})
+    public int customers;
+
+    @Param({"64"})
+    public int stripes;
+
+    private AssetService assetService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BalanceLedger ledger = new BalanceLedger(stripes, new SimpleMeterRegistry());
+        List<Asset> balances = new ArrayList<>(customers);
+        for (long customerId = 1; customerId <= customers; customerId++) {
+            Asset cash = new Asset();
+            cash.setId(customerId);
+            cash.setCustomerId(customerId);
+            cash.setAssetName(AssetService.CASH_ASSET);
+            cash.setSize(BigDecimal.valueOf(1_000_000));
+            cash.setUsableSize(BigDecimal.valueOf(1_000_000));
+            balances.add(cash);
+        }
+        ledger.load(balances);
+        assetService = new AssetServiceImpl(ledger, new PortfolioReadModel(new SimpleMeterRegistry()));
+    }
+
+    @Benchmark
+    public void reserveAndRelease() {
+        long customerId = ThreadLocalRandom.current().nextInt(customers) + 1;
+        assetService.reserveCash(customerId, AMOUNT);
+        assetService.releaseCash(customerId, AMOUNT);
+    }
+
+    @Benchmark
+    public long usableUnits() {
+        long customerId = ThreadLocalRandom.current().nextInt(customers) + 1;
+        return assetService.getUsableUnits(customerId, AssetService.CASH_ASSET);
+    }
+}
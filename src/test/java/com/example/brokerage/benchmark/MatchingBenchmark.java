@@ -0,0 +1,168 @@
+package com.example.brokerage.benchmark;
+
+import com.example.brokerage.engine.BalanceLedger;
+import com.example.brokerage.engine.Fill;
+import com.example.brokerage.engine.OrderBook;
+import com.example.brokerage.engine.ShardedSequencer;
+import com.example.brokerage.entity.Asset;
+import com.example.brokerage.entity.Order;
+import com.example.brokerage.enums.OrderSide;
+import com.example.brokerage.enums.OrderStatus;
+import com.example.brokerage.journal.EventJournal;
+import com.example.brokerage.journal.JournalProjector;
+import com.example.brokerage.readmodel.PortfolioReadModel;
+import com.example.brokerage.repository.OrderRepository;
+import com.example.brokerage.service.AssetService;
+import com.example.brokerage.service.MatchService;
+import com.example.brokerage.service.Impl.AssetServiceImpl;
+import com.example.brokerage.service.Impl.MatchServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Eşleştirme motorunun iki katmanı: yalnızca emir defteri ({@link OrderBook#add}) ve
+ * defter, bakiye mutabakatı ile journal yazımını kapsayan {@link MatchService#submit} yolu.
+ * Fiyatlar dar bir bantta rastgele seçilir, böylece emirlerin bir kısmı eşleşir, kalanı deftere yazılır.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MatchingBenchmark {
+
+    private static final int CUSTOMERS = 64;
+    private static final int PRICE_BAND = 20;
+
+    @State(Scope.Thread)
+    public static class Books {
+
+        @Param({"1000", "10000"})
+        public int orders;
+
+        @Param({"1", "16"})
+        public int symbols;
+
+        private final Random random = new Random(42);
+        private OrderBook[] books;
+        private Order[] batch;
+        private int[] targets;
+
+        //Dolumlar emir nesnesini değiştirdiği için her çağrı taze defter ve emirlerle başlar
+        @Setup(Level.Invocation)
+        public void setUp() {
+            books = new OrderBook[symbols];
+            for (int i = 0; i < symbols; i++)
+                books[i] = new OrderBook(symbol(i));
+            batch = new Order[orders];
+            targets = new int[orders];
+            for (int i = 0; i < orders; i++) {
+                targets[i] = random.nextInt(symbols);
+                batch[i] = order(i + 1L, symbol(targets[i]), random);
+            }
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Engine {
+
+        @Param({"1", "4"})
+        public int shards;
+
+        @Param({"16"})
+        public int symbols;
+
+        private final AtomicLong ids = new AtomicLong();
+        private Path directory;
+        private EventJournal journal;
+        private ShardedSequencer sequencer;
+        private MatchService matchService;
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            directory = Files.createTempDirectory("jmh-journal");
+            //Projeksiyon ölçüm dışıdır, yalnızca journal'ın kuyruğa ekleme çağrısını karşılar
+            JournalProjector projector = mock(JournalProjector.class, withSettings().stubOnly());
+            journal = new EventJournal(directory.toString(), 64 * 1024 * 1024, false, true, projector);
+
+            BalanceLedger ledger = new BalanceLedger(64, new SimpleMeterRegistry());
+            List<Asset> balances = new ArrayList<>();
+            for (long customerId = 1; customerId <= CUSTOMERS; customerId++) {
+                balances.add(asset(customerId, AssetService.CASH_ASSET));
+                for (int i = 0; i < symbols; i++)
+                    balances.add(asset(customerId, symbol(i)));
+            }
+            ledger.load(balances);
+
+            sequencer = new ShardedSequencer(shards, 65536);
+            matchService = new MatchServiceImpl(mock(OrderRepository.class, withSettings().stubOnly()), sequencer, journal,
+                    new AssetServiceImpl(ledger, new PortfolioReadModel(new SimpleMeterRegistry())), new SimpleMeterRegistry());
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            sequencer.shutdown();
+            journal.close();
+            FileSystemUtils.deleteRecursively(directory);
+        }
+    }
+
+    /**
+     * Bir çağrı {@code orders} emrin tamamını işler; emir başına süre sonuç {@code orders}'a bölünerek bulunur.
+     */
+    @Benchmark
+    public int bookAdd(Books state) {
+        int fills = 0;
+        for (int i = 0; i < state.batch.length; i++)
+            fills += state.books[state.targets[i]].add(state.batch[i]).size();
+        return fills;
+    }
+
+    @Benchmark
+    public List<Fill> submit(Engine engine) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Order order = order(engine.ids.incrementAndGet(), symbol(random.nextInt(engine.symbols)), random);
+        return engine.sequencer.shardFor(order.getAssetName())
+                .submit(() -> engine.matchService.submit(order))
+                .join();
+    }
+
+    private static Order order(long id, String assetName, Random random) {
+        Order order = new Order();
+        order.setId(id);
+        order.setCustomerId(random.nextInt(CUSTOMERS) + 1L);
+        order.setAssetName(assetName);
+        order.setOrderSide(random.nextBoolean() ? OrderSide.BUY : OrderSide.SELL);
+        order.setSize(BigDecimal.valueOf(random.nextInt(10) + 1));
+        order.setPrice(BigDecimal.valueOf(100 + random.nextInt(PRICE_BAND)));
+        order.setStatus(OrderStatus.PENDING);
+        order.setCreateDate(LocalDateTime.now());
+        return order;
+    }
+
+    private static Asset asset(long customerId, String assetName) {
+        Asset asset = new Asset();
+        asset.setCustomerId(customerId);
+        asset.setAssetName(assetName);
+        asset.setSize(BigDecimal.valueOf(1_000_000_000));
+        asset.setUsableSize(BigDecimal.valueOf(1_000_000_000));
+        return asset;
+    }
+
+    private static String symbol(int index) {
+        return "SYM" + index;
+    }
+}
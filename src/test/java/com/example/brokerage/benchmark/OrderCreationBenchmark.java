@@ -0,0 +1,154 @@
+package com.example.brokerage.benchmark;
+
+import com.example.brokerage.dto.request.CreateOrderRequest;
+import com.example.brokerage.engine.BalanceLedger;
+import com.example.brokerage.engine.InstrumentRegistry;
+import com.example.brokerage.engine.ShardedSequencer;
+import com.example.brokerage.entity.Asset;
+import com.example.brokerage.entity.Order;
+import com.example.brokerage.enums.OrderSide;
+import com.example.brokerage.enums.Role;
+import com.example.brokerage.journal.EventJournal;
+import com.example.brokerage.journal.JournalProjector;
+import com.example.brokerage.pipeline.*;
+import com.example.brokerage.readmodel.PortfolioReadModel;
+import com.example.brokerage.repository.CustomerRepository;
+import com.example.brokerage.repository.OrderIdGenerator;
+import com.example.brokerage.repository.OrderRepository;
+import com.example.brokerage.security.CustomerPrincipal;
+import com.example.brokerage.service.AssetService;
+import com.example.brokerage.service.CustomerService;
+import com.example.brokerage.service.MatchService;
+import com.example.brokerage.service.Impl.AssetServiceImpl;
+import com.example.brokerage.service.Impl.CustomerServiceImpl;
+import com.example.brokerage.service.Impl.MatchServiceImpl;
+import com.example.brokerage.service.Impl.OrderServiceImpl;
+import com.example.brokerage.service.OrderService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.mockito.Mockito.*;
+
+/**
+ * {@link OrderService#createOrder} çağrısından sonuç dönene kadar geçen süre: doğrulama, risk kontrolü,
+ * eşleştirme ve journal aşamalarının tamamı. Veritabanına yazım projeksiyonda olduğu için ölçüm dışıdır, numaralar bellekten verilir.
+ * Her thread aynı fiyattan sırayla alış ve satış gönderir, defterler küçük kalır.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class OrderCreationBenchmark {
+
+    private static final int CUSTOMERS = 64;
+    private static final String ASSET = "AAPL";
+
+    @Param({"blocking", "yielding"})
+    public String waitStrategy;
+
+    private final AtomicLong ids = new AtomicLong();
+    private Path directory;
+    private EventJournal journal;
+    private ShardedSequencer sequencer;
+    private OrderCommandPipeline pipeline;
+    private OrderService orderService;
+
+    @State(Scope.Thread)
+    public static class Client {
+
+        private static final AtomicLong CUSTOMER_IDS = new AtomicLong();
+
+        private CustomerPrincipal principal;
+        private CreateOrderRequest buy;
+        private CreateOrderRequest sell;
+        private boolean buyNext;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            long customerId = Math.floorMod(CUSTOMER_IDS.getAndIncrement(), CUSTOMERS) + 1;
+            principal = new CustomerPrincipal(customerId, "customer" + customerId, Set.of(Role.USER));
+            buy = request(OrderSide.BUY);
+            sell = request(OrderSide.SELL);
+        }
+
+        private CreateOrderRequest next() {
+            buyNext = !buyNext;
+            return buyNext ? buy : sell;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("jmh-journal");
+        journal = new EventJournal(directory.toString(), 64 * 1024 * 1024, false, true,
+                mock(JournalProjector.class, withSettings().stubOnly()));
+
+        BalanceLedger ledger = new BalanceLedger(64, new SimpleMeterRegistry());
+        List<Asset> balances = new ArrayList<>();
+        for (long customerId = 1; customerId <= CUSTOMERS; customerId++) {
+            balances.add(asset(customerId, AssetService.CASH_ASSET));
+            balances.add(asset(customerId, ASSET));
+        }
+        ledger.load(balances);
+        AssetService assetService = new AssetServiceImpl(ledger, new PortfolioReadModel(new SimpleMeterRegistry()));
+
+        OrderRepository orderRepository = mock(OrderRepository.class, withSettings().stubOnly());
+        OrderIdGenerator orderIds = mock(OrderIdGenerator.class, withSettings().stubOnly());
+        when(orderIds.next()).thenAnswer(invocation -> ids.incrementAndGet());
+        CustomerService customerService = new CustomerServiceImpl(mock(CustomerRepository.class, withSettings().stubOnly()),
+                new SimpleMeterRegistry(), 100, 60000);
+
+        sequencer = new ShardedSequencer(1, 65536);
+        OrderMetrics metrics = new OrderMetrics(new SimpleMeterRegistry());
+        MatchService matchService = new MatchServiceImpl(orderRepository, sequencer, journal, assetService, new SimpleMeterRegistry());
+        pipeline = new OrderCommandPipeline(4096, waitStrategy,
+                new ValidationStage(customerService, orderRepository, matchService,
+                        new InstrumentRegistry(new BigDecimal("0.01"), BigDecimal.ONE, List.of()), metrics, 1000),
+                new RiskCheckStage(assetService, journal),
+                new MatchingStage(orderIds, assetService, matchService, sequencer, journal, metrics),
+                new JournalStage(journal, metrics, 1), metrics);
+        orderService = new OrderServiceImpl(orderRepository, customerService, pipeline,
+                new PortfolioReadModel(new SimpleMeterRegistry()), 1000);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        pipeline.shutdown();
+        sequencer.shutdown();
+        journal.close();
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public Order createOrder(Client client) {
+        return orderService.createOrder(client.next(), client.principal).join();
+    }
+
+    private static CreateOrderRequest request(OrderSide side) {
+        CreateOrderRequest request = new CreateOrderRequest();
+        request.setAssetName(ASSET);
+        request.setOrderSide(side);
+        request.setSize(BigDecimal.ONE);
+        request.setPrice(BigDecimal.valueOf(150));
+        return request;
+    }
+
+    private static Asset asset(long customerId, String assetName) {
+        Asset asset = new Asset();
+        asset.setCustomerId(customerId);
+        asset.setAssetName(assetName);
+        asset.setSize(BigDecimal.valueOf(1_000_000_000));
+        asset.setUsableSize(BigDecimal.valueOf(1_000_000_000));
+        return asset;
+    }
+}
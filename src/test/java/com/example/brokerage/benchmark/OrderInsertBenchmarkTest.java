@@ -0,0 +1,94 @@
+package com.example.brokerage.benchmark;
+
+import com.example.brokerage.entity.Order;
+import com.example.brokerage.enums.OrderSide;
+import com.example.brokerage.enums.OrderStatus;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * IDENTITY ile pooled-lo sequence arasında emir insert hızını ve JDBC batch sayısını karşılaştırır.
+ * Varsayılan test çalıştırmasına dahil değildir: {@code mvn test -Pbenchmark}
+ */
+@Slf4j
+@Tag("benchmark")
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class OrderInsertBenchmarkTest {
+
+    private static final int ROWS = 50_000;
+    private static final int FLUSH_EVERY = 512;
+    private static final int ROUNDS = 3;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void insertThroughput_identityVsPooledLo() {
+        double identity = measure("IDENTITY", i -> {
+            IdentityOrder order = new IdentityOrder();
+            order.setCustomerId((long) i % 100);
+            order.setAssetName("AAPL");
+            order.setOrderSide(i % 2 == 0 ? OrderSide.BUY : OrderSide.SELL);
+            order.setSize(BigDecimal.TEN);
+            order.setPrice(BigDecimal.valueOf(100 + i % 50));
+            order.setStatus(OrderStatus.PENDING);
+            order.setCreateDate(LocalDateTime.now());
+            return order;
+        });
+        double pooled = measure("pooled-lo", i -> {
+            Order order = new Order();
+            order.setCustomerId((long) i % 100);
+            order.setAssetName("AAPL");
+            order.setOrderSide(i % 2 == 0 ? OrderSide.BUY : OrderSide.SELL);
+            order.setSize(BigDecimal.TEN);
+            order.setPrice(BigDecimal.valueOf(100 + i % 50));
+            order.setStatus(OrderStatus.PENDING);
+            order.setCreateDate(LocalDateTime.now());
+            return order;
+        });
+
+        log.info("Insert throughput. IDENTITY: {} rows/s pooled-lo: {} rows/s speedup: {}x",
+                Math.round(identity), Math.round(pooled), String.format("%.2f", pooled / identity));
+        assertEquals((long) ROWS * ROUNDS, count(IdentityOrder.class));
+    }
+
+    //İlk turlar ısınma sayılır, son turun sonucu raporlanır
+    private double measure(String name, IntFunction<Object> factory) {
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        double rowsPerSecond = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            statistics.clear();
+            long start = System.nanoTime();
+            for (int i = 0; i < ROWS; i++) {
+                entityManager.persist(factory.apply(i));
+                if ((i + 1) % FLUSH_EVERY == 0) {
+                    entityManager.flush();
+                    entityManager.clear();
+                }
+            }
+            entityManager.flush();
+            entityManager.clear();
+            rowsPerSecond = ROWS / ((System.nanoTime() - start) / 1e9);
+            log.info("{} round {}: {} rows/s, {} statements", name, round + 1, Math.round(rowsPerSecond),
+                    statistics.getPrepareStatementCount());
+        }
+        return rowsPerSecond;
+    }
+
+    private long count(Class<?> entity) {
+        return entityManager.createQuery("select count(e) from " + entity.getSimpleName() + " e", Long.class)
+                .getSingleResult();
+    }
+}
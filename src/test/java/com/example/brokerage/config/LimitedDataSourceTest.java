@@ -0,0 +1,88 @@
+package com.example.brokerage.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LimitedDataSourceTest {
+
+    @Mock
+    private DataSource target;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private LimitedDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new LimitedDataSource(target, 2);
+        dataSource.registerMetrics(meterRegistry);
+    }
+
+    @Test
+    void getConnection_overLimit_shouldRejectWithoutWaiting() throws SQLException {
+        // Given
+        when(target.getConnection()).thenReturn(mock(Connection.class), mock(Connection.class));
+        dataSource.getConnection();
+        dataSource.getConnection();
+
+        // When & Then
+        SQLTransientConnectionException e = assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+        assertEquals("Veritabanı bağlantı sınırına ulaşıldı", e.getMessage());
+        verify(target, times(2)).getConnection();
+        assertEquals(2.0, meterRegistry.get("brokerage.db.connections.requested").gauge().value());
+        assertEquals(1.0, meterRegistry.get("brokerage.db.connections.rejected").functionCounter().count());
+    }
+
+    @Test
+    void close_shouldReleasePermitOnce() throws SQLException {
+        // Given
+        Connection physical = mock(Connection.class);
+        when(target.getConnection()).thenReturn(physical);
+        Connection connection = dataSource.getConnection();
+
+        // When
+        connection.close();
+        connection.close();
+
+        // Then
+        verify(physical, times(2)).close();
+        assertEquals(0, dataSource.inUse());
+    }
+
+    @Test
+    void getConnection_whenPoolFails_shouldReleasePermit() throws SQLException {
+        // Given
+        when(target.getConnection()).thenThrow(new SQLTransientConnectionException("timeout"));
+
+        // When & Then
+        assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+        assertEquals(0, dataSource.inUse());
+    }
+
+    @Test
+    void connection_shouldDelegateCalls() throws SQLException {
+        // Given
+        Connection physical = mock(Connection.class);
+        when(target.getConnection()).thenReturn(physical);
+        when(physical.getAutoCommit()).thenReturn(true);
+        Connection connection = dataSource.getConnection();
+
+        // When & Then
+        assertTrue(connection.getAutoCommit());
+        assertEquals(connection, connection);
+        assertEquals(1, dataSource.inUse());
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.brokerage.controller;
+
+import com.example.brokerage.dto.response.BaseApiResponse;
+import com.example.brokerage.engine.ShardedSequencer;
+import com.example.brokerage.entity.Order;
+import com.example.brokerage.enums.OrderSide;
+import com.example.brokerage.enums.OrderStatus;
+import com.example.brokerage.journal.EventJournal;
+import com.example.brokerage.repository.OrderRepository;
+import com.example.brokerage.service.AssetService;
+import com.example.brokerage.service.Impl.MatchServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.ResponseEntity;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MatchControllerTest {
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private EventJournal journal;
+
+    @Mock
+    private AssetService assetService;
+
+    private ShardedSequencer sequencer;
+    private MatchServiceImpl matchService;
+    private MatchController matchController;
+
+    @BeforeEach
+    void setUp() {
+        sequencer = new ShardedSequencer(1, 16);
+        matchService = new MatchServiceImpl(orderRepository, sequencer, journal, assetService, new SimpleMeterRegistry());
+        matchController = new MatchController(matchService);
+        when(journal.flushAndAwaitProjection(anyLong())).thenReturn(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        sequencer.shutdown();
+    }
+
+    @Test
+    void matchOrders_WithOrdersAlreadyMatchedByEngine_ShouldReportThemAsMatched() {
+        // Arrange
+        // Emirler oluşturulurken sürekli eşleştirmede eşleşmiştir; veritabanı yansıtılmış durumu gösterir
+        Order sell = createOrder(1L, OrderSide.SELL, BigDecimal.valueOf(150));
+        Order buy = createOrder(2L, OrderSide.BUY, BigDecimal.valueOf(150));
+        Order resting = createOrder(3L, OrderSide.BUY, BigDecimal.valueOf(100));
+        sequencer.call("AAPL", () -> matchService.submit(sell));
+        sequencer.call("AAPL", () -> matchService.submit(buy));
+        sequencer.call("AAPL", () -> matchService.submit(resting));
+        when(orderRepository.findAllById(any())).thenReturn(List.of(sell, buy, resting));
+
+        // Act
+        ResponseEntity<BaseApiResponse> response = matchController.matchOrders(new ArrayList<>(List.of(1L, 2L, 3L)));
+
+        // Assert
+        assertEquals(OrderStatus.MATCHED, sell.getStatus());
+        assertEquals("Matched Orders: [1, 2] UnMatched Orders: [3]", response.getBody().getMessage());
+        verify(journal, times(2)).flushAndAwaitProjection(anyLong());
+    }
+
+    @Test
+    void matchOrders_WhenAllRequestedOrdersMatched_ShouldReportAllMatched() {
+        // Arrange
+        Order sell = createOrder(1L, OrderSide.SELL, BigDecimal.valueOf(150));
+        Order buy = createOrder(2L, OrderSide.BUY, BigDecimal.valueOf(150));
+        sequencer.call("AAPL", () -> matchService.submit(sell));
+        sequencer.call("AAPL", () -> matchService.submit(buy));
+        when(orderRepository.findAllById(any())).thenReturn(List.of(sell, buy));
+
+        // Act
+        ResponseEntity<BaseApiResponse> response = matchController.matchOrders(new ArrayList<>(List.of(1L, 2L)));
+
+        // Assert
+        assertEquals("All Orders Matched", response.getBody().getMessage());
+        //Bekleyen emir kalmadığı için defter taranmaz, ikinci yansıtma beklenmez
+        verify(journal, times(1)).flushAndAwaitProjection(anyLong());
+    }
+
+    private Order createOrder(Long id, OrderSide side, BigDecimal price) {
+        Order order = new Order();
+        order.setId(id);
+        order.setCustomerId(side == OrderSide.BUY ? 1L : 2L);
+        order.setAssetName("AAPL");
+        order.setOrderSide(side);
+        order.setSize(BigDecimal.TEN);
+        order.setPrice(price);
+        order.setStatus(OrderStatus.PENDING);
+        return order;
+    }
+}
@@ -1,7 +1,10 @@
 package com.example.brokerage.controller;
 
 import com.example.brokerage.dto.request.CreateOrderRequest;
+import com.example.brokerage.dto.request.OrderFilter;
 import com.example.brokerage.dto.response.BaseApiResponse;
+import com.example.brokerage.dto.response.OpenOrderView;
+import com.example.brokerage.dto.response.OrderPage;
 import com.example.brokerage.entity.Order;
 import com.example.brokerage.enums.OrderSide;
 import com.example.brokerage.enums.OrderStatus;
@@ -23,6 +26,7 @@ import java.security.Principal;
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -85,81 +89,68 @@ class OrderControllerTest {
     }
 
     @Test
-    void getOrdersForAdmin_WithAllParameters_ShouldReturnFilteredOrders() {
+    void getMyOpenOrders_ShouldReturnOpenOrders() {
         // Arrange
-        Long customerId = 1L;
-        LocalDateTime startDate = LocalDateTime.now().minusDays(1);
-        LocalDateTime endDate = LocalDateTime.now();
-
-        when(orderService.getOrdersForAdmin(customerId, startDate, endDate))
-                .thenReturn(Collections.singletonList(testOrder));
-
-        // Act
-        List<Order> result = orderController.getOrdersForAdmin(customerId, startDate, endDate);
-
-        // Assert
-        assertNotNull(result);
-        assertEquals(1, result.size());
-        assertEquals(testOrder, result.get(0));
-        verify(orderService).getOrdersForAdmin(customerId, startDate, endDate);
-    }
-
-    @Test
-    void getOrdersForAdmin_WithCustomerIdOnly_ShouldReturnCustomerOrders() {
-        // Arrange
-        Long customerId = 1L;
-        when(orderService.getOrdersForAdmin(customerId, null, null))
-                .thenReturn(Collections.singletonList(testOrder));
+        OpenOrderView openOrder = new OpenOrderView(1L, "AAPL", OrderSide.BUY, BigDecimal.TEN, BigDecimal.ZERO,
+                BigDecimal.valueOf(150), LocalDateTime.now());
+        when(orderService.getOpenOrdersForUser(userPrincipal)).thenReturn(List.of(openOrder));
 
         // Act
-        List<Order> result = orderController.getOrdersForAdmin(customerId, null, null);
+        List<OpenOrderView> result = orderController.getMyOpenOrders(userPrincipal);
 
         // Assert
-        assertNotNull(result);
-        assertEquals(1, result.size());
-        verify(orderService).getOrdersForAdmin(customerId, null, null);
+        assertEquals(List.of(openOrder), result);
+        verify(orderService).getOpenOrdersForUser(userPrincipal);
     }
 
     @Test
-    void getOrdersForAdmin_WithDateRangeOnly_ShouldReturnDateFilteredOrders() {
+    void getOrdersForAdmin_WithFilterAndCursor_ShouldReturnPage() {
         // Arrange
-        LocalDateTime startDate = LocalDateTime.now().minusDays(1);
-        LocalDateTime endDate = LocalDateTime.now();
-        when(orderService.getOrdersForAdmin(null, startDate, endDate))
-                .thenReturn(Collections.singletonList(testOrder));
+        OrderFilter filter = new OrderFilter();
+        filter.setCustomerId(1L);
+        filter.setStatus(OrderStatus.PENDING);
+        filter.setAssetName("AAPL");
+        filter.setStartDate(LocalDateTime.now().minusDays(1));
+        filter.setEndDate(LocalDateTime.now());
+        OrderPage page = new OrderPage(Collections.singletonList(testOrder), "next");
+        when(orderService.getOrdersForAdmin(filter, "cursor", 50)).thenReturn(page);
 
         // Act
-        List<Order> result = orderController.getOrdersForAdmin(null, startDate, endDate);
+        OrderPage result = orderController.getOrdersForAdmin(filter, "cursor", 50);
 
         // Assert
         assertNotNull(result);
-        assertEquals(1, result.size());
-        verify(orderService).getOrdersForAdmin(null, startDate, endDate);
+        assertEquals(1, result.getOrders().size());
+        assertEquals(testOrder, result.getOrders().get(0));
+        assertEquals("next", result.getNextCursor());
+        verify(orderService).getOrdersForAdmin(filter, "cursor", 50);
     }
 
     @Test
-    void getOrdersForAdmin_NoParameters_ShouldReturnAllOrders() {
+    void getOrdersForAdmin_NoParameters_ShouldReturnFirstPage() {
         // Arrange
-        when(orderService.getOrdersForAdmin(null, null, null))
-                .thenReturn(Collections.singletonList(testOrder));
+        OrderFilter filter = new OrderFilter();
+        when(orderService.getOrdersForAdmin(filter, null, 100))
+                .thenReturn(new OrderPage(Collections.singletonList(testOrder), null));
 
         // Act
-        List<Order> result = orderController.getOrdersForAdmin(null, null, null);
+        OrderPage result = orderController.getOrdersForAdmin(filter, null, 100);
 
         // Assert
         assertNotNull(result);
-        assertEquals(1, result.size());
-        verify(orderService).getOrdersForAdmin(null, null, null);
+        assertEquals(1, result.getOrders().size());
+        assertNull(result.getNextCursor());
+        verify(orderService).getOrdersForAdmin(filter, null, 100);
     }
 
     @Test
     void createOrder_AsUser_ShouldReturnCreatedOrder() {
         // Arrange
         when(orderService.createOrder(any(CreateOrderRequest.class), any(Principal.class)))
-                .thenReturn(testOrder);
+                .thenReturn(CompletableFuture.completedFuture(testOrder));
 
         // Act
-        Order result = orderController.createOrder(testRequest, userPrincipal);
+        Order result = orderController.createOrder(testRequest, userPrincipal).join();
 
         // Assert
         assertNotNull(result);
@@ -171,10 +162,10 @@ class OrderControllerTest {
     void createOrder_AsAdmin_ShouldReturnCreatedOrder() {
         // Arrange
         when(orderService.createOrder(any(CreateOrderRequest.class), any(Principal.class)))
-                .thenReturn(testOrder);
+                .thenReturn(CompletableFuture.completedFuture(testOrder));
 
         // Act
-        Order result = orderController.createOrder(testRequest, adminPrincipal);
+        Order result = orderController.createOrder(testRequest, adminPrincipal).join();
 
         // Assert
         assertNotNull(result);
@@ -186,10 +177,10 @@ class OrderControllerTest {
     void cancelOrder_AsOrderOwner_ShouldReturnSuccessResponse() {
         // Arrange
         Long orderId = 1L;
-        doNothing().when(orderService).cancelOrder(orderId, userPrincipal);
+        when(orderService.cancelOrder(orderId, userPrincipal)).thenReturn(CompletableFuture.completedFuture(testOrder));
 
         // Act
-        ResponseEntity<BaseApiResponse> response = orderController.cancelOrder(orderId, userPrincipal);
+        ResponseEntity<BaseApiResponse> response = orderController.cancelOrder(orderId, userPrincipal).join();
 
         // Assert
         assertNotNull(response);
@@ -203,10 +194,10 @@ class OrderControllerTest {
     void cancelOrder_AsAdmin_ShouldReturnSuccessResponse() {
         // Arrange
         Long orderId = 1L;
-        doNothing().when(orderService).cancelOrder(orderId, adminPrincipal);
+        when(orderService.cancelOrder(orderId, adminPrincipal)).thenReturn(CompletableFuture.completedFuture(testOrder));
 
         // Act
-        ResponseEntity<BaseApiResponse> response = orderController.cancelOrder(orderId, adminPrincipal);
+        ResponseEntity<BaseApiResponse> response = orderController.cancelOrder(orderId, adminPrincipal).join();
 
         // Assert
         assertNotNull(response);
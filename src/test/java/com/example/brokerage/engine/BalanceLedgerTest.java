@@ -0,0 +1,89 @@
+package com.example.brokerage.engine;
+
+import com.example.brokerage.entity.Asset;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.example.brokerage.TestFixtures.createAsset;
+import static org.junit.jupiter.api.Assertions.*;
+
+class BalanceLedgerTest {
+
+    private final BalanceLedger ledger = new BalanceLedger(4, new SimpleMeterRegistry());
+
+    @Test
+    void tryReserve_shouldRejectWithoutChangingBalanceWhenInsufficient() {
+        // Given
+        ledger.load(List.of(createAsset(1L, "TRY", "1000", "1000")));
+
+        // When & Then
+        assertTrue(ledger.tryReserve(1L, "TRY", 700 * FixedPoint.ONE));
+        assertFalse(ledger.tryReserve(1L, "try", 400 * FixedPoint.ONE));
+        assertFalse(ledger.tryReserve(1L, "AAPL", FixedPoint.ONE));
+        assertEquals(0, BigDecimal.valueOf(300).compareTo(ledger.get(1L, "TRY").orElseThrow().getUsableSize()));
+    }
+
+    @Test
+    void tryReserve_concurrently_shouldNeverOverdraw() throws Exception {
+        // Given
+        ledger.load(List.of(createAsset(1L, "TRY", "1000", "1000")));
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger accepted = new AtomicInteger();
+
+        // When
+        List<Future<?>> tasks = new ArrayList<>();
+        for (int i = 0; i < 8; i++)
+            tasks.add(executor.submit(() -> {
+                start.await();
+                for (int j = 0; j < 100; j++)
+                    if (ledger.tryReserve(1L, "TRY", FixedPoint.ONE))
+                        accepted.incrementAndGet();
+                return null;
+            }));
+        start.countDown();
+        for (Future<?> task : tasks)
+            task.get(5, TimeUnit.SECONDS);
+        executor.shutdown();
+
+        // Then
+        assertEquals(800, accepted.get());
+        assertEquals(0, BigDecimal.valueOf(200).compareTo(ledger.get(1L, "TRY").orElseThrow().getUsableSize()));
+    }
+
+    @Test
+    void settleBuy_shouldCreateStockAndRefundUnusedReservation() {
+        // Given
+        ledger.load(List.of(createAsset(1L, "TRY", "1000", "1000")));
+        ledger.tryReserve(1L, "TRY", 500 * FixedPoint.ONE);
+
+        // When
+        ledger.settleBuy(1L, "TRY", "AAPL", 5 * FixedPoint.ONE, 450 * FixedPoint.ONE, 500 * FixedPoint.ONE);
+
+        // Then
+        Asset cash = ledger.get(1L, "TRY").orElseThrow();
+        Asset stock = ledger.get(1L, "AAPL").orElseThrow();
+        assertEquals(0, BigDecimal.valueOf(550).compareTo(cash.getSize()));
+        assertEquals(0, BigDecimal.valueOf(550).compareTo(cash.getUsableSize()));
+        assertEquals(0, BigDecimal.valueOf(5).compareTo(stock.getUsableSize()));
+        assertEquals(2, ledger.getAll(1L).size());
+    }
+
+    @Test
+    void get_shouldReturnCopy() {
+        // Given
+        ledger.load(List.of(createAsset(1L, "TRY", "1000", "1000")));
+
+        // When
+        ledger.get(1L, "TRY").orElseThrow().setUsableSize(BigDecimal.ZERO);
+
+        // Then
+        assertEquals(0, BigDecimal.valueOf(1000).compareTo(ledger.get(1L, "TRY").orElseThrow().getUsableSize()));
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.brokerage.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FixedPointTest {
+
+    @Test
+    void toUnits_shouldRoundTripWithoutChangingScaleOfIntegers() {
+        assertEquals(1_002_500L, FixedPoint.toUnits(new BigDecimal("100.25")));
+        assertEquals(new BigDecimal("100.25"), FixedPoint.toDecimal(1_002_500L));
+        assertEquals(BigDecimal.valueOf(150), FixedPoint.toDecimal(FixedPoint.toUnits(new BigDecimal("150.00"))));
+    }
+
+    @Test
+    void toUnits_withTooManyDecimals_shouldThrow() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> FixedPoint.toUnits(new BigDecimal("1.00001")));
+        assertTrue(e.getMessage().startsWith("En fazla 4 ondalık basamak"));
+    }
+
+    @Test
+    void multiply_shouldBeExactAndDetectOverflow() {
+        assertEquals(1_503_750L, FixedPoint.multiply(1_002_500L, 15_000L));
+        assertThrows(IllegalArgumentException.class, () -> FixedPoint.multiply(Long.MAX_VALUE / 2, 3 * FixedPoint.ONE));
+    }
+
+    @Test
+    void instrument_shouldEnforceTickAndLotPerAsset() {
+        // Given
+        InstrumentRegistry registry = new InstrumentRegistry(new BigDecimal("0.01"), BigDecimal.ONE, List.of("NYMN:0.05:10"));
+
+        // When & Then
+        assertEquals(1_002_500L, registry.instrument("AAPL").price(new BigDecimal("100.25")));
+        IllegalArgumentException tick = assertThrows(IllegalArgumentException.class,
+                () -> registry.instrument("nymn").price(new BigDecimal("100.02")));
+        assertEquals("Fiyat 0.05 adımlarıyla girilmelidir", tick.getMessage());
+        IllegalArgumentException lot = assertThrows(IllegalArgumentException.class,
+                () -> registry.instrument("NYMN").quantity(BigDecimal.valueOf(15)));
+        assertEquals("Miktar 10 lotun katı olmalıdır", lot.getMessage());
+    }
+}
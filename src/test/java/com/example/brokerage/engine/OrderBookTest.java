@@ -0,0 +1,132 @@
+package com.example.brokerage.engine;
+
+import com.example.brokerage.entity.Order;
+import com.example.brokerage.enums.OrderSide;
+import com.example.brokerage.enums.OrderStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderBookTest {
+
+    private OrderBook book;
+    private long nextId;
+
+    @BeforeEach
+    void setUp() {
+        book = new OrderBook("AAPL");
+        nextId = 1;
+    }
+
+    @Test
+    void add_NonCrossingOrders_ShouldRestOnBothSides() {
+        book.add(order(OrderSide.BUY, 10, 100));
+        book.add(order(OrderSide.SELL, 10, 101));
+
+        assertEquals(2, book.size());
+        assertEquals(100 * FixedPoint.ONE, book.bestBid().orElseThrow());
+        assertEquals(101 * FixedPoint.ONE, book.bestAsk().orElseThrow());
+    }
+
+    @Test
+    void add_CrossingOrder_ShouldFillAtBestPriceFirst() {
+        Order cheap = order(OrderSide.SELL, 5, 99);
+        Order expensive = order(OrderSide.SELL, 5, 98);
+        book.add(cheap);
+        book.add(expensive);
+
+        List<Fill> fills = book.add(order(OrderSide.BUY, 7, 100));
+
+        assertEquals(2, fills.size());
+        assertSame(expensive, fills.get(0).getSellOrder());
+        assertEquals(98 * FixedPoint.ONE, fills.get(0).getPrice());
+        assertEquals(5 * FixedPoint.ONE, fills.get(0).getQuantity());
+        assertSame(cheap, fills.get(1).getSellOrder());
+        assertEquals(2 * FixedPoint.ONE, fills.get(1).getQuantity());
+        assertEquals(OrderStatus.PENDING, cheap.getStatus());
+        assertEquals(1, book.size());
+    }
+
+    @Test
+    void add_SamePriceLevel_ShouldRespectTimePriority() {
+        Order first = order(OrderSide.BUY, 5, 100);
+        Order second = order(OrderSide.BUY, 5, 100);
+        book.add(first);
+        book.add(second);
+
+        List<Fill> fills = book.add(order(OrderSide.SELL, 5, 100));
+
+        assertEquals(1, fills.size());
+        assertSame(first, fills.get(0).getBuyOrder());
+        assertEquals(OrderStatus.MATCHED, first.getStatus());
+        assertEquals(OrderStatus.PENDING, second.getStatus());
+    }
+
+    @Test
+    void add_RemainderOfIncomingOrder_ShouldRest() {
+        book.add(order(OrderSide.BUY, 3, 100));
+
+        Order sell = order(OrderSide.SELL, 10, 95);
+        book.add(sell);
+
+        assertEquals(0, BigDecimal.valueOf(7).compareTo(sell.getRemainingSize()));
+        assertTrue(book.bestBid().isEmpty());
+        assertEquals(95 * FixedPoint.ONE, book.bestAsk().orElseThrow());
+    }
+
+    @Test
+    void add_SameOrderTwice_ShouldBeIgnored() {
+        Order buy = order(OrderSide.BUY, 5, 100);
+        book.add(buy);
+
+        assertTrue(book.add(buy).isEmpty());
+        assertEquals(1, book.size());
+    }
+
+    @Test
+    void add_FractionalPriceAndSize_ShouldMatchExactly() {
+        Order sell = order(OrderSide.SELL, new BigDecimal("2.5"), new BigDecimal("100.25"));
+        book.add(sell);
+
+        List<Fill> fills = book.add(order(OrderSide.BUY, new BigDecimal("1.5"), new BigDecimal("100.30")));
+
+        assertEquals(1, fills.size());
+        assertEquals(1_002_500L, fills.get(0).getPrice());
+        assertEquals(15_000L, fills.get(0).getQuantity());
+        // 1.5 x 100.25 = 150.375
+        assertEquals(1_503_750L, fills.get(0).getAmount());
+        assertEquals(1_504_500L, fills.get(0).getReservedAmount());
+        assertEquals(new BigDecimal("1.5"), sell.getFilledSize());
+        assertEquals(0, BigDecimal.ONE.compareTo(sell.getRemainingSize()));
+    }
+
+    @Test
+    void remove_ShouldDropOrderAndEmptyLevel() {
+        Order buy = order(OrderSide.BUY, 5, 100);
+        book.add(buy);
+
+        assertSame(buy, book.remove(buy.getId()).orElseThrow());
+        assertTrue(book.bestBid().isEmpty());
+        assertTrue(book.remove(buy.getId()).isEmpty());
+    }
+
+    private Order order(OrderSide side, long size, long price) {
+        return order(side, BigDecimal.valueOf(size), BigDecimal.valueOf(price));
+    }
+
+    private Order order(OrderSide side, BigDecimal size, BigDecimal price) {
+        Order order = new Order();
+        order.setId(nextId++);
+        order.setCustomerId(1L);
+        order.setAssetName("AAPL");
+        order.setOrderSide(side);
+        order.setSize(size);
+        order.setPrice(price);
+        order.setStatus(OrderStatus.PENDING);
+        return order;
+    }
+}
@@ -0,0 +1,263 @@
+package com.example.brokerage.journal;
+
+import com.example.brokerage.engine.Fill;
+import com.example.brokerage.engine.FixedPoint;
+import com.example.brokerage.entity.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EventJournalTest {
+
+    @TempDir
+    Path directory;
+
+    @Mock
+    private JournalProjector projector;
+
+    @Test
+    void append_shouldAssignSequencesAndReplayInOrder() throws IOException {
+        // Given
+        EventJournal journal = open(4096, false);
+
+        // When
+        journal.append(JournalEvent.assetReserved(1L, "TRY", 1500 * FixedPoint.ONE));
+        journal.append(JournalEvent.assetReleased(1L, "AAPL", FixedPoint.toUnits(new BigDecimal("2.50"))));
+        journal.flush();
+
+        // Then
+        List<JournalEvent> events = replay(journal, 0);
+        assertEquals(List.of(1L, 2L), events.stream().map(JournalEvent::getSequence).toList());
+        assertEquals(JournalEventType.ASSET_RELEASED, events.get(1).getType());
+        assertEquals("AAPL", events.get(1).getAssetName());
+        assertEquals(new BigDecimal("2.5"), events.get(1).getQuantity());
+        assertNull(events.get(1).getOrderId());
+        verify(projector, times(2)).enqueue(any());
+        journal.close();
+    }
+
+    @Test
+    void append_filled_shouldCarryBuyLimitPrice() throws IOException {
+        // Given
+        EventJournal journal = open(4096, false);
+        Order buy = new Order();
+        buy.setId(1L);
+        buy.setCustomerId(1L);
+        buy.setAssetName("AAPL");
+        Order sell = new Order();
+        sell.setId(2L);
+        sell.setCustomerId(2L);
+
+        // When
+        journal.append(JournalEvent.orderFilled(new Fill(buy, sell, 4 * FixedPoint.ONE, 140 * FixedPoint.ONE,
+                150 * FixedPoint.ONE, 4 * FixedPoint.ONE, 4 * FixedPoint.ONE)));
+        journal.flush();
+
+        // Then
+        JournalEvent event = replay(journal, 0).get(0);
+        assertEquals(0, BigDecimal.valueOf(150).compareTo(event.getLimitPrice()));
+        assertEquals(0, BigDecimal.valueOf(600).compareTo(event.getReservedAmount()));
+        assertEquals(0, BigDecimal.valueOf(140).compareTo(event.getPrice()));
+        journal.close();
+    }
+
+    @Test
+    void append_shouldReachProjectorOnlyAfterFlush() throws IOException {
+        // Given
+        EventJournal journal = open(4096, false);
+        journal.append(JournalEvent.assetReserved(1L, "TRY", 10 * FixedPoint.ONE));
+        journal.append(JournalEvent.assetReleased(1L, "TRY", 10 * FixedPoint.ONE));
+
+        // When & Then
+        verify(projector, never()).enqueue(any());
+        assertEquals(0L, journal.flushedSequence());
+
+        journal.flush();
+        InOrder inOrder = inOrder(projector);
+        inOrder.verify(projector).enqueue(argThat(event -> event.getSequence() == 1L));
+        inOrder.verify(projector).enqueue(argThat(event -> event.getSequence() == 2L));
+        assertEquals(2L, journal.flushedSequence());
+
+        journal.flush();
+        verify(projector, times(2)).enqueue(any());
+        journal.close();
+    }
+
+    @Test
+    void open_shouldContinueSequenceAfterRestart() throws IOException {
+        // Given
+        EventJournal journal = open(4096, false);
+        journal.append(JournalEvent.assetReserved(1L, "TRY", 10 * FixedPoint.ONE));
+        journal.flush();
+        journal.close();
+
+        // When
+        EventJournal reopened = open(4096, false);
+        JournalEvent event = reopened.append(JournalEvent.assetReserved(1L, "TRY", FixedPoint.ONE));
+
+        // Then
+        assertEquals(2L, event.getSequence());
+        assertEquals(2, replay(reopened, 0).size());
+        assertEquals(1, replay(reopened, 1).size());
+        reopened.close();
+    }
+
+    @Test
+    void append_shouldRollToNewSegmentWhenFull() throws IOException {
+        // Given
+        EventJournal journal = open(256, false);
+
+        // When
+        for (int i = 0; i < 10; i++)
+            journal.append(JournalEvent.assetReserved(1L, "TRY", i * FixedPoint.ONE));
+        journal.flush();
+
+        // Then
+        assertTrue(segments().size() > 1);
+        assertEquals(10, replay(journal, 0).size());
+        assertEquals(List.of(8L, 9L, 10L), replay(journal, 7).stream().map(JournalEvent::getSequence).toList());
+        journal.close();
+    }
+
+    @Test
+    void retire_shouldDeleteSegmentsEndingAtOrBeforeSequence() throws IOException {
+        // Given
+        EventJournal journal = open(256, false);
+        for (int i = 0; i < 10; i++)
+            journal.append(JournalEvent.assetReserved(1L, "TRY", i * FixedPoint.ONE));
+        journal.flush();
+        List<Path> before = segments();
+        long thirdFirst = Long.parseLong(before.get(2).getFileName().toString().replaceAll("\\D", ""));
+
+        // When
+        int retired = journal.retire(thirdFirst - 1);
+
+        // Then
+        assertEquals(2, retired);
+        assertEquals(before.subList(2, before.size()), segments());
+        assertEquals(10 - thirdFirst + 1, replay(journal, thirdFirst - 1).size());
+        journal.close();
+    }
+
+    @Test
+    void retire_shouldNeverDeleteCurrentSegment() throws IOException {
+        // Given
+        EventJournal journal = open(256, false);
+        for (int i = 0; i < 10; i++)
+            journal.append(JournalEvent.assetReserved(1L, "TRY", i * FixedPoint.ONE));
+        journal.flush();
+
+        // When
+        journal.retire(journal.lastSequence());
+        JournalEvent next = journal.append(JournalEvent.assetReserved(1L, "TRY", FixedPoint.ONE));
+        journal.flush();
+
+        // Then
+        assertEquals(1, segments().size());
+        assertEquals(11L, next.getSequence());
+        assertEquals(List.of(11L), replay(journal, 10).stream().map(JournalEvent::getSequence).toList());
+        journal.close();
+    }
+
+    @Test
+    void open_shouldDropCorruptedTail() throws IOException {
+        // Given
+        EventJournal journal = open(4096, false);
+        journal.append(JournalEvent.assetReserved(1L, "TRY", 10 * FixedPoint.ONE));
+        journal.append(JournalEvent.assetReserved(1L, "TRY", FixedPoint.ONE));
+        journal.close();
+
+        // İkinci kaydın verisindeki bir byte bozulur, CRC tutmaz
+        try (RandomAccessFile file = new RandomAccessFile(segments().get(0).toFile(), "rw")) {
+            int firstFrame = file.readInt() + 8;
+            file.seek(firstFrame + 20);
+            file.write(file.read() ^ 0xFF);
+        }
+
+        // When
+        EventJournal reopened = open(4096, false);
+        JournalEvent next = reopened.append(JournalEvent.assetReserved(1L, "TRY", 10 * FixedPoint.ONE));
+
+        // Then
+        assertEquals(2L, next.getSequence());
+        assertEquals(List.of(1L, 2L), replay(reopened, 0).stream().map(JournalEvent::getSequence).toList());
+        reopened.close();
+    }
+
+    @Test
+    void open_shouldZeroTornFrameContainingZeroBytes() throws IOException {
+        // Given
+        EventJournal journal = open(4096, false);
+        journal.append(JournalEvent.assetReserved(1L, "TRY", 10 * FixedPoint.ONE));
+        journal.close();
+
+        // Yarım kalan ikinci kaydın uzunluk alanı sıfırla başlar, verisi ise diske ulaşmıştır
+        int firstFrame;
+        try (RandomAccessFile file = new RandomAccessFile(segments().get(0).toFile(), "rw")) {
+            firstFrame = file.readInt() + 8;
+            file.seek(firstFrame);
+            file.writeInt(64);
+            file.writeInt(0x12005678);
+            for (int i = 0; i < 40; i++)
+                file.write(0xAB);
+        }
+
+        // When
+        open(4096, false).close();
+
+        // Then
+        byte[] content = Files.readAllBytes(segments().get(0));
+        for (int i = firstFrame; i < content.length; i++)
+            assertEquals(0, content[i], "Byte " + i);
+    }
+
+    @Test
+    void open_withCleanOnStart_shouldDiscardExistingSegments() throws IOException {
+        // Given
+        EventJournal journal = open(4096, false);
+        journal.append(JournalEvent.assetReserved(1L, "TRY", 10 * FixedPoint.ONE));
+        journal.close();
+
+        // When
+        EventJournal reopened = open(4096, true);
+
+        // Then
+        assertEquals(0L, reopened.lastSequence());
+        assertTrue(replay(reopened, 0).isEmpty());
+        reopened.close();
+    }
+
+    private EventJournal open(int segmentSize, boolean cleanOnStart) throws IOException {
+        return new EventJournal(directory.toString(), segmentSize, true, cleanOnStart, projector);
+    }
+
+    private List<JournalEvent> replay(EventJournal journal, long afterSequence) {
+        List<JournalEvent> events = new ArrayList<>();
+        journal.replay(afterSequence, events::add);
+        return events;
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().toList();
+        }
+    }
+}
@@ -0,0 +1,481 @@
+package com.example.brokerage.journal;
+
+import com.example.brokerage.engine.FixedPoint;
+import com.example.brokerage.entity.Asset;
+import com.example.brokerage.entity.Order;
+import com.example.brokerage.enums.AssetLockStrategy;
+import com.example.brokerage.enums.OrderSide;
+import com.example.brokerage.enums.OrderStatus;
+import com.example.brokerage.marketdata.MarketDataPublisher;
+import com.example.brokerage.readmodel.PortfolioListener;
+import com.example.brokerage.readmodel.PortfolioReadModel;
+import com.example.brokerage.repository.AssetRepository;
+import com.example.brokerage.repository.JournalCheckpointRepository;
+import com.example.brokerage.repository.OrderRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.brokerage.TestFixtures.createAsset;
+import static com.example.brokerage.TestFixtures.fill;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class JournalProjectorTest {
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private AssetRepository assetRepository;
+
+    @Mock
+    private JournalCheckpointRepository checkpointRepository;
+
+    @Mock
+    private SnapshotStore snapshotStore;
+
+    @Mock
+    private EventJournal journal;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private JournalProjector projector;
+
+    @BeforeEach
+    void setUp() {
+        projector = createProjector(AssetLockStrategy.OPTIMISTIC);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        projector.shutdown();
+    }
+
+    @Test
+    void project_fill_shouldSettleBalancesAndUpdateOrders() {
+        // Given
+        Order buy = createOrder(1L, 10L, OrderSide.BUY, BigDecimal.valueOf(150));
+        Order sell = createOrder(2L, 20L, OrderSide.SELL, BigDecimal.valueOf(140));
+        sell.setFilledSize(BigDecimal.valueOf(4));
+        buy.setFilledSize(BigDecimal.valueOf(4));
+        JournalEvent event = JournalEvent.orderFilled(fill(buy, sell, BigDecimal.valueOf(4), BigDecimal.valueOf(140)));
+
+        Order storedBuy = createOrder(1L, 10L, OrderSide.BUY, BigDecimal.valueOf(150));
+        Order storedSell = createOrder(2L, 20L, OrderSide.SELL, BigDecimal.valueOf(140));
+        Asset buyerCash = createAsset(10L, "TRY", "1000", "400");
+        Asset sellerStock = createAsset(20L, "AAPL", "10", "0");
+        when(orderRepository.findAllById(any())).thenReturn(List.of(storedBuy, storedSell));
+        when(assetRepository.findByCustomerIdIn(any())).thenReturn(List.of(buyerCash, sellerStock));
+
+        // When
+        projector.project(List.of(event.withSequence(3)));
+
+        // Then
+        // Alıcı 560 öder, 600 rezervin kalan 40'ı serbest kalır; satıcı 560 TRY alır
+        assertEquals(0, BigDecimal.valueOf(440).compareTo(buyerCash.getSize()));
+        assertEquals(0, BigDecimal.valueOf(440).compareTo(buyerCash.getUsableSize()));
+        assertEquals(0, BigDecimal.valueOf(6).compareTo(sellerStock.getSize()));
+        assertEquals(BigDecimal.valueOf(4), storedBuy.getFilledSize());
+        assertEquals(OrderStatus.PENDING, storedBuy.getStatus());
+
+        ArgumentCaptor<Collection<Asset>> assets = ArgumentCaptor.forClass(Collection.class);
+        verify(assetRepository).saveAll(assets.capture());
+        assertEquals(4, assets.getValue().size());
+        verify(orderRepository).saveAll(any());
+        verify(checkpointRepository).save(argThat(checkpoint -> checkpoint.getSequence() == 3L));
+    }
+
+    @Test
+    void project_shouldCoalesceRepeatedChangesIntoSingleWrite() {
+        // Given
+        Order buy = createOrder(1L, 10L, OrderSide.BUY, BigDecimal.valueOf(150));
+        Order firstSell = createOrder(2L, 20L, OrderSide.SELL, BigDecimal.valueOf(150));
+        Order secondSell = createOrder(3L, 20L, OrderSide.SELL, BigDecimal.valueOf(150));
+        firstSell.setFilledSize(BigDecimal.valueOf(5));
+        buy.setFilledSize(BigDecimal.valueOf(5));
+        JournalEvent first = JournalEvent.orderFilled(fill(buy, firstSell, BigDecimal.valueOf(5), BigDecimal.valueOf(150)));
+        buy.setFilledSize(BigDecimal.TEN);
+        secondSell.setFilledSize(BigDecimal.valueOf(5));
+        JournalEvent second = JournalEvent.orderFilled(fill(buy, secondSell, BigDecimal.valueOf(5), BigDecimal.valueOf(150)));
+
+        Order storedBuy = createOrder(1L, 10L, OrderSide.BUY, BigDecimal.valueOf(150));
+        when(orderRepository.findAllById(any())).thenReturn(List.of(storedBuy,
+                createOrder(2L, 20L, OrderSide.SELL, BigDecimal.valueOf(150)),
+                createOrder(3L, 20L, OrderSide.SELL, BigDecimal.valueOf(150))));
+        when(assetRepository.findByCustomerIdIn(any())).thenReturn(List.of(
+                createAsset(10L, "TRY", "3000", "1500"), createAsset(20L, "AAPL", "10", "0")));
+
+        // When
+        projector.project(List.of(first.withSequence(1), second.withSequence(2)));
+
+        // Then
+        assertEquals(OrderStatus.MATCHED, storedBuy.getStatus());
+        verify(orderRepository, times(1)).findAllById(any());
+        verify(assetRepository, times(1)).findByCustomerIdIn(any());
+        ArgumentCaptor<Collection<Order>> orders = ArgumentCaptor.forClass(Collection.class);
+        verify(orderRepository, times(1)).saveAll(orders.capture());
+        assertEquals(3, orders.getValue().size());
+        verify(assetRepository, times(1)).saveAll(any());
+        verify(orderRepository, never()).save(any());
+    }
+
+    @Test
+    void project_created_shouldInsertOrdersWithStateAtEndOfBatch() {
+        // Given
+        Order first = createOrder(5L, 10L, OrderSide.BUY, BigDecimal.valueOf(150));
+        Order second = createOrder(6L, 20L, OrderSide.SELL, BigDecimal.valueOf(160));
+        when(orderRepository.findAllById(Set.of(5L, 6L))).thenReturn(List.of());
+
+        // When
+        projector.project(List.of(JournalEvent.orderCreated(first).withSequence(1),
+                JournalEvent.orderCreated(second).withSequence(2),
+                JournalEvent.orderCanceled(first).withSequence(3)));
+
+        // Then
+        ArgumentCaptor<Collection<Order>> inserted = ArgumentCaptor.forClass(Collection.class);
+        verify(orderRepository).insertAll(inserted.capture());
+        List<Order> orders = List.copyOf(inserted.getValue());
+        assertEquals(List.of(5L, 6L), orders.stream().map(Order::getId).toList());
+        assertEquals(OrderStatus.CANCELED, orders.get(0).getStatus());
+        assertEquals(OrderStatus.PENDING, orders.get(1).getStatus());
+        assertEquals(BigDecimal.valueOf(160), orders.get(1).getPrice());
+        verify(orderRepository, never()).cancelPending(any());
+        verify(orderRepository, never()).saveAll(any());
+        verify(checkpointRepository).save(argThat(checkpoint -> checkpoint.getSequence() == 3L));
+    }
+
+    @Test
+    void project_createdOrderAlreadyStored_shouldNotInsertAgain() {
+        // Given
+        Order order = createOrder(5L, 10L, OrderSide.BUY, BigDecimal.valueOf(150));
+        when(orderRepository.findAllById(Set.of(5L))).thenReturn(List.of(createOrder(5L, 10L, OrderSide.BUY, BigDecimal.valueOf(150))));
+
+        // When
+        projector.project(List.of(JournalEvent.orderCreated(order).withSequence(1)));
+
+        // Then
+        verify(orderRepository, never()).insertAll(any());
+        verify(checkpointRepository).save(argThat(checkpoint -> checkpoint.getSequence() == 1L));
+    }
+
+    @Test
+    void project_cancel_shouldCancelWithSingleUpdate() {
+        // Given
+        Order first = createOrder(1L, 10L, OrderSide.BUY, BigDecimal.valueOf(150));
+        Order second = createOrder(2L, 10L, OrderSide.SELL, BigDecimal.valueOf(150));
+
+        // When
+        projector.project(List.of(JournalEvent.orderCanceled(first).withSequence(1),
+                JournalEvent.orderCanceled(second).withSequence(2)));
+
+        // Then
+        verify(orderRepository).cancelPending(Set.of(1L, 2L));
+        verify(orderRepository, never()).findAllById(any());
+        verify(orderRepository, never()).saveAll(any());
+        verifyNoInteractions(assetRepository);
+    }
+
+    @Test
+    void project_cancelAfterFillInSameBatch_shouldWriteLoadedOrder() {
+        // Given
+        Order buy = createOrder(1L, 10L, OrderSide.BUY, BigDecimal.valueOf(150));
+        Order sell = createOrder(2L, 20L, OrderSide.SELL, BigDecimal.valueOf(150));
+        buy.setFilledSize(BigDecimal.valueOf(4));
+        sell.setFilledSize(BigDecimal.valueOf(4));
+        JournalEvent fill = JournalEvent.orderFilled(fill(buy, sell, BigDecimal.valueOf(4), BigDecimal.valueOf(150)));
+
+        Order storedBuy = createOrder(1L, 10L, OrderSide.BUY, BigDecimal.valueOf(150));
+        when(orderRepository.findAllById(any())).thenReturn(List.of(storedBuy, createOrder(2L, 20L, OrderSide.SELL, BigDecimal.valueOf(150))));
+        when(assetRepository.findByCustomerIdIn(any())).thenReturn(List.of(
+                createAsset(10L, "TRY", "3000", "1500"), createAsset(20L, "AAPL", "10", "0")));
+
+        // When
+        projector.project(List.of(fill.withSequence(1), JournalEvent.orderCanceled(buy).withSequence(2)));
+
+        // Then
+        assertEquals(OrderStatus.CANCELED, storedBuy.getStatus());
+        assertEquals(BigDecimal.valueOf(4), storedBuy.getFilledSize());
+        verify(orderRepository, never()).cancelPending(any());
+    }
+
+    @Test
+    void project_reservations_shouldWriteNetUsableChangeOnce() {
+        // Given
+        Asset cash = createAsset(10L, "TRY", "1000", "1000");
+        when(assetRepository.findByCustomerIdIn(any())).thenReturn(List.of(cash));
+
+        // When
+        projector.project(List.of(
+                JournalEvent.assetReserved(10L, "TRY", 300 * FixedPoint.ONE).withSequence(1),
+                JournalEvent.assetReserved(10L, "TRY", 200 * FixedPoint.ONE).withSequence(2),
+                JournalEvent.assetReleased(10L, "TRY", 100 * FixedPoint.ONE).withSequence(3)));
+
+        // Then
+        assertEquals(0, BigDecimal.valueOf(600).compareTo(cash.getUsableSize()));
+        assertEquals(0, BigDecimal.valueOf(1000).compareTo(cash.getSize()));
+        ArgumentCaptor<Collection<Asset>> assets = ArgumentCaptor.forClass(Collection.class);
+        verify(assetRepository, times(1)).saveAll(assets.capture());
+        assertEquals(1, assets.getValue().size());
+        verifyNoInteractions(orderRepository);
+        verify(checkpointRepository).save(argThat(checkpoint -> checkpoint.getSequence() == 3L));
+    }
+
+    @Test
+    void project_versionConflict_shouldRetryBatchOnFreshRows() {
+        // Given
+        Asset stale = createAsset(10L, "TRY", "1000", "1000");
+        Asset fresh = createAsset(10L, "TRY", "1000", "900");
+        when(assetRepository.findByCustomerIdIn(any())).thenReturn(List.of(stale), List.of(fresh));
+        when(assetRepository.saveAll(any()))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Asset.class, 1L))
+                .thenReturn(List.of(fresh));
+
+        // When
+        projector.project(List.of(JournalEvent.assetReserved(10L, "TRY", 300 * FixedPoint.ONE).withSequence(1)));
+
+        // Then
+        assertEquals(0, BigDecimal.valueOf(600).compareTo(fresh.getUsableSize()));
+        verify(assetRepository, times(2)).findByCustomerIdIn(any());
+        verify(checkpointRepository, times(1)).save(argThat(checkpoint -> checkpoint.getSequence() == 1L));
+    }
+
+    @Test
+    void project_conflictBeyondRetries_shouldNotCheckpoint() {
+        // Given
+        when(assetRepository.findByCustomerIdIn(any())).thenAnswer(invocation -> List.of(createAsset(10L, "TRY", "1000", "1000")));
+        when(assetRepository.saveAll(any())).thenThrow(new ObjectOptimisticLockingFailureException(Asset.class, 1L));
+
+        // When & Then
+        assertThrows(ObjectOptimisticLockingFailureException.class, () ->
+                projector.project(List.of(JournalEvent.assetReserved(10L, "TRY", 300 * FixedPoint.ONE).withSequence(1))));
+        verify(assetRepository, times(3)).findByCustomerIdIn(any());
+        verify(checkpointRepository, never()).save(any());
+        assertEquals(0L, projector.getProjectedSequence());
+    }
+
+    @Test
+    void project_pessimistic_shouldLockRowsWhileReading() throws InterruptedException {
+        // Given
+        projector.shutdown();
+        projector = createProjector(AssetLockStrategy.PESSIMISTIC);
+        Asset cash = createAsset(10L, "TRY", "1000", "1000");
+        when(assetRepository.findForUpdateByCustomerIdIn(any())).thenReturn(List.of(cash));
+
+        // When
+        projector.project(List.of(JournalEvent.assetReserved(10L, "TRY", 300 * FixedPoint.ONE).withSequence(1)));
+
+        // Then
+        assertEquals(0, BigDecimal.valueOf(700).compareTo(cash.getUsableSize()));
+        verify(assetRepository, never()).findByCustomerIdIn(any());
+        verify(assetRepository).saveAll(any());
+    }
+
+    @Test
+    void project_conditional_shouldApplyNetDeltaWithoutReading() throws InterruptedException {
+        // Given
+        projector.shutdown();
+        projector = createProjector(AssetLockStrategy.CONDITIONAL);
+        when(assetRepository.applyDelta(eq(10L), eq("TRY"), any(), any())).thenReturn(1);
+
+        // When
+        projector.project(List.of(
+                JournalEvent.assetReserved(10L, "TRY", 300 * FixedPoint.ONE).withSequence(1),
+                JournalEvent.assetReleased(10L, "TRY", 100 * FixedPoint.ONE).withSequence(2)));
+
+        // Then
+        verify(assetRepository).applyDelta(eq(10L), eq("TRY"), argThat(size -> size.signum() == 0),
+                argThat(usable -> usable.compareTo(BigDecimal.valueOf(-200)) == 0));
+        verify(assetRepository, never()).findByCustomerIdIn(any());
+        verify(assetRepository, never()).saveAll(any());
+        verify(checkpointRepository).save(argThat(checkpoint -> checkpoint.getSequence() == 2L));
+    }
+
+    @Test
+    void project_conditional_missingRow_shouldInsertDelta() throws InterruptedException {
+        // Given
+        projector.shutdown();
+        projector = createProjector(AssetLockStrategy.CONDITIONAL);
+        when(assetRepository.findByCustomerIdAndAssetNameIgnoreCase(10L, "AAPL")).thenReturn(Optional.empty());
+
+        // When
+        projector.project(List.of(JournalEvent.assetReleased(10L, "AAPL", 5 * FixedPoint.ONE).withSequence(1)));
+
+        // Then
+        verify(assetRepository).save(argThat(asset -> asset.getCustomerId() == 10L
+                && asset.getUsableSize().compareTo(BigDecimal.valueOf(5)) == 0));
+        verify(checkpointRepository).save(any());
+    }
+
+    @Test
+    void project_conditional_insufficientBalance_shouldRollBackBatch() throws InterruptedException {
+        // Given
+        projector.shutdown();
+        projector = createProjector(AssetLockStrategy.CONDITIONAL);
+        when(assetRepository.findByCustomerIdAndAssetNameIgnoreCase(10L, "TRY"))
+                .thenReturn(Optional.of(createAsset(10L, "TRY", "100", "100")));
+
+        // When & Then
+        assertThrows(RuntimeException.class, () ->
+                projector.project(List.of(JournalEvent.assetReserved(10L, "TRY", 300 * FixedPoint.ONE).withSequence(1))));
+        verify(assetRepository, never()).save(any());
+        verify(checkpointRepository, never()).save(any());
+        verify(transactionManager).rollback(any());
+        assertEquals(0L, projector.getProjectedSequence());
+    }
+
+    @Test
+    void enqueue_shouldProjectInBackground() {
+        // Given
+        Order order = createOrder(1L, 10L, OrderSide.BUY, BigDecimal.valueOf(150));
+
+        // When
+        projector.enqueue(JournalEvent.orderCanceled(order).withSequence(7));
+
+        // Then
+        verify(orderRepository, timeout(1000)).cancelPending(Set.of(1L));
+        verify(checkpointRepository, timeout(1000)).save(argThat(checkpoint -> checkpoint.getSequence() == 7L));
+        verify(transactionManager, timeout(1000)).commit(any());
+    }
+
+    @Test
+    void enqueue_failedBatch_shouldBeRetriedBeforeNextBatch() {
+        // Given
+        Order first = createOrder(1L, 10L, OrderSide.BUY, BigDecimal.valueOf(150));
+        Order second = createOrder(2L, 20L, OrderSide.SELL, BigDecimal.valueOf(150));
+        when(orderRepository.cancelPending(Set.of(1L)))
+                .thenThrow(new DataAccessResourceFailureException("Bağlantı hatası"))
+                .thenReturn(1);
+
+        // When
+        projector.enqueue(JournalEvent.orderCanceled(first).withSequence(1));
+        verify(checkpointRepository, timeout(1000)).save(argThat(checkpoint -> checkpoint.getSequence() == 1L));
+        projector.enqueue(JournalEvent.orderCanceled(second).withSequence(2));
+
+        // Then
+        verify(checkpointRepository, timeout(1000)).save(argThat(checkpoint -> checkpoint.getSequence() == 2L));
+        InOrder inOrder = inOrder(orderRepository, checkpointRepository);
+        inOrder.verify(orderRepository, times(2)).cancelPending(Set.of(1L));
+        inOrder.verify(checkpointRepository).save(argThat(checkpoint -> checkpoint.getSequence() == 1L));
+        inOrder.verify(orderRepository).cancelPending(Set.of(2L));
+        inOrder.verify(checkpointRepository).save(argThat(checkpoint -> checkpoint.getSequence() == 2L));
+        assertEquals(2L, projector.getProjectedSequence());
+        assertEquals(1.0, meterRegistry.get("brokerage.projection.failures").counter().count());
+        assertEquals(0.0, meterRegistry.get("brokerage.projection.stalled").gauge().value());
+    }
+
+    @Test
+    void enqueue_persistentFailure_shouldStallWithoutAdvancing() throws Exception {
+        // Given
+        EngineState state = EngineState.of(0, List.of(), List.of());
+        projector.attach(state);
+        when(orderRepository.cancelPending(any())).thenThrow(new DataAccessResourceFailureException("Bağlantı hatası"));
+
+        // When
+        projector.enqueue(JournalEvent.orderCanceled(createOrder(1L, 10L, OrderSide.BUY, BigDecimal.valueOf(150))).withSequence(1));
+        verify(orderRepository, timeout(1000).atLeast(3)).cancelPending(any());
+        projector.enqueue(JournalEvent.assetReserved(10L, "TRY", 10 * FixedPoint.ONE).withSequence(2));
+        projector.shutdown();
+
+        // Then
+        verify(checkpointRepository, never()).save(any());
+        assertEquals(0L, projector.getProjectedSequence());
+        assertEquals(0L, state.getSequence());
+        assertEquals(1.0, meterRegistry.get("brokerage.projection.stalled").gauge().value());
+    }
+
+    @Test
+    void enqueue_poisonBatch_shouldHaltAfterLimitedAttempts() throws Exception {
+        // Given
+        when(orderRepository.cancelPending(any())).thenThrow(new IllegalStateException("Emir satırı bulunamadı"));
+
+        // When
+        projector.enqueue(JournalEvent.orderCanceled(createOrder(1L, 10L, OrderSide.BUY, BigDecimal.valueOf(150))).withSequence(1));
+        verify(orderRepository, timeout(1000).times(3)).cancelPending(any());
+
+        // Then
+        long start = System.nanoTime();
+        assertFalse(projector.awaitProjected(1, 5000));
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1));
+        assertTrue(projector.isHalted());
+        assertEquals(1.0, meterRegistry.get("brokerage.projection.halted").gauge().value());
+        projector.shutdown();
+        verify(orderRepository, times(3)).cancelPending(any());
+        verify(checkpointRepository, never()).save(any());
+    }
+
+    @Test
+    void attach_shouldApplyLiveEventsToStateAndSnapshotOnShutdown() throws Exception {
+        // Given
+        EngineState state = EngineState.of(0, List.of(), List.of());
+        projector.attach(state);
+
+        // When
+        projector.enqueue(JournalEvent.assetReserved(10L, "TRY", 10 * FixedPoint.ONE).withSequence(1));
+        verify(checkpointRepository, timeout(1000)).save(any());
+        projector.shutdown();
+
+        // Then
+        assertEquals(1L, state.getSequence());
+        verify(snapshotStore).write(state);
+    }
+
+    @Test
+    void snapshot_shouldRetireSegmentsBehindCheckpointAndOldestSnapshot() throws Exception {
+        // Given
+        EngineState state = EngineState.of(0, List.of(), List.of());
+        projector.attach(state);
+        when(snapshotStore.oldestSequence()).thenReturn(1L);
+
+        // When
+        projector.enqueue(JournalEvent.assetReserved(10L, "TRY", FixedPoint.ONE).withSequence(1));
+        projector.enqueue(JournalEvent.assetReserved(10L, "TRY", FixedPoint.ONE).withSequence(2));
+        verify(checkpointRepository, timeout(1000)).save(argThat(checkpoint -> checkpoint.getSequence() == 2L));
+        projector.shutdown();
+
+        // Then
+        var order = inOrder(snapshotStore, journal);
+        order.verify(snapshotStore).write(state);
+        order.verify(journal).retire(1L);
+    }
+
+    private JournalProjector createProjector(AssetLockStrategy assetLock) {
+        return new JournalProjector(orderRepository, assetRepository, checkpointRepository, snapshotStore, journal,
+                new PortfolioReadModel(new SimpleMeterRegistry()), PortfolioListener.NONE,
+                new MarketDataPublisher(new SimpleMeterRegistry()), transactionManager, meterRegistry, 16, 4, 0, 60000, assetLock, 2, 0, 3, false);
+    }
+
+    private Order createOrder(Long id, Long customerId, OrderSide side, BigDecimal price) {
+        Order order = new Order();
+        order.setId(id);
+        order.setCustomerId(customerId);
+        order.setAssetName("AAPL");
+        order.setOrderSide(side);
+        order.setSize(BigDecimal.TEN);
+        order.setPrice(price);
+        order.setStatus(OrderStatus.PENDING);
+        return order;
+    }
+}
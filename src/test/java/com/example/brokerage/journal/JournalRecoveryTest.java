@@ -0,0 +1,185 @@
+package com.example.brokerage.journal;
+
+import com.example.brokerage.engine.FixedPoint;
+import com.example.brokerage.engine.BalanceLedger;
+import com.example.brokerage.entity.Asset;
+import com.example.brokerage.entity.Order;
+import com.example.brokerage.enums.OrderSide;
+import com.example.brokerage.enums.OrderStatus;
+import com.example.brokerage.repository.AssetRepository;
+import com.example.brokerage.repository.OrderRepository;
+import com.example.brokerage.service.MatchService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static com.example.brokerage.TestFixtures.createAsset;
+import static com.example.brokerage.TestFixtures.fill;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class JournalRecoveryTest {
+
+    @Mock
+    private EventJournal journal;
+
+    @Mock
+    private JournalProjector projector;
+
+    @Mock
+    private SnapshotStore snapshotStore;
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private AssetRepository assetRepository;
+
+    @Mock
+    private MatchService matchService;
+
+    @Mock
+    private BalanceLedger ledger;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private JournalRecovery recovery;
+
+    @BeforeEach
+    void setUp() {
+        recovery = new JournalRecovery(journal, projector, snapshotStore, orderRepository, assetRepository,
+                matchService, ledger, meterRegistry);
+    }
+
+    @Test
+    void recover_withSnapshot_shouldReplayTailAndRestoreBooks() throws IOException {
+        // Given
+        Order resting = createOrder(1L, OrderSide.SELL);
+        EngineState snapshot = EngineState.of(10, List.of(resting),
+                List.of(createAsset(2L, "AAPL", "10", "0"), createAsset(3L, "TRY", "3000", "3000")));
+        when(snapshotStore.loadLatest()).thenReturn(Optional.of(snapshot));
+        when(projector.checkpoint()).thenReturn(12L);
+
+        Order incoming = createOrder(2L, OrderSide.BUY);
+        incoming.setCustomerId(3L);
+        List<JournalEvent> tail = List.of(
+                JournalEvent.assetReserved(3L, "TRY", 1000 * FixedPoint.ONE).withSequence(11),
+                JournalEvent.orderCreated(incoming).withSequence(12));
+        givenJournal(10L, tail);
+        givenJournal(12L, List.of());
+
+        // When
+        recovery.recover();
+
+        // Then
+        ArgumentCaptor<Collection<Order>> restored = ArgumentCaptor.forClass(Collection.class);
+        verify(matchService).restore(restored.capture());
+        assertEquals(List.of(1L, 2L), restored.getValue().stream().map(Order::getId).toList());
+        assertEquals(12L, snapshot.getSequence());
+        verify(projector).attach(snapshot);
+        verify(snapshotStore).write(snapshot);
+        verify(orderRepository, never()).findByStatusOrderByCreateDateAscIdAsc(any());
+        verify(assetRepository, never()).findAll();
+        var order = inOrder(ledger, matchService);
+        order.verify(ledger).load(snapshot.getAssets());
+        order.verify(matchService).restore(any());
+        assertEquals(2.0, meterRegistry.get("brokerage.recovery.events").tag("pass", "state").gauge().value());
+        assertEquals(0.0, meterRegistry.get("brokerage.recovery.events").tag("pass", "projection").gauge().value());
+    }
+
+    @Test
+    void recover_fillOfOrderMissingFromSnapshot_shouldSettleBothSides() throws IOException {
+        // Given
+        Order sell = createOrder(1L, OrderSide.SELL);
+        EngineState snapshot = EngineState.of(10, List.of(sell),
+                List.of(createAsset(2L, "AAPL", "10", "0"), createAsset(3L, "TRY", "3000", "2000")));
+        when(snapshotStore.loadLatest()).thenReturn(Optional.of(snapshot));
+        when(projector.checkpoint()).thenReturn(11L);
+
+        Order buy = createOrder(2L, OrderSide.BUY);
+        buy.setCustomerId(3L);
+        buy.setFilledSize(BigDecimal.TEN);
+        sell.setFilledSize(BigDecimal.TEN);
+        givenJournal(10L, List.of(JournalEvent.orderFilled(fill(buy, sell, BigDecimal.TEN, BigDecimal.valueOf(90))).withSequence(11)));
+        givenJournal(11L, List.of());
+
+        // When
+        recovery.recover();
+
+        // Then
+        assertEquals(List.of(), List.copyOf(snapshot.getOpenOrders()));
+        Asset buyerCash = asset(snapshot, 3L, "TRY");
+        assertEquals(0, BigDecimal.valueOf(2100).compareTo(buyerCash.getSize()));
+        assertEquals(0, BigDecimal.valueOf(2100).compareTo(buyerCash.getUsableSize()));
+        assertEquals(0, BigDecimal.TEN.compareTo(asset(snapshot, 3L, "AAPL").getSize()));
+        assertEquals(0, BigDecimal.ZERO.compareTo(asset(snapshot, 2L, "AAPL").getSize()));
+        assertEquals(0, BigDecimal.valueOf(900).compareTo(asset(snapshot, 2L, "TRY").getSize()));
+    }
+
+    @Test
+    void recover_shouldProjectEventsAfterCheckpointBeforeBuildingState() throws IOException {
+        // Given
+        Order buy = createOrder(1L, OrderSide.BUY);
+        Order sell = createOrder(2L, OrderSide.SELL);
+        buy.setFilledSize(BigDecimal.TEN);
+        sell.setFilledSize(BigDecimal.TEN);
+        JournalEvent fill = JournalEvent.orderFilled(fill(buy, sell, BigDecimal.TEN, BigDecimal.valueOf(100)))
+                .withSequence(5);
+        when(projector.checkpoint()).thenReturn(4L);
+        givenJournal(4L, List.of(fill));
+        when(journal.lastSequence()).thenReturn(5L);
+        when(snapshotStore.loadLatest()).thenReturn(Optional.empty());
+        when(orderRepository.findByStatusOrderByCreateDateAscIdAsc(OrderStatus.PENDING)).thenReturn(List.of());
+
+        // When
+        recovery.recover();
+
+        // Then
+        var order = inOrder(projector, orderRepository);
+        order.verify(projector).catchUp(List.of(fill));
+        order.verify(orderRepository).findByStatusOrderByCreateDateAscIdAsc(OrderStatus.PENDING);
+        verify(snapshotStore).write(argThat(state -> state.getSequence() == 5L));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void givenJournal(long afterSequence, List<JournalEvent> events) {
+        doAnswer(invocation -> {
+            events.forEach(invocation.<Consumer<JournalEvent>>getArgument(1));
+            return null;
+        }).when(journal).replay(eq(afterSequence), any());
+    }
+
+    private Order createOrder(Long id, OrderSide side) {
+        Order order = new Order();
+        order.setId(id);
+        order.setCustomerId(2L);
+        order.setAssetName("AAPL");
+        order.setOrderSide(side);
+        order.setSize(BigDecimal.TEN);
+        order.setPrice(BigDecimal.valueOf(100));
+        order.setStatus(OrderStatus.PENDING);
+        order.setCreateDate(LocalDateTime.now());
+        return order;
+    }
+
+    private Asset asset(EngineState state, Long customerId, String assetName) {
+        return state.getAssets().stream()
+                .filter(asset -> asset.getCustomerId().equals(customerId) && asset.getAssetName().equals(assetName))
+                .findFirst()
+                .orElseThrow();
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.brokerage.journal;
+
+import com.example.brokerage.entity.Asset;
+import com.example.brokerage.entity.Order;
+import com.example.brokerage.enums.OrderSide;
+import com.example.brokerage.enums.OrderStatus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static com.example.brokerage.TestFixtures.createAsset;
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnapshotStoreTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void write_shouldRoundTripOrdersAndAssets() throws IOException {
+        // Given
+        SnapshotStore store = new SnapshotStore(directory.toString(), 2, false);
+        Asset row = createAsset(1L, "TRY", "1000.50", "700");
+        row.setId(7L);
+        EngineState state = EngineState.of(42, List.of(createOrder(1L, "150.25"), createOrder(2L, "151")),
+                List.of(row, createAsset(1L, "AAPL", "5", "5")));
+
+        // When
+        store.write(state);
+        EngineState loaded = store.loadLatest().orElseThrow();
+
+        // Then
+        assertEquals(42L, loaded.getSequence());
+        List<Order> orders = List.copyOf(loaded.getOpenOrders());
+        assertEquals(List.of(1L, 2L), orders.stream().map(Order::getId).toList());
+        assertEquals(new BigDecimal("150.25"), orders.get(0).getPrice());
+        assertEquals(new BigDecimal("4"), orders.get(0).getFilledSize());
+        assertEquals(LocalDateTime.of(2024, 1, 2, 10, 30), orders.get(0).getCreateDate());
+        Asset cash = asset(loaded, "TRY");
+        assertEquals(7L, cash.getId());
+        assertEquals(new BigDecimal("1000.50"), cash.getSize());
+        assertEquals(new BigDecimal("700"), cash.getUsableSize());
+        assertNull(asset(loaded, "AAPL").getId());
+    }
+
+    @Test
+    void loadLatest_shouldFallBackWhenNewestIsCorrupted() throws IOException {
+        // Given
+        SnapshotStore store = new SnapshotStore(directory.toString(), 2, false);
+        store.write(EngineState.of(1, List.of(createOrder(1L, "100")), List.of()));
+        store.write(EngineState.of(2, List.of(createOrder(2L, "100")), List.of()));
+
+        try (RandomAccessFile file = new RandomAccessFile(snapshots().get(1).toFile(), "rw")) {
+            file.seek(30);
+            file.write(file.read() ^ 0xFF);
+        }
+
+        // When
+        EngineState loaded = store.loadLatest().orElseThrow();
+
+        // Then
+        assertEquals(1L, loaded.getSequence());
+    }
+
+    @Test
+    void write_shouldKeepOnlyRetainedSnapshots() throws IOException {
+        // Given
+        SnapshotStore store = new SnapshotStore(directory.toString(), 2, false);
+
+        // When
+        for (int i = 1; i <= 4; i++)
+            store.write(EngineState.of(i, List.of(), List.of()));
+
+        // Then
+        assertEquals(2, snapshots().size());
+        assertEquals(4L, store.loadLatest().orElseThrow().getSequence());
+        assertEquals(3L, store.oldestSequence());
+    }
+
+    @Test
+    void loadLatest_withoutSnapshot_shouldReturnEmpty() throws IOException {
+        SnapshotStore store = new SnapshotStore(directory.toString(), 2, false);
+        assertTrue(store.loadLatest().isEmpty());
+        assertEquals(0L, store.oldestSequence());
+    }
+
+    private List<Path> snapshots() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().toList();
+        }
+    }
+
+    private Order createOrder(Long id, String price) {
+        Order order = new Order();
+        order.setId(id);
+        order.setCustomerId(1L);
+        order.setAssetName("AAPL");
+        order.setOrderSide(OrderSide.BUY);
+        order.setSize(BigDecimal.TEN);
+        order.setFilledSize(new BigDecimal("4"));
+        order.setPrice(new BigDecimal(price));
+        order.setStatus(OrderStatus.PENDING);
+        order.setCreateDate(LocalDateTime.of(2024, 1, 2, 10, 30));
+        return order;
+    }
+
+    private Asset asset(EngineState state, String assetName) {
+        return state.getAssets().stream().filter(asset -> asset.getAssetName().equals(assetName)).findFirst().orElseThrow();
+    }
+}
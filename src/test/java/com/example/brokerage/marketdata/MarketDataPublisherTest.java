@@ -0,0 +1,144 @@
+package com.example.brokerage.marketdata;
+
+import com.example.brokerage.dto.response.DepthSnapshot;
+import com.example.brokerage.dto.response.PriceLevelView;
+import com.example.brokerage.dto.response.TopOfBook;
+import com.example.brokerage.entity.Order;
+import com.example.brokerage.enums.OrderSide;
+import com.example.brokerage.enums.OrderStatus;
+import com.example.brokerage.journal.EngineState;
+import com.example.brokerage.journal.EventJournal;
+import com.example.brokerage.journal.JournalEvent;
+import com.example.brokerage.journal.JournalProjector;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static com.example.brokerage.TestFixtures.fill;
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class MarketDataPublisherTest {
+
+    @TempDir
+    Path directory;
+
+    @Mock
+    private JournalProjector projector;
+
+    private EventJournal journal;
+    private MarketDataPublisher publisher;
+    private final List<Set<String>> changes = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        journal = new EventJournal(directory.toString(), 1 << 16, false, true, projector);
+        publisher = new MarketDataPublisher(new SimpleMeterRegistry());
+        publisher.onChange(changes::add);
+        Order restingBuy = order(1L, OrderSide.BUY, "10", "99");
+        restingBuy.setFilledSize(new BigDecimal("4"));
+        publisher.load(EngineState.of(0, List.of(
+                restingBuy,
+                order(2L, OrderSide.BUY, "5", "99"),
+                order(3L, OrderSide.BUY, "7", "98"),
+                order(4L, OrderSide.SELL, "3", "101")), List.of()));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        journal.close();
+    }
+
+    @Test
+    void load_shouldAggregateOpenOrdersByPriceLevel() {
+        // When
+        DepthSnapshot depth = publisher.depth("aapl", 10).orElseThrow();
+
+        // Then
+        assertEquals(2, depth.bids().size());
+        assertLevel(depth.bids().get(0), "99", "11", 2);
+        assertLevel(depth.bids().get(1), "98", "7", 1);
+        assertLevel(depth.asks().get(0), "101", "3", 1);
+    }
+
+    @Test
+    void apply_created_shouldImproveTopOfBookAndNotifyChangedAsset() {
+        // When
+        publisher.apply(List.of(journal.append(JournalEvent.orderCreated(order(5L, OrderSide.SELL, "2", "100")))));
+
+        // Then
+        TopOfBook top = publisher.top("AAPL").orElseThrow();
+        assertLevel(top.bid(), "99", "11", 2);
+        assertLevel(top.ask(), "100", "2", 1);
+        assertEquals(List.of(Set.of("AAPL")), changes);
+    }
+
+    @Test
+    void apply_fill_shouldReduceEachOrderAtItsOwnPriceAndRemoveClosedLevels() {
+        // Given
+        Order buy = order(5L, OrderSide.BUY, "5", "102");
+        Order sell = order(4L, OrderSide.SELL, "3", "101");
+        publisher.apply(List.of(journal.append(JournalEvent.orderCreated(buy))));
+        buy.setFilledSize(new BigDecimal("3"));
+        sell.setFilledSize(new BigDecimal("3"));
+
+        // When
+        publisher.apply(List.of(journal.append(JournalEvent.orderFilled(fill(buy, sell, new BigDecimal("3"), new BigDecimal("101"))))));
+
+        // Then
+        DepthSnapshot depth = publisher.depth("AAPL", 10).orElseThrow();
+        assertLevel(depth.bids().get(0), "102", "2", 1);
+        assertTrue(depth.asks().isEmpty());
+    }
+
+    @Test
+    void apply_cancel_shouldRemoveRemainingQuantity() {
+        // Given
+        Order partiallyFilled = order(1L, OrderSide.BUY, "10", "99");
+        partiallyFilled.setFilledSize(new BigDecimal("4"));
+
+        // When
+        publisher.apply(List.of(journal.append(JournalEvent.orderCanceled(partiallyFilled))));
+
+        // Then
+        assertLevel(publisher.top("AAPL").orElseThrow().bid(), "99", "5", 1);
+    }
+
+    @Test
+    void depth_shouldLimitLevelsAndReturnEmptyForUnknownAsset() {
+        assertEquals(1, publisher.depth("AAPL", 1).orElseThrow().bids().size());
+        assertTrue(publisher.depth("THYAO", 10).isEmpty());
+    }
+
+    private void assertLevel(PriceLevelView level, String price, String quantity, int orders) {
+        assertEquals(0, new BigDecimal(price).compareTo(level.price()));
+        assertEquals(0, new BigDecimal(quantity).compareTo(level.quantity()));
+        assertEquals(orders, level.orders());
+    }
+
+    private Order order(Long id, OrderSide side, String size, String price) {
+        Order order = new Order();
+        order.setId(id);
+        order.setCustomerId(1L);
+        order.setAssetName("AAPL");
+        order.setOrderSide(side);
+        order.setSize(new BigDecimal(size));
+        order.setPrice(new BigDecimal(price));
+        order.setStatus(OrderStatus.PENDING);
+        order.setCreateDate(LocalDateTime.now());
+        return order;
+    }
+}
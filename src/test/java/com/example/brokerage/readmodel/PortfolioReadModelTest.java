@@ -0,0 +1,221 @@
+package com.example.brokerage.readmodel;
+
+import com.example.brokerage.dto.response.OpenOrderView;
+import com.example.brokerage.dto.response.OrderUpdate;
+import com.example.brokerage.dto.response.PortfolioView;
+import com.example.brokerage.engine.FixedPoint;
+import com.example.brokerage.entity.Order;
+import com.example.brokerage.enums.OrderSide;
+import com.example.brokerage.enums.OrderStatus;
+import com.example.brokerage.journal.EngineState;
+import com.example.brokerage.journal.EventJournal;
+import com.example.brokerage.journal.JournalEvent;
+import com.example.brokerage.journal.JournalProjector;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static com.example.brokerage.TestFixtures.createAsset;
+import static com.example.brokerage.TestFixtures.fill;
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class PortfolioReadModelTest {
+
+    @TempDir
+    Path directory;
+
+    @Mock
+    private JournalProjector projector;
+
+    private EventJournal journal;
+    private PortfolioReadModel readModel;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        journal = new EventJournal(directory.toString(), 1 << 16, false, true, projector);
+        readModel = new PortfolioReadModel(new SimpleMeterRegistry());
+        readModel.load(EngineState.of(0, List.of(), List.of(
+                createAsset(1L, "TRY", "10000", "10000"),
+                createAsset(2L, "TRY", "500", "500"),
+                createAsset(2L, "AAPL", "20", "20"))));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        journal.close();
+    }
+
+    @Test
+    void apply_reserveAndCreate_shouldShowReservedCashAndOpenOrder() {
+        // Given
+        Order buy = order(10L, 1L, OrderSide.BUY, "10", "150");
+
+        // When
+        readModel.apply(List.of(
+                journal.append(JournalEvent.assetReserved(1L, "TRY", 1500 * FixedPoint.ONE)),
+                journal.append(JournalEvent.orderCreated(buy))));
+
+        // Then
+        PortfolioView portfolio = readModel.view(1L);
+        assertEquals(0, new BigDecimal("8500").compareTo(portfolio.getCash().getUsableSize()));
+        assertEquals(0, new BigDecimal("1500").compareTo(portfolio.getCash().getReserved()));
+        assertEquals(1, portfolio.getOpenOrderCount());
+        assertEquals(10L, readModel.openOrders(1L).get(0).getId());
+    }
+
+    @Test
+    void apply_fill_shouldSettleBothCustomersAndCloseFilledOrders() {
+        // Given
+        Order buy = order(10L, 1L, OrderSide.BUY, "10", "150");
+        Order sell = order(11L, 2L, OrderSide.SELL, "10", "140");
+        readModel.apply(List.of(
+                journal.append(JournalEvent.assetReserved(1L, "TRY", 1500 * FixedPoint.ONE)),
+                journal.append(JournalEvent.orderCreated(buy)),
+                journal.append(JournalEvent.assetReserved(2L, "AAPL", 10 * FixedPoint.ONE)),
+                journal.append(JournalEvent.orderCreated(sell))));
+        buy.setFilledSize(BigDecimal.TEN);
+        sell.setFilledSize(BigDecimal.TEN);
+
+        // When
+        readModel.apply(List.of(journal.append(JournalEvent.orderFilled(fill(buy, sell, BigDecimal.TEN, new BigDecimal("140"))))));
+
+        // Then
+        PortfolioView buyer = readModel.view(1L);
+        assertEquals(0, new BigDecimal("8600").compareTo(buyer.getCash().getSize()));
+        assertEquals(0, new BigDecimal("8600").compareTo(buyer.getCash().getUsableSize()));
+        assertEquals("AAPL", buyer.getPositions().get(0).getAssetName());
+        assertEquals(0, BigDecimal.TEN.compareTo(buyer.getPositions().get(0).getUsableSize()));
+        assertEquals(0, buyer.getOpenOrderCount());
+
+        PortfolioView seller = readModel.view(2L);
+        assertEquals(0, new BigDecimal("1900").compareTo(seller.getCash().getUsableSize()));
+        assertEquals(0, BigDecimal.TEN.compareTo(seller.getPositions().get(0).getSize()));
+        assertEquals(0, BigDecimal.ZERO.compareTo(seller.getPositions().get(0).getReserved()));
+        assertTrue(readModel.openOrders(2L).isEmpty());
+    }
+
+    @Test
+    void apply_fillOfUnknownBuyOrder_shouldStillSettleBuyerFromEvent() {
+        // Given
+        Order buy = order(10L, 1L, OrderSide.BUY, "10", "150");
+        Order sell = order(11L, 2L, OrderSide.SELL, "10", "140");
+        readModel.apply(List.of(
+                journal.append(JournalEvent.assetReserved(1L, "TRY", 1500 * FixedPoint.ONE)),
+                journal.append(JournalEvent.orderCreated(sell))));
+        buy.setFilledSize(BigDecimal.TEN);
+        sell.setFilledSize(BigDecimal.TEN);
+
+        // When
+        readModel.apply(List.of(journal.append(JournalEvent.orderFilled(fill(buy, sell, BigDecimal.TEN, new BigDecimal("140"))))));
+
+        // Then
+        PortfolioView buyer = readModel.view(1L);
+        assertEquals(0, new BigDecimal("8600").compareTo(buyer.getCash().getSize()));
+        assertEquals(0, new BigDecimal("8600").compareTo(buyer.getCash().getUsableSize()));
+        assertEquals(0, BigDecimal.TEN.compareTo(buyer.getPositions().get(0).getSize()));
+        assertEquals(0, new BigDecimal("1900").compareTo(readModel.view(2L).getCash().getSize()));
+    }
+
+    @Test
+    void apply_fill_shouldNotifyOrderStatusPerSideAndChangedPortfolios() {
+        // Given
+        Order buy = order(10L, 1L, OrderSide.BUY, "10", "150");
+        Order sell = order(11L, 2L, OrderSide.SELL, "4", "140");
+        readModel.apply(List.of(
+                journal.append(JournalEvent.orderCreated(buy)),
+                journal.append(JournalEvent.orderCreated(sell))));
+        buy.setFilledSize(new BigDecimal("4"));
+        sell.setFilledSize(new BigDecimal("4"));
+        List<OrderUpdate> updates = new ArrayList<>();
+        Set<Long> changed = new HashSet<>();
+        PortfolioListener listener = new PortfolioListener() {
+            @Override
+            public void orderUpdated(Long customerId, OrderUpdate update) {
+                updates.add(update);
+            }
+
+            @Override
+            public void portfolioChanged(Long customerId) {
+                changed.add(customerId);
+            }
+        };
+
+        // When
+        readModel.apply(List.of(journal.append(JournalEvent.orderFilled(fill(buy, sell, new BigDecimal("4"), new BigDecimal("140"))))), listener);
+
+        // Then
+        assertEquals(2, updates.size());
+        assertEquals(10L, updates.get(0).orderId());
+        assertEquals(OrderStatus.PENDING, updates.get(0).status());
+        assertEquals(11L, updates.get(1).orderId());
+        assertEquals(OrderSide.SELL, updates.get(1).orderSide());
+        assertEquals(OrderStatus.MATCHED, updates.get(1).status());
+        assertEquals(Set.of(1L, 2L), changed);
+    }
+
+    @Test
+    void apply_alreadyAppliedEvent_shouldBeSkipped() {
+        // Given
+        JournalEvent reserve = journal.append(JournalEvent.assetReserved(1L, "TRY", 100 * FixedPoint.ONE));
+        readModel.apply(List.of(reserve));
+
+        // When
+        readModel.apply(List.of(reserve));
+
+        // Then
+        assertEquals(0, new BigDecimal("9900").compareTo(readModel.view(1L).getCash().getUsableSize()));
+        assertEquals(reserve.getSequence(), readModel.getSequence());
+    }
+
+    @Test
+    void apply_cancel_shouldRemoveOpenOrder() {
+        // Given
+        Order buy = order(10L, 1L, OrderSide.BUY, "10", "150");
+        readModel.apply(List.of(journal.append(JournalEvent.orderCreated(buy))));
+
+        // When
+        readModel.apply(List.of(journal.append(JournalEvent.orderCanceled(buy))));
+
+        // Then
+        List<OpenOrderView> openOrders = readModel.openOrders(1L);
+        assertTrue(openOrders.isEmpty());
+        assertEquals(0, readModel.view(1L).getOpenOrderCount());
+    }
+
+    @Test
+    void view_unknownCustomer_shouldReturnEmptyPortfolio() {
+        PortfolioView portfolio = readModel.view(99L);
+
+        assertEquals(99L, portfolio.getCustomerId());
+        assertEquals(0, BigDecimal.ZERO.compareTo(portfolio.getCash().getSize()));
+        assertTrue(portfolio.getPositions().isEmpty());
+    }
+
+    private Order order(Long id, Long customerId, OrderSide side, String size, String price) {
+        Order order = new Order();
+        order.setId(id);
+        order.setCustomerId(customerId);
+        order.setAssetName("AAPL");
+        order.setOrderSide(side);
+        order.setSize(new BigDecimal(size));
+        order.setPrice(new BigDecimal(price));
+        order.setStatus(OrderStatus.PENDING);
+        order.setCreateDate(LocalDateTime.now());
+        return order;
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.brokerage.repository;
+
+import com.example.brokerage.entity.Order;
+import com.example.brokerage.enums.OrderSide;
+import com.example.brokerage.enums.OrderStatus;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class OrderIdGeneratorTest {
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void insertAll_shouldKeepIdsTakenFromGenerator() {
+        // Given
+        OrderIdGenerator generator = new OrderIdGenerator(entityManagerFactory);
+        long[] ids = generator.next(2);
+        Order first = createOrder(ids[0]);
+        Order second = createOrder(ids[1]);
+
+        // When
+        orderRepository.insertAll(List.of(first, second));
+        orderRepository.flush();
+        Order generated = orderRepository.saveAndFlush(createOrder(null));
+
+        // Then
+        assertEquals(ids[0] + 1, ids[1]);
+        assertTrue(orderRepository.findById(ids[0]).isPresent());
+        assertTrue(orderRepository.findById(ids[1]).isPresent());
+        //Aynı pooled-lo havuzu paylaşıldığı için kayıtta üretilen numara çakışmaz
+        assertNotEquals(ids[0], generated.getId());
+        assertNotEquals(ids[1], generated.getId());
+    }
+
+    private Order createOrder(Long id) {
+        Order order = new Order();
+        order.setId(id);
+        order.setCustomerId(1L);
+        order.setAssetName("AAPL");
+        order.setOrderSide(OrderSide.BUY);
+        order.setSize(BigDecimal.ONE);
+        order.setPrice(BigDecimal.TEN);
+        order.setStatus(OrderStatus.PENDING);
+        order.setCreateDate(LocalDateTime.now());
+        return order;
+    }
+}
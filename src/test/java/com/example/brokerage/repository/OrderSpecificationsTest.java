@@ -0,0 +1,101 @@
+package com.example.brokerage.repository;
+
+import com.example.brokerage.dto.request.OrderCursor;
+import com.example.brokerage.dto.request.OrderFilter;
+import com.example.brokerage.entity.Order;
+import com.example.brokerage.enums.OrderSide;
+import com.example.brokerage.enums.OrderStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+class OrderSpecificationsTest {
+
+    private static final long CUSTOMER_ID = 900L;
+    private static final LocalDateTime START = LocalDateTime.of(2025, 1, 2, 10, 0);
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    private final List<Order> saved = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        //Aynı tarihli emirler sayfa sınırına denk gelsin diye tarihler üçerli tekrarlanır
+        for (int i = 0; i < 10; i++) {
+            Order order = new Order();
+            order.setCustomerId(CUSTOMER_ID);
+            order.setAssetName(i % 2 == 0 ? "AAPL" : "NYMN");
+            order.setOrderSide(OrderSide.BUY);
+            order.setSize(BigDecimal.ONE);
+            order.setPrice(BigDecimal.TEN);
+            order.setStatus(i < 8 ? OrderStatus.PENDING : OrderStatus.CANCELED);
+            order.setCreateDate(START.plusMinutes(i / 3));
+            saved.add(orderRepository.save(order));
+        }
+        orderRepository.flush();
+    }
+
+    @Test
+    void after_ShouldWalkAllOrdersInKeysetOrderWithoutGapsOrDuplicates() {
+        OrderFilter filter = new OrderFilter();
+        filter.setCustomerId(CUSTOMER_ID);
+
+        List<Long> walked = new ArrayList<>();
+        OrderCursor cursor = null;
+        while (true) {
+            Specification<Order> spec = OrderSpecifications.matching(filter);
+            if (cursor != null)
+                spec = spec.and(OrderSpecifications.after(cursor));
+            List<Order> page = orderRepository.findBy(spec, query -> query.sortBy(OrderSpecifications.KEYSET_ORDER)
+                    .limit(4)
+                    .all());
+            if (page.isEmpty())
+                break;
+            page.forEach(order -> walked.add(order.getId()));
+            Order last = page.get(page.size() - 1);
+            cursor = OrderCursor.decode(new OrderCursor(last.getCreateDate(), last.getId()).encode());
+        }
+
+        assertEquals(saved.stream().map(Order::getId).toList(), walked);
+    }
+
+    @Test
+    void matching_ShouldApplyStatusAndAssetFilters() {
+        OrderFilter filter = new OrderFilter();
+        filter.setCustomerId(CUSTOMER_ID);
+        filter.setStatus(OrderStatus.PENDING);
+        filter.setAssetName("aapl");
+
+        List<Order> orders = orderRepository.findAll(OrderSpecifications.matching(filter), OrderSpecifications.KEYSET_ORDER);
+
+        assertEquals(4, orders.size());
+        assertTrue(orders.stream().allMatch(order -> "AAPL".equals(order.getAssetName()) && order.getStatus() == OrderStatus.PENDING));
+    }
+
+    @Test
+    void matching_ShouldMatchAssetNameStoredInAnyCase() {
+        Order lowerCase = saved.get(0);
+        lowerCase.setAssetName("aapl");
+        orderRepository.saveAndFlush(lowerCase);
+        OrderFilter filter = new OrderFilter();
+        filter.setCustomerId(CUSTOMER_ID);
+        filter.setAssetName("AAPL");
+
+        List<Order> orders = orderRepository.findAll(OrderSpecifications.matching(filter), OrderSpecifications.KEYSET_ORDER);
+
+        assertEquals(5, orders.size());
+        assertTrue(orders.stream().anyMatch(order -> order.getId().equals(lowerCase.getId())));
+    }
+}
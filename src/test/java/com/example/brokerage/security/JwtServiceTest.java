@@ -0,0 +1,108 @@
+package com.example.brokerage.security;
+
+import com.example.brokerage.enums.Role;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtServiceTest {
+
+    private static final String SECRET = "a2tra2tra2tra2tra2tra2tra2tra2tra2tra2tra2s=";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private JwtService jwtService;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = new JwtService(SECRET, meterRegistry, 100);
+        ReflectionTestUtils.setField(jwtService, "jwtExpiration", 60000L);
+    }
+
+    @Test
+    void authenticate_shouldRestoreCustomerFromToken() {
+        // Given
+        String token = jwtService.generateToken(new CustomerPrincipal(2L, "enes", Set.of(Role.USER, Role.ADMIN)));
+
+        // When
+        CustomerPrincipal customer = jwtService.authenticate(token).orElseThrow();
+
+        // Then
+        assertEquals(2L, customer.customerId());
+        assertEquals("enes", customer.getName());
+        assertEquals(Set.of(Role.USER, Role.ADMIN), customer.roles());
+    }
+
+    @Test
+    void authenticate_sameTokenTwice_shouldVerifyOnceAndHitCache() {
+        // Given
+        String token = jwtService.generateToken(new CustomerPrincipal(2L, "enes", Set.of(Role.USER)));
+
+        // When
+        CustomerPrincipal first = jwtService.authenticate(token).orElseThrow();
+        CustomerPrincipal second = jwtService.authenticate(token).orElseThrow();
+
+        // Then
+        assertSame(first, second);
+        assertEquals(1.0, cacheGets("hit"));
+        assertEquals(1.0, cacheGets("miss"));
+        assertEquals(1, meterRegistry.get("brokerage.auth.jwt.verify").tag("result", "valid").timer().count());
+        assertEquals(1, meterRegistry.get("brokerage.auth.jwt.verify").tag("result", "cached").timer().count());
+    }
+
+    @Test
+    void authenticate_withExpiredToken_shouldBeEmptyAndNotCached() {
+        // Given
+        String expired = Jwts.builder()
+                .subject("enes")
+                .claim("cid", 2L)
+                .claim("roles", List.of("USER"))
+                .expiration(new Date(System.currentTimeMillis() - 1000))
+                .signWith(Keys.hmacShaKeyFor(Base64.getDecoder().decode(SECRET)), Jwts.SIG.HS256)
+                .compact();
+
+        // When & Then
+        assertTrue(jwtService.authenticate(expired).isEmpty());
+        assertTrue(jwtService.authenticate(expired).isEmpty());
+        assertEquals(0.0, cacheGets("hit"));
+    }
+
+    @Test
+    void authenticate_withTamperedToken_shouldBeEmpty() {
+        // Given
+        String token = jwtService.generateToken(new CustomerPrincipal(2L, "enes", Set.of(Role.USER)));
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        // When & Then
+        assertTrue(jwtService.authenticate(tampered).isEmpty());
+        assertTrue(jwtService.authenticate("not-a-token").isEmpty());
+    }
+
+    @Test
+    void authenticate_withTokenWithoutCustomerId_shouldBeEmpty() {
+        // Given
+        String legacy = Jwts.builder()
+                .subject("enes")
+                .claim("roles", List.of("USER"))
+                .expiration(new Date(System.currentTimeMillis() + 60000))
+                .signWith(Keys.hmacShaKeyFor(Base64.getDecoder().decode(SECRET)), Jwts.SIG.HS256)
+                .compact();
+
+        // When & Then
+        assertTrue(jwtService.authenticate(legacy).isEmpty());
+    }
+
+    private double cacheGets(String result) {
+        return meterRegistry.get("cache.gets").tag("cache", "jwt-tokens").tag("result", result).functionCounter().count();
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.brokerage.service;
+
+import com.example.brokerage.dto.request.AuthRequest;
+import com.example.brokerage.entity.Customer;
+import com.example.brokerage.enums.Role;
+import com.example.brokerage.repository.CustomerRepository;
+import com.example.brokerage.security.JwtService;
+import com.example.brokerage.security.SecurityConfig;
+import com.example.brokerage.service.Impl.AuthServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AuthServiceTest {
+
+    @Mock
+    private CustomerRepository customerRepository;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final PasswordEncoder passwordEncoder = new SecurityConfig(null).passwordEncoder(5);
+
+    private JwtService jwtService;
+    private AuthServiceImpl authService;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = new JwtService("a2tra2tra2tra2tra2tra2tra2tra2tra2tra2tra2s=", meterRegistry, 100);
+        ReflectionTestUtils.setField(jwtService, "jwtExpiration", 60000L);
+        authService = new AuthServiceImpl(customerRepository, passwordEncoder, jwtService, meterRegistry, 1, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        authService.shutdown();
+    }
+
+    @Test
+    void login_withLegacyHash_shouldIssueTokenAndRehash() {
+        // Given
+        Customer customer = createCustomer(new BCryptPasswordEncoder(4).encode("user123"));
+        when(customerRepository.findByUsername("enes")).thenReturn(Optional.of(customer));
+
+        // When
+        String token = authService.login(createRequest("enes", "user123")).join();
+
+        // Then
+        assertEquals(2L, jwtService.authenticate(token).orElseThrow().customerId());
+        assertTrue(customer.getPassword().startsWith("{bcrypt}$2a$05$"));
+        assertTrue(passwordEncoder.matches("user123", customer.getPassword()));
+        verify(customerRepository).save(customer);
+        assertEquals(1.0, meterRegistry.get("brokerage.auth.rehash").counter().count());
+    }
+
+    @Test
+    void login_withCurrentHash_shouldNotRehash() {
+        // Given
+        when(customerRepository.findByUsername("enes")).thenReturn(Optional.of(createCustomer(passwordEncoder.encode("user123"))));
+
+        // When
+        authService.login(createRequest("enes", "user123")).join();
+
+        // Then
+        verify(customerRepository, never()).save(any());
+        assertEquals(1, meterRegistry.get("brokerage.auth.login.duration").tag("result", "success").timer().count());
+    }
+
+    @Test
+    void login_withWrongPassword_shouldFail() {
+        // Given
+        when(customerRepository.findByUsername("enes")).thenReturn(Optional.of(createCustomer(passwordEncoder.encode("user123"))));
+
+        // When & Then
+        CompletionException e = assertThrows(CompletionException.class, () -> authService.login(createRequest("enes", "wrong")).join());
+        assertEquals("Şifre yanlış", e.getCause().getMessage());
+        assertEquals(1, meterRegistry.get("brokerage.auth.login.duration").tag("result", "failure").timer().count());
+    }
+
+    @Test
+    void login_whenQueueIsFull_shouldRejectImmediately() throws Exception {
+        // Given
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(customerRepository.findByUsername("enes")).thenAnswer(invocation -> {
+            started.countDown();
+            release.await();
+            return Optional.empty();
+        });
+        CompletableFuture<String> running = authService.login(createRequest("enes", "user123"));
+        started.await();
+        CompletableFuture<String> queued = authService.login(createRequest("enes", "user123"));
+
+        // When
+        CompletableFuture<String> rejected = authService.login(createRequest("enes", "user123"));
+
+        // Then
+        CompletionException e = assertThrows(CompletionException.class, rejected::join);
+        assertInstanceOf(RejectedExecutionException.class, e.getCause());
+        assertEquals("Giriş kuyruğu dolu, lütfen tekrar deneyin", e.getCause().getMessage());
+        assertEquals(1.0, meterRegistry.get("brokerage.auth.login.queue").gauge().value());
+        assertEquals(1.0, meterRegistry.get("brokerage.auth.login.rejected").counter().count());
+        release.countDown();
+        assertThrows(CompletionException.class, running::join);
+        assertThrows(CompletionException.class, queued::join);
+    }
+
+    private Customer createCustomer(String passwordHash) {
+        Customer customer = new Customer();
+        customer.setId(2L);
+        customer.setUsername("enes");
+        customer.setPassword(passwordHash);
+        customer.setRoles(Set.of(Role.USER));
+        return customer;
+    }
+
+    private AuthRequest createRequest(String username, String password) {
+        AuthRequest request = new AuthRequest();
+        ReflectionTestUtils.setField(request, "username", username);
+        ReflectionTestUtils.setField(request, "password", password);
+        return request;
+    }
+}
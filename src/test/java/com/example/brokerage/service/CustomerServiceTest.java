@@ -0,0 +1,101 @@
+package com.example.brokerage.service;
+
+import com.example.brokerage.entity.Customer;
+import com.example.brokerage.enums.Role;
+import com.example.brokerage.repository.CustomerRepository;
+import com.example.brokerage.security.CustomerPrincipal;
+import com.example.brokerage.service.Impl.CustomerServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CustomerServiceTest {
+
+    @Mock
+    private CustomerRepository customerRepository;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private CustomerService customerService;
+
+    @BeforeEach
+    void setUp() {
+        customerService = new CustomerServiceImpl(customerRepository, meterRegistry, 100, 60000);
+    }
+
+    @Test
+    void getByUsername_shouldQueryOnceAndServeFromCache() {
+        // Given
+        when(customerRepository.findByUsername("enes")).thenReturn(Optional.of(createCustomer(2L, "enes", Role.USER)));
+
+        // When
+        CustomerPrincipal first = customerService.getByUsername("enes");
+        CustomerPrincipal second = customerService.getByUsername("enes");
+
+        // Then
+        assertEquals(2L, first.customerId());
+        assertFalse(first.isAdmin());
+        assertSame(first, second);
+        verify(customerRepository, times(1)).findByUsername("enes");
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "customers").tag("result", "hit").functionCounter().count());
+    }
+
+    @Test
+    void getByUsername_unknownUser_shouldThrowAndNotCache() {
+        // Given
+        when(customerRepository.findByUsername("ghost")).thenReturn(Optional.empty());
+
+        // When & Then
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> customerService.getByUsername("ghost"));
+        assertEquals("Kullanıcı bulunamadı", e.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> customerService.getByUsername("ghost"));
+        verify(customerRepository, times(2)).findByUsername("ghost");
+    }
+
+    @Test
+    void evict_shouldReloadChangedCustomer() {
+        // Given
+        when(customerRepository.findByUsername("enes")).thenReturn(
+                Optional.of(createCustomer(2L, "enes", Role.USER)),
+                Optional.of(createCustomer(2L, "enes", Role.ADMIN)));
+        customerService.getByUsername("enes");
+
+        // When
+        customerService.evict(2L);
+
+        // Then
+        assertTrue(customerService.getByUsername("enes").isAdmin());
+        verify(customerRepository, times(2)).findByUsername("enes");
+    }
+
+    @Test
+    void resolve_withTokenPrincipal_shouldNotQuery() {
+        // Given
+        CustomerPrincipal customer = new CustomerPrincipal(3L, "test", Set.of(Role.USER));
+        var authentication = new UsernamePasswordAuthenticationToken(customer, null, List.of());
+
+        // When & Then
+        assertSame(customer, customerService.resolve(authentication));
+        verifyNoInteractions(customerRepository);
+    }
+
+    private Customer createCustomer(Long id, String username, Role role) {
+        Customer customer = new Customer();
+        customer.setId(id);
+        customer.setUsername(username);
+        customer.setRoles(Set.of(role));
+        return customer;
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.brokerage.service;
+
+import com.example.brokerage.dto.request.OrderFilter;
+import com.example.brokerage.entity.Asset;
+import com.example.brokerage.entity.Order;
+import com.example.brokerage.enums.ExportFormat;
+import com.example.brokerage.enums.OrderSide;
+import com.example.brokerage.enums.OrderStatus;
+import com.example.brokerage.repository.AssetRepository;
+import com.example.brokerage.repository.OrderRepository;
+import com.example.brokerage.service.Impl.ExportServiceImpl;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = "brokerage.export.fetch-size=2")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({ExportServiceImpl.class, ExportServiceTest.Metrics.class})
+class ExportServiceTest {
+
+    private static final long CUSTOMER_ID = 901L;
+
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private AssetRepository assetRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        orderRepository.deleteAll(orderRepository.findByCustomerId(CUSTOMER_ID));
+        assetRepository.deleteAll(assetRepository.findByCustomerId(CUSTOMER_ID));
+        LocalDateTime createDate = LocalDateTime.of(2025, 1, 2, 10, 0);
+        for (int i = 0; i < 5; i++) {
+            Order order = new Order();
+            order.setCustomerId(CUSTOMER_ID);
+            order.setAssetName("AAPL");
+            order.setOrderSide(OrderSide.SELL);
+            order.setSize(new BigDecimal("1.5"));
+            order.setPrice(new BigDecimal("10.25"));
+            order.setStatus(OrderStatus.PENDING);
+            order.setCreateDate(createDate.plusSeconds(i));
+            orderRepository.save(order);
+        }
+        Asset asset = new Asset();
+        asset.setCustomerId(CUSTOMER_ID);
+        asset.setAssetName("TRY");
+        asset.setSize(new BigDecimal("100"));
+        asset.setUsableSize(new BigDecimal("80"));
+        assetRepository.save(asset);
+    }
+
+    @Test
+    void exportOrders_AsNdjson_ShouldWriteOneOrderPerLineInKeysetOrder() throws Exception {
+        OrderFilter filter = new OrderFilter();
+        filter.setCustomerId(CUSTOMER_ID);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        double exportedBefore = meterRegistry.get("brokerage.export.rows").tag("dataset", "orders").counter().count();
+
+        long rows = exportService.exportOrders(filter, ExportFormat.NDJSON, out);
+
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals(5, rows);
+        assertEquals(5, lines.size());
+        long previousId = 0;
+        for (String line : lines) {
+            JsonNode order = objectMapper.readTree(line);
+            assertEquals(CUSTOMER_ID, order.get("customerId").asLong());
+            assertTrue(order.get("id").asLong() > previousId);
+            previousId = order.get("id").asLong();
+        }
+        assertEquals(exportedBefore + 5, meterRegistry.get("brokerage.export.rows").tag("dataset", "orders").counter().count());
+    }
+
+    @Test
+    void exportOrders_AsCsv_ShouldWriteHeaderAndRows() throws Exception {
+        OrderFilter filter = new OrderFilter();
+        filter.setCustomerId(CUSTOMER_ID);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exportService.exportOrders(filter, ExportFormat.CSV, out);
+
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals(6, lines.size());
+        assertEquals("id,customerId,assetName,orderSide,size,filledSize,price,status,createDate", lines.get(0));
+        assertTrue(lines.get(1).endsWith(",901,AAPL,SELL,1.50,0.00,10.25,PENDING,2025-01-02T10:00"));
+    }
+
+    @Test
+    void exportAssets_ShouldWriteAssetsOfCustomer() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long rows = exportService.exportAssets(CUSTOMER_ID, ExportFormat.CSV, out);
+
+        assertEquals(1, rows);
+        assertEquals("id,customerId,assetName,size,usableSize", out.toString(StandardCharsets.UTF_8).lines().findFirst().orElseThrow());
+        assertTrue(out.toString(StandardCharsets.UTF_8).contains(",901,TRY,100.00,80.00"));
+    }
+
+    @TestConfiguration
+    static class Metrics {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
@@ -1,14 +1,24 @@
 package com.example.brokerage.service;
 
+import com.example.brokerage.engine.Fill;
+import com.example.brokerage.engine.FixedPoint;
+import com.example.brokerage.engine.ShardedSequencer;
 import com.example.brokerage.enums.OrderSide;
 import com.example.brokerage.enums.OrderStatus;
 import com.example.brokerage.entity.Order;
+import com.example.brokerage.journal.EventJournal;
+import com.example.brokerage.journal.JournalEvent;
+import com.example.brokerage.journal.JournalEventType;
 import com.example.brokerage.repository.OrderRepository;
 import com.example.brokerage.service.Impl.MatchServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
@@ -18,6 +28,7 @@ import java.util.List;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -26,150 +37,245 @@ class MatchServiceTest {
     @Mock
     private OrderRepository orderRepository;
 
+    @Mock
+    private EventJournal journal;
+
     @Mock
     private AssetService assetService;
 
-    @InjectMocks
+    @Spy
+    private ShardedSequencer sequencer = new ShardedSequencer(2, 16);
+
     private MatchServiceImpl matchService;
 
     // Test Data
-    private final Long customerId = 1L;
+    private final Long buyerId = 1L;
+    private final Long sellerId = 2L;
     private final String assetName = "AAPL";
-    private final BigDecimal price = BigDecimal.valueOf(150);
-    private final int size = 10;
-    private final BigDecimal totalAmount = price.multiply(BigDecimal.valueOf(size));
+    private final BigDecimal size = BigDecimal.TEN;
+
+    @BeforeEach
+    void setUp() {
+        matchService = new MatchServiceImpl(orderRepository, sequencer, journal, assetService, new SimpleMeterRegistry());
+        lenient().when(journal.flushAndAwaitProjection(anyLong())).thenReturn(true);
+    }
 
     @Test
-    void matchOrders_shouldSuccessfullyMatchBuyOrder() {
+    void matchOrders_shouldMatchCrossingBuyAndSell() {
         // Given
-        Order buyOrder = createOrder(OrderSide.BUY, OrderStatus.PENDING);
-        when(orderRepository.findAllById(any())).thenReturn(List.of(buyOrder));
-        when(assetService.hasEnoughCash(anyLong(), any())).thenReturn(true);
+        Order sellOrder = createOrder(1L, sellerId, OrderSide.SELL, OrderStatus.PENDING, BigDecimal.valueOf(140));
+        Order buyOrder = createOrder(2L, buyerId, OrderSide.BUY, OrderStatus.PENDING, BigDecimal.valueOf(150));
+        when(orderRepository.findAllById(any())).thenReturn(Arrays.asList(sellOrder, buyOrder));
+        givenPendingOrders(sellOrder, buyOrder);
 
         // When
-        List<Long> result = matchService.matchOrders(List.of(1L));
+        List<Long> result = matchService.matchOrders(List.of(1L, 2L));
 
         // Then
-        assertEquals(1, result.size());
+        assertEquals(List.of(1L, 2L), result);
         assertEquals(OrderStatus.MATCHED, buyOrder.getStatus());
+        assertEquals(OrderStatus.MATCHED, sellOrder.getStatus());
 
-        verify(assetService).reserveCash(customerId, totalAmount);
-        verify(assetService).releaseStock(customerId, assetName, BigDecimal.valueOf(size));
+        // İşlem defterde bekleyen satış emrinin fiyatından gerçekleşir ve journal'a yazılır
+        ArgumentCaptor<JournalEvent> event = ArgumentCaptor.forClass(JournalEvent.class);
+        verify(journal).append(event.capture());
+        assertEquals(JournalEventType.ORDER_FILLED, event.getValue().getType());
+        assertEquals(2L, event.getValue().getOrderId());
+        assertEquals(1L, event.getValue().getCounterOrderId());
+        assertEquals(0, BigDecimal.valueOf(140).compareTo(event.getValue().getPrice()));
+        assertEquals(0, size.compareTo(event.getValue().getQuantity()));
+        verify(journal, times(2)).flushAndAwaitProjection(anyLong());
+        verify(orderRepository, never()).saveAll(any());
+
+        // Bakiyeler bellekte hemen güncellenir; alıcının 150'den ayırdığı rezervin fazlası serbest kalır
+        long quantity = FixedPoint.toUnits(size);
+        verify(assetService).settleBuy(buyerId, assetName, quantity, 1400 * FixedPoint.ONE, 1500 * FixedPoint.ONE);
+        verify(assetService).settleSell(sellerId, assetName, quantity, 1400 * FixedPoint.ONE);
     }
 
     @Test
-    void matchOrders_shouldSuccessfullyMatchSellOrder() {
+    void matchOrders_shouldNotMatchWhenSpreadIsNotCrossed() {
         // Given
-        Order sellOrder = createOrder(OrderSide.SELL, OrderStatus.PENDING);
-        when(orderRepository.findAllById(any())).thenReturn(List.of(sellOrder));
-        when(assetService.hasEnoughStock(anyLong(), anyString(), any())).thenReturn(true);
+        Order sellOrder = createOrder(1L, sellerId, OrderSide.SELL, OrderStatus.PENDING, BigDecimal.valueOf(160));
+        Order buyOrder = createOrder(2L, buyerId, OrderSide.BUY, OrderStatus.PENDING, BigDecimal.valueOf(150));
+        when(orderRepository.findAllById(any())).thenReturn(Arrays.asList(sellOrder, buyOrder));
+        givenPendingOrders(sellOrder, buyOrder);
 
         // When
-        List<Long> result = matchService.matchOrders(List.of(1L));
+        List<Long> result = matchService.matchOrders(List.of(1L, 2L));
 
         // Then
-        assertEquals(1, result.size());
-        assertEquals(OrderStatus.MATCHED, sellOrder.getStatus());
-
-        verify(assetService).reserveStock(customerId, assetName, BigDecimal.valueOf(size));
-        verify(assetService).releaseCash(customerId, totalAmount);
+        assertTrue(result.isEmpty());
+        assertEquals(OrderStatus.PENDING, buyOrder.getStatus());
+        assertEquals(OrderStatus.PENDING, sellOrder.getStatus());
+        verify(journal, never()).append(any());
     }
 
     @Test
-    void matchOrders_shouldSkipNonPendingOrders() {
+    void matchOrders_alreadyMatchedOrder_shouldBeReportedWithoutSweep() {
         // Given
-        Order matchedOrder = createOrder(OrderSide.BUY, OrderStatus.MATCHED);
-        when(orderRepository.findAllById(any())).thenReturn(List.of(matchedOrder));
+        Order matchedOrder = createOrder(1L, buyerId, OrderSide.BUY, OrderStatus.MATCHED, BigDecimal.valueOf(150));
+        Order canceledOrder = createOrder(2L, buyerId, OrderSide.BUY, OrderStatus.CANCELED, BigDecimal.valueOf(150));
+        when(orderRepository.findAllById(any())).thenReturn(List.of(matchedOrder, canceledOrder));
 
         // When
-        List<Long> result = matchService.matchOrders(List.of(1L));
+        List<Long> result = matchService.matchOrders(List.of(2L, 1L));
 
         // Then
-        assertTrue(result.isEmpty());
-        verify(assetService, never()).reserveCash(anyLong(), any());
+        assertEquals(List.of(1L), result);
+        verify(orderRepository, never()).findByAssetNameIgnoreCaseAndStatusOrderByCreateDateAscIdAsc(any(), any());
+        verify(journal, times(1)).flushAndAwaitProjection(anyLong());
     }
 
     @Test
-    void matchOrders_shouldThrowInsufficientFundsForBuyOrder() {
+    void matchOrders_whenProjectionLags_shouldFail() {
         // Given
-        Order buyOrder = createOrder(OrderSide.BUY, OrderStatus.PENDING);
-        when(orderRepository.findAllById(any())).thenReturn(List.of(buyOrder));
-        when(assetService.hasEnoughCash(anyLong(), any())).thenReturn(false);
+        when(journal.flushAndAwaitProjection(anyLong())).thenReturn(false);
 
         // When & Then
-        assertDoesNotThrow(() -> {
-            List<Long> result = matchService.matchOrders(List.of(1L));
-            assertTrue(result.isEmpty());
-        });
-
-        verify(assetService, never()).reserveCash(anyLong(), any());
+        RuntimeException e = assertThrows(RuntimeException.class, () -> matchService.matchOrders(List.of(1L)));
+        assertEquals("Emir durumları henüz veritabanına yansımadı, lütfen tekrar deneyin", e.getMessage());
+        verifyNoInteractions(orderRepository);
     }
 
     @Test
-    void matchOrders_shouldThrowInsufficientAssetsForSellOrder() {
+    void matchOrders_shouldLeavePartiallyFilledOrderPending() {
         // Given
-        Order sellOrder = createOrder(OrderSide.SELL, OrderStatus.PENDING);
-        when(orderRepository.findAllById(any())).thenReturn(List.of(sellOrder));
-        when(assetService.hasEnoughStock(anyLong(), anyString(), any())).thenReturn(false);
+        Order sellOrder = createOrder(1L, sellerId, OrderSide.SELL, OrderStatus.PENDING, BigDecimal.valueOf(150));
+        sellOrder.setSize(BigDecimal.valueOf(4));
+        Order buyOrder = createOrder(2L, buyerId, OrderSide.BUY, OrderStatus.PENDING, BigDecimal.valueOf(150));
+        when(orderRepository.findAllById(any())).thenReturn(Arrays.asList(sellOrder, buyOrder));
+        givenPendingOrders(sellOrder, buyOrder);
 
-        // When & Then
-        assertDoesNotThrow(() -> {
-            List<Long> result = matchService.matchOrders(List.of(1L));
-            assertTrue(result.isEmpty());
-        });
+        // When
+        List<Long> result = matchService.matchOrders(List.of(1L, 2L));
 
-        verify(assetService, never()).reserveStock(anyLong(), anyString(), any());
+        // Then
+        assertEquals(List.of(1L), result);
+        assertEquals(OrderStatus.PENDING, buyOrder.getStatus());
+        assertEquals(0, BigDecimal.valueOf(4).compareTo(buyOrder.getFilledSize()));
     }
 
     @Test
-    void matchOrders_shouldProcessMultipleOrders() {
+    void submit_shouldBuildBookFromPendingOrdersOnFirstUse() {
         // Given
-        Order buyOrder = createOrder(OrderSide.BUY, OrderStatus.PENDING);
-        Order sellOrder = createOrder(OrderSide.SELL, OrderStatus.PENDING);
-        sellOrder.setId(2L);
+        Order resting = createOrder(1L, sellerId, OrderSide.SELL, OrderStatus.PENDING, BigDecimal.valueOf(145));
+        when(orderRepository.findByAssetNameIgnoreCaseAndStatusOrderByCreateDateAscIdAsc(assetName, OrderStatus.PENDING))
+                .thenReturn(List.of(resting));
+        Order incoming = createOrder(2L, buyerId, OrderSide.BUY, OrderStatus.PENDING, BigDecimal.valueOf(150));
 
-        when(orderRepository.findAllById(any())).thenReturn(Arrays.asList(buyOrder, sellOrder));
-        when(assetService.hasEnoughCash(anyLong(), any())).thenReturn(true);
-        when(assetService.hasEnoughStock(anyLong(), anyString(), any())).thenReturn(true);
+        // When
+        List<Fill> fills = sequencer.call(assetName, () -> matchService.submit(incoming));
+
+        // Then
+        assertEquals(1, fills.size());
+        assertSame(resting, fills.get(0).getSellOrder());
+        assertSame(incoming, fills.get(0).getBuyOrder());
+        assertEquals(145 * FixedPoint.ONE, fills.get(0).getPrice());
+        // Emir ancak defter yüklendikten sonra journal'a girer, yükleme onu veritabanından ikinci kez getiremez
+        InOrder inOrder = inOrder(orderRepository, journal);
+        inOrder.verify(orderRepository).findByAssetNameIgnoreCaseAndStatusOrderByCreateDateAscIdAsc(assetName, OrderStatus.PENDING);
+        inOrder.verify(journal).append(argThat(event -> event.getType() == JournalEventType.ORDER_CREATED && event.getOrderId() == 2L));
+        inOrder.verify(journal).append(argThat(event -> event.getType() == JournalEventType.ORDER_FILLED));
+    }
+
+    @Test
+    void submit_failureAfterOrderCreated_shouldCancelThroughJournalInsteadOfThrowing() {
+        // Given
+        Order sellOrder = createOrder(1L, sellerId, OrderSide.SELL, OrderStatus.PENDING, BigDecimal.valueOf(145));
+        sequencer.call(assetName, () -> matchService.submit(sellOrder));
+        Order buyOrder = createOrder(2L, buyerId, OrderSide.BUY, OrderStatus.PENDING, BigDecimal.valueOf(150));
+        buyOrder.setSize(BigDecimal.valueOf(15));
+        doThrow(new IllegalStateException("Bakiye defteri hatası")).when(assetService).settleBuy(any(), any(), anyLong(), anyLong(), anyLong());
 
         // When
-        List<Long> result = matchService.matchOrders(List.of(1L, 2L));
+        assertDoesNotThrow(() -> sequencer.call(assetName, () -> matchService.submit(buyOrder)));
 
         // Then
-        assertEquals(2, result.size());
-        verify(assetService).reserveCash(customerId, totalAmount);
-        verify(assetService).reserveStock(customerId, assetName, BigDecimal.valueOf(size));
+        assertEquals(OrderStatus.CANCELED, buyOrder.getStatus());
+        assertTrue(matchService.findLive(2L).isEmpty());
+        verify(assetService).releaseCash(buyerId, FixedPoint.toUnits(BigDecimal.valueOf(5 * 150)));
+        InOrder inOrder = inOrder(journal);
+        inOrder.verify(journal).append(argThat(event -> event.getType() == JournalEventType.ORDER_CREATED && event.getOrderId() == 2L));
+        inOrder.verify(journal).append(argThat(event -> event.getType() == JournalEventType.ASSET_RELEASED && event.getCustomerId().equals(buyerId)));
+        inOrder.verify(journal).append(argThat(event -> event.getType() == JournalEventType.ORDER_CANCELED && event.getOrderId() == 2L));
     }
 
     @Test
-    void matchOrders_shouldContinueAfterException() {
+    void cancel_shouldRemoveRestingOrderFromBook() {
         // Given
-        Order validOrder = createOrder(OrderSide.BUY, OrderStatus.PENDING);
-        Order invalidOrder = createOrder(OrderSide.BUY, OrderStatus.PENDING);
-        invalidOrder.setId(2L);
+        Order buyOrder = createOrder(1L, buyerId, OrderSide.BUY, OrderStatus.PENDING, BigDecimal.valueOf(150));
+        sequencer.call(assetName, () -> matchService.submit(buyOrder));
 
-        when(orderRepository.findAllById(any())).thenReturn(Arrays.asList(validOrder, invalidOrder));
-        when(assetService.hasEnoughCash(anyLong(), any()))
-                .thenReturn(true)  // First call for validOrder
-                .thenReturn(false); // Second call for invalidOrder
+        // When & Then
+        assertTrue(sequencer.call(assetName, () -> matchService.cancel(buyOrder)).isPresent());
+        assertTrue(sequencer.call(assetName, () -> matchService.cancel(buyOrder)).isEmpty());
+    }
+
+    @Test
+    void findLive_shouldTrackOrdersWhileTheyRestInBook() {
+        // Given
+        Order sellOrder = createOrder(1L, sellerId, OrderSide.SELL, OrderStatus.PENDING, BigDecimal.valueOf(150));
+        Order partialBuy = createOrder(2L, buyerId, OrderSide.BUY, OrderStatus.PENDING, BigDecimal.valueOf(150));
+        partialBuy.setSize(BigDecimal.valueOf(4));
+        Order canceledBuy = createOrder(3L, buyerId, OrderSide.BUY, OrderStatus.PENDING, BigDecimal.valueOf(100));
 
         // When
-        List<Long> result = matchService.matchOrders(List.of(1L, 2L));
+        sequencer.call(assetName, () -> matchService.submit(sellOrder));
+        sequencer.call(assetName, () -> matchService.submit(partialBuy));
+        sequencer.call(assetName, () -> matchService.submit(canceledBuy));
+        sequencer.call(assetName, () -> matchService.cancel(canceledBuy));
+
+        // Then
+        assertSame(sellOrder, matchService.findLive(1L).orElseThrow());
+        assertTrue(matchService.findLive(2L).isEmpty());
+        assertTrue(matchService.findLive(3L).isEmpty());
+    }
+
+    @Test
+    void submit_outsideSequencerThread_shouldBeRejected() {
+        Order buyOrder = createOrder(1L, buyerId, OrderSide.BUY, OrderStatus.PENDING, BigDecimal.valueOf(150));
+
+        assertThrows(IllegalStateException.class, () -> matchService.submit(buyOrder));
+    }
+
+    @Test
+    void matchOrders_shouldContinueWithOtherAssetsAfterException() {
+        // Given
+        Order sellOrder = createOrder(1L, sellerId, OrderSide.SELL, OrderStatus.PENDING, BigDecimal.valueOf(150));
+        Order buyOrder = createOrder(2L, buyerId, OrderSide.BUY, OrderStatus.PENDING, BigDecimal.valueOf(150));
+        Order otherSell = createOrder(3L, sellerId, OrderSide.SELL, OrderStatus.PENDING, BigDecimal.valueOf(150));
+        Order otherBuy = createOrder(4L, buyerId, OrderSide.BUY, OrderStatus.PENDING, BigDecimal.valueOf(150));
+        otherSell.setAssetName("MSFT");
+        otherBuy.setAssetName("MSFT");
+
+        when(orderRepository.findAllById(any())).thenReturn(Arrays.asList(sellOrder, buyOrder, otherSell, otherBuy));
+        when(orderRepository.findByAssetNameIgnoreCaseAndStatusOrderByCreateDateAscIdAsc(assetName, OrderStatus.PENDING))
+                .thenThrow(new RuntimeException("Bağlantı hatası"));
+        when(orderRepository.findByAssetNameIgnoreCaseAndStatusOrderByCreateDateAscIdAsc("MSFT", OrderStatus.PENDING))
+                .thenReturn(List.of(otherSell, otherBuy));
+
+        // When
+        List<Long> result = assertDoesNotThrow(() -> matchService.matchOrders(List.of(1L, 2L, 3L, 4L)));
 
         // Then
-        assertEquals(1, result.size());
-        assertEquals(validOrder.getId(), result.get(0));
+        assertEquals(List.of(3L, 4L), result);
+    }
+
+    private void givenPendingOrders(Order... orders) {
+        when(orderRepository.findByAssetNameIgnoreCaseAndStatusOrderByCreateDateAscIdAsc(assetName, OrderStatus.PENDING))
+                .thenReturn(Arrays.asList(orders));
     }
 
-    private Order createOrder(OrderSide side, OrderStatus status) {
+    private Order createOrder(Long id, Long customerId, OrderSide side, OrderStatus status, BigDecimal price) {
         Order order = new Order();
-        order.setId(1L);
+        order.setId(id);
         order.setCustomerId(customerId);
         order.setAssetName(assetName);
         order.setOrderSide(side);
-        order.setSize(BigDecimal.valueOf(size));
+        order.setSize(size);
         order.setPrice(price);
         order.setStatus(status);
         return order;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,68 @@
+package com.example.brokerage.service;
+
+import com.example.brokerage.dto.response.OrderUpdate;
+import com.example.brokerage.enums.OrderSide;
+import com.example.brokerage.enums.OrderStatus;
+import com.example.brokerage.readmodel.PortfolioReadModel;
+import com.example.brokerage.service.Impl.NotificationServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NotificationServiceTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private PortfolioReadModel readModel;
+    private NotificationServiceImpl notificationService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        readModel = new PortfolioReadModel(meterRegistry);
+        notificationService = new NotificationServiceImpl(readModel, meterRegistry, 4, 2, 1, 60000, 60000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        notificationService.shutdown();
+    }
+
+    @Test
+    void subscribe_shouldOpenStreamUpToLimitPerCustomer() {
+        // When
+        SseEmitter first = notificationService.subscribe(1L);
+        SseEmitter second = notificationService.subscribe(1L);
+
+        // Then
+        assertNotNull(first);
+        assertNotSame(first, second);
+        assertEquals(2, subscribers());
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> notificationService.subscribe(1L));
+        assertEquals("Açık bildirim bağlantısı sınırına ulaşıldı", exception.getMessage());
+        assertNotNull(notificationService.subscribe(2L));
+        assertEquals(3, subscribers());
+    }
+
+    @Test
+    void orderUpdated_withoutSubscriber_shouldBeIgnored() {
+        // When
+        notificationService.orderUpdated(1L, new OrderUpdate(1, 0, 10L, "AAPL", OrderSide.BUY, OrderStatus.MATCHED,
+                BigDecimal.ONE, BigDecimal.TEN, BigDecimal.ONE));
+        notificationService.portfolioChanged(1L);
+        notificationService.batchApplied();
+
+        // Then
+        assertEquals(0, subscribers());
+        assertEquals(0, meterRegistry.get("brokerage.notifications.dropped").counter().count());
+    }
+
+    private double subscribers() {
+        return meterRegistry.get("brokerage.notifications.subscribers").gauge().value();
+    }
+}
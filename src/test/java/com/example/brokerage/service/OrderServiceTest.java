@@ -1,32 +1,56 @@
 package com.example.brokerage.service;
 
+import com.example.brokerage.dto.request.BulkCancelRequest;
 import com.example.brokerage.dto.request.CreateOrderRequest;
+import com.example.brokerage.dto.request.OrderCursor;
+import com.example.brokerage.dto.request.OrderFilter;
+import com.example.brokerage.dto.response.BulkCancelResult;
+import com.example.brokerage.dto.response.BulkOrderResult;
+import com.example.brokerage.dto.response.OpenOrderView;
+import com.example.brokerage.dto.response.OrderPage;
+import com.example.brokerage.engine.FixedPoint;
+import com.example.brokerage.engine.InstrumentRegistry;
+import com.example.brokerage.engine.Sequencer;
+import com.example.brokerage.engine.ShardedSequencer;
+import com.example.brokerage.pipeline.*;
 import com.example.brokerage.entity.Customer;
 import com.example.brokerage.entity.Order;
 import com.example.brokerage.enums.OrderSide;
 import com.example.brokerage.enums.OrderStatus;
 import com.example.brokerage.enums.Role;
+import com.example.brokerage.journal.EventJournal;
+import com.example.brokerage.journal.JournalEventType;
+import com.example.brokerage.readmodel.PortfolioReadModel;
 import com.example.brokerage.repository.CustomerRepository;
+import com.example.brokerage.repository.OrderIdGenerator;
 import com.example.brokerage.repository.OrderRepository;
+import com.example.brokerage.service.Impl.CustomerServiceImpl;
+import com.example.brokerage.service.Impl.MatchServiceImpl;
 import com.example.brokerage.service.Impl.OrderServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
 import java.security.Principal;
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletionException;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -41,10 +65,26 @@ class OrderServiceTest {
     @Mock
     private AssetService assetService;
 
+    @Mock
+    private MatchService matchService;
+
+    @Mock
+    private EventJournal journal;
+
+    @Mock
+    private PortfolioReadModel readModel;
+
+    @Mock
+    private OrderIdGenerator orderIds;
+
     @Mock
     private Principal principal;
 
-    @InjectMocks
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ShardedSequencer sequencer;
+    private CustomerService customerService;
+    private OrderMetrics metrics;
+    private OrderCommandPipeline pipeline;
     private OrderServiceImpl orderService;
 
     private Customer regularCustomer;
@@ -54,6 +94,11 @@ class OrderServiceTest {
 
     @BeforeEach
     void setUp() {
+        sequencer = new ShardedSequencer(1, 16);
+        customerService = new CustomerServiceImpl(customerRepository, new SimpleMeterRegistry(), 100, 60000);
+        metrics = new OrderMetrics(meterRegistry);
+        startPipeline(matchService);
+
         regularCustomer = new Customer();
         regularCustomer.setId(1L);
         regularCustomer.setUsername("regularUser");
@@ -77,6 +122,28 @@ class OrderServiceTest {
         sellOrderRequest.setPrice(BigDecimal.valueOf(150));
     }
 
+    @AfterEach
+    void tearDown() {
+        pipeline.shutdown();
+        sequencer.shutdown();
+    }
+
+    private void startPipeline(MatchService matchService) {
+        pipeline = new OrderCommandPipeline(16, "blocking",
+                new ValidationStage(customerService, orderRepository, matchService,
+                        new InstrumentRegistry(new BigDecimal("0.01"), BigDecimal.ONE, List.of()), metrics, 1000),
+                new RiskCheckStage(assetService, journal),
+                new MatchingStage(orderIds, assetService, matchService, sequencer, journal, metrics),
+                new JournalStage(journal, metrics, 1), metrics);
+        orderService = new OrderServiceImpl(orderRepository, customerService, pipeline, readModel, 100);
+    }
+
+    //Emirleri gerçek defterde tutan pipeline; veritabanı mock olduğu için projeksiyon hiç gerçekleşmez
+    private void startPipelineWithBooks() {
+        pipeline.shutdown();
+        startPipeline(new MatchServiceImpl(orderRepository, sequencer, journal, assetService, new SimpleMeterRegistry()));
+    }
+
     @Test
     void getOrdersForUser_ShouldReturnUserOrders() {
         // Arrange
@@ -94,84 +161,113 @@ class OrderServiceTest {
     }
 
     @Test
-    void getOrdersForAdmin_WithAllFilters_ShouldReturnFilteredOrders() {
+    void getOpenOrdersForUser_ShouldServeFromReadModel() {
         // Arrange
-        LocalDateTime startDate = LocalDateTime.now().minusDays(1);
-        LocalDateTime endDate = LocalDateTime.now();
-        Long customerId = 1L;
-        when(orderRepository.findByCustomerIdAndCreateDateBetween(customerId, startDate, endDate))
-                .thenReturn(Collections.emptyList());
+        when(principal.getName()).thenReturn("regularUser");
+        when(customerRepository.findByUsername("regularUser")).thenReturn(Optional.of(regularCustomer));
+        OpenOrderView openOrder = new OpenOrderView(1L, "AAPL", OrderSide.BUY, BigDecimal.TEN, BigDecimal.ONE,
+                BigDecimal.valueOf(150), LocalDateTime.now());
+        when(readModel.openOrders(1L)).thenReturn(List.of(openOrder));
 
         // Act
-        List<Order> result = orderService.getOrdersForAdmin(customerId, startDate, endDate);
+        List<OpenOrderView> result = orderService.getOpenOrdersForUser(principal);
 
         // Assert
-        assertNotNull(result);
-        assertTrue(result.isEmpty());
-        verify(orderRepository).findByCustomerIdAndCreateDateBetween(customerId, startDate, endDate);
+        assertEquals(List.of(openOrder), result);
+        verifyNoInteractions(orderRepository);
     }
 
     @Test
-    void getOrdersForAdmin_WithCustomerIdOnly_ShouldReturnCustomerOrders() {
+    void getOrdersForAdmin_LastPage_ShouldReturnNoCursor() {
         // Arrange
-        Long customerId = 1L;
-        when(orderRepository.findByCustomerId(customerId)).thenReturn(Collections.emptyList());
+        Order order = pageOrder(1L, LocalDateTime.now());
+        when(orderRepository.findBy(any(Specification.class), any())).thenReturn(List.of(order));
 
         // Act
-        List<Order> result = orderService.getOrdersForAdmin(customerId, null, null);
+        OrderPage result = orderService.getOrdersForAdmin(new OrderFilter(), null, 2);
 
         // Assert
-        assertNotNull(result);
-        assertTrue(result.isEmpty());
-        verify(orderRepository).findByCustomerId(customerId);
+        assertEquals(List.of(order), result.getOrders());
+        assertNull(result.getNextCursor());
     }
 
     @Test
-    void getOrdersForAdmin_WithDateRangeOnly_ShouldReturnDateFilteredOrders() {
+    void getOrdersForAdmin_FullPage_ShouldReturnCursorOfLastOrder() {
         // Arrange
-        LocalDateTime startDate = LocalDateTime.now().minusDays(1);
-        LocalDateTime endDate = LocalDateTime.now();
-        when(orderRepository.findByCreateDateBetween(startDate, endDate)).thenReturn(Collections.emptyList());
+        LocalDateTime createDate = LocalDateTime.now();
+        Order first = pageOrder(1L, createDate);
+        Order second = pageOrder(2L, createDate);
+        Order extra = pageOrder(3L, createDate);
+        when(orderRepository.findBy(any(Specification.class), any())).thenReturn(List.of(first, second, extra));
 
         // Act
-        List<Order> result = orderService.getOrdersForAdmin(null, startDate, endDate);
+        OrderPage result = orderService.getOrdersForAdmin(new OrderFilter(), null, 2);
 
         // Assert
-        assertNotNull(result);
-        assertTrue(result.isEmpty());
-        verify(orderRepository).findByCreateDateBetween(startDate, endDate);
+        assertEquals(List.of(first, second), result.getOrders());
+        assertEquals(new OrderCursor(createDate, 2L), OrderCursor.decode(result.getNextCursor()));
+    }
+
+    @Test
+    void getOrdersForAdmin_WithInvalidLimit_ShouldThrowException() {
+        // Act & Assert
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> orderService.getOrdersForAdmin(new OrderFilter(), null, 101));
+        assertEquals("Sayfa boyutu 1 ile 100 arasında olmalıdır", exception.getMessage());
+        verifyNoInteractions(orderRepository);
     }
 
     @Test
-    void getOrdersForAdmin_NoFilters_ShouldReturnAllOrders() {
+    void getOrdersForAdmin_WithInvalidCursor_ShouldThrowException() {
+        // Act & Assert
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> orderService.getOrdersForAdmin(new OrderFilter(), "bozuk", 10));
+        assertEquals("Geçersiz cursor", exception.getMessage());
+    }
+
+    @Test
+    void createOrder_AsRegularUser_ShouldCreateOrder() {
         // Arrange
-        when(orderRepository.findAll()).thenReturn(Collections.emptyList());
+        when(principal.getName()).thenReturn("regularUser");
+        when(customerRepository.findByUsername("regularUser")).thenReturn(Optional.of(regularCustomer));
+        when(orderIds.next()).thenReturn(100L);
 
         // Act
-        List<Order> result = orderService.getOrdersForAdmin(null, null, null);
+        Order result = orderService.createOrder(buyOrderRequest, principal).join();
 
         // Assert
         assertNotNull(result);
-        assertTrue(result.isEmpty());
-        verify(orderRepository).findAll();
+        assertEquals(OrderStatus.PENDING, result.getStatus());
+        assertEquals(regularCustomer.getId(), result.getCustomerId());
+        verify(assetService).reserveCash(regularCustomer.getId(), FixedPoint.toUnits(buyOrderRequest.getSize().multiply(buyOrderRequest.getPrice())));
+        assertEquals(100L, result.getId());
+        verify(orderRepository, never()).save(any(Order.class));
+        verify(matchService).submit(result);
+        verify(journal).flush();
+        assertEquals(1, meterRegistry.get("brokerage.order.latency").tags("operation", "create", "outcome", "accepted").timer().count());
+        assertEquals(1, meterRegistry.get("brokerage.order.stage").tags("operation", "create", "stage", OrderMetrics.ORDER_ID).timer().count());
     }
 
     @Test
-    void createOrder_AsRegularUser_ShouldCreateOrder() {
+    void createOrder_WhenJournalForceFails_ShouldRetryFlushAndNotReportRejection() {
         // Arrange
         when(principal.getName()).thenReturn("regularUser");
         when(customerRepository.findByUsername("regularUser")).thenReturn(Optional.of(regularCustomer));
-        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(orderIds.next()).thenReturn(100L);
+        //Segmentin diske zorlanması EventJournal.flush içinden bu hatayla döner, olaylar journal'da bekler
+        doThrow(new UncheckedIOException(new IOException("force failed"))).doNothing().when(journal).flush();
 
         // Act
-        Order result = orderService.createOrder(buyOrderRequest, principal);
+        Order result = orderService.createOrder(buyOrderRequest, principal).join();
 
         // Assert
-        assertNotNull(result);
+        assertEquals(100L, result.getId());
         assertEquals(OrderStatus.PENDING, result.getStatus());
-        assertEquals(regularCustomer.getId(), result.getCustomerId());
-        verify(assetService).reserveCash(regularCustomer.getId(), buyOrderRequest.getSize().multiply(buyOrderRequest.getPrice()));
-        verify(orderRepository).save(any(Order.class));
+        verify(journal, times(2)).flush();
+        verify(matchService).submit(result);
+        verify(assetService, never()).releaseCash(any(), anyLong());
+        assertEquals(1, meterRegistry.get("brokerage.order.latency").tags("operation", "create", "outcome", "accepted").timer().count());
+        assertNull(meterRegistry.find("brokerage.orders.rejected").counter());
     }
 
     @Test
@@ -180,17 +276,17 @@ class OrderServiceTest {
         buyOrderRequest.setCustomerId(1L);
         when(principal.getName()).thenReturn("adminUser");
         when(customerRepository.findByUsername("adminUser")).thenReturn(Optional.of(adminCustomer));
-        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(orderIds.next()).thenReturn(100L);
 
         // Act
-        Order result = orderService.createOrder(buyOrderRequest, principal);
+        Order result = orderService.createOrder(buyOrderRequest, principal).join();
 
         // Assert
         assertNotNull(result);
         assertEquals(OrderStatus.PENDING, result.getStatus());
         assertEquals(1L, result.getCustomerId());
-        verify(assetService).reserveCash(1L, buyOrderRequest.getSize().multiply(buyOrderRequest.getPrice()));
-        verify(orderRepository).save(any(Order.class));
+        verify(assetService).reserveCash(1L, FixedPoint.toUnits(buyOrderRequest.getSize().multiply(buyOrderRequest.getPrice())));
+        verify(matchService).submit(argThat(order -> order.getId() == 100L && order.getCustomerId() == 1L));
     }
 
     @Test
@@ -199,7 +295,8 @@ class OrderServiceTest {
         buyOrderRequest.setSize(BigDecimal.ZERO);
 
         // Act & Assert
-        assertThrows(IllegalArgumentException.class, () -> orderService.createOrder(buyOrderRequest, principal));
+        CompletionException e = assertThrows(CompletionException.class, () -> orderService.createOrder(buyOrderRequest, principal).join());
+        assertInstanceOf(IllegalArgumentException.class, e.getCause());
     }
 
     @Test
@@ -208,7 +305,57 @@ class OrderServiceTest {
         buyOrderRequest.setPrice(BigDecimal.ZERO);
 
         // Act & Assert
-        assertThrows(IllegalArgumentException.class, () -> orderService.createOrder(buyOrderRequest, principal));
+        CompletionException e = assertThrows(CompletionException.class, () -> orderService.createOrder(buyOrderRequest, principal).join());
+        assertInstanceOf(IllegalArgumentException.class, e.getCause());
+    }
+
+    @Test
+    void createOrder_WithInsufficientCash_ShouldRejectWithoutReserving() {
+        // Arrange
+        when(principal.getName()).thenReturn("regularUser");
+        when(customerRepository.findByUsername("regularUser")).thenReturn(Optional.of(regularCustomer));
+        doThrow(new IllegalArgumentException("Yetersiz TRY bakiyesi")).when(assetService).reserveCash(any(), anyLong());
+
+        // Act & Assert
+        CompletionException e = assertThrows(CompletionException.class, () -> orderService.createOrder(buyOrderRequest, principal).join());
+        assertInstanceOf(IllegalArgumentException.class, e.getCause());
+        verify(journal, never()).append(any());
+        verify(orderRepository, never()).save(any(Order.class));
+        assertEquals(1, meterRegistry.get("brokerage.orders.rejected")
+                .tags("operation", "create", "stage", OrderMetrics.RISK, "reason", "IllegalArgumentException").counter().count());
+    }
+
+    @Test
+    void createOrder_RepeatedRejections_ShouldReuseSameCounter() {
+        // Arrange
+        when(principal.getName()).thenReturn("regularUser");
+        when(customerRepository.findByUsername("regularUser")).thenReturn(Optional.of(regularCustomer));
+        doThrow(new IllegalArgumentException("Yetersiz TRY bakiyesi")).when(assetService).reserveCash(any(), anyLong());
+
+        // Act
+        for (int i = 0; i < 3; i++)
+            assertThrows(CompletionException.class, () -> orderService.createOrder(buyOrderRequest, principal).join());
+
+        // Assert
+        assertEquals(1, meterRegistry.find("brokerage.orders.rejected").counters().size());
+        assertEquals(3, meterRegistry.get("brokerage.orders.rejected")
+                .tags("operation", "create", "stage", OrderMetrics.RISK, "reason", "IllegalArgumentException").counter().count());
+    }
+
+    @Test
+    void createOrder_WhenOrderIdFails_ShouldReleaseReservation() {
+        // Arrange
+        when(principal.getName()).thenReturn("regularUser");
+        when(customerRepository.findByUsername("regularUser")).thenReturn(Optional.of(regularCustomer));
+        when(orderIds.next()).thenThrow(new RuntimeException("Bağlantı hatası"));
+
+        // Act & Assert
+        assertThrows(CompletionException.class, () -> orderService.createOrder(buyOrderRequest, principal).join());
+        long amount = FixedPoint.toUnits(buyOrderRequest.getSize().multiply(buyOrderRequest.getPrice()));
+        verify(assetService).reserveCash(regularCustomer.getId(), amount);
+        verify(assetService).releaseCash(regularCustomer.getId(), amount);
+        assertEquals(1, meterRegistry.get("brokerage.orders.rejected")
+                .tags("operation", "create", "stage", OrderMetrics.MATCHING).counter().count());
     }
 
     @Test
@@ -216,16 +363,91 @@ class OrderServiceTest {
         // Arrange
         when(principal.getName()).thenReturn("regularUser");
         when(customerRepository.findByUsername("regularUser")).thenReturn(Optional.of(regularCustomer));
-        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(orderIds.next()).thenReturn(100L);
 
         // Act
-        Order result = orderService.createOrder(sellOrderRequest, principal);
+        Order result = orderService.createOrder(sellOrderRequest, principal).join();
 
         // Assert
         assertNotNull(result);
         assertEquals(OrderStatus.PENDING, result.getStatus());
-        verify(assetService).reserveStock(regularCustomer.getId(), sellOrderRequest.getAssetName(), sellOrderRequest.getSize());
-        verify(orderRepository).save(any(Order.class));
+        verify(assetService).reserveStock(regularCustomer.getId(), sellOrderRequest.getAssetName(), FixedPoint.toUnits(sellOrderRequest.getSize()));
+        assertEquals(100L, result.getId());
+    }
+
+    @Test
+    void createOrders_ShouldReserveOncePerAssetAndNumberInSingleCall() {
+        // Arrange
+        CreateOrderRequest secondBuy = createRequest("GOOG", OrderSide.BUY, "5", "100");
+        when(principal.getName()).thenReturn("regularUser");
+        when(customerRepository.findByUsername("regularUser")).thenReturn(Optional.of(regularCustomer));
+        when(assetService.getUsableUnits(1L, "TRY")).thenReturn(5000 * FixedPoint.ONE);
+        when(assetService.getUsableUnits(1L, "AAPL")).thenReturn(20 * FixedPoint.ONE);
+        when(orderIds.next(3)).thenReturn(new long[]{100L, 101L, 102L});
+
+        // Act
+        List<BulkOrderResult> results = orderService
+                .createOrders(List.of(buyOrderRequest, sellOrderRequest, secondBuy), principal).join();
+
+        // Assert
+        assertEquals(3, results.size());
+        assertTrue(results.stream().allMatch(BulkOrderResult::isSuccess));
+        assertEquals(List.of(0, 1, 2), results.stream().map(BulkOrderResult::getIndex).toList());
+        verify(assetService, times(1)).reserveCash(1L, 2000 * FixedPoint.ONE);
+        verify(assetService, times(1)).reserveStock(1L, "AAPL", 10 * FixedPoint.ONE);
+        verify(orderIds, times(1)).next(3);
+        verify(orderRepository, never()).saveAll(any());
+        verify(matchService).submit(argThat(order -> order.getId() == 102L));
+        verify(matchService, times(3)).submit(any());
+        verify(journal).flush();
+    }
+
+    @Test
+    void createOrders_ShouldRejectOnlyItemsThatDoNotFit() {
+        // Arrange
+        CreateOrderRequest invalid = createRequest("AAPL", OrderSide.BUY, "0", "150");
+        CreateOrderRequest tooLarge = createRequest("AAPL", OrderSide.BUY, "20", "150");
+        CreateOrderRequest fits = createRequest("AAPL", OrderSide.BUY, "2", "150");
+        when(principal.getName()).thenReturn("regularUser");
+        when(customerRepository.findByUsername("regularUser")).thenReturn(Optional.of(regularCustomer));
+        when(assetService.getUsableUnits(1L, "TRY")).thenReturn(2000 * FixedPoint.ONE);
+        when(orderIds.next(2)).thenReturn(new long[]{100L, 101L});
+
+        // Act
+        List<BulkOrderResult> results = orderService
+                .createOrders(List.of(buyOrderRequest, invalid, tooLarge, fits), principal).join();
+
+        // Assert
+        assertEquals(List.of(true, false, false, true), results.stream().map(BulkOrderResult::isSuccess).toList());
+        assertEquals("Miktar sıfırdan büyük olmalı", results.get(1).getMessage());
+        assertEquals("Yetersiz TRY bakiyesi", results.get(2).getMessage());
+        verify(assetService).reserveCash(1L, 1800 * FixedPoint.ONE);
+        verify(matchService, times(2)).submit(any());
+    }
+
+    @Test
+    void createOrders_WhenOrderIdFails_ShouldReleaseGroupedReservation() {
+        // Arrange
+        when(principal.getName()).thenReturn("regularUser");
+        when(customerRepository.findByUsername("regularUser")).thenReturn(Optional.of(regularCustomer));
+        when(assetService.getUsableUnits(1L, "TRY")).thenReturn(5000 * FixedPoint.ONE);
+        when(orderIds.next(2)).thenThrow(new RuntimeException("Bağlantı hatası"));
+
+        // Act
+        List<BulkOrderResult> results = orderService
+                .createOrders(List.of(buyOrderRequest, buyOrderRequest), principal).join();
+
+        // Assert
+        assertTrue(results.stream().noneMatch(BulkOrderResult::isSuccess));
+        verify(assetService).reserveCash(1L, 3000 * FixedPoint.ONE);
+        verify(assetService).releaseCash(1L, 3000 * FixedPoint.ONE);
+        verifyNoInteractions(matchService);
+    }
+
+    @Test
+    void createOrders_WithEmptyList_ShouldThrowException() {
+        CompletionException e = assertThrows(CompletionException.class, () -> orderService.createOrders(List.of(), principal).join());
+        assertInstanceOf(IllegalArgumentException.class, e.getCause());
     }
 
     @Test
@@ -235,6 +457,7 @@ class OrderServiceTest {
         pendingOrder.setId(1L);
         pendingOrder.setCustomerId(1L);
         pendingOrder.setOrderSide(OrderSide.BUY);
+        pendingOrder.setAssetName("AAPL");
         pendingOrder.setSize(BigDecimal.TEN);
         pendingOrder.setPrice(BigDecimal.valueOf(150));
         pendingOrder.setStatus(OrderStatus.PENDING);
@@ -242,14 +465,16 @@ class OrderServiceTest {
         when(principal.getName()).thenReturn("regularUser");
         when(customerRepository.findByUsername("regularUser")).thenReturn(Optional.of(regularCustomer));
         when(orderRepository.findById(1L)).thenReturn(Optional.of(pendingOrder));
+        when(matchService.cancel(pendingOrder)).thenReturn(Optional.of(pendingOrder));
 
         // Act
-        orderService.cancelOrder(1L, principal);
+        orderService.cancelOrder(1L, principal).join();
 
         // Assert
         assertEquals(OrderStatus.CANCELED, pendingOrder.getStatus());
-        verify(assetService).releaseCash(1L, BigDecimal.TEN.multiply(BigDecimal.valueOf(150)));
-        verify(orderRepository).save(pendingOrder);
+        verify(assetService).releaseCash(1L, 1500 * FixedPoint.ONE);
+        verify(journal).append(argThat(event -> event.getType() == JournalEventType.ORDER_CANCELED));
+        verify(orderRepository, never()).save(pendingOrder);
     }
 
     @Test
@@ -259,6 +484,7 @@ class OrderServiceTest {
         pendingOrder.setId(1L);
         pendingOrder.setCustomerId(1L);
         pendingOrder.setOrderSide(OrderSide.BUY);
+        pendingOrder.setAssetName("AAPL");
         pendingOrder.setSize(BigDecimal.TEN);
         pendingOrder.setPrice(BigDecimal.valueOf(150));
         pendingOrder.setStatus(OrderStatus.PENDING);
@@ -266,14 +492,185 @@ class OrderServiceTest {
         when(principal.getName()).thenReturn("adminUser");
         when(customerRepository.findByUsername("adminUser")).thenReturn(Optional.of(adminCustomer));
         when(orderRepository.findById(1L)).thenReturn(Optional.of(pendingOrder));
+        when(matchService.cancel(pendingOrder)).thenReturn(Optional.of(pendingOrder));
 
         // Act
-        orderService.cancelOrder(1L, principal);
+        orderService.cancelOrder(1L, principal).join();
 
         // Assert
         assertEquals(OrderStatus.CANCELED, pendingOrder.getStatus());
-        verify(assetService).releaseCash(1L, BigDecimal.TEN.multiply(BigDecimal.valueOf(150)));
-        verify(orderRepository).save(pendingOrder);
+        verify(assetService).releaseCash(1L, 1500 * FixedPoint.ONE);
+        verify(journal).append(argThat(event -> event.getType() == JournalEventType.ORDER_CANCELED));
+        verify(orderRepository, never()).save(pendingOrder);
+    }
+
+    @Test
+    void cancelOrder_RightAfterCreate_ShouldFindOrderInBookWithoutProjection() {
+        // Arrange
+        startPipelineWithBooks();
+        when(principal.getName()).thenReturn("regularUser");
+        when(customerRepository.findByUsername("regularUser")).thenReturn(Optional.of(regularCustomer));
+        when(orderIds.next()).thenReturn(100L);
+        Order created = orderService.createOrder(buyOrderRequest, principal).join();
+
+        // Act
+        Order canceled = orderService.cancelOrder(100L, principal).join();
+
+        // Assert
+        assertSame(created, canceled);
+        assertEquals(OrderStatus.CANCELED, canceled.getStatus());
+        verify(orderRepository, never()).findById(any());
+        verify(assetService).releaseCash(1L, 1500 * FixedPoint.ONE);
+        verify(journal).append(argThat(event -> event.getType() == JournalEventType.ORDER_CANCELED));
+    }
+
+    @Test
+    void cancelOrder_AfterOrderMatchedInBook_ShouldBeRejected() {
+        // Arrange
+        startPipelineWithBooks();
+        //Satışı admin başka bir müşteri adına girer, aynı müşterinin emirleri kendi aralarında eşleşmez
+        sellOrderRequest.setCustomerId(3L);
+        when(principal.getName()).thenReturn("adminUser", "regularUser");
+        when(customerRepository.findByUsername("adminUser")).thenReturn(Optional.of(adminCustomer));
+        when(customerRepository.findByUsername("regularUser")).thenReturn(Optional.of(regularCustomer));
+        when(orderIds.next()).thenReturn(100L, 101L);
+        orderService.createOrder(sellOrderRequest, principal).join();
+        orderService.createOrder(buyOrderRequest, principal).join();
+
+        // Act & Assert
+        CompletionException e = assertThrows(CompletionException.class, () -> orderService.cancelOrder(101L, principal).join());
+        assertEquals("Order bulunamadı", e.getCause().getMessage());
+        verify(assetService, never()).releaseCash(any(), anyLong());
+    }
+
+    @Test
+    void cancelOrders_ByList_ShouldReleaseOncePerAssetAndRejectForeignOrders() {
+        // Arrange
+        Order first = createOrder(1L, 1L, OrderSide.BUY, "AAPL");
+        Order second = createOrder(2L, 1L, OrderSide.BUY, "GOOG");
+        second.setFilledSize(BigDecimal.valueOf(4));
+        Order foreign = createOrder(3L, 9L, OrderSide.BUY, "AAPL");
+        BulkCancelRequest request = new BulkCancelRequest();
+        request.setOrderIds(List.of(1L, 2L, 3L, 4L));
+
+        when(principal.getName()).thenReturn("regularUser");
+        when(customerRepository.findByUsername("regularUser")).thenReturn(Optional.of(regularCustomer));
+        when(orderRepository.findAllById(request.getOrderIds())).thenReturn(List.of(first, second, foreign));
+        when(matchService.cancel(any())).thenAnswer(invocation -> Optional.of(invocation.getArgument(0)));
+
+        // Act
+        BulkCancelResult result = orderService.cancelOrders(request, principal).join();
+
+        // Assert
+        assertEquals(List.of(1L, 2L), result.getCanceledOrderIds().stream().sorted().toList());
+        assertEquals("Bu order'ı silme yetkiniz yok", result.getRejectedOrders().get(3L));
+        assertEquals("Order bulunamadı", result.getRejectedOrders().get(4L));
+        verify(assetService, times(1)).releaseCash(1L, 2400 * FixedPoint.ONE);
+        verify(journal, times(2)).append(argThat(event -> event.getType() == JournalEventType.ORDER_CANCELED));
+        verify(orderRepository, never()).save(any(Order.class));
+        verify(customerRepository, times(1)).findByUsername("regularUser");
+    }
+
+    @Test
+    void cancelOrders_AllForCustomer_ShouldUseOwnCustomerAndWithdrawFromEveryShard() {
+        // Arrange
+        Order buy = createOrder(1L, 1L, OrderSide.BUY, "AAPL");
+        Order sell = createOrder(2L, 1L, OrderSide.SELL, "AAPL");
+        BulkCancelRequest request = new BulkCancelRequest();
+        request.setCustomerId(9L);
+
+        when(principal.getName()).thenReturn("regularUser");
+        when(customerRepository.findByUsername("regularUser")).thenReturn(Optional.of(regularCustomer));
+        when(orderRepository.findAssetNamesByCustomerIdAndStatus(1L, OrderStatus.PENDING)).thenReturn(List.of("aapl"));
+        when(matchService.cancelAll("AAPL", 1L)).thenReturn(List.of(buy, sell));
+        when(matchService.cancelAll(any(Sequencer.class), eq(1L))).thenReturn(List.of());
+
+        // Act
+        BulkCancelResult result = orderService.cancelOrders(request, principal).join();
+
+        // Assert
+        assertEquals(2, result.getCanceledCount());
+        assertTrue(result.getRejectedOrders().isEmpty());
+        assertEquals(OrderStatus.CANCELED, sell.getStatus());
+        verify(matchService, times(sequencer.shardCount())).cancelAll(any(Sequencer.class), eq(1L));
+        verify(assetService).releaseCash(1L, 1500 * FixedPoint.ONE);
+        verify(assetService).releaseStock(1L, "AAPL", 10 * FixedPoint.ONE);
+        verify(journal).flush();
+    }
+
+    @Test
+    void cancelOrders_AllForAsset_AsAdmin_ShouldCancelAcrossCustomers() {
+        // Arrange
+        Order first = createOrder(1L, 1L, OrderSide.SELL, "AAPL");
+        Order second = createOrder(2L, 3L, OrderSide.SELL, "AAPL");
+        BulkCancelRequest request = new BulkCancelRequest();
+        request.setAssetName("AAPL");
+
+        when(principal.getName()).thenReturn("adminUser");
+        when(customerRepository.findByUsername("adminUser")).thenReturn(Optional.of(adminCustomer));
+        when(matchService.cancelAll("AAPL", null)).thenReturn(List.of(first, second));
+
+        // Act
+        BulkCancelResult result = orderService.cancelOrders(request, principal).join();
+
+        // Assert
+        assertEquals(2, result.getCanceledCount());
+        verify(assetService).releaseStock(1L, "AAPL", 10 * FixedPoint.ONE);
+        verify(assetService).releaseStock(3L, "AAPL", 10 * FixedPoint.ONE);
+        verifyNoInteractions(orderRepository);
+    }
+
+    @Test
+    void cancelOrders_AllForCustomer_ShouldCancelOrdersNotYetProjected() {
+        // Arrange
+        startPipelineWithBooks();
+        when(principal.getName()).thenReturn("regularUser");
+        when(customerRepository.findByUsername("regularUser")).thenReturn(Optional.of(regularCustomer));
+        when(orderIds.next()).thenReturn(100L, 101L);
+        orderService.createOrder(buyOrderRequest, principal).join();
+        orderService.createOrder(createRequest("GOOG", OrderSide.BUY, "5", "100"), principal).join();
+
+        // Act
+        BulkCancelResult result = orderService.cancelOrders(new BulkCancelRequest(), principal).join();
+
+        // Assert
+        assertEquals(List.of(100L, 101L), result.getCanceledOrderIds().stream().sorted().toList());
+        verify(assetService).releaseCash(1L, 2000 * FixedPoint.ONE);
+        verify(journal, times(2)).append(argThat(event -> event.getType() == JournalEventType.ORDER_CANCELED));
+    }
+
+    @Test
+    void cancelOrders_AllForAsset_ShouldCancelOrdersNotYetProjected() {
+        // Arrange
+        startPipelineWithBooks();
+        when(principal.getName()).thenReturn("regularUser");
+        when(customerRepository.findByUsername("regularUser")).thenReturn(Optional.of(regularCustomer));
+        when(orderIds.next()).thenReturn(100L, 101L);
+        orderService.createOrder(buyOrderRequest, principal).join();
+        orderService.createOrder(createRequest("GOOG", OrderSide.BUY, "5", "100"), principal).join();
+        BulkCancelRequest request = new BulkCancelRequest();
+        request.setAssetName("aapl");
+
+        // Act
+        BulkCancelResult result = orderService.cancelOrders(request, principal).join();
+
+        // Assert
+        assertEquals(List.of(100L), result.getCanceledOrderIds());
+        verify(assetService).releaseCash(1L, 1500 * FixedPoint.ONE);
+        verify(orderRepository, never()).findAssetNamesByCustomerIdAndStatus(any(), any());
+    }
+
+    @Test
+    void cancelOrders_AsAdminWithoutFilter_ShouldThrowException() {
+        // Arrange
+        when(principal.getName()).thenReturn("adminUser");
+        when(customerRepository.findByUsername("adminUser")).thenReturn(Optional.of(adminCustomer));
+
+        // Act & Assert
+        CompletionException e = assertThrows(CompletionException.class,
+                () -> orderService.cancelOrders(new BulkCancelRequest(), principal).join());
+        assertInstanceOf(IllegalArgumentException.class, e.getCause());
+        verifyNoInteractions(matchService);
     }
 
     @Test
@@ -294,7 +691,7 @@ class OrderServiceTest {
         when(orderRepository.findById(1L)).thenReturn(Optional.of(pendingOrder));
 
         // Act & Assert
-        assertThrows(RuntimeException.class, () -> orderService.cancelOrder(1L, principal));
+        assertThrows(CompletionException.class, () -> orderService.cancelOrder(1L, principal).join());
     }
 
     @Test
@@ -310,7 +707,7 @@ class OrderServiceTest {
         when(orderRepository.findById(1L)).thenReturn(Optional.of(completedOrder));
 
         // Act & Assert
-        assertThrows(RuntimeException.class, () -> orderService.cancelOrder(1L, principal));
+        assertThrows(CompletionException.class, () -> orderService.cancelOrder(1L, principal).join());
     }
 
     @Test
@@ -327,13 +724,87 @@ class OrderServiceTest {
         when(principal.getName()).thenReturn("regularUser");
         when(customerRepository.findByUsername("regularUser")).thenReturn(Optional.of(regularCustomer));
         when(orderRepository.findById(1L)).thenReturn(Optional.of(sellOrder));
+        when(matchService.cancel(sellOrder)).thenReturn(Optional.of(sellOrder));
 
         // Act
-        orderService.cancelOrder(1L, principal);
+        orderService.cancelOrder(1L, principal).join();
 
         // Assert
         assertEquals(OrderStatus.CANCELED, sellOrder.getStatus());
-        verify(assetService).releaseStock(1L, "AAPL", BigDecimal.TEN);
-        verify(orderRepository).save(sellOrder);
+        verify(assetService).releaseStock(1L, "AAPL", 10 * FixedPoint.ONE);
+        verify(journal).append(argThat(event -> event.getType() == JournalEventType.ORDER_CANCELED));
+        verify(orderRepository, never()).save(sellOrder);
+    }
+
+    @Test
+    void cancelOrder_PartiallyFilled_ShouldReleaseOnlyRemaining() {
+        // Arrange
+        Order buyOrder = new Order();
+        buyOrder.setId(1L);
+        buyOrder.setCustomerId(1L);
+        buyOrder.setOrderSide(OrderSide.BUY);
+        buyOrder.setAssetName("AAPL");
+        buyOrder.setSize(BigDecimal.TEN);
+        buyOrder.setFilledSize(BigDecimal.valueOf(4));
+        buyOrder.setPrice(BigDecimal.valueOf(150));
+        buyOrder.setStatus(OrderStatus.PENDING);
+
+        when(principal.getName()).thenReturn("regularUser");
+        when(customerRepository.findByUsername("regularUser")).thenReturn(Optional.of(regularCustomer));
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(buyOrder));
+        when(matchService.cancel(buyOrder)).thenReturn(Optional.of(buyOrder));
+
+        // Act
+        orderService.cancelOrder(1L, principal).join();
+
+        // Assert
+        verify(assetService).releaseCash(1L, 900 * FixedPoint.ONE);
+    }
+
+    @Test
+    void cancelOrder_AlreadyMatchedInBook_ShouldThrowAndReleaseNothing() {
+        // Arrange
+        Order pendingOrder = new Order();
+        pendingOrder.setId(1L);
+        pendingOrder.setCustomerId(1L);
+        pendingOrder.setAssetName("AAPL");
+        pendingOrder.setStatus(OrderStatus.PENDING);
+
+        when(principal.getName()).thenReturn("regularUser");
+        when(customerRepository.findByUsername("regularUser")).thenReturn(Optional.of(regularCustomer));
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(pendingOrder));
+        when(matchService.cancel(pendingOrder)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(CompletionException.class, () -> orderService.cancelOrder(1L, principal).join());
+        verifyNoInteractions(assetService);
+    }
+
+    private Order createOrder(Long id, Long customerId, OrderSide side, String assetName) {
+        Order order = new Order();
+        order.setId(id);
+        order.setCustomerId(customerId);
+        order.setOrderSide(side);
+        order.setAssetName(assetName);
+        order.setSize(BigDecimal.TEN);
+        order.setPrice(BigDecimal.valueOf(150));
+        order.setStatus(OrderStatus.PENDING);
+        return order;
+    }
+
+    private CreateOrderRequest createRequest(String assetName, OrderSide side, String size, String price) {
+        CreateOrderRequest request = new CreateOrderRequest();
+        request.setAssetName(assetName);
+        request.setOrderSide(side);
+        request.setSize(new BigDecimal(size));
+        request.setPrice(new BigDecimal(price));
+        return request;
+    }
+
+    private Order pageOrder(Long id, LocalDateTime createDate) {
+        Order order = new Order();
+        order.setId(id);
+        order.setCreateDate(createDate);
+        return order;
     }
-}
\ No newline at end of file
+}
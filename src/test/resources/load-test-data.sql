@@ -0,0 +1,24 @@
+-- Yük testi kullanıcıları: load1 ... load1000 (şifresi: user123)
+-- Numaralar sequence'lerin üretebileceği aralığın dışında tutulur
+INSERT INTO customers (id, username, password)
+SELECT 1000000 + X, 'load' || X, '$2a$10$qYZhUto.DS13ffBaLuI1YOYsSMyAOZd3J2qM6EXMvjWEpBt8b20DK'
+FROM SYSTEM_RANGE(1, 1000);
+
+INSERT INTO customer_roles (customer_id, roles)
+SELECT 1000000 + X, 'USER' FROM SYSTEM_RANGE(1, 1000);
+
+-- Her kullanıcı tüm yük testi hisselerini taşır, eşleşmelerde yeni bakiye satırı açılmaz
+INSERT INTO assets (id, customer_id, asset_name, size, usable_size)
+SELECT 1000000 + X * 10, 1000000 + X, 'TRY', 100000000, 100000000 FROM SYSTEM_RANGE(1, 1000);
+
+INSERT INTO assets (id, customer_id, asset_name, size, usable_size)
+SELECT 1000000 + X * 10 + 1, 1000000 + X, 'THYAO', 1000000, 1000000 FROM SYSTEM_RANGE(1, 1000);
+
+INSERT INTO assets (id, customer_id, asset_name, size, usable_size)
+SELECT 1000000 + X * 10 + 2, 1000000 + X, 'GARAN', 1000000, 1000000 FROM SYSTEM_RANGE(1, 1000);
+
+INSERT INTO assets (id, customer_id, asset_name, size, usable_size)
+SELECT 1000000 + X * 10 + 3, 1000000 + X, 'ASELS', 1000000, 1000000 FROM SYSTEM_RANGE(1, 1000);
+
+INSERT INTO assets (id, customer_id, asset_name, size, usable_size)
+SELECT 1000000 + X * 10 + 4, 1000000 + X, 'NYMN', 1000000, 1000000 FROM SYSTEM_RANGE(1, 1000);